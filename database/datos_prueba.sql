@@ -0,0 +1,157 @@
+-- Datos de prueba para esquema.sql
+-- Base de datos: Oracle (también H2 o HSQLDB en modo Oracle)
+-- Proyecto: Sistema de Inspecciones Fitosanitarias
+-- Los ids de departamento, municipio y vereda son numéricos porque los paneles de
+-- división territorial generan el siguiente con NVL(MAX(id), 0) + 1.
+
+-- División territorial
+INSERT INTO departamento (id, nombre) VALUES ('1', 'Antioquia');
+INSERT INTO departamento (id, nombre) VALUES ('2', 'Caldas');
+INSERT INTO departamento (id, nombre) VALUES ('3', 'Valle del Cauca');
+
+INSERT INTO municipio (id, nombre, id_departamento) VALUES ('1', 'Rionegro', '1');
+INSERT INTO municipio (id, nombre, id_departamento) VALUES ('2', 'Jardín', '1');
+INSERT INTO municipio (id, nombre, id_departamento) VALUES ('3', 'Chinchiná', '2');
+INSERT INTO municipio (id, nombre, id_departamento) VALUES ('4', 'Tuluá', '3');
+
+INSERT INTO vereda (id, nombre, id_municipio) VALUES ('1', 'Abreo', '1');
+INSERT INTO vereda (id, nombre, id_municipio) VALUES ('2', 'Cabeceras', '1');
+INSERT INTO vereda (id, nombre, id_municipio) VALUES ('3', 'La Salada', '2');
+INSERT INTO vereda (id, nombre, id_municipio) VALUES ('4', 'El Trébol', '3');
+INSERT INTO vereda (id, nombre, id_municipio) VALUES ('5', 'La Moravia', '4');
+
+-- Usuarios
+INSERT INTO usuarios (id, rol, numero_identificacion, nombre, telefono_contacto, correo_electronico)
+    VALUES ('U-001', 'Propietario', '1020304050', 'María Fernanda Ríos', '3001234567', 'maria.rios@correo.com');
+INSERT INTO usuarios (id, rol, numero_identificacion, nombre, telefono_contacto, correo_electronico)
+    VALUES ('U-002', 'Propietario', '70112233', 'Jorge Iván Mejía', '3109876543', 'jorge.mejia@correo.com');
+INSERT INTO usuarios (id, rol, numero_identificacion, nombre, telefono_contacto, correo_electronico)
+    VALUES ('U-003', 'Productor', '43556677', 'Luz Dary Gómez', '3152223344', 'luz.gomez@correo.com');
+INSERT INTO usuarios (id, rol, numero_identificacion, nombre, telefono_contacto, correo_electronico)
+    VALUES ('U-004', 'Productor', '98765432', 'Carlos Andrés Zapata', '3124445566', 'carlos.zapata@correo.com');
+INSERT INTO usuarios (id, rol, numero_identificacion, nombre, telefono_contacto, correo_electronico)
+    VALUES ('U-005', 'Asistente Técnico', '1037000111', 'Ana Milena Castaño', '3017778899', 'ana.castano@ica.gov.co');
+INSERT INTO usuarios (id, rol, numero_identificacion, nombre, telefono_contacto, correo_electronico)
+    VALUES ('U-006', 'Asistente Técnico', '1037000222', 'Julián Restrepo', '3018889900', 'julian.restrepo@ica.gov.co');
+
+INSERT INTO permisos_usuario (id_usuario, permiso) VALUES ('U-005', 'REGISTRAR_INSPECCION');
+INSERT INTO permisos_usuario (id_usuario, permiso) VALUES ('U-005', 'GENERAR_INFORME');
+INSERT INTO permisos_usuario (id_usuario, permiso) VALUES ('U-006', 'REGISTRAR_INSPECCION');
+
+INSERT INTO propietario (id, nombre, rol, direccion, correo_electronico)
+    VALUES ('U-001', 'María Fernanda Ríos', 'Propietario', 'Calle 45 # 12-30, Rionegro', 'maria.rios@correo.com');
+INSERT INTO propietario (id, nombre, rol, direccion, correo_electronico)
+    VALUES ('U-002', 'Jorge Iván Mejía', 'Propietario', 'Carrera 8 # 5-21, Chinchiná', 'jorge.mejia@correo.com');
+
+INSERT INTO propietarios (id) VALUES ('U-001');
+INSERT INTO propietarios (id) VALUES ('U-002');
+
+INSERT INTO productores (id) VALUES ('U-003');
+INSERT INTO productores (id) VALUES ('U-004');
+
+INSERT INTO asistentes_tecnicos (id, numero_tarjeta_profesional) VALUES ('U-005', 'TP-05123');
+INSERT INTO asistentes_tecnicos (id, numero_tarjeta_profesional) VALUES ('U-006', 'TP-05456');
+
+-- Predios y producción
+INSERT INTO predios (id, codigo_ica, direccion, area, latitud, longitud, id_propietario, id_vereda, cod_lugar_produccion)
+    VALUES ('P-001', 'ICA-05615-001', 'Finca La Esperanza', 12.5, 6.155300, -75.374200, 'U-001', '1', 'LP-001');
+INSERT INTO predios (id, codigo_ica, direccion, area, latitud, longitud, id_propietario, id_vereda, cod_lugar_produccion)
+    VALUES ('P-002', 'ICA-05615-002', 'Finca El Roble', 8.0, 6.162100, -75.401500, 'U-001', '2', 'LP-002');
+INSERT INTO predios (id, codigo_ica, direccion, area, latitud, longitud, id_propietario, id_vereda, cod_lugar_produccion)
+    VALUES ('P-003', 'ICA-05364-001', 'Finca Los Naranjos', 20.0, 5.598700, -75.819600, 'U-002', '3', 'LP-003');
+INSERT INTO predios (id, codigo_ica, direccion, area, latitud, longitud, id_propietario, id_vereda, cod_lugar_produccion)
+    VALUES ('P-004', 'ICA-17174-001', 'Finca Buenavista', 15.3, 4.982400, -75.603100, 'U-002', '4', 'LP-004');
+INSERT INTO predios (id, codigo_ica, direccion, area, latitud, longitud, id_propietario, id_vereda, cod_lugar_produccion)
+    VALUES ('P-005', 'ICA-76834-001', 'Finca San Rafael', 30.0, 4.084700, -76.195600, 'U-001', '5', NULL);
+
+INSERT INTO lugares_produccion (id, codigo_ica, id_predio, id_productor, id_asistente_tecnico)
+    VALUES ('LP-001', 'ICA-05615-001', 'P-001', 'U-003', 'U-005');
+INSERT INTO lugares_produccion (id, codigo_ica, id_predio, id_productor, id_asistente_tecnico)
+    VALUES ('LP-002', 'ICA-05615-002', 'P-002', 'U-003', 'U-005');
+INSERT INTO lugares_produccion (id, codigo_ica, id_predio, id_productor, id_asistente_tecnico)
+    VALUES ('LP-003', 'ICA-05364-001', 'P-003', 'U-004', 'U-006');
+INSERT INTO lugares_produccion (id, codigo_ica, id_predio, id_productor, id_asistente_tecnico)
+    VALUES ('LP-004', 'ICA-17174-001', 'P-004', 'U-004', 'U-006');
+
+INSERT INTO lotes (id, descripcion, extension, id_lugar_produccion) VALUES ('L-001', 'Lote alto', 4.5, 'LP-001');
+INSERT INTO lotes (id, descripcion, extension, id_lugar_produccion) VALUES ('L-002', 'Lote de la quebrada', 3.0, 'LP-001');
+INSERT INTO lotes (id, descripcion, extension, id_lugar_produccion) VALUES ('L-003', 'Lote principal', 8.0, 'LP-002');
+INSERT INTO lotes (id, descripcion, extension, id_lugar_produccion) VALUES ('L-004', 'Lote norte', 10.0, 'LP-003');
+INSERT INTO lotes (id, descripcion, extension, id_lugar_produccion) VALUES ('L-005', 'Lote sur', 7.5, 'LP-004');
+
+INSERT INTO cultivos (id, nombre_variedad, nombre_cultivo, especie_vegetal, descripcion)
+    VALUES ('C-001', 'Hass', 'Aguacate', 'Persea americana', 'Aguacate de exportación');
+INSERT INTO cultivos (id, nombre_variedad, nombre_cultivo, especie_vegetal, descripcion)
+    VALUES ('C-002', 'Castillo', 'Café', 'Coffea arabica', 'Variedad resistente a la roya');
+INSERT INTO cultivos (id, nombre_variedad, nombre_cultivo, especie_vegetal, descripcion)
+    VALUES ('C-003', 'Valencia', 'Naranja', 'Citrus sinensis', 'Cítrico de mesa y jugo');
+
+INSERT INTO lote_cultivo (id_lote, id_cultivo) VALUES ('L-001', 'C-001');
+INSERT INTO lote_cultivo (id_lote, id_cultivo) VALUES ('L-002', 'C-001');
+INSERT INTO lote_cultivo (id_lote, id_cultivo) VALUES ('L-003', 'C-001');
+INSERT INTO lote_cultivo (id_lote, id_cultivo) VALUES ('L-004', 'C-003');
+INSERT INTO lote_cultivo (id_lote, id_cultivo) VALUES ('L-005', 'C-002');
+
+INSERT INTO plagas (id, nombre_comun, nombre_cientifico, descripcion)
+    VALUES ('PL-001', 'Roya del café', 'Hemileia vastatrix', 'Hongo que causa manchas anaranjadas en el envés de la hoja');
+INSERT INTO plagas (id, nombre_comun, nombre_cientifico, descripcion)
+    VALUES ('PL-002', 'Broca del café', 'Hypothenemus hampei', 'Escarabajo que perfora el grano');
+INSERT INTO plagas (id, nombre_comun, nombre_cientifico, descripcion)
+    VALUES ('PL-003', 'Pasador del fruto', 'Stenoma catenifer', 'Larva que barrena el fruto del aguacate');
+INSERT INTO plagas (id, nombre_comun, nombre_cientifico, descripcion)
+    VALUES ('PL-004', 'Mosca de la fruta', 'Anastrepha fraterculus', 'Díptero que oviposita en frutos maduros');
+
+INSERT INTO cultivo_plaga (id_cultivo, id_plaga) VALUES ('C-002', 'PL-001');
+INSERT INTO cultivo_plaga (id_cultivo, id_plaga) VALUES ('C-002', 'PL-002');
+INSERT INTO cultivo_plaga (id_cultivo, id_plaga) VALUES ('C-001', 'PL-003');
+INSERT INTO cultivo_plaga (id_cultivo, id_plaga) VALUES ('C-003', 'PL-004');
+
+-- Inspecciones, resultados, informes y alertas
+INSERT INTO inspecciones_fitosanitarias (id, codigo_ica, fecha_inspeccion, id_asistente_tecnico)
+    VALUES ('I-001', 'ICA-05615-001', DATE '2026-09-02', 'U-005');
+INSERT INTO inspecciones_fitosanitarias (id, codigo_ica, fecha_inspeccion, id_asistente_tecnico)
+    VALUES ('I-002', 'ICA-05615-002', DATE '2026-09-10', 'U-005');
+INSERT INTO inspecciones_fitosanitarias (id, codigo_ica, fecha_inspeccion, id_asistente_tecnico)
+    VALUES ('I-003', 'ICA-05364-001', DATE '2026-09-18', 'U-006');
+INSERT INTO inspecciones_fitosanitarias (id, codigo_ica, fecha_inspeccion, id_asistente_tecnico)
+    VALUES ('I-004', 'ICA-17174-001', DATE '2026-10-01', 'U-006');
+
+INSERT INTO inspeccion_lote (id_inspeccion, id_lote) VALUES ('I-001', 'L-001');
+INSERT INTO inspeccion_lote (id_inspeccion, id_lote) VALUES ('I-001', 'L-002');
+INSERT INTO inspeccion_lote (id_inspeccion, id_lote) VALUES ('I-002', 'L-003');
+INSERT INTO inspeccion_lote (id_inspeccion, id_lote) VALUES ('I-003', 'L-004');
+INSERT INTO inspeccion_lote (id_inspeccion, id_lote) VALUES ('I-004', 'L-005');
+
+INSERT INTO informes_fitosanitarios (id, codigo_ica, total_plantas_evaluadas, nivel_incidencia, observaciones, fecha_informe)
+    VALUES ('INF-001', 'ICA-05615-001', 400, 3.5, 'Presencia baja de pasador del fruto', DATE '2026-09-03');
+INSERT INTO informes_fitosanitarios (id, codigo_ica, total_plantas_evaluadas, nivel_incidencia, observaciones, fecha_informe)
+    VALUES ('INF-002', 'ICA-05615-002', 250, 12.0, 'Incidencia media; se recomienda control', DATE '2026-09-11');
+INSERT INTO informes_fitosanitarios (id, codigo_ica, total_plantas_evaluadas, nivel_incidencia, observaciones, fecha_informe)
+    VALUES ('INF-003', 'ICA-05364-001', 300, 24.0, 'Mosca de la fruta en frutos maduros', DATE '2026-09-19');
+INSERT INTO informes_fitosanitarios (id, codigo_ica, total_plantas_evaluadas, nivel_incidencia, observaciones, fecha_informe)
+    VALUES ('INF-004', 'ICA-17174-001', 500, 41.0, 'Roya extendida en todo el lote', DATE '2026-10-02');
+
+INSERT INTO resultados_tecnicos (id, total_plantas_evaluadas, plantas_afectadas, observaciones, id_inspeccion, id_informe)
+    VALUES ('R-001', 400, 14, 'Frutos con orificios de salida', 'I-001', 'INF-001');
+INSERT INTO resultados_tecnicos (id, total_plantas_evaluadas, plantas_afectadas, observaciones, id_inspeccion, id_informe)
+    VALUES ('R-002', 250, 30, 'Daño en frutos del tercio inferior', 'I-002', 'INF-002');
+INSERT INTO resultados_tecnicos (id, total_plantas_evaluadas, plantas_afectadas, observaciones, id_inspeccion, id_informe)
+    VALUES ('R-003', 300, 72, 'Larvas en frutos caídos', 'I-003', 'INF-003');
+INSERT INTO resultados_tecnicos (id, total_plantas_evaluadas, plantas_afectadas, observaciones, id_inspeccion, id_informe)
+    VALUES ('R-004', 500, 205, 'Defoliación avanzada', 'I-004', 'INF-004');
+
+INSERT INTO resultado_plaga (id_resultado, id_plaga) VALUES ('R-001', 'PL-003');
+INSERT INTO resultado_plaga (id_resultado, id_plaga) VALUES ('R-002', 'PL-003');
+INSERT INTO resultado_plaga (id_resultado, id_plaga) VALUES ('R-003', 'PL-004');
+INSERT INTO resultado_plaga (id_resultado, id_plaga) VALUES ('R-004', 'PL-001');
+INSERT INTO resultado_plaga (id_resultado, id_plaga) VALUES ('R-004', 'PL-002');
+
+INSERT INTO resultado_cultivo (id_resultado, id_cultivo) VALUES ('R-001', 'C-001');
+INSERT INTO resultado_cultivo (id_resultado, id_cultivo) VALUES ('R-002', 'C-001');
+INSERT INTO resultado_cultivo (id_resultado, id_cultivo) VALUES ('R-003', 'C-003');
+INSERT INTO resultado_cultivo (id_resultado, id_cultivo) VALUES ('R-004', 'C-002');
+
+INSERT INTO alertas (id, nivel_riesgo, id_informe) VALUES ('A-001', 'Bajo', 'INF-001');
+INSERT INTO alertas (id, nivel_riesgo, id_informe) VALUES ('A-002', 'Medio', 'INF-002');
+INSERT INTO alertas (id, nivel_riesgo, id_informe) VALUES ('A-003', 'Alto', 'INF-003');
+INSERT INTO alertas (id, nivel_riesgo, id_informe) VALUES ('A-004', 'Crítico', 'INF-004');
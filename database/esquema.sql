@@ -0,0 +1,180 @@
+-- Esquema de todas las tablas que usan los DAOs
+-- Base de datos: Oracle (también H2 o HSQLDB en modo Oracle, ver dao.ConfiguracionBD)
+-- Proyecto: Sistema de Inspecciones Fitosanitarias
+-- Lo ejecuta dao.InicializadorBD al arrancar en modo embebido; en Oracle se puede correr
+-- en un esquema vacío.
+
+-- División territorial
+CREATE TABLE departamento (
+    id VARCHAR2(20) PRIMARY KEY,
+    nombre VARCHAR2(100) NOT NULL
+);
+
+CREATE TABLE municipio (
+    id VARCHAR2(20) PRIMARY KEY,
+    nombre VARCHAR2(100) NOT NULL,
+    id_departamento VARCHAR2(20) REFERENCES departamento (id)
+);
+CREATE INDEX idx_municipio_departamento ON municipio (id_departamento);
+
+CREATE TABLE vereda (
+    id VARCHAR2(20) PRIMARY KEY,
+    nombre VARCHAR2(100) NOT NULL,
+    id_municipio VARCHAR2(20) REFERENCES municipio (id)
+);
+CREATE INDEX idx_vereda_municipio ON vereda (id_municipio);
+
+-- Usuarios y sus roles (cada rol comparte el id del usuario)
+CREATE TABLE usuarios (
+    id VARCHAR2(50) PRIMARY KEY,
+    rol VARCHAR2(50),
+    numero_identificacion VARCHAR2(50) UNIQUE,
+    nombre VARCHAR2(200),
+    telefono_contacto VARCHAR2(20),
+    correo_electronico VARCHAR2(100)
+);
+
+CREATE TABLE permisos_usuario (
+    id_usuario VARCHAR2(50) NOT NULL REFERENCES usuarios (id),
+    permiso VARCHAR2(100) NOT NULL,
+    PRIMARY KEY (id_usuario, permiso)
+);
+
+CREATE TABLE propietario (
+    id VARCHAR2(50) PRIMARY KEY,
+    nombre VARCHAR2(200),
+    rol VARCHAR2(50),
+    direccion VARCHAR2(200),
+    correo_electronico VARCHAR2(100)
+);
+
+CREATE TABLE propietarios (
+    id VARCHAR2(50) PRIMARY KEY REFERENCES usuarios (id)
+);
+
+CREATE TABLE productores (
+    id VARCHAR2(50) PRIMARY KEY REFERENCES usuarios (id)
+);
+
+CREATE TABLE asistentes_tecnicos (
+    id VARCHAR2(50) PRIMARY KEY REFERENCES usuarios (id),
+    numero_tarjeta_profesional VARCHAR2(50)
+);
+
+-- Predios y producción
+CREATE TABLE predios (
+    id VARCHAR2(50) PRIMARY KEY,
+    codigo_ica VARCHAR2(50),
+    direccion VARCHAR2(200),
+    area NUMBER(12, 2),
+    latitud NUMBER(10, 6),
+    longitud NUMBER(10, 6),
+    id_propietario VARCHAR2(50),
+    id_vereda VARCHAR2(20) REFERENCES vereda (id),
+    cod_lugar_produccion VARCHAR2(50)
+);
+CREATE INDEX idx_predios_codigo_ica ON predios (codigo_ica);
+CREATE INDEX idx_predios_propietario ON predios (id_propietario);
+CREATE INDEX idx_predios_vereda ON predios (id_vereda);
+
+CREATE TABLE lugares_produccion (
+    id VARCHAR2(50) PRIMARY KEY,
+    codigo_ica VARCHAR2(50),
+    id_predio VARCHAR2(50) REFERENCES predios (id),
+    id_productor VARCHAR2(50) REFERENCES productores (id),
+    id_asistente_tecnico VARCHAR2(50) REFERENCES asistentes_tecnicos (id)
+);
+CREATE INDEX idx_lugares_codigo_ica ON lugares_produccion (codigo_ica);
+CREATE INDEX idx_lugares_predio ON lugares_produccion (id_predio);
+
+CREATE TABLE lotes (
+    id VARCHAR2(50) PRIMARY KEY,
+    descripcion VARCHAR2(200),
+    extension NUMBER(12, 2),
+    id_lugar_produccion VARCHAR2(50) REFERENCES lugares_produccion (id)
+);
+
+CREATE TABLE cultivos (
+    id VARCHAR2(50) PRIMARY KEY,
+    nombre_variedad VARCHAR2(100),
+    nombre_cultivo VARCHAR2(100),
+    especie_vegetal VARCHAR2(100),
+    descripcion VARCHAR2(400)
+);
+
+CREATE TABLE lote_cultivo (
+    id_lote VARCHAR2(50) NOT NULL REFERENCES lotes (id),
+    id_cultivo VARCHAR2(50) NOT NULL REFERENCES cultivos (id),
+    PRIMARY KEY (id_lote, id_cultivo)
+);
+
+CREATE TABLE plagas (
+    id VARCHAR2(50) PRIMARY KEY,
+    nombre_comun VARCHAR2(100),
+    nombre_cientifico VARCHAR2(100),
+    descripcion VARCHAR2(400)
+);
+
+CREATE TABLE cultivo_plaga (
+    id_cultivo VARCHAR2(50) NOT NULL REFERENCES cultivos (id),
+    id_plaga VARCHAR2(50) NOT NULL REFERENCES plagas (id),
+    PRIMARY KEY (id_cultivo, id_plaga)
+);
+
+-- Inspecciones, resultados, informes y alertas
+CREATE TABLE inspecciones_fitosanitarias (
+    id VARCHAR2(50) PRIMARY KEY,
+    codigo_ica VARCHAR2(50),
+    fecha_inspeccion DATE,
+    id_asistente_tecnico VARCHAR2(50) REFERENCES asistentes_tecnicos (id)
+);
+CREATE INDEX idx_inspecciones_codigo_ica ON inspecciones_fitosanitarias (codigo_ica);
+CREATE INDEX idx_inspecciones_fecha ON inspecciones_fitosanitarias (fecha_inspeccion);
+
+CREATE TABLE inspeccion_lote (
+    id_inspeccion VARCHAR2(50) NOT NULL REFERENCES inspecciones_fitosanitarias (id),
+    id_lote VARCHAR2(50) NOT NULL REFERENCES lotes (id),
+    PRIMARY KEY (id_inspeccion, id_lote)
+);
+
+CREATE TABLE informes_fitosanitarios (
+    id VARCHAR2(50) PRIMARY KEY,
+    codigo_ica VARCHAR2(50),
+    total_plantas_evaluadas NUMBER(10),
+    nivel_incidencia NUMBER(8, 4),
+    observaciones VARCHAR2(400),
+    fecha_informe DATE
+);
+CREATE INDEX idx_informes_fecha ON informes_fitosanitarios (fecha_informe);
+
+CREATE TABLE resultados_tecnicos (
+    id VARCHAR2(50) PRIMARY KEY,
+    total_plantas_evaluadas NUMBER(10),
+    plantas_afectadas NUMBER(10),
+    observaciones VARCHAR2(400),
+    id_inspeccion VARCHAR2(50) REFERENCES inspecciones_fitosanitarias (id),
+    id_informe VARCHAR2(50) REFERENCES informes_fitosanitarios (id)
+);
+CREATE INDEX idx_resultados_inspeccion ON resultados_tecnicos (id_inspeccion);
+CREATE INDEX idx_resultados_informe ON resultados_tecnicos (id_informe);
+
+CREATE TABLE resultado_plaga (
+    id_resultado VARCHAR2(50) NOT NULL REFERENCES resultados_tecnicos (id),
+    id_plaga VARCHAR2(50) NOT NULL REFERENCES plagas (id),
+    PRIMARY KEY (id_resultado, id_plaga)
+);
+CREATE INDEX idx_resultado_plaga_plaga ON resultado_plaga (id_plaga);
+
+CREATE TABLE resultado_cultivo (
+    id_resultado VARCHAR2(50) NOT NULL REFERENCES resultados_tecnicos (id),
+    id_cultivo VARCHAR2(50) NOT NULL REFERENCES cultivos (id),
+    PRIMARY KEY (id_resultado, id_cultivo)
+);
+
+CREATE TABLE alertas (
+    id VARCHAR2(50) PRIMARY KEY,
+    nivel_riesgo VARCHAR2(20),
+    id_informe VARCHAR2(50) REFERENCES informes_fitosanitarios (id)
+);
+CREATE INDEX idx_alertas_nivel ON alertas (nivel_riesgo);
+CREATE INDEX idx_alertas_informe ON alertas (id_informe);
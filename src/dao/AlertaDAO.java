@@ -4,7 +4,9 @@ import model.Alerta;
 import model.InformeFitosanitario;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para la gestión de alertas fitosanitarias en la base de datos.
@@ -182,11 +184,13 @@ public class AlertaDAO extends GenericDAO {
     }
 
     /**
-     * Lista las alertas activas (de alto riesgo).
+     * Lista las alertas activas (de alto riesgo). La tabla no guarda la región, así que se
+     * toma la vereda del predio del informe (vacía si la alerta no tiene informe).
      */
     public List<Alerta> listarAlertasActivas() {
         List<Alerta> lista = new ArrayList<>();
-        String sql = "SELECT a.*, i.codigo_ica, i.nivel_incidencia, i.fecha_informe " +
+        String sql = "SELECT a.*, i.codigo_ica, i.nivel_incidencia, i.fecha_informe, " +
+                     "(SELECT MIN(p.id_vereda) FROM predios p WHERE p.codigo_ica = i.codigo_ica) AS id_vereda " +
                      "FROM alertas a " +
                      "LEFT JOIN informes_fitosanitarios i ON a.id_informe = i.id " +
                      "WHERE a.nivel_riesgo IN ('Alto', 'Crítico') " +
@@ -198,7 +202,12 @@ public class AlertaDAO extends GenericDAO {
             rs = ps.executeQuery();
             
             while (rs.next()) {
-                lista.add(construirAlerta(rs));
+                Alerta alerta = construirAlerta(rs);
+                String idVereda = rs.getString("id_vereda");
+                if (idVereda != null) {
+                    alerta.setRegion(idVereda);
+                }
+                lista.add(alerta);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -256,6 +265,31 @@ public class AlertaDAO extends GenericDAO {
         return estadisticas;
     }
 
+    /**
+     * Cantidad de alertas por nivel de riesgo, con una sola consulta agrupada.
+     * Devuelve null si no se pudo consultar.
+     */
+    public Map<String, Integer> contarPorNivel() {
+        Map<String, Integer> totales = new HashMap<>();
+        String sql = "SELECT nivel_riesgo, COUNT(*) as total FROM alertas GROUP BY nivel_riesgo";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                totales.put(rs.getString("nivel_riesgo"), rs.getInt("total"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return totales;
+    }
+
     /**
      * Construye un objeto Alerta a partir de un ResultSet.
      */
@@ -270,7 +304,7 @@ public class AlertaDAO extends GenericDAO {
             informe.setId(rs.getString("id_informe"));
             informe.setCodigoIca(rs.getString("codigo_ica"));
             informe.setNivelIncidencia(rs.getDouble("nivel_incidencia"));
-            informe.setFechaInforme(rs.getString("fecha_informe"));
+            informe.setFechaInforme(leerFecha(rs, "fecha_informe"));
             alerta.agregarInformeFitosanitario(informe);
         }
         
@@ -247,7 +247,7 @@ public class AsistenteTecnicoDAO extends UsuarioDAO {
                 InspeccionFitosanitaria inspeccion = new InspeccionFitosanitaria();
                 inspeccion.setId(rs.getString("id"));
                 inspeccion.setCodigoIca(rs.getString("codigo_ica"));
-                inspeccion.setFechaInspeccion(rs.getString("fecha_inspeccion"));
+                inspeccion.setFechaInspeccion(leerFecha(rs, "fecha_inspeccion"));
                 inspecciones.add(inspeccion);
             }
         } catch (SQLException e) {
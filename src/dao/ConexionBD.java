@@ -1,47 +1,67 @@
 package dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import javax.sql.DataSource;
 
+/**
+ * Acceso a la BD. Todos los DAOs reciben la misma conexión, que por dentro toma y devuelve
+ * conexiones de un pool (ver ConexionCompartida), así varios hilos consultan a la vez.
+ * Los datos de conexión salen de ConfiguracionBD; en modo embebido la BD se crea y se
+ * llena con InicializadorBD al cargar esta clase.
+ */
 public class ConexionBD {
     // Método de prueba para verificar la conexión
     public static void main(String[] args) {
         Connection conn = getConexion();
-        if (conn != null) {
+        boolean valida;
+        try {
+            valida = conn.isValid(5);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            valida = false;
+        }
+        System.out.println(configuracion);
+        if (valida) {
             System.out.println("Conexión exitosa a la base de datos.");
         } else {
             System.out.println("No se pudo conectar a la base de datos.");
         }
         cerrarConexion();
     }
-    private static final String URL = "jdbc:oracle:thin:@192.168.2.100:1521:XE";
-    private static final String USER = "ica2";
-    private static final String PASSWORD = "ica2";
+    private static final ConfiguracionBD configuracion = ConfiguracionBD.cargar();
+    private static final PoolConexiones pool = new PoolConexiones(configuracion.getDriver(), configuracion.getUrl(),
+            configuracion.getUsuario(), configuracion.getClave(), configuracion.getTamanoPool());
+    private static final Connection conexion = ConexionCompartida.crear(pool);
 
-    private static Connection conexion = null;
+    static {
+        if (configuracion.isEmbebida()) {
+            InicializadorBD.inicializar(pool, configuracion);
+        }
+    }
 
+    /**
+     * Conexión compartida por los DAOs. Cerrarla no tiene efecto; las conexiones físicas se
+     * toman del pool por sentencia.
+     */
     public static Connection getConexion() {
-        try {
-            if (conexion == null || conexion.isClosed()) {
-                Class.forName("oracle.jdbc.OracleDriver");
-                conexion = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("Conexión establecida correctamente.");
-            }
-        } catch (ClassNotFoundException | SQLException e) {
-            e.printStackTrace();
-        }
         return conexion;
     }
 
+    public static DataSource getDataSource() {
+        return pool;
+    }
+
+    public static ConfiguracionBD getConfiguracion() {
+        return configuracion;
+    }
+
+    public static PoolConexiones getPool() {
+        return pool;
+    }
+
     public static void cerrarConexion() {
-        try {
-            if (conexion != null && !conexion.isClosed()) {
-                conexion.close();
-                System.out.println("Conexión cerrada.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        pool.cerrar();
+        System.out.println("Conexión cerrada.");
     }
 }
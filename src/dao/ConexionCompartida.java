@@ -0,0 +1,249 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * Conexión única que reciben todos los DAOs, respaldada por un pool. Cada sentencia toma
+ * una conexión física al crearse y la devuelve al cerrarse, de modo que varios hilos
+ * consultan en paralelo en lugar de turnarse una sola conexión.
+ *
+ * Un hilo usa una conexión física a la vez: lo que abre mientras tiene una sentencia abierta
+ * va por la misma. Entre setAutoCommit(false) y setAutoCommit(true) esa conexión queda fijada
+ * al hilo, así toda la transacción ocurre en ella aunque la hagan varios DAOs. Si el
+ * rollback falla la conexión se libera igual (el pool la revierte o la descarta). close() no
+ * hace nada: esta conexión dura lo que dura el pool.
+ */
+final class ConexionCompartida implements InvocationHandler {
+    private final DataSource origen;
+    private final ThreadLocal<Prestamo> prestamos = new ThreadLocal<>();
+    private Connection proxy;
+
+    private ConexionCompartida(DataSource origen) {
+        this.origen = origen;
+    }
+
+    static Connection crear(DataSource origen) {
+        ConexionCompartida manejador = new ConexionCompartida(origen);
+        manejador.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, manejador);
+        return manejador.proxy;
+    }
+
+    /**
+     * Conexión física prestada a un hilo y cuántas sentencias abiertas la usan. Se devuelve
+     * cuando no quedan sentencias y no hay transacción en curso.
+     */
+    private static final class Prestamo {
+        private Connection fisica;
+        private int usos;
+        private boolean fijada;
+
+        Prestamo(Connection fisica) {
+            this.fisica = fisica;
+            this.usos = 1;
+        }
+
+        synchronized boolean usarSiVigente() {
+            if (fisica == null) return false;
+            usos++;
+            return true;
+        }
+
+        synchronized void soltar() {
+            usos--;
+            devolverSiLibre();
+        }
+
+        synchronized void fijar() {
+            fijada = true;
+        }
+
+        synchronized void desfijar() {
+            fijada = false;
+            devolverSiLibre();
+        }
+
+        private void devolverSiLibre() {
+            if (usos > 0 || fijada || fisica == null) return;
+            Connection c = fisica;
+            fisica = null;
+            try {
+                c.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Conexión del hilo, tomando una del pool si no tiene. El llamador debe soltarla.
+     */
+    private Prestamo tomar() throws SQLException {
+        Prestamo p = prestamos.get();
+        if (p != null && p.usarSiVigente()) {
+            return p;
+        }
+        p = new Prestamo(origen.getConnection());
+        prestamos.set(p);
+        return p;
+    }
+
+    /** Préstamo en transacción del hilo actual, o null. */
+    private Prestamo fijado() {
+        Prestamo p = prestamos.get();
+        return p != null && p.fijada && p.fisica != null ? p : null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+        Prestamo p;
+        switch (metodo.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "ConexionCompartida[" + origen + "]";
+            case "close":
+                return null;
+            case "isClosed":
+                return false;
+            case "getAutoCommit":
+                return fijado() == null;
+            case "setAutoCommit":
+                if (!(Boolean) args[0]) {
+                    p = tomar();
+                    try {
+                        if (!p.fijada) {
+                            p.fisica.setAutoCommit(false);
+                            p.fijar();
+                        }
+                    } finally {
+                        p.soltar();
+                    }
+                } else if ((p = fijado()) != null) {
+                    try {
+                        p.fisica.setAutoCommit(true);
+                    } finally {
+                        p.desfijar();
+                    }
+                }
+                return null;
+            case "rollback":
+                p = fijado();
+                if (p == null) {
+                    return null;
+                }
+                try {
+                    return invocar(p.fisica, metodo, args);
+                } catch (Throwable e) {
+                    // Sin esto, un rollback fallido deja la conexión fijada a un hilo que puede
+                    // terminar sin llamar a setAutoCommit(true), y no vuelve nunca al pool.
+                    // El rollback a un savepoint no termina la transacción y no la suelta
+                    if (args == null || args.length == 0) {
+                        p.desfijar();
+                    }
+                    throw e;
+                }
+            case "commit":
+            case "setSavepoint":
+            case "releaseSavepoint":
+                // Sin transacción en curso cada sentencia ya se confirmó sola
+                p = fijado();
+                return p != null ? invocar(p.fisica, metodo, args) : null;
+            case "createStatement":
+            case "prepareStatement":
+            case "prepareCall":
+                p = tomar();
+                try {
+                    Statement sentencia = (Statement) invocar(p.fisica, metodo, args);
+                    return envolver(sentencia, metodo.getReturnType(), p);
+                } catch (Throwable e) {
+                    p.soltar();
+                    throw e;
+                }
+            default:
+                p = tomar();
+                try {
+                    return invocar(p.fisica, metodo, args);
+                } finally {
+                    p.soltar();
+                }
+        }
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Sentencia que suelta la conexión al cerrarse. closeOnCompletion se atiende aquí, para
+     * que al cerrar el ResultSet también se suelte la conexión.
+     */
+    private Object envolver(Statement sentencia, Class<?> tipo, Prestamo prestamo) {
+        boolean[] estado = { false, false }; // cerrada, cerrar al completar
+        InvocationHandler manejador = new InvocationHandler() {
+            @Override
+            public Object invoke(Object propia, Method metodo, Object[] args) throws Throwable {
+                switch (metodo.getName()) {
+                    case "close":
+                        cerrar();
+                        return null;
+                    case "getConnection":
+                        return proxy;
+                    case "closeOnCompletion":
+                        estado[1] = true;
+                        return null;
+                    case "isCloseOnCompletion":
+                        return estado[1];
+                    default:
+                        Object r = invocar(sentencia, metodo, args);
+                        if (estado[1] && r instanceof ResultSet) {
+                            return resultadoQueCierra((ResultSet) r, this::cerrar);
+                        }
+                        return r;
+                }
+            }
+
+            private void cerrar() throws SQLException {
+                synchronized (estado) {
+                    if (estado[0]) return;
+                    estado[0] = true;
+                }
+                try {
+                    sentencia.close();
+                } finally {
+                    prestamo.soltar();
+                }
+            }
+        };
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { tipo }, manejador);
+    }
+
+    private interface Cierre {
+        void cerrar() throws SQLException;
+    }
+
+    private static ResultSet resultadoQueCierra(ResultSet rs, Cierre alCerrar) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (propio, metodo, args) -> {
+                    Object r = invocar(rs, metodo, args);
+                    if (metodo.getName().equals("close")) {
+                        alCerrar.cerrar();
+                    }
+                    return r;
+                });
+    }
+}
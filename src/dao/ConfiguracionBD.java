@@ -0,0 +1,131 @@
+package dao;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Datos de conexión a la BD. Cada clave se busca, en este orden, como propiedad del sistema
+ * (-Dbd.url=...), como variable de entorno (ICA_BD_URL: la clave en mayúsculas, con '_' en
+ * lugar de '.' y el prefijo ICA_) y en el archivo bd.properties del directorio actual (otro
+ * archivo con bd.config). Lo que no se indique conserva los valores de la BD Oracle del
+ * laboratorio.
+ *
+ * Con bd.modo=embebida se usa una BD en memoria en modo compatible con Oracle (H2 o HSQLDB
+ * según bd.motor, cuyo jar debe estar en el classpath), que al arrancar se crea con los
+ * scripts de bd.scripts; ver InicializadorBD. Así la aplicación corre sin la red del laboratorio.
+ */
+public final class ConfiguracionBD {
+    public static final String MODO_ORACLE = "oracle";
+    public static final String MODO_EMBEBIDA = "embebida";
+    private static final String ARCHIVO_DEFECTO = "bd.properties";
+
+    private final String modo;
+    private final String url;
+    private final String usuario;
+    private final String clave;
+    private final String driver;
+    private final int tamanoPool;
+    private final String carpetaScripts;
+    private final int prediosSinteticos;
+
+    private ConfiguracionBD(Properties archivo) {
+        modo = leer("bd.modo", archivo, MODO_ORACLE).trim().toLowerCase();
+        String urlDefecto, usuarioDefecto, claveDefecto, driverDefecto;
+        if (isEmbebida()) {
+            String motor = leer("bd.motor", archivo, "h2").trim().toLowerCase();
+            if (motor.equals("hsqldb")) {
+                urlDefecto = "jdbc:hsqldb:mem:ica;sql.syntax_ora=true";
+                driverDefecto = "org.hsqldb.jdbc.JDBCDriver";
+                usuarioDefecto = "SA";
+            } else {
+                urlDefecto = "jdbc:h2:mem:ica;MODE=Oracle;DB_CLOSE_DELAY=-1";
+                driverDefecto = "org.h2.Driver";
+                usuarioDefecto = "sa";
+            }
+            claveDefecto = "";
+        } else {
+            urlDefecto = "jdbc:oracle:thin:@192.168.2.100:1521:XE";
+            driverDefecto = "oracle.jdbc.OracleDriver";
+            usuarioDefecto = "ica2";
+            claveDefecto = "ica2";
+        }
+        url = leer("bd.url", archivo, urlDefecto);
+        usuario = leer("bd.usuario", archivo, usuarioDefecto);
+        clave = leer("bd.clave", archivo, claveDefecto);
+        driver = leer("bd.driver", archivo, driverDefecto);
+        tamanoPool = leerEntero("bd.pool", archivo, PoolConexiones.TAMANO_MAXIMO);
+        carpetaScripts = leer("bd.scripts", archivo, "database");
+        prediosSinteticos = leerEntero("bd.predios.sinteticos", archivo, 0);
+    }
+
+    /**
+     * Lee la configuración de las propiedades del sistema, el entorno y el archivo.
+     */
+    public static ConfiguracionBD cargar() {
+        Properties archivo = new Properties();
+        String ruta = leer("bd.config", null, ARCHIVO_DEFECTO);
+        File f = new File(ruta);
+        if (f.exists()) {
+            try (InputStream in = new FileInputStream(f)) {
+                archivo.load(in);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return new ConfiguracionBD(archivo);
+    }
+
+    private static String leer(String clave, Properties archivo, String porDefecto) {
+        String valor = System.getProperty(clave);
+        if (valor == null) {
+            valor = System.getenv("ICA_" + clave.toUpperCase().replace('.', '_'));
+        }
+        if (valor == null && archivo != null) {
+            valor = archivo.getProperty(clave);
+        }
+        return valor != null ? valor : porDefecto;
+    }
+
+    private static int leerEntero(String clave, Properties archivo, int porDefecto) {
+        String valor = leer(clave, archivo, null);
+        if (valor == null || valor.trim().isEmpty()) return porDefecto;
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + clave + ": " + valor);
+            return porDefecto;
+        }
+    }
+
+    public boolean isEmbebida() {
+        return MODO_EMBEBIDA.equals(modo);
+    }
+
+    /** true si la URL es de Oracle; las consultas propias de Oracle deben comprobarlo. */
+    public boolean isOracle() {
+        return url.startsWith("jdbc:oracle:");
+    }
+
+    public String getModo() { return modo; }
+    public String getUrl() { return url; }
+    public String getUsuario() { return usuario; }
+    public String getClave() { return clave; }
+    public String getDriver() { return driver; }
+    public int getTamanoPool() { return tamanoPool; }
+
+    /** Carpeta con esquema.sql y datos_prueba.sql. */
+    public String getCarpetaScripts() { return carpetaScripts; }
+
+    /** Predios de prueba adicionales a generar en la BD embebida (0 para ninguno). */
+    public int getPrediosSinteticos() { return prediosSinteticos; }
+
+    @Override
+    public String toString() {
+        // Sin la clave, para poder imprimirla
+        return "ConfiguracionBD[modo=" + modo + ", url=" + url + ", usuario=" + usuario
+                + ", driver=" + driver + ", pool=" + tamanoPool + "]";
+    }
+}
@@ -4,8 +4,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
 
 public abstract class GenericDAO {
+    /** Filas que trae el driver por viaje al recorrer un cursor grande. */
+    protected static final int TAMANO_CURSOR = 500;
+
     protected Connection conexion;
 
     public GenericDAO() {
@@ -20,4 +25,59 @@ public abstract class GenericDAO {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Asigna una fecha como DATE de SQL (o NULL), para que la BD compare fechas y use sus índices.
+     */
+    protected static void asignarFecha(PreparedStatement ps, int indice, LocalDate fecha) throws SQLException {
+        if (fecha == null) {
+            ps.setNull(indice, Types.DATE);
+        } else {
+            ps.setDate(indice, java.sql.Date.valueOf(fecha));
+        }
+    }
+
+    /**
+     * Lee una columna DATE como LocalDate (null si la columna es NULL).
+     */
+    protected static LocalDate leerFecha(ResultSet rs, String columna) throws SQLException {
+        java.sql.Date fecha = rs.getDate(columna);
+        return fecha != null ? fecha.toLocalDate() : null;
+    }
+
+    /**
+     * Desactiva el autocommit para agrupar varias operaciones en una transacción.
+     */
+    protected void iniciarTransaccion() throws SQLException {
+        conexion.setAutoCommit(false);
+    }
+
+    /**
+     * Confirma la transacción en curso y restablece el autocommit.
+     */
+    protected void confirmarTransaccion() throws SQLException {
+        try {
+            conexion.commit();
+        } finally {
+            conexion.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Revierte la transacción en curso y restablece el autocommit. El autocommit se
+     * restablece aunque falle la reversión, para que la conexión vuelva al pool.
+     */
+    protected void revertirTransaccion() {
+        try {
+            conexion.rollback();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                conexion.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
 }
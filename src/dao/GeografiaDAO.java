@@ -0,0 +1,102 @@
+package dao;
+
+import model.Departamento;
+import model.Municipio;
+import model.Vereda;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecturas livianas de la división territorial (departamentos, municipios y veredas) para
+ * armar el catálogo en memoria del cliente: una consulta plana por tabla, sin cargar las
+ * listas hijas de cada registro, y una firma para saber si algo cambió sin volver a leerlas.
+ */
+public class GeografiaDAO extends GenericDAO {
+
+    /**
+     * Firma de versión de las tres tablas: cantidad de filas y el mayor ORA_ROWSCN de cada
+     * una. Cambia con cualquier inserción, modificación o borrado. Fuera de Oracle (la BD
+     * embebida) no hay ORA_ROWSCN y solo se cuentan filas, así que un cambio de nombre no se
+     * nota hasta invalidar el catálogo. Devuelve null si no se pudo consultar.
+     */
+    public String firma() {
+        String version = ConexionBD.getConfiguracion().isOracle() ? " || '.' || NVL(MAX(ORA_ROWSCN), 0)" : "";
+        String sql = "SELECT (SELECT COUNT(*)" + version + " FROM departamento) || '/' || " +
+                     "(SELECT COUNT(*)" + version + " FROM municipio) || '/' || " +
+                     "(SELECT COUNT(*)" + version + " FROM vereda) FROM dual";
+        try (PreparedStatement ps = conexion.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public List<Departamento> listarDepartamentos() {
+        List<Departamento> lista = new ArrayList<>();
+        String sql = "SELECT id, nombre FROM departamento ORDER BY nombre";
+        try (PreparedStatement ps = conexion.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                lista.add(new Departamento(rs.getString("id"), rs.getString("nombre"), null));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return lista;
+    }
+
+    /**
+     * Municipios ordenados por nombre; el departamento solo trae su id.
+     */
+    public List<Municipio> listarMunicipios() {
+        List<Municipio> lista = new ArrayList<>();
+        String sql = "SELECT id, nombre, id_departamento FROM municipio ORDER BY nombre";
+        try (PreparedStatement ps = conexion.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.setFetchSize(TAMANO_CURSOR);
+            while (rs.next()) {
+                Departamento departamento = null;
+                if (rs.getString("id_departamento") != null) {
+                    departamento = new Departamento();
+                    departamento.setId(rs.getString("id_departamento"));
+                }
+                lista.add(new Municipio(rs.getString("id"), rs.getString("nombre"), departamento, null));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return lista;
+    }
+
+    /**
+     * Veredas ordenadas por nombre; el municipio solo trae su id.
+     */
+    public List<Vereda> listarVeredas() {
+        List<Vereda> lista = new ArrayList<>();
+        String sql = "SELECT id, nombre, id_municipio FROM vereda ORDER BY nombre";
+        try (PreparedStatement ps = conexion.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.setFetchSize(TAMANO_CURSOR);
+            while (rs.next()) {
+                Vereda vereda = new Vereda();
+                vereda.setId(rs.getString("id"));
+                vereda.setNombre(rs.getString("nombre"));
+                if (rs.getString("id_municipio") != null) {
+                    Municipio municipio = new Municipio();
+                    municipio.setId(rs.getString("id_municipio"));
+                    vereda.setMunicipio(municipio);
+                }
+                lista.add(vereda);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return lista;
+    }
+}
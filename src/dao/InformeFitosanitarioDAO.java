@@ -4,8 +4,10 @@ import model.InformeFitosanitario;
 import model.ResultadoTecnico;
 import model.Alerta;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * DAO para la gestión de informes fitosanitarios en la base de datos.
@@ -27,7 +29,7 @@ public class InformeFitosanitarioDAO extends GenericDAO {
             ps.setInt(3, informe.getTotalPlantasEvaluadas());
             ps.setDouble(4, informe.getNivelIncidencia());
             ps.setString(5, informe.getObservaciones());
-            ps.setString(6, informe.getFechaInforme());
+            asignarFecha(ps, 6, informe.getFechaInforme());
             
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -51,7 +53,7 @@ public class InformeFitosanitarioDAO extends GenericDAO {
             ps.setInt(2, informe.getTotalPlantasEvaluadas());
             ps.setDouble(3, informe.getNivelIncidencia());
             ps.setString(4, informe.getObservaciones());
-            ps.setString(5, informe.getFechaInforme());
+            asignarFecha(ps, 5, informe.getFechaInforme());
             ps.setString(6, informe.getId());
             
             return ps.executeUpdate() > 0;
@@ -153,7 +155,7 @@ public class InformeFitosanitarioDAO extends GenericDAO {
     /**
      * Lista los informes generados en un rango de fechas.
      */
-    public List<InformeFitosanitario> listarPorRangoFechas(String fechaInicio, String fechaFin) {
+    public List<InformeFitosanitario> listarPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
         List<InformeFitosanitario> lista = new ArrayList<>();
         String sql = "SELECT * FROM informes_fitosanitarios " +
                      "WHERE fecha_informe BETWEEN ? AND ? " +
@@ -162,8 +164,8 @@ public class InformeFitosanitarioDAO extends GenericDAO {
         ResultSet rs = null;
         try {
             ps = conexion.prepareStatement(sql);
-            ps.setString(1, fechaInicio);
-            ps.setString(2, fechaFin);
+            asignarFecha(ps, 1, fechaInicio);
+            asignarFecha(ps, 2, fechaFin);
             rs = ps.executeQuery();
             
             while (rs.next()) {
@@ -302,6 +304,29 @@ public class InformeFitosanitarioDAO extends GenericDAO {
         return 0;
     }
 
+    /**
+     * Recorre todos los informes (del más reciente al más antiguo) con un cursor,
+     * entregando cada uno al consumidor sin acumular la lista en memoria.
+     */
+    public int recorrer(Consumer<InformeFitosanitario> consumidor) throws SQLException {
+        String sql = "SELECT * FROM informes_fitosanitarios ORDER BY fecha_informe DESC";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        int total = 0;
+        try {
+            ps = conexion.prepareStatement(sql);
+            ps.setFetchSize(TAMANO_CURSOR);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                consumidor.accept(construirInforme(rs));
+                total++;
+            }
+            return total;
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+    }
+
     /**
      * Construye un objeto InformeFitosanitario a partir de un ResultSet.
      */
@@ -312,7 +337,7 @@ public class InformeFitosanitarioDAO extends GenericDAO {
         informe.setToltalPlantasEvaluadas(rs.getInt("total_plantas_evaluadas"));
         informe.setNivelIncidencia(rs.getDouble("nivel_incidencia"));
         informe.setObservaciones(rs.getString("observaciones"));
-        informe.setFechaInforme(rs.getString("fecha_informe"));
+        informe.setFechaInforme(leerFecha(rs, "fecha_informe"));
         return informe;
     }
 }
@@ -0,0 +1,147 @@
+package dao;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.sql.DataSource;
+
+/**
+ * Prepara la BD embebida: crea las tablas con esquema.sql, carga datos_prueba.sql y, si se
+ * pide, genera predios de prueba en cantidad para las pruebas de rendimiento. Los scripts
+ * usan sintaxis de Oracle, así que también sirven para montar una BD Oracle nueva.
+ */
+public final class InicializadorBD {
+    public static final String ESQUEMA = "esquema.sql";
+    public static final String DATOS = "datos_prueba.sql";
+    private static final int LOTE_INSERCION = 1_000;
+
+    private InicializadorBD() {
+    }
+
+    /**
+     * Ejecuta los scripts de la carpeta configurada. Devuelve false si alguno falló.
+     */
+    public static boolean inicializar(DataSource origen, ConfiguracionBD config) {
+        long inicio = System.currentTimeMillis();
+        File carpeta = new File(config.getCarpetaScripts());
+        try (Connection conexion = origen.getConnection()) {
+            int sentencias = ejecutarScript(conexion, new File(carpeta, ESQUEMA));
+            sentencias += ejecutarScript(conexion, new File(carpeta, DATOS));
+            int predios = config.getPrediosSinteticos() > 0 ? generarPredios(conexion, config.getPrediosSinteticos()) : 0;
+            System.out.println("BD embebida lista: " + sentencias + " sentencias, " + predios
+                    + " predios sintéticos, en " + (System.currentTimeMillis() - inicio) + " ms.");
+            return true;
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Ejecuta las sentencias de un script, separadas por ';'. Devuelve cuántas ejecutó.
+     */
+    public static int ejecutarScript(Connection conexion, File archivo) throws SQLException, IOException {
+        String texto = new String(Files.readAllBytes(archivo.toPath()), StandardCharsets.UTF_8);
+        List<String> sentencias = separarSentencias(texto);
+        try (Statement st = conexion.createStatement()) {
+            for (String sql : sentencias) {
+                try {
+                    st.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException(archivo.getName() + ": " + e.getMessage() + "\n" + sql, e);
+                }
+            }
+        }
+        return sentencias.size();
+    }
+
+    /**
+     * Separa un script en sentencias por ';', sin contar los que van dentro de comillas, y
+     * quita los comentarios de línea (--).
+     */
+    static List<String> separarSentencias(String texto) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean enComillas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (!enComillas && c == '-' && i + 1 < texto.length() && texto.charAt(i + 1) == '-') {
+                while (i < texto.length() && texto.charAt(i) != '\n') i++;
+                actual.append('\n');
+                continue;
+            }
+            if (c == '\'') {
+                enComillas = !enComillas;
+            }
+            if (c == ';' && !enComillas) {
+                agregarSiNoVacia(sentencias, actual);
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        agregarSiNoVacia(sentencias, actual);
+        return sentencias;
+    }
+
+    private static void agregarSiNoVacia(List<String> sentencias, StringBuilder sentencia) {
+        String sql = sentencia.toString().trim();
+        if (!sql.isEmpty()) {
+            sentencias.add(sql);
+        }
+    }
+
+    /**
+     * Inserta predios repartidos entre las veredas existentes, con coordenadas al azar
+     * dentro de Colombia, en lotes de LOTE_INSERCION y en una sola transacción.
+     */
+    private static int generarPredios(Connection conexion, int cantidad) throws SQLException {
+        List<String> veredas = new ArrayList<>();
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id FROM vereda ORDER BY id")) {
+            while (rs.next()) {
+                veredas.add(rs.getString(1));
+            }
+        }
+        if (veredas.isEmpty()) {
+            return 0;
+        }
+        Random rnd = new Random(42);
+        String sql = "INSERT INTO predios (id, codigo_ica, direccion, area, latitud, longitud, " +
+                     "id_propietario, id_vereda, cod_lugar_produccion) VALUES (?, ?, ?, ?, ?, ?, NULL, ?, NULL)";
+        boolean autoCommit = conexion.getAutoCommit();
+        conexion.setAutoCommit(false);
+        try (PreparedStatement ps = conexion.prepareStatement(sql)) {
+            for (int i = 1; i <= cantidad; i++) {
+                ps.setString(1, "PS-" + i);
+                ps.setString(2, String.format("ICA-S%07d", i));
+                ps.setString(3, "Finca sintética " + i);
+                ps.setDouble(4, 0.5 + rnd.nextDouble() * 50);
+                ps.setDouble(5, -4.2 + rnd.nextDouble() * 16.7);
+                ps.setDouble(6, -79.0 + rnd.nextDouble() * 12.2);
+                ps.setString(7, veredas.get(i % veredas.size()));
+                ps.addBatch();
+                if (i % LOTE_INSERCION == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            conexion.commit();
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw e;
+        } finally {
+            conexion.setAutoCommit(autoCommit);
+        }
+        return cantidad;
+    }
+}
@@ -5,8 +5,11 @@ import model.Lote;
 import model.ResultadoTecnico;
 import model.AsistenteTecnico;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para la gestión de inspecciones fitosanitarias en la base de datos.
@@ -25,7 +28,7 @@ public class InspeccionFitosanitariaDAO extends GenericDAO {
             ps = conexion.prepareStatement(sql);
             ps.setString(1, inspeccion.getId());
             ps.setString(2, inspeccion.getCodigoIca());
-            ps.setString(3, inspeccion.getFechaInspeccion());
+            asignarFecha(ps, 3, inspeccion.getFechaInspeccion());
             ps.setString(4, inspeccion.getAsistenteTecnico() != null ? 
                          inspeccion.getAsistenteTecnico().getId() : null);
             
@@ -38,6 +41,49 @@ public class InspeccionFitosanitariaDAO extends GenericDAO {
         }
     }
 
+    /**
+     * Inserta varias inspecciones en un solo lote JDBC. No maneja la transacción:
+     * la confirma o revierte quien llama. Devuelve el conteo de cada fila.
+     */
+    public int[] insertarVarias(List<InspeccionFitosanitaria> inspecciones) throws SQLException {
+        String sql = "INSERT INTO inspecciones_fitosanitarias (id, codigo_ica, fecha_inspeccion, " +
+                     "id_asistente_tecnico) VALUES (?, ?, ?, ?)";
+        PreparedStatement ps = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            for (InspeccionFitosanitaria inspeccion : inspecciones) {
+                ps.setString(1, inspeccion.getId());
+                ps.setString(2, inspeccion.getCodigoIca());
+                asignarFecha(ps, 3, inspeccion.getFechaInspeccion());
+                ps.setString(4, inspeccion.getAsistenteTecnico() != null ?
+                             inspeccion.getAsistenteTecnico().getId() : null);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        } finally {
+            cerrarRecursos(ps, null);
+        }
+    }
+
+    /**
+     * Asocia varios pares {idInspeccion, idLote} en un solo lote JDBC, sin manejar la transacción.
+     */
+    public int[] asociarLotes(List<String[]> pares) throws SQLException {
+        String sql = "INSERT INTO inspeccion_lote (id_inspeccion, id_lote) VALUES (?, ?)";
+        PreparedStatement ps = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            for (String[] par : pares) {
+                ps.setString(1, par[0]);
+                ps.setString(2, par[1]);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        } finally {
+            cerrarRecursos(ps, null);
+        }
+    }
+
     /**
      * Actualiza los datos de una inspección fitosanitaria existente.
      */
@@ -48,7 +94,7 @@ public class InspeccionFitosanitariaDAO extends GenericDAO {
         try {
             ps = conexion.prepareStatement(sql);
             ps.setString(1, inspeccion.getCodigoIca());
-            ps.setString(2, inspeccion.getFechaInspeccion());
+            asignarFecha(ps, 2, inspeccion.getFechaInspeccion());
             ps.setString(3, inspeccion.getAsistenteTecnico() != null ? 
                          inspeccion.getAsistenteTecnico().getId() : null);
             ps.setString(4, inspeccion.getId());
@@ -193,7 +239,7 @@ public class InspeccionFitosanitariaDAO extends GenericDAO {
     /**
      * Lista las inspecciones realizadas en un rango de fechas.
      */
-    public List<InspeccionFitosanitaria> listarPorRangoFechas(String fechaInicio, String fechaFin) {
+    public List<InspeccionFitosanitaria> listarPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
         List<InspeccionFitosanitaria> lista = new ArrayList<>();
         String sql = "SELECT i.*, u.nombre as nombre_asistente " +
                      "FROM inspecciones_fitosanitarias i " +
@@ -205,8 +251,8 @@ public class InspeccionFitosanitariaDAO extends GenericDAO {
         ResultSet rs = null;
         try {
             ps = conexion.prepareStatement(sql);
-            ps.setString(1, fechaInicio);
-            ps.setString(2, fechaFin);
+            asignarFecha(ps, 1, fechaInicio);
+            asignarFecha(ps, 2, fechaFin);
             rs = ps.executeQuery();
             
             while (rs.next()) {
@@ -297,6 +343,33 @@ public class InspeccionFitosanitariaDAO extends GenericDAO {
         return resultados;
     }
 
+    /**
+     * Cantidad de inspecciones por día desde la fecha indicada (incluida), con una sola
+     * consulta agrupada. Devuelve null si no se pudo consultar.
+     */
+    public Map<LocalDate, Integer> contarPorDia(LocalDate desde) {
+        Map<LocalDate, Integer> totales = new HashMap<>();
+        String sql = "SELECT fecha_inspeccion, COUNT(*) as total FROM inspecciones_fitosanitarias " +
+                     "WHERE fecha_inspeccion >= ? GROUP BY fecha_inspeccion";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            asignarFecha(ps, 1, desde);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                totales.put(leerFecha(rs, "fecha_inspeccion"), rs.getInt("total"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return totales;
+    }
+
     /**
      * Construye un objeto InspeccionFitosanitaria a partir de un ResultSet.
      */
@@ -304,7 +377,7 @@ public class InspeccionFitosanitariaDAO extends GenericDAO {
         InspeccionFitosanitaria inspeccion = new InspeccionFitosanitaria();
         inspeccion.setId(rs.getString("id"));
         inspeccion.setCodigoIca(rs.getString("codigo_ica"));
-        inspeccion.setFechaInspeccion(rs.getString("fecha_inspeccion"));
+        inspeccion.setFechaInspeccion(leerFecha(rs, "fecha_inspeccion"));
         
         // Construir asistente técnico si existe
         if (rs.getString("id_asistente_tecnico") != null) {
@@ -244,7 +244,7 @@ public class LoteDAO extends GenericDAO {
                 InspeccionFitosanitaria inspeccion = new InspeccionFitosanitaria();
                 inspeccion.setId(rs.getString("id"));
                 inspeccion.setCodigoIca(rs.getString("codigo_ica"));
-                inspeccion.setFechaInspeccion(rs.getString("fecha_inspeccion"));
+                inspeccion.setFechaInspeccion(leerFecha(rs, "fecha_inspeccion"));
                 return inspeccion;
             }
         } catch (SQLException e) {
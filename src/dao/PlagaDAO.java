@@ -5,7 +5,9 @@ import model.Cultivo;
 import model.ResultadoTecnico;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para la gestión de plagas en la base de datos.
@@ -256,6 +258,31 @@ public class PlagaDAO extends GenericDAO {
         return 0;
     }
 
+    /**
+     * Detecciones de cada plaga (id de la plaga → cantidad), con una sola consulta agrupada.
+     * Devuelve null si no se pudo consultar.
+     */
+    public Map<String, Integer> contarDeteccionesPorPlaga() {
+        Map<String, Integer> totales = new HashMap<>();
+        String sql = "SELECT id_plaga, COUNT(*) as total FROM resultado_plaga GROUP BY id_plaga";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                totales.put(rs.getString("id_plaga"), rs.getInt("total"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return totales;
+    }
+
     /**
      * Construye un objeto Plaga a partir de un ResultSet.
      */
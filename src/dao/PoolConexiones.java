@@ -0,0 +1,247 @@
+package dao;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Pool de conexiones físicas a la BD con un máximo fijo. Las conexiones se abren cuando se
+ * necesitan y se reutilizan; al cerrar la conexión entregada, la física vuelve al pool.
+ * Si todas están ocupadas se espera hasta ESPERA_MAXIMA_MS. Una conexión que estuvo libre
+ * más de VALIDAR_TRAS_MS se valida antes de entregarla, por si la BD la cerró.
+ */
+public class PoolConexiones implements DataSource {
+    public static final int TAMANO_MAXIMO = 8;
+    private static final long ESPERA_MAXIMA_MS = 10_000;
+    private static final long VALIDAR_TRAS_MS = 30_000;
+    private static final int SEGUNDOS_VALIDACION = 2;
+
+    private final String driver;
+    private final String url;
+    private final String usuario;
+    private final String clave;
+    private final int tamanoMaximo;
+    private final Semaphore cupos;
+    // Se entrega primero la última devuelta, que es la que menos probablemente expiró
+    private final LinkedBlockingDeque<Libre> libres = new LinkedBlockingDeque<>();
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private volatile boolean driverCargado;
+    private volatile boolean cerrado;
+    private int tiempoLogin;
+
+    private static final class Libre {
+        final Connection fisica;
+        final long desde;
+
+        Libre(Connection fisica) {
+            this.fisica = fisica;
+            this.desde = System.currentTimeMillis();
+        }
+    }
+
+    public PoolConexiones(String driver, String url, String usuario, String clave, int tamanoMaximo) {
+        this.driver = driver;
+        this.url = url;
+        this.usuario = usuario;
+        this.clave = clave;
+        this.tamanoMaximo = tamanoMaximo;
+        this.cupos = new Semaphore(tamanoMaximo, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        try {
+            if (!cupos.tryAcquire(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("No hay conexiones libres tras " + ESPERA_MAXIMA_MS + " ms (máximo " + tamanoMaximo + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión", e);
+        }
+        try {
+            return envolver(tomarLibre());
+        } catch (SQLException | RuntimeException e) {
+            cupos.release();
+            throw e;
+        }
+    }
+
+    private Connection tomarLibre() throws SQLException {
+        Libre libre;
+        while ((libre = libres.pollFirst()) != null) {
+            if (System.currentTimeMillis() - libre.desde < VALIDAR_TRAS_MS || esValida(libre.fisica)) {
+                return libre.fisica;
+            }
+            descartar(libre.fisica);
+        }
+        return abrir();
+    }
+
+    private Connection abrir() throws SQLException {
+        if (!driverCargado) {
+            try {
+                Class.forName(driver);
+                driverCargado = true;
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("Driver no encontrado: " + driver, e);
+            }
+        }
+        Connection fisica = DriverManager.getConnection(url, usuario, clave);
+        abiertas.incrementAndGet();
+        System.out.println("Conexión establecida correctamente.");
+        return fisica;
+    }
+
+    private static boolean esValida(Connection fisica) {
+        try {
+            return fisica.isValid(SEGUNDOS_VALIDACION);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Recibe una conexión física de vuelta. Si quedó a mitad de una transacción se revierte;
+     * si falla, o el pool ya se cerró, se descarta.
+     */
+    private void devolver(Connection fisica) {
+        try {
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            if (cerrado) {
+                descartar(fisica);
+            } else {
+                libres.offerFirst(new Libre(fisica));
+            }
+        } catch (SQLException e) {
+            descartar(fisica);
+        } finally {
+            cupos.release();
+        }
+    }
+
+    private void descartar(Connection fisica) {
+        abiertas.decrementAndGet();
+        try {
+            fisica.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Conexión que, al cerrarse, vuelve al pool en lugar de cerrarse. Después de cerrada no
+     * admite más operaciones.
+     */
+    private Connection envolver(Connection fisica) {
+        boolean[] devuelta = { false };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "close":
+                            synchronized (devuelta) {
+                                if (!devuelta[0]) {
+                                    devuelta[0] = true;
+                                    devolver(fisica);
+                                }
+                            }
+                            return null;
+                        case "isClosed":
+                            return devuelta[0] || fisica.isClosed();
+                        default:
+                            if (devuelta[0]) {
+                                throw new SQLException("La conexión ya fue devuelta al pool");
+                            }
+                            try {
+                                return metodo.invoke(fisica, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    /**
+     * Cierra las conexiones libres; las que están en uso se cierran al devolverse.
+     */
+    public void cerrar() {
+        cerrado = true;
+        Libre libre;
+        while ((libre = libres.pollFirst()) != null) {
+            descartar(libre.fisica);
+        }
+    }
+
+    /** Conexiones físicas abiertas, en uso o libres. */
+    public int getAbiertas() {
+        return abiertas.get();
+    }
+
+    /** Conexiones entregadas que aún no se devuelven. */
+    public int getEnUso() {
+        return tamanoMaximo - cupos.availablePermits();
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        throw new SQLFeatureNotSupportedException("El pool usa las credenciales con que se creó");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter salida) {
+        DriverManager.setLogWriter(salida);
+    }
+
+    @Override
+    public void setLoginTimeout(int segundos) {
+        this.tiempoLogin = segundos;
+        DriverManager.setLoginTimeout(segundos);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return tiempoLogin;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> tipo) throws SQLException {
+        if (tipo.isInstance(this)) {
+            return tipo.cast(this);
+        }
+        throw new SQLException("No es un " + tipo.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> tipo) {
+        return tipo.isInstance(this);
+    }
+}
@@ -7,12 +7,17 @@ import model.LugarProduccion;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * DAO para la gestión de predios en la base de datos.
  * Extiende GenericDAO para heredar funcionalidad común.
  */
 public class PredioDAO extends GenericDAO {
+    /** Columnas por las que se puede ordenar listarPagina. */
+    public static final Set<String> COLUMNAS_ORDEN = Set.of("id", "codigo_ica", "direccion", "area",
+            "latitud", "longitud", "id_propietario", "id_vereda", "cod_lugar_produccion");
 
     /**
      * Inserta un nuevo predio en la base de datos.
@@ -43,6 +48,49 @@ public class PredioDAO extends GenericDAO {
         }
     }
 
+    /**
+     * Inserta un lote de predios con un único batch JDBC dentro de una transacción.
+     * Si alguna fila falla se revierte el lote completo y se propaga la excepción,
+     * de modo que el llamador sepa exactamente qué lote quedó sin confirmar.
+     *
+     * @return número de predios insertados
+     */
+    public int insertarLote(List<Predio> predios) throws SQLException {
+        if (predios == null || predios.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO predios (id, codigo_ica, direccion, area, latitud, longitud, " +
+                     "id_propietario, id_vereda, cod_lugar_produccion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        PreparedStatement ps = null;
+        boolean confirmado = false;
+        try {
+            iniciarTransaccion();
+            ps = conexion.prepareStatement(sql);
+            for (Predio predio : predios) {
+                ps.setString(1, predio.getId());
+                ps.setString(2, predio.getCodigoIca());
+                ps.setString(3, predio.getDireccion());
+                ps.setDouble(4, predio.getArea());
+                ps.setDouble(5, predio.getLatitud());
+                ps.setDouble(6, predio.getLongitud());
+                ps.setString(7, predio.getPropietario() != null ? predio.getPropietario().getId() : null);
+                ps.setString(8, predio.getIdVereda());
+                ps.setString(9, predio.getCodLugarProduccion());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            confirmarTransaccion();
+            confirmado = true;
+            return predios.size();
+        } finally {
+            // También ante una RuntimeException, para no dejar la conexión fijada al hilo
+            if (!confirmado) {
+                revertirTransaccion();
+            }
+            cerrarRecursos(ps, null);
+        }
+    }
+
     /**
      * Actualiza los datos de un predio existente.
      */
@@ -170,6 +218,88 @@ public class PredioDAO extends GenericDAO {
         return lista;
     }
 
+    /**
+     * Recorre todos los predios con un cursor, entregando cada uno al consumidor sin
+     * acumular la lista en memoria. Devuelve cuántos predios se entregaron.
+     */
+    public int recorrer(Consumer<Predio> consumidor) throws SQLException {
+        String sql = "SELECT p.*, prop.nombre as nombre_propietario " +
+                     "FROM predios p " +
+                     "LEFT JOIN propietarios prop_table ON p.id_propietario = prop_table.id " +
+                     "LEFT JOIN usuarios prop ON prop_table.id = prop.id";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        int total = 0;
+        try {
+            ps = conexion.prepareStatement(sql);
+            ps.setFetchSize(TAMANO_CURSOR);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                consumidor.accept(construirPredio(rs));
+                total++;
+            }
+            return total;
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+    }
+
+    /**
+     * Cantidad total de predios registrados.
+     */
+    public int contar() {
+        String sql = "SELECT COUNT(*) FROM predios";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            rs = ps.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return 0;
+    }
+
+    /**
+     * Devuelve una página de predios ordenada en la BD. Solo se aceptan las columnas de
+     * COLUMNAS_ORDEN (cualquier otra ordena por id); el id se agrega siempre al final del
+     * ORDER BY para que las páginas no se solapen cuando hay valores repetidos.
+     *
+     * @param desde posición del primer predio (desde 0)
+     * @throws SQLException si la consulta falla, para no confundir un error con una página vacía
+     */
+    public List<Predio> listarPagina(int desde, int cantidad, String columnaOrden, boolean ascendente) throws SQLException {
+        List<Predio> lista = new ArrayList<>();
+        String columna = COLUMNAS_ORDEN.contains(columnaOrden) ? columnaOrden : "id";
+        String direccion = ascendente ? "ASC" : "DESC";
+        String sql = "SELECT p.*, prop.nombre as nombre_propietario " +
+                     "FROM predios p " +
+                     "LEFT JOIN propietarios prop_table ON p.id_propietario = prop_table.id " +
+                     "LEFT JOIN usuarios prop ON prop_table.id = prop.id " +
+                     "ORDER BY p." + columna + " " + direccion + (columna.equals("id") ? "" : ", p.id " + direccion) +
+                     " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            ps.setInt(1, desde);
+            ps.setInt(2, cantidad);
+            ps.setFetchSize(cantidad);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                lista.add(construirPredio(rs));
+            }
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return lista;
+    }
+
     /**
      * Lista los predios de un propietario específico.
      */
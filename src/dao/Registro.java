@@ -0,0 +1,65 @@
+package dao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Instancias únicas del proceso (DAOs y gestores), una por clase, creadas la primera vez
+ * que se piden. Así el grafo de objetos se arma una sola vez aunque haya varios
+ * controladores o muchas solicitudes concurrentes. Lo que se registra aquí debe poder
+ * usarse desde varios hilos a la vez.
+ */
+public final class Registro {
+    private static final Map<Class<?>, Unico<?>> unicos = new ConcurrentHashMap<>();
+
+    private Registro() {
+    }
+
+    /**
+     * Instancia única de la clase; si aún no existe la crea con crear. Si dos hilos la piden
+     * a la vez, solo uno la crea y el otro espera.
+     */
+    public static <T> T obtener(Class<T> tipo, Supplier<? extends T> crear) {
+        Unico<?> unico = unicos.get(tipo);
+        if (unico == null) {
+            // La creación ocurre fuera de computeIfAbsent, porque crear puede pedir otras instancias
+            unico = unicos.computeIfAbsent(tipo, t -> new Unico<>(crear));
+        }
+        return tipo.cast(unico.get());
+    }
+
+    /**
+     * Cantidad de instancias ya creadas.
+     */
+    public static int getCreadas() {
+        int creadas = 0;
+        for (Unico<?> unico : unicos.values()) {
+            if (unico.valor != null) creadas++;
+        }
+        return creadas;
+    }
+
+    private static final class Unico<T> {
+        private final Supplier<? extends T> crear;
+        private volatile T valor;
+
+        Unico(Supplier<? extends T> crear) {
+            this.crear = crear;
+        }
+
+        T get() {
+            T v = valor;
+            if (v == null) {
+                synchronized (this) {
+                    v = valor;
+                    if (v == null) {
+                        v = crear.get();
+                        valor = v;
+                    }
+                }
+            }
+            return v;
+        }
+    }
+}
@@ -7,7 +7,9 @@ import model.InspeccionFitosanitaria;
 import model.InformeFitosanitario;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para la gestión de resultados técnicos en la base de datos.
@@ -42,6 +44,62 @@ public class ResultadoTecnicoDAO extends GenericDAO {
         }
     }
 
+    /**
+     * Inserta varios resultados en un solo lote JDBC. No maneja la transacción:
+     * la confirma o revierte quien llama. Devuelve el conteo de cada fila.
+     */
+    public int[] insertarVarios(List<ResultadoTecnico> resultados) throws SQLException {
+        String sql = "INSERT INTO resultados_tecnicos (id, total_plantas_evaluadas, plantas_afectadas, " +
+                     "observaciones, id_inspeccion, id_informe) VALUES (?, ?, ?, ?, ?, ?)";
+        PreparedStatement ps = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            for (ResultadoTecnico resultado : resultados) {
+                ps.setString(1, resultado.getId());
+                ps.setInt(2, resultado.getTotalPlantasEvaluadas());
+                ps.setInt(3, resultado.getPlantasAfectadas());
+                ps.setString(4, resultado.getObservaciones());
+                ps.setString(5, resultado.getInspeccionFitosanitaria() != null ?
+                             resultado.getInspeccionFitosanitaria().getId() : resultado.getInspeccionId());
+                ps.setString(6, resultado.getInformeFitosanitario() != null ?
+                             resultado.getInformeFitosanitario().getId() : null);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        } finally {
+            cerrarRecursos(ps, null);
+        }
+    }
+
+    /**
+     * Asocia varios pares {idResultado, idPlaga} en un solo lote JDBC, sin manejar la transacción.
+     */
+    public int[] asociarPlagas(List<String[]> pares) throws SQLException {
+        return insertarPares("INSERT INTO resultado_plaga (id_resultado, id_plaga) VALUES (?, ?)", pares);
+    }
+
+    /**
+     * Asocia varios pares {idResultado, idCultivo} en un solo lote JDBC, sin manejar la transacción.
+     */
+    public int[] asociarCultivos(List<String[]> pares) throws SQLException {
+        return insertarPares("INSERT INTO resultado_cultivo (id_resultado, id_cultivo) VALUES (?, ?)", pares);
+    }
+
+    private int[] insertarPares(String sql, List<String[]> pares) throws SQLException {
+        PreparedStatement ps = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            for (String[] par : pares) {
+                ps.setString(1, par[0]);
+                ps.setString(2, par[1]);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        } finally {
+            cerrarRecursos(ps, null);
+        }
+    }
+
     /**
      * Actualiza los datos de un resultado técnico existente.
      */
@@ -293,6 +351,65 @@ public class ResultadoTecnicoDAO extends GenericDAO {
         return 0.0;
     }
 
+    /**
+     * Suma las plantas evaluadas y afectadas de todos los resultados, agrupadas por la
+     * vereda del predio inspeccionado (resultado → inspección → lugar de producción → predio).
+     *
+     * @return mapa idVereda → {total evaluadas, total afectadas}
+     */
+    public Map<String, long[]> obtenerTotalesPorVereda() {
+        Map<String, long[]> totales = new HashMap<>();
+        String sql = "SELECT p.id_vereda, SUM(rt.total_plantas_evaluadas) as evaluadas, " +
+                     "SUM(rt.plantas_afectadas) as afectadas " +
+                     "FROM resultados_tecnicos rt " +
+                     "INNER JOIN inspecciones_fitosanitarias i ON rt.id_inspeccion = i.id " +
+                     "INNER JOIN lugares_produccion lp ON lp.codigo_ica = i.codigo_ica " +
+                     "INNER JOIN predios p ON lp.id_predio = p.id " +
+                     "GROUP BY p.id_vereda";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            rs = ps.executeQuery();
+            
+            while (rs.next()) {
+                totales.put(rs.getString("id_vereda"),
+                            new long[] { rs.getLong("evaluadas"), rs.getLong("afectadas") });
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return totales;
+    }
+
+    /**
+     * Obtiene la vereda del predio donde se realizó una inspección, o null si no se puede determinar.
+     */
+    public String obtenerVeredaDeInspeccion(String idInspeccion) {
+        String sql = "SELECT p.id_vereda FROM inspecciones_fitosanitarias i " +
+                     "INNER JOIN lugares_produccion lp ON lp.codigo_ica = i.codigo_ica " +
+                     "INNER JOIN predios p ON lp.id_predio = p.id " +
+                     "WHERE i.id = ?";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            ps.setString(1, idInspeccion);
+            rs = ps.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getString("id_vereda");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return null;
+    }
+
     /**
      * Construye un objeto ResultadoTecnico a partir de un ResultSet.
      */
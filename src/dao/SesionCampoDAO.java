@@ -0,0 +1,125 @@
+package dao;
+
+import model.ResultadoSesion;
+import model.SesionCampo;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Aplica una sesión de campo completa (inspecciones, lotes, resultados y sus plagas y
+ * cultivos) en una sola transacción, con un lote JDBC por tabla a través de
+ * InspeccionFitosanitariaDAO y ResultadoTecnicoDAO. Quien mantenga totales leídos de la BD
+ * puede suscribirse con alConfirmar para recibir cada sesión recién confirmada.
+ */
+public class SesionCampoDAO extends GenericDAO {
+    private InspeccionFitosanitariaDAO inspeccionDAO;
+    private ResultadoTecnicoDAO resultadoDAO;
+    private final List<Consumer<SesionCampo>> oyentes = new CopyOnWriteArrayList<>();
+
+    public SesionCampoDAO() {
+        this(Registro.obtener(InspeccionFitosanitariaDAO.class, InspeccionFitosanitariaDAO::new),
+                Registro.obtener(ResultadoTecnicoDAO.class, ResultadoTecnicoDAO::new));
+    }
+
+    public SesionCampoDAO(InspeccionFitosanitariaDAO inspeccionDAO, ResultadoTecnicoDAO resultadoDAO) {
+        this.inspeccionDAO = inspeccionDAO;
+        this.resultadoDAO = resultadoDAO;
+    }
+
+    /**
+     * Registra una acción que se ejecuta con cada sesión después de confirmarla.
+     */
+    public void alConfirmar(Consumer<SesionCampo> oyente) {
+        oyentes.add(oyente);
+    }
+
+    private interface Parte {
+        int[] ejecutar() throws SQLException;
+    }
+
+    /**
+     * Aplica la sesión. Si algún elemento falla se revierte todo y el resultado indica
+     * cuál falló; los demás quedan como no aplicados.
+     */
+    public ResultadoSesion aplicar(SesionCampo sesion) {
+        byte[] estados = new byte[sesion.getTotalElementos()];
+        Arrays.fill(estados, ResultadoSesion.NO_APLICADO);
+        List<?>[] listas = { sesion.getInspecciones(), sesion.getLotesInspeccion(), sesion.getResultados(),
+                sesion.getPlagasResultado(), sesion.getCultivosResultado() };
+        Parte[] partes = {
+            () -> inspeccionDAO.insertarVarias(sesion.getInspecciones()),
+            () -> inspeccionDAO.asociarLotes(sesion.getLotesInspeccion()),
+            () -> resultadoDAO.insertarVarios(sesion.getResultados()),
+            () -> resultadoDAO.asociarPlagas(sesion.getPlagasResultado()),
+            () -> resultadoDAO.asociarCultivos(sesion.getCultivosResultado())
+        };
+        if (conexion == null) {
+            return new ResultadoSesion(false, "Sin conexión a la base de datos", estados);
+        }
+        // Entre iniciar y confirmar, la conexión del pool queda fijada a este hilo: los dos DAOs
+        // escriben en la misma transacción y las escrituras de otros hilos van por otras conexiones.
+        // La reversión va en finally: una RuntimeException tampoco puede dejarla fijada
+        int inicio = 0;
+        int tamano = 0;
+        boolean confirmado = false;
+        try {
+            iniciarTransaccion();
+            for (int i = 0; i < partes.length; i++) {
+                tamano = listas[i].size();
+                if (tamano > 0) {
+                    partes[i].ejecutar();
+                }
+                inicio += tamano;
+            }
+            confirmarTransaccion();
+            confirmado = true;
+            Arrays.fill(estados, ResultadoSesion.APLICADO);
+            avisar(sesion);
+            return new ResultadoSesion(true, "", estados);
+        } catch (BatchUpdateException e) {
+            marcarFallidos(estados, inicio, tamano, e.getUpdateCounts());
+            return new ResultadoSesion(false, e.getMessage(), estados);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ResultadoSesion(false, e.getMessage(), estados);
+        } finally {
+            if (!confirmado) {
+                revertirTransaccion();
+            }
+        }
+    }
+
+    private void avisar(SesionCampo sesion) {
+        for (Consumer<SesionCampo> oyente : oyentes) {
+            try {
+                oyente.accept(sesion);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Según el driver, getUpdateCounts trae un conteo por fila (con EXECUTE_FAILED en las
+     * que fallaron) o solo los de las filas anteriores a la primera falla.
+     */
+    private static void marcarFallidos(byte[] estados, int inicio, int tamano, int[] conteos) {
+        if (conteos == null || conteos.length < tamano) {
+            int fallo = conteos != null ? conteos.length : 0;
+            if (fallo < tamano) {
+                estados[inicio + fallo] = ResultadoSesion.FALLIDO;
+            }
+            return;
+        }
+        for (int i = 0; i < tamano; i++) {
+            if (conteos[i] == Statement.EXECUTE_FAILED) {
+                estados[inicio + i] = ResultadoSesion.FALLIDO;
+            }
+        }
+    }
+}
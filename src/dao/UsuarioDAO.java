@@ -88,9 +88,13 @@ public abstract class UsuarioDAO extends GenericDAO {
         try {
             ps = conexion.prepareStatement(sql);
             ps.setString(1, numeroIdentificacion);
+            // El llamador cierra el ResultSet; con él se cierra la sentencia y se libera la conexión
+            ps.closeOnCompletion();
             return ps.executeQuery();
         } catch (SQLException e) {
             e.printStackTrace();
+            // Sin ResultSet que cerrar, closeOnCompletion no actúa: se cierra aquí
+            cerrarRecursos(ps, null);
             return null;
         }
     }
@@ -104,9 +108,11 @@ public abstract class UsuarioDAO extends GenericDAO {
         try {
             ps = conexion.prepareStatement(sql);
             ps.setString(1, id);
+            ps.closeOnCompletion();
             return ps.executeQuery();
         } catch (SQLException e) {
             e.printStackTrace();
+            cerrarRecursos(ps, null);
             return null;
         }
     }
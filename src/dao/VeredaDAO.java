@@ -6,7 +6,9 @@ import model.Departamento;
 import model.Predio;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * DAO para la gestión de veredas en la base de datos.
@@ -127,6 +129,30 @@ public class VeredaDAO extends GenericDAO {
         return lista;
     }
 
+    /**
+     * Obtiene únicamente los identificadores de todas las veredas.
+     * Útil para validar referencias en cargas masivas sin construir objetos Vereda.
+     */
+    public Set<String> listarIds() {
+        Set<String> ids = new HashSet<>();
+        String sql = "SELECT id FROM vereda";
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conexion.prepareStatement(sql);
+            rs = ps.executeQuery();
+            
+            while (rs.next()) {
+                ids.add(rs.getString("id"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            cerrarRecursos(ps, rs);
+        }
+        return ids;
+    }
+
     /**
      * Lista las veredas de un municipio específico.
      */
@@ -1,101 +1,248 @@
 package logica;
+import dao.Registro;
+import dao.SesionCampoDAO;
+import model.ResultadoSesion;
+import model.SesionCampo;
+import negocio.CatalogoGeografico;
 import negocio.alertas.GestorAlertas;
 import negocio.cultivos.GestorCultivos;
 import negocio.departamentos.GestorDepartamentos;
 import negocio.informes.GestorInformes;
+import negocio.informes.ResumenFitosanitario;
 import negocio.inspecciones.GestorInspecciones;
 import negocio.municipios.GestorMunicipios;
 import negocio.plagas.GestorPlagas;
 import negocio.predios.GestorPredios;
+import negocio.usuarios.GestorPropietarios;
 import negocio.resultados.GestorResultados;
 import negocio.veredas.GestorVeredas;
 import negocio.usuarios.GestorUsuarios;
 
+/**
+ * Punto de entrada de la capa de negocio. Los gestores son únicos en el proceso (ver
+ * Registro) y se crean en el primer uso y no en el constructor, porque varios abren su DAO al
+ * construirse; así abrir la aplicación no espera a la BD y crear otro controlador no
+ * duplica gestores, DAOs ni los datos que estos guardan en memoria.
+ */
 public class ControladorSistema {
-    private GestorPredios gestorPredios;
-    private GestorInspecciones gestorInspecciones;
-    private GestorResultados gestorResultados;
-    private GestorUsuarios gestorUsuarios;
-    private GestorAlertas gestorAlertas;
-    private GestorCultivos gestorCultivos;
-    private GestorDepartamentos gestorDepartamentos;
-    private GestorInformes gestorInformes;
-    private GestorMunicipios gestorMunicipios;
-    private GestorPlagas gestorPlagas;
-    private GestorVeredas gestorVeredas;
+    private static volatile ControladorSistema compartido;
 
     public ControladorSistema() {
-        this.gestorPredios = new GestorPredios();
-        this.gestorInspecciones = new GestorInspecciones();
-        this.gestorResultados = new GestorResultados();
-        this.gestorUsuarios = new GestorUsuarios();
-        this.gestorAlertas = new GestorAlertas();
-        this.gestorCultivos = new GestorCultivos();
-        this.gestorDepartamentos = new GestorDepartamentos();
-        this.gestorInformes = new GestorInformes();
-        this.gestorMunicipios = new GestorMunicipios();
-        this.gestorPlagas = new GestorPlagas();
-        this.gestorVeredas = new GestorVeredas();
+    }
+
+    /**
+     * Controlador único del proceso, creado en el primer uso. Las ventanas del cliente y el
+     * servidor lo comparten para no duplicar gestores ni datos en memoria.
+     */
+    public static ControladorSistema getCompartido() {
+        ControladorSistema c = compartido;
+        if (c == null) {
+            synchronized (ControladorSistema.class) {
+                c = compartido;
+                if (c == null) {
+                    c = new ControladorSistema();
+                    compartido = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    private GestorResultados crearGestorResultados() {
+        GestorResultados gestor = new GestorResultados();
+        // Los totales de incidencia regional se cargan aquí, antes de que llegue el primer
+        // resultado, y después solo suman los resultados guardados en la BD. Las reglas de
+        // alerta también ven solo esos: un resultado que solo está en memoria no genera alertas
+        GestorInformes informes = getGestorInformes();
+        gestor.alGuardar(informes::acumularResultado);
+        gestor.alGuardar(r -> getGestorAlertas().procesarResultado(r));
+        return gestor;
+    }
+
+    private GestorInformes crearGestorInformes() {
+        GestorInformes gestor = new GestorInformes();
+        gestor.setResolverVereda(this::resolverVeredaInspeccion);
+        gestor.cargarIncidencia();
+        gestor.agregarOyente(i -> getGestorAlertas().procesarInforme(i));
+        return gestor;
+    }
+
+    private GestorAlertas crearGestorAlertas() {
+        GestorAlertas gestor = new GestorAlertas();
+        gestor.setResolverRegion(this::resolverMunicipioResultado);
+        gestor.setResolverRegionInforme(this::resolverMunicipioInforme);
+        gestor.setResolverDepartamento(this::resolverDepartamentoRegion);
+        return gestor;
+    }
+
+    private ResumenFitosanitario crearResumenFitosanitario() {
+        ResumenFitosanitario resumen = new ResumenFitosanitario();
+        // Se suscribe antes de cargar para no perder lo que llegue mientras tanto. Solo recibe
+        // lo que ya está en la BD, para que recargar no cambie las cifras
+        getGestorAlertas().alPublicar(resumen::registrarAlerta);
+        getSesionCampoDAO().alConfirmar(resumen::registrarSesion);
+        resumen.cargar();
+        return resumen;
+    }
+
+    /**
+     * Ubica la vereda de una inspección registrada en memoria a través de su predio.
+     */
+    private String resolverVeredaInspeccion(String idInspeccion) {
+        model.InspeccionFitosanitaria inspeccion = getGestorInspecciones().consultarInspeccion(idInspeccion);
+        if (inspeccion == null || inspeccion.getPredioId() == null || inspeccion.getPredioId().isEmpty()) {
+            return null;
+        }
+        model.Predio predio = getGestorPredios().consultarPredio(inspeccion.getPredioId());
+        return predio != null && predio.getIdVereda() != null && !predio.getIdVereda().isEmpty()
+                ? predio.getIdVereda() : null;
+    }
+
+    /**
+     * Municipio del resultado (o su vereda, si el municipio no se conoce).
+     */
+    private String resolverMunicipioResultado(model.ResultadoTecnico resultado) {
+        String idInspeccion = resultado.getInspeccionFitosanitaria() != null
+                ? resultado.getInspeccionFitosanitaria().getId() : resultado.getInspeccionId();
+        negocio.informes.AgregadorIncidencia agregador = getGestorInformes().getAgregadorIncidencia();
+        String idVereda = agregador.resolverVeredaInspeccion(idInspeccion);
+        if (idVereda == null) {
+            return null;
+        }
+        String idMunicipio = agregador.obtenerMunicipio(idVereda);
+        return idMunicipio != null ? idMunicipio : idVereda;
+    }
+
+    /**
+     * Municipio de un informe, igual que para los resultados: por su resultado técnico si lo
+     * trae y si no por el predio de su código ICA.
+     */
+    private String resolverMunicipioInforme(model.InformeFitosanitario informe) {
+        if (informe.getResultadoTecnico() != null) {
+            String region = resolverMunicipioResultado(informe.getResultadoTecnico());
+            if (region != null) {
+                return region;
+            }
+        }
+        model.Predio predio = getGestorPredios().consultarPredioPorCodigoIca(informe.getCodigoIca());
+        if (predio == null || predio.getIdVereda() == null || predio.getIdVereda().isEmpty()) {
+            return null;
+        }
+        String idMunicipio = getGestorInformes().getAgregadorIncidencia().obtenerMunicipio(predio.getIdVereda());
+        return idMunicipio != null ? idMunicipio : predio.getIdVereda();
+    }
+
+    /**
+     * Departamento de la región de una alerta, que es un municipio o, en su defecto, una vereda.
+     */
+    private String resolverDepartamentoRegion(String region) {
+        negocio.informes.AgregadorIncidencia agregador = getGestorInformes().getAgregadorIncidencia();
+        String idDepartamento = agregador.obtenerDepartamentoDeMunicipio(region);
+        return idDepartamento != null ? idDepartamento : agregador.obtenerDepartamento(region);
+    }
+
+    /**
+     * Aplica en una sola transacción una jornada de campo subida desde una tableta y,
+     * si se confirma, la incorpora a los gestores (lo que actualiza incidencia y alertas).
+     */
+    public ResultadoSesion aplicarSesionCampo(SesionCampo sesion) {
+        // Los gestores (y con ellos los totales cargados de la BD) deben existir antes de
+        // confirmar; si se crearan después, la carga ya incluiría esta sesión
+        GestorInspecciones inspecciones = getGestorInspecciones();
+        GestorResultados resultados = getGestorResultados();
+        ResultadoSesion resultado = getSesionCampoDAO().aplicar(sesion);
+        if (resultado.isConfirmada()) {
+            for (model.InspeccionFitosanitaria inspeccion : sesion.getInspecciones()) {
+                inspecciones.registrarInspeccion(inspeccion);
+            }
+            for (model.ResultadoTecnico r : sesion.getResultados()) {
+                resultados.registrarResultadoGuardado(r);
+            }
+        }
+        return resultado;
+    }
+
+    private SesionCampoDAO getSesionCampoDAO() {
+        return Registro.obtener(SesionCampoDAO.class, SesionCampoDAO::new);
     }
 
     public GestorPredios getGestorPredios() {
-        return gestorPredios;
+        return Registro.obtener(GestorPredios.class, GestorPredios::new);
     }
 
     public GestorInspecciones getGestorInspecciones() {
-        return gestorInspecciones;
+        return Registro.obtener(GestorInspecciones.class, GestorInspecciones::new);
     }
 
     public GestorResultados getGestorResultados() {
-        return gestorResultados;
+        return Registro.obtener(GestorResultados.class, this::crearGestorResultados);
     }
 
     public GestorUsuarios getGestorUsuarios() {
-        return gestorUsuarios;
+        return Registro.obtener(GestorUsuarios.class, GestorUsuarios::new);
     }
 
     public GestorAlertas getGestorAlertas() {
-        return gestorAlertas;
+        return Registro.obtener(GestorAlertas.class, this::crearGestorAlertas);
     }
 
     public GestorCultivos getGestorCultivos() {
-        return gestorCultivos;
+        return Registro.obtener(GestorCultivos.class, GestorCultivos::new);
     }
 
     public GestorDepartamentos getGestorDepartamentos() {
-        return gestorDepartamentos;
+        return Registro.obtener(GestorDepartamentos.class, GestorDepartamentos::new);
     }
 
     public GestorInformes getGestorInformes() {
-        return gestorInformes;
+        return Registro.obtener(GestorInformes.class, this::crearGestorInformes);
     }
 
     public GestorMunicipios getGestorMunicipios() {
-        return gestorMunicipios;
+        return Registro.obtener(GestorMunicipios.class, GestorMunicipios::new);
     }
 
     public GestorPlagas getGestorPlagas() {
-        return gestorPlagas;
+        return Registro.obtener(GestorPlagas.class, GestorPlagas::new);
+    }
+
+    public GestorPropietarios getGestorPropietarios() {
+        return Registro.obtener(GestorPropietarios.class, GestorPropietarios::new);
+    }
+
+    /**
+     * División territorial en memoria para los combos; ver CatalogoGeografico.
+     */
+    public CatalogoGeografico getCatalogoGeografico() {
+        return Registro.obtener(CatalogoGeografico.class, CatalogoGeografico::new);
+    }
+
+    /**
+     * Cifras del tablero, cargadas la primera vez y actualizadas con cada alerta guardada y
+     * cada sesión de campo confirmada; ver ResumenFitosanitario.
+     */
+    public ResumenFitosanitario getResumenFitosanitario() {
+        return Registro.obtener(ResumenFitosanitario.class, this::crearResumenFitosanitario);
     }
 
     public GestorVeredas getGestorVeredas() {
-        return gestorVeredas;
+        return Registro.obtener(GestorVeredas.class, GestorVeredas::new);
     }
     
     // Métodos para gestión de propietarios
     public boolean registrarPropietario(model.Propietario propietario) {
-        return gestorUsuarios.registrarPropietario(propietario);
+        return getGestorUsuarios().registrarPropietario(propietario);
     }
     
     public model.Propietario consultarPropietario(String numeroIdentificacion) {
-        return gestorUsuarios.consultarPropietario(numeroIdentificacion);
+        return getGestorUsuarios().consultarPropietario(numeroIdentificacion);
     }
     
     public boolean actualizarPropietario(model.Propietario propietario) {
-        return gestorUsuarios.actualizarPropietario(propietario);
+        return getGestorUsuarios().actualizarPropietario(propietario);
     }
     
     public java.util.List<model.Propietario> listarPropietarios() {
-        return gestorUsuarios.listarPropietarios();
+        return getGestorUsuarios().listarPropietarios();
     }
 }
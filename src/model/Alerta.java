@@ -1,5 +1,7 @@
 package model;
 
+import java.time.LocalDateTime;
+
 /**
  * representa las notificaciones o advertencias generadas automáticamente a partir de los resultados de un informe fitosanitario.
  * Se utiliza para informar a los productores, técnicos o autoridades competentes sobre la presencia de condiciones críticas que requieren atención inmediata, como altos niveles de incidencia o brotes de plagas peligrosas.
@@ -21,6 +23,26 @@ public class Alerta {
 	 */
 	private InformeFitosanitario informeFitosanitario;
 
+	/**
+	 * Plaga que originó la alerta, cuando la genera el motor de reglas. No se persiste.
+	 */
+	private String idPlaga;
+
+	/**
+	 * Zona (municipio, vereda o lugar de producción) en la que se detectó la condición. No se persiste.
+	 */
+	private String region;
+
+	/**
+	 * Explicación legible de la regla que se disparó. No se persiste.
+	 */
+	private String descripcion;
+
+	/**
+	 * Momento en que se generó la alerta. No se persiste.
+	 */
+	private LocalDateTime fechaGeneracion;
+
 	/**
 	 * Constructor que inicializa una nueva alerta vacía.
 	 */
@@ -28,6 +50,10 @@ public class Alerta {
 		this.id = "";
 		this.nivelRiesgo = "";
 		this.informeFitosanitario = null;
+		this.idPlaga = "";
+		this.region = "";
+		this.descripcion = "";
+		this.fechaGeneracion = null;
 	}
 
 	/**
@@ -66,4 +92,36 @@ public class Alerta {
 		this.informeFitosanitario = pInformeFitosanitario;
 	}
 
+	public void setIdPlaga(String pIdPlaga) {
+		this.idPlaga = pIdPlaga;
+	}
+
+	public String getIdPlaga() {
+		return this.idPlaga;
+	}
+
+	public void setRegion(String pRegion) {
+		this.region = pRegion;
+	}
+
+	public String getRegion() {
+		return this.region;
+	}
+
+	public void setDescripcion(String pDescripcion) {
+		this.descripcion = pDescripcion;
+	}
+
+	public String getDescripcion() {
+		return this.descripcion;
+	}
+
+	public void setFechaGeneracion(LocalDateTime pFechaGeneracion) {
+		this.fechaGeneracion = pFechaGeneracion;
+	}
+
+	public LocalDateTime getFechaGeneracion() {
+		return this.fechaGeneracion;
+	}
+
 }
@@ -1,5 +1,6 @@
 package model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,9 +36,9 @@ public class InformeFitosanitario {
 	private String observaciones;
 
 	/**
-	 * Fecha de elaboración del informe, generalmente en formato "AAAA-MM-DD".
+	 * Fecha de elaboración del informe. Se persiste como DATE.
 	 */
-	private String fechaInforme;
+	private LocalDate fechaInforme;
 
 	private List<ResultadoTecnico> resultadosTecnicos;
 
@@ -52,7 +53,7 @@ public class InformeFitosanitario {
 		this.totalPlantasEvaluadas = 0;
 		this.nivelIncidencia = 0.0;
 		this.observaciones = "";
-		this.fechaInforme = "";
+		this.fechaInforme = null;
 		this.resultadosTecnicos = new ArrayList<>();
 		this.alertas = new ArrayList<>();
 	}
@@ -130,14 +131,14 @@ public class InformeFitosanitario {
 	/**
 	 * Establece la fecha oficial de elaboración del informe.
 	 */
-	public void setFechaInforme(String pFechaInforme) {
+	public void setFechaInforme(LocalDate pFechaInforme) {
 		this.fechaInforme = pFechaInforme;
 	}
 
 	/**
 	 * Devuelve la fecha del informe.
 	 */
-	public String getFechaInforme() {
+	public LocalDate getFechaInforme() {
 		return this.fechaInforme;
 	}
 
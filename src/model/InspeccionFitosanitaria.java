@@ -1,5 +1,6 @@
 package model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,9 +23,9 @@ public class InspeccionFitosanitaria {
 	private String codigoIca;
 
 	/**
-	 * echa en la que se llevó a cabo la inspección, generalmente almacenada en formato estándar (por ejemplo, "2025-10-11").
+	 * Fecha en la que se llevó a cabo la inspección. Se persiste como DATE.
 	 */
-	private String fechaInspeccion;
+	private LocalDate fechaInspeccion;
 
 	private List<Lote> lotes;
 
@@ -38,7 +39,7 @@ public class InspeccionFitosanitaria {
 	public InspeccionFitosanitaria() {
 		this.id = "";
 		this.codigoIca = "";
-		this.fechaInspeccion = "";
+		this.fechaInspeccion = null;
 		this.predioId = "";
 		this.tecnico = "";
 		this.observaciones = "";
@@ -46,10 +47,10 @@ public class InspeccionFitosanitaria {
 		this.resultadosTecnicos = new ArrayList<>();
 		this.asistenteTecnico = null;
 	}
-	public void setFecha(String fecha) {
+	public void setFecha(LocalDate fecha) {
 		this.fechaInspeccion = fecha;
 	}
-	public String getFecha() {
+	public LocalDate getFecha() {
 		return this.fechaInspeccion;
 	}
 	public void setPredioId(String predioId) {
@@ -102,11 +103,11 @@ public class InspeccionFitosanitaria {
 	/**
 	 * Registra o actualiza la fecha en que se realizó la inspección, garantizando la trazabilidad temporal de los datos.
 	 */
-	public void setFechaInspeccion(String pFechaInspeccion) {
+	public void setFechaInspeccion(LocalDate pFechaInspeccion) {
 		this.fechaInspeccion = pFechaInspeccion;
 	}
 
-	public String getFechaInspeccion() {
+	public LocalDate getFechaInspeccion() {
 		return this.fechaInspeccion;
 	}
 
@@ -0,0 +1,53 @@
+package model;
+
+/**
+ * Resultado de aplicar una SesionCampo. La sesión se aplica en una sola transacción:
+ * o se confirman todos sus elementos o ninguno. El estado de cada elemento sigue el
+ * orden de SesionCampo.getTotalElementos() e indica cuál provocó el fallo.
+ */
+public class ResultadoSesion {
+	public static final byte APLICADO = 0;
+	public static final byte FALLIDO = 1;
+	public static final byte NO_APLICADO = 2;
+
+	private boolean confirmada;
+	private String mensaje;
+	private byte[] estados;
+
+	public ResultadoSesion(boolean confirmada, String mensaje, byte[] estados) {
+		this.confirmada = confirmada;
+		this.mensaje = mensaje;
+		this.estados = estados;
+	}
+
+	public boolean isConfirmada() {
+		return this.confirmada;
+	}
+
+	public String getMensaje() {
+		return this.mensaje;
+	}
+
+	public byte[] getEstados() {
+		return this.estados;
+	}
+
+	public byte getEstado(int indice) {
+		return this.estados[indice];
+	}
+
+	public int contar(byte estado) {
+		int n = 0;
+		for (byte e : estados) {
+			if (e == estado) n++;
+		}
+		return n;
+	}
+
+	@Override
+	public String toString() {
+		return (confirmada ? "Sesión confirmada" : "Sesión revertida") + ": " + contar(APLICADO) + " aplicados, "
+				+ contar(FALLIDO) + " fallidos, " + contar(NO_APLICADO) + " no aplicados"
+				+ (mensaje != null && !mensaje.isEmpty() ? " (" + mensaje + ")" : "");
+	}
+}
@@ -1,6 +1,8 @@
 package model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,7 +12,7 @@ import java.util.List;
 public class ResultadoTecnico {
 	private String inspeccionId;
 	private String descripcion;
-	private String fecha;
+	private LocalDate fecha;
 
 	/**
 	 * Identificador único del resultado técnico, utilizado para su trazabilidad dentro del sistema.
@@ -47,7 +49,7 @@ public class ResultadoTecnico {
 		this.id = "";
 		this.inspeccionId = "";
 		this.descripcion = "";
-		this.fecha = "";
+		this.fecha = null;
 		this.totalPlantasEvaluadas = 0;
 		this.plantasAfectadas = 0;
 		this.observaciones = "";
@@ -68,10 +70,10 @@ public class ResultadoTecnico {
 	public String getDescripcion() {
 		return this.descripcion;
 	}
-	public void setFecha(String fecha) {
+	public void setFecha(LocalDate fecha) {
 		this.fecha = fecha;
 	}
-	public String getFecha() {
+	public LocalDate getFecha() {
 		return this.fecha;
 	}
 
@@ -153,6 +155,10 @@ public class ResultadoTecnico {
 		return this.plagas.isEmpty() ? null : this.plagas.get(0);
 	}
 
+	public List<Plaga> getPlagas() {
+		return Collections.unmodifiableList(this.plagas);
+	}
+
 	public void setInspeccionFitosanitaria(InspeccionFitosanitaria pInspeccionFitosanitaria) {
 		this.inspeccionFitosanitaria = pInspeccionFitosanitaria;
 	}
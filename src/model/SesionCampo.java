@@ -0,0 +1,76 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos recogidos por un técnico durante una jornada de campo sin conexión, que se
+ * suben juntos al servidor: inspecciones, lotes inspeccionados, resultados técnicos y
+ * las plagas y cultivos asociados a cada resultado.
+ * Los pares de asociación se guardan como {idInspeccion, idLote} o {idResultado, idPlaga/idCultivo}.
+ */
+public class SesionCampo {
+
+	private List<InspeccionFitosanitaria> inspecciones;
+	private List<String[]> lotesInspeccion;
+	private List<ResultadoTecnico> resultados;
+	private List<String[]> plagasResultado;
+	private List<String[]> cultivosResultado;
+
+	public SesionCampo() {
+		this.inspecciones = new ArrayList<>();
+		this.lotesInspeccion = new ArrayList<>();
+		this.resultados = new ArrayList<>();
+		this.plagasResultado = new ArrayList<>();
+		this.cultivosResultado = new ArrayList<>();
+	}
+
+	public void agregarInspeccion(InspeccionFitosanitaria pInspeccion) {
+		this.inspecciones.add(pInspeccion);
+	}
+
+	public void asociarLote(String idInspeccion, String idLote) {
+		this.lotesInspeccion.add(new String[] { idInspeccion, idLote });
+	}
+
+	public void agregarResultado(ResultadoTecnico pResultado) {
+		this.resultados.add(pResultado);
+	}
+
+	public void asociarPlaga(String idResultado, String idPlaga) {
+		this.plagasResultado.add(new String[] { idResultado, idPlaga });
+	}
+
+	public void asociarCultivo(String idResultado, String idCultivo) {
+		this.cultivosResultado.add(new String[] { idResultado, idCultivo });
+	}
+
+	public List<InspeccionFitosanitaria> getInspecciones() {
+		return this.inspecciones;
+	}
+
+	public List<String[]> getLotesInspeccion() {
+		return this.lotesInspeccion;
+	}
+
+	public List<ResultadoTecnico> getResultados() {
+		return this.resultados;
+	}
+
+	public List<String[]> getPlagasResultado() {
+		return this.plagasResultado;
+	}
+
+	public List<String[]> getCultivosResultado() {
+		return this.cultivosResultado;
+	}
+
+	/**
+	 * Total de elementos de la sesión, en el orden en que se reportan sus estados:
+	 * inspecciones, lotes, resultados, plagas y cultivos.
+	 */
+	public int getTotalElementos() {
+		return inspecciones.size() + lotesInspeccion.size() + resultados.size()
+				+ plagasResultado.size() + cultivosResultado.size();
+	}
+}
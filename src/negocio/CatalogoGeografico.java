@@ -0,0 +1,176 @@
+package negocio;
+
+import dao.GeografiaDAO;
+import dao.Registro;
+import model.Departamento;
+import model.Municipio;
+import model.Vereda;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Copia en memoria de la división territorial (departamentos, municipios y veredas) para
+ * los combos en cascada. Se carga completa en segundo plano (precargar, al iniciar sesión) y
+ * las consultas responden siempre desde memoria, sin esperar a la BD. Para no servir datos
+ * viejos se revalida comparando la firma de versión de las tablas, como mucho cada
+ * REVALIDAR_CADA_MS, y solo se vuelve a leer todo si la firma cambió. Tras cada recarga se
+ * avisa a los oyentes (en el hilo del catálogo).
+ */
+public class CatalogoGeografico {
+	public static final long REVALIDAR_CADA_MS = 60_000;
+
+	private final GeografiaDAO dao;
+	private final ExecutorService hilo = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "catalogo-geografico");
+		t.setDaemon(true);
+		return t;
+	});
+	private final CopyOnWriteArrayList<Runnable> oyentes = new CopyOnWriteArrayList<>();
+	private volatile Instantanea actual = new Instantanea(null, null, null, null);
+	private volatile long ultimaRevision;
+	private CompletableFuture<Void> enCurso = CompletableFuture.completedFuture(null);
+
+	public CatalogoGeografico() {
+		this(Registro.obtener(GeografiaDAO.class, GeografiaDAO::new));
+	}
+
+	public CatalogoGeografico(GeografiaDAO dao) {
+		this.dao = dao;
+	}
+
+	/**
+	 * Contenido del catálogo en un momento dado; no se modifica, se reemplaza entero.
+	 */
+	private static final class Instantanea {
+		final String firma;
+		final boolean cargada;
+		final List<Departamento> departamentos;
+		final List<Municipio> municipios;
+		final Map<String, Departamento> departamentosPorId = new HashMap<>();
+		final Map<String, List<Municipio>> municipiosPorDepartamento = new HashMap<>();
+		final Map<String, List<Vereda>> veredasPorMunicipio = new HashMap<>();
+
+		Instantanea(String firma, List<Departamento> departamentos, List<Municipio> municipios, List<Vereda> veredas) {
+			this.firma = firma;
+			this.cargada = departamentos != null;
+			this.departamentos = departamentos != null ? Collections.unmodifiableList(departamentos) : List.of();
+			this.municipios = municipios != null ? Collections.unmodifiableList(municipios) : List.of();
+			for (Departamento d : this.departamentos) {
+				departamentosPorId.put(d.getId(), d);
+			}
+			for (Municipio m : this.municipios) {
+				String idDepartamento = m.getDepartamento() != null ? m.getDepartamento().getId() : null;
+				municipiosPorDepartamento.computeIfAbsent(idDepartamento, k -> new ArrayList<>()).add(m);
+			}
+			if (veredas != null) {
+				for (Vereda v : veredas) {
+					String idMunicipio = v.getMunicipio() != null ? v.getMunicipio().getId() : null;
+					veredasPorMunicipio.computeIfAbsent(idMunicipio, k -> new ArrayList<>()).add(v);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Carga el catálogo en segundo plano si aún no está cargado; si ya lo está, lo revalida.
+	 */
+	public CompletableFuture<Void> precargar() {
+		return actual.cargada ? revalidar() : programar(false);
+	}
+
+	/**
+	 * Comprueba la firma de versión y recarga si cambió. Si la última revisión fue hace menos
+	 * de REVALIDAR_CADA_MS no consulta nada.
+	 */
+	public CompletableFuture<Void> revalidar() {
+		if (actual.cargada && System.currentTimeMillis() - ultimaRevision < REVALIDAR_CADA_MS) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return programar(false);
+	}
+
+	/**
+	 * Recarga aunque la firma no haya cambiado; se usa después de escribir en estas tablas.
+	 */
+	public CompletableFuture<Void> invalidar() {
+		return programar(true);
+	}
+
+	/**
+	 * Una sola carga a la vez: si ya hay una en curso se reutiliza, salvo que se fuerce la
+	 * recarga, que se encola detrás para ver también lo escrito mientras tanto.
+	 */
+	private synchronized CompletableFuture<Void> programar(boolean forzar) {
+		if (!enCurso.isDone() && !forzar) {
+			return enCurso;
+		}
+		enCurso = enCurso.exceptionally(e -> null).thenRunAsync(() -> actualizar(forzar), hilo);
+		return enCurso;
+	}
+
+	private void actualizar(boolean forzar) {
+		String firma = dao.firma();
+		ultimaRevision = System.currentTimeMillis();
+		Instantanea anterior = actual;
+		if (!forzar && anterior.cargada && firma != null && firma.equals(anterior.firma)) {
+			return;
+		}
+		List<Departamento> departamentos = dao.listarDepartamentos();
+		List<Municipio> municipios = dao.listarMunicipios();
+		List<Vereda> veredas = dao.listarVeredas();
+		if (departamentos == null || municipios == null || veredas == null) {
+			// Sin BD se conserva lo que hubiera
+			return;
+		}
+		actual = new Instantanea(firma, departamentos, municipios, veredas);
+		for (Runnable oyente : oyentes) {
+			oyente.run();
+		}
+	}
+
+	/**
+	 * Registra un oyente que se llama cada vez que el catálogo se recarga. El catálogo vive
+	 * lo que la sesión, así que quien dure menos debe quitarse con quitarOyente. Registrar
+	 * dos veces el mismo oyente no lo duplica.
+	 */
+	public void alCambiar(Runnable oyente) {
+		oyentes.addIfAbsent(oyente);
+	}
+
+	public void quitarOyente(Runnable oyente) {
+		oyentes.remove(oyente);
+	}
+
+	public boolean isCargado() {
+		return actual.cargada;
+	}
+
+	/** Departamentos ordenados por nombre. */
+	public List<Departamento> getDepartamentos() {
+		return actual.departamentos;
+	}
+
+	public Departamento getDepartamento(String id) {
+		return actual.departamentosPorId.get(id);
+	}
+
+	/** Todos los municipios ordenados por nombre. */
+	public List<Municipio> getMunicipios() {
+		return actual.municipios;
+	}
+
+	public List<Municipio> getMunicipios(String idDepartamento) {
+		return Collections.unmodifiableList(actual.municipiosPorDepartamento.getOrDefault(idDepartamento, List.of()));
+	}
+
+	public List<Vereda> getVeredas(String idMunicipio) {
+		return Collections.unmodifiableList(actual.veredasPorMunicipio.getOrDefault(idMunicipio, List.of()));
+	}
+}
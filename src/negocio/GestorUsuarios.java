@@ -1,6 +1,7 @@
 package negocio;
 
 import dao.PropietarioDAO;
+import dao.Registro;
 import model.Propietario;
 import java.util.List;
 
@@ -8,7 +9,7 @@ public class GestorUsuarios {
     private PropietarioDAO propietarioDAO;
     
     public GestorUsuarios() {
-        this.propietarioDAO = new PropietarioDAO();
+        this.propietarioDAO = Registro.obtener(PropietarioDAO.class, PropietarioDAO::new);
     }
     
     public boolean registrarPropietario(Propietario propietario) {
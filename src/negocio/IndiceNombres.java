@@ -0,0 +1,187 @@
+package negocio;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria para buscar por nombre mientras se escribe. Cada nombre se separa en
+ * palabras normalizadas (minúsculas, sin tildes) y se guarda en un árbol ordenado, de
+ * modo que "maria gom" encuentra a "María Elena Gómez" con una búsqueda por prefijo en
+ * lugar de recorrer todos los elementos. Se mantiene al día con agregar y eliminar.
+ * Es seguro para uso concurrente.
+ *
+ * @param <T> tipo de elemento indexado (propietario, predio...)
+ */
+public class IndiceNombres<T> {
+	private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private final Function<T, String> obtenerId;
+	private final Function<T, String> obtenerTexto;
+	private final NavigableMap<String, Set<String>> porPalabra = new TreeMap<>();
+	private final Map<String, T> porId = new HashMap<>();
+	private final Map<String, String[]> palabrasPorId = new HashMap<>();
+	private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+	/**
+	 * @param obtenerTexto texto por el que se busca cada elemento (puede unir varios campos)
+	 */
+	public IndiceNombres(Function<T, String> obtenerId, Function<T, String> obtenerTexto) {
+		this.obtenerId = obtenerId;
+		this.obtenerTexto = obtenerTexto;
+	}
+
+	/**
+	 * Inserta un elemento o, si ya hay uno con el mismo id, lo reemplaza.
+	 */
+	public void agregar(T elemento) {
+		bloqueo.writeLock().lock();
+		try {
+			agregarSinBloqueo(elemento);
+		} finally {
+			bloqueo.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Descarta todo y vuelve a indexar los elementos dados.
+	 */
+	public void reemplazarTodos(Iterable<T> elementos) {
+		bloqueo.writeLock().lock();
+		try {
+			porPalabra.clear();
+			porId.clear();
+			palabrasPorId.clear();
+			for (T elemento : elementos) {
+				agregarSinBloqueo(elemento);
+			}
+		} finally {
+			bloqueo.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Retira el elemento con el id indicado. Devuelve true si estaba indexado.
+	 */
+	public boolean eliminar(String id) {
+		bloqueo.writeLock().lock();
+		try {
+			return eliminarSinBloqueo(id);
+		} finally {
+			bloqueo.writeLock().unlock();
+		}
+	}
+
+	public int tamano() {
+		bloqueo.readLock().lock();
+		try {
+			return porId.size();
+		} finally {
+			bloqueo.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Hasta limite elementos cuyo texto tiene, por cada palabra de la consulta, alguna
+	 * palabra que empieza por ella. Una consulta vacía no devuelve nada.
+	 */
+	public List<T> buscar(String consulta, int limite) {
+		String[] prefijos = palabras(consulta);
+		List<T> resultado = new ArrayList<>();
+		if (prefijos.length == 0 || limite <= 0) {
+			return resultado;
+		}
+		// Se recorre el prefijo más largo (el más selectivo) y se verifican los demás
+		String guia = prefijos[0];
+		for (String p : prefijos) {
+			if (p.length() > guia.length()) guia = p;
+		}
+		Set<String> vistos = new LinkedHashSet<>();
+		bloqueo.readLock().lock();
+		try {
+			for (Map.Entry<String, Set<String>> e : porPalabra.subMap(guia, true, guia + Character.MAX_VALUE, false).entrySet()) {
+				for (String id : e.getValue()) {
+					if (vistos.add(id) && cumpleTodos(palabrasPorId.get(id), prefijos)) {
+						resultado.add(porId.get(id));
+						if (resultado.size() >= limite) {
+							return resultado;
+						}
+					}
+				}
+			}
+		} finally {
+			bloqueo.readLock().unlock();
+		}
+		return resultado;
+	}
+
+	/**
+	 * Minúsculas, sin tildes ni signos, separado en palabras.
+	 */
+	public static String[] palabras(String texto) {
+		if (texto == null) {
+			return new String[0];
+		}
+		String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+		String[] partes = SEPARADORES.split(normalizado.trim());
+		return partes.length == 1 && partes[0].isEmpty() ? new String[0] : partes;
+	}
+
+	private static boolean cumpleTodos(String[] palabras, String[] prefijos) {
+		for (String prefijo : prefijos) {
+			boolean encontrado = false;
+			for (String palabra : palabras) {
+				if (palabra.startsWith(prefijo)) {
+					encontrado = true;
+					break;
+				}
+			}
+			if (!encontrado) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void agregarSinBloqueo(T elemento) {
+		String id = obtenerId.apply(elemento);
+		if (id == null) {
+			return;
+		}
+		eliminarSinBloqueo(id);
+		String[] palabras = palabras(obtenerTexto.apply(elemento));
+		for (String palabra : new HashSet<>(List.of(palabras))) {
+			porPalabra.computeIfAbsent(palabra, p -> new HashSet<>(2)).add(id);
+		}
+		porId.put(id, elemento);
+		palabrasPorId.put(id, palabras);
+	}
+
+	private boolean eliminarSinBloqueo(String id) {
+		T anterior = porId.remove(id);
+		if (anterior == null) {
+			return false;
+		}
+		for (String palabra : palabrasPorId.remove(id)) {
+			Set<String> ids = porPalabra.get(palabra);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.isEmpty()) {
+					porPalabra.remove(palabra);
+				}
+			}
+		}
+		return true;
+	}
+}
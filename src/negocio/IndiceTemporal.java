@@ -0,0 +1,89 @@
+package negocio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Índice en memoria de elementos ordenados por fecha. Las consultas por rango
+ * se resuelven con búsqueda en el árbol ordenado (O(log n + k)) en lugar de
+ * recorrer y comparar todos los elementos. Los elementos sin fecha no se indexan.
+ *
+ * @param <T> tipo de elemento indexado (inspección, resultado, informe...)
+ */
+public class IndiceTemporal<T> {
+	private final Function<T, String> obtenerId;
+	private final Function<T, LocalDate> obtenerFecha;
+	private final NavigableMap<LocalDate, List<T>> porFecha = new TreeMap<>();
+	private final Map<String, T> porId = new HashMap<>();
+
+	public IndiceTemporal(Function<T, String> obtenerId, Function<T, LocalDate> obtenerFecha) {
+		this.obtenerId = obtenerId;
+		this.obtenerFecha = obtenerFecha;
+	}
+
+	/**
+	 * Inserta un elemento o, si ya hay uno con el mismo id, lo reemplaza.
+	 */
+	public synchronized void agregar(T elemento) {
+		String id = obtenerId.apply(elemento);
+		eliminar(id);
+		LocalDate fecha = obtenerFecha.apply(elemento);
+		if (fecha == null) {
+			return;
+		}
+		porFecha.computeIfAbsent(fecha, f -> new ArrayList<>(2)).add(elemento);
+		porId.put(id, elemento);
+	}
+
+	/**
+	 * Retira el elemento con el id indicado. Devuelve true si estaba indexado.
+	 */
+	public synchronized boolean eliminar(String id) {
+		T anterior = porId.remove(id);
+		if (anterior == null) {
+			return false;
+		}
+		LocalDate fecha = obtenerFecha.apply(anterior);
+		List<T> lista = porFecha.get(fecha);
+		if (lista != null) {
+			lista.remove(anterior);
+			if (lista.isEmpty()) {
+				porFecha.remove(fecha);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Elementos con fecha entre desde y hasta (ambas incluidas), en orden cronológico.
+	 * Un límite null deja el rango abierto por ese lado.
+	 */
+	public synchronized List<T> buscarEnRango(LocalDate desde, LocalDate hasta) {
+		NavigableMap<LocalDate, List<T>> rango = porFecha;
+		if (desde != null && hasta != null) {
+			if (desde.isAfter(hasta)) {
+				return new ArrayList<>();
+			}
+			rango = porFecha.subMap(desde, true, hasta, true);
+		} else if (desde != null) {
+			rango = porFecha.tailMap(desde, true);
+		} else if (hasta != null) {
+			rango = porFecha.headMap(hasta, true);
+		}
+		List<T> resultado = new ArrayList<>();
+		for (List<T> lista : rango.values()) {
+			resultado.addAll(lista);
+		}
+		return resultado;
+	}
+
+	public synchronized int tamano() {
+		return porId.size();
+	}
+}
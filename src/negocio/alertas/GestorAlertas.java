@@ -1,5 +1,136 @@
 package negocio.alertas;
 
+import dao.AlertaDAO;
+import dao.Registro;
+import model.Alerta;
+import model.InformeFitosanitario;
+import model.ResultadoTecnico;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Gestor de alertas. Las alertas se generan automáticamente con el MotorReglasAlertas
+ * a partir de cada resultado o informe recibido y se guardan con AlertaDAO.
+ * Cada alerta nueva, generada o registrada a mano, se reparte además entre las
+ * suscripciones activas, para que los clientes no tengan que consultar la BD.
+ */
 public class GestorAlertas {
+	private AlertaDAO alertaDAO;
+	private MotorReglasAlertas motor;
+	private final List<SuscripcionAlertas> suscripciones = new CopyOnWriteArrayList<>();
+	private final List<Consumer<Alerta>> oyentesPublicadas = new CopyOnWriteArrayList<>();
+	private Function<String, String> resolverDepartamento = region -> null;
+
+	public GestorAlertas() {
+		this.alertaDAO = Registro.obtener(AlertaDAO.class, AlertaDAO::new);
+		this.motor = new MotorReglasAlertas();
+		this.motor.agregarOyente(this::guardarYPublicar);
+	}
+
+	public MotorReglasAlertas getMotor() {
+		return motor;
+	}
+
+	/**
+	 * Registra quién más debe recibir las alertas nuevas (además de la BD).
+	 */
+	public void agregarOyente(Consumer<Alerta> oyente) {
+		motor.agregarOyente(oyente);
+	}
+
+	/**
+	 * Registra una acción que se ejecuta con cada alerta nueva ya guardada, tanto las
+	 * generadas por las reglas como las registradas a mano.
+	 */
+	public void alPublicar(Consumer<Alerta> oyente) {
+		oyentesPublicadas.add(oyente);
+	}
+
+	public void setResolverRegion(Function<ResultadoTecnico, String> resolverRegion) {
+		motor.setResolverRegion(resolverRegion);
+	}
+
+	public void setResolverRegionInforme(Function<InformeFitosanitario, String> resolverRegionInforme) {
+		motor.setResolverRegionInforme(resolverRegionInforme);
+	}
+
+	/**
+	 * Define cómo ubicar el departamento de la región (municipio) de una alerta,
+	 * para filtrar las suscripciones por departamento.
+	 */
+	public void setResolverDepartamento(Function<String, String> resolverDepartamento) {
+		this.resolverDepartamento = resolverDepartamento;
+	}
+
+	/**
+	 * Empieza a entregar las alertas nuevas de nivel igual o superior a nivelMinimo
+	 * (null para todos) en el departamento indicado (null para todo el país).
+	 */
+	public SuscripcionAlertas suscribir(String nivelMinimo, String idDepartamento, SuscripcionAlertas.Entrega entrega) {
+		SuscripcionAlertas suscripcion = new SuscripcionAlertas(nivelMinimo, idDepartamento,
+				SuscripcionAlertas.CAPACIDAD_DEFECTO, entrega);
+		suscripciones.add(suscripcion);
+		suscripcion.iniciar(() -> suscripciones.remove(suscripcion));
+		return suscripcion;
+	}
+
+	public int getCantidadSuscripciones() {
+		return suscripciones.size();
+	}
+
+	/**
+	 * Evalúa las reglas con un resultado técnico recién registrado.
+	 */
+	public void procesarResultado(ResultadoTecnico resultado) {
+		motor.procesar(resultado);
+	}
+
+	/**
+	 * Evalúa las reglas con un informe fitosanitario recién elaborado.
+	 */
+	public void procesarInforme(InformeFitosanitario informe) {
+		motor.procesar(informe);
+	}
+
+	public boolean registrarAlerta(Alerta alerta) {
+		if (alerta == null || alerta.getId() == null || alerta.getId().isEmpty()) {
+			return false;
+		}
+		return guardarYPublicar(alerta);
+	}
+
+	public List<Alerta> listarAlertasActivas() {
+		return alertaDAO.listarAlertasActivas();
+	}
+
+	public List<Alerta> listarAlertas() {
+		return alertaDAO.listar();
+	}
+
+	/**
+	 * Solo se publican las alertas que quedaron guardadas, para que suscriptores y tablero
+	 * no muestren alertas que una recarga no encontraría.
+	 */
+	private boolean guardarYPublicar(Alerta alerta) {
+		if (!alertaDAO.insertar(alerta)) {
+			return false;
+		}
+		publicar(alerta);
+		return true;
+	}
 
+	private void publicar(Alerta alerta) {
+		for (Consumer<Alerta> oyente : oyentesPublicadas) {
+			try {
+				oyente.accept(alerta);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		for (SuscripcionAlertas suscripcion : suscripciones) {
+			suscripcion.publicar(alerta, resolverDepartamento);
+		}
+	}
 }
@@ -0,0 +1,206 @@
+package negocio.alertas;
+
+import model.Alerta;
+import model.InformeFitosanitario;
+import model.Plaga;
+import model.ResultadoTecnico;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Motor de reglas que genera alertas a medida que llegan resultados técnicos e informes.
+ * Cada evento se suma a tres ventanas deslizantes (la plaga en la región, la plaga en
+ * todo el país y la región para todas las plagas) y las reglas se evalúan solo sobre
+ * esas ventanas, sin recorrer datos históricos. Una clave no vuelve a alertar por la
+ * misma regla hasta que sube de nivel o pasa el tiempo de silencio.
+ */
+public class MotorReglasAlertas {
+	/** Duración por defecto de las ventanas: 7 días. */
+	public static final long VENTANA_DEFECTO_MS = 7L * 24 * 60 * 60 * 1000;
+	private static final String TODAS = "*";
+	private static final String[] NIVELES = { "Bajo", "Medio", "Alto", "Crítico" };
+
+	private final long ventanaMs;
+	private final long silencioMs;
+	private final List<ReglaAlerta> reglas = new CopyOnWriteArrayList<>();
+	private final Map<String, VentanaDeslizante> ventanas = new ConcurrentHashMap<>();
+	private final Map<String, long[]> ultimaAlerta = new HashMap<>();
+	private final List<Consumer<Alerta>> oyentes = new CopyOnWriteArrayList<>();
+	private final AtomicLong secuencia = new AtomicLong();
+	private Function<ResultadoTecnico, String> resolverRegion = r -> null;
+	private Function<InformeFitosanitario, String> resolverRegionInforme = i -> null;
+
+	/**
+	 * Motor con ventanas de 7 días, silencio de un día y las reglas de umbral y tendencia por defecto.
+	 */
+	public MotorReglasAlertas() {
+		this(VENTANA_DEFECTO_MS, VENTANA_DEFECTO_MS / 7);
+		reglas.add(new ReglaUmbral());
+		reglas.add(new ReglaTendencia());
+	}
+
+	/**
+	 * Motor sin reglas, para configurarlas con agregarRegla.
+	 */
+	public MotorReglasAlertas(long ventanaMs, long silencioMs) {
+		this.ventanaMs = ventanaMs;
+		this.silencioMs = silencioMs;
+	}
+
+	public void agregarRegla(ReglaAlerta regla) {
+		reglas.add(regla);
+	}
+
+	/**
+	 * Registra quién recibe las alertas generadas (persistencia, notificaciones, tablero).
+	 */
+	public void agregarOyente(Consumer<Alerta> oyente) {
+		oyentes.add(oyente);
+	}
+
+	/**
+	 * Define cómo obtener la región (por ejemplo, el municipio) de un resultado técnico.
+	 */
+	public void setResolverRegion(Function<ResultadoTecnico, String> resolverRegion) {
+		this.resolverRegion = resolverRegion;
+	}
+
+	/**
+	 * Define cómo obtener la región de un informe. Debe usar la misma región que
+	 * setResolverRegion (el municipio) para que ambos caigan en la misma ventana.
+	 */
+	public void setResolverRegionInforme(Function<InformeFitosanitario, String> resolverRegionInforme) {
+		this.resolverRegionInforme = resolverRegionInforme;
+	}
+
+	public List<Alerta> procesar(ResultadoTecnico resultado) {
+		return procesar(resultado, System.currentTimeMillis());
+	}
+
+	/**
+	 * Incorpora un resultado técnico como muestra y devuelve las alertas que generó.
+	 */
+	public List<Alerta> procesar(ResultadoTecnico resultado, long instanteMs) {
+		if (resultado == null || resultado.getTotalPlantasEvaluadas() <= 0) {
+			return new ArrayList<>();
+		}
+		return procesarMuestra(idPlaga(resultado.getPlaga()), resolverRegion.apply(resultado),
+				resultado.getTotalPlantasEvaluadas(), resultado.getPlantasAfectadas(),
+				resultado.getInformeFitosanitario(), instanteMs);
+	}
+
+	public List<Alerta> procesar(InformeFitosanitario informe) {
+		return procesar(informe, System.currentTimeMillis());
+	}
+
+	/**
+	 * Incorpora un informe consolidado como una muestra con su incidencia reportada.
+	 */
+	public List<Alerta> procesar(InformeFitosanitario informe, long instanteMs) {
+		if (informe == null || informe.getTotalPlantasEvaluadas() <= 0) {
+			return new ArrayList<>();
+		}
+		long evaluadas = informe.getTotalPlantasEvaluadas();
+		long afectadas = Math.round(informe.getNivelIncidencia() * evaluadas / 100.0);
+		ResultadoTecnico resultado = informe.getResultadoTecnico();
+		String idPlaga = resultado != null ? idPlaga(resultado.getPlaga()) : null;
+		return procesarMuestra(idPlaga, resolverRegionInforme.apply(informe), evaluadas, afectadas, informe, instanteMs);
+	}
+
+	/**
+	 * Ventana actual de una plaga en una región (use "*" para todas), o null si no hay datos.
+	 */
+	public VentanaDeslizante consultarVentana(String idPlaga, String region) {
+		return ventanas.get(clave(idPlaga, region));
+	}
+
+	private List<Alerta> procesarMuestra(String idPlaga, String region, long evaluadas, long afectadas,
+			InformeFitosanitario informe, long instanteMs) {
+		List<Alerta> generadas = new ArrayList<>();
+		String plaga = idPlaga != null ? idPlaga : TODAS;
+		String zona = region != null && !region.isEmpty() ? region : TODAS;
+		evaluarClave(plaga, zona, evaluadas, afectadas, informe, instanteMs, generadas);
+		if (!TODAS.equals(plaga) && !TODAS.equals(zona)) {
+			evaluarClave(plaga, TODAS, evaluadas, afectadas, informe, instanteMs, generadas);
+		}
+		if (!TODAS.equals(zona) && !TODAS.equals(plaga)) {
+			evaluarClave(TODAS, zona, evaluadas, afectadas, informe, instanteMs, generadas);
+		}
+		for (Alerta alerta : generadas) {
+			for (Consumer<Alerta> oyente : oyentes) {
+				try {
+					oyente.accept(alerta);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		return generadas;
+	}
+
+	private void evaluarClave(String idPlaga, String region, long evaluadas, long afectadas,
+			InformeFitosanitario informe, long instanteMs, List<Alerta> generadas) {
+		String clave = clave(idPlaga, region);
+		VentanaDeslizante ventana = ventanas.computeIfAbsent(clave, k -> new VentanaDeslizante(ventanaMs));
+		synchronized (ventana) {
+			ventana.agregar(instanteMs, evaluadas, afectadas);
+			for (ReglaAlerta regla : reglas) {
+				String nivel = regla.evaluar(ventana);
+				if (nivel == null || !debeAlertar(clave + "#" + regla.getNombre(), nivel, instanteMs)) {
+					continue;
+				}
+				Alerta alerta = new Alerta();
+				alerta.setId("ALR-" + instanteMs + "-" + secuencia.incrementAndGet());
+				alerta.setNivelRiesgo(nivel);
+				alerta.setIdPlaga(TODAS.equals(idPlaga) ? "" : idPlaga);
+				alerta.setRegion(TODAS.equals(region) ? "" : region);
+				alerta.setDescripcion(regla.getNombre() + ": " + regla.describir(ventana)
+						+ " (plaga " + idPlaga + ", región " + region + ")");
+				alerta.setFechaGeneracion(LocalDateTime.ofInstant(Instant.ofEpochMilli(instanteMs), ZoneId.systemDefault()));
+				alerta.agregarInformeFitosanitario(informe);
+				generadas.add(alerta);
+			}
+		}
+	}
+
+	/**
+	 * Evita repetir la misma alerta: solo se emite si el nivel subió o ya pasó el silencio.
+	 */
+	private synchronized boolean debeAlertar(String claveRegla, String nivel, long instanteMs) {
+		int rango = rango(nivel);
+		long[] anterior = ultimaAlerta.get(claveRegla);
+		if (anterior != null && rango <= anterior[0] && instanteMs - anterior[1] < silencioMs) {
+			return false;
+		}
+		ultimaAlerta.put(claveRegla, new long[] { rango, instanteMs });
+		return true;
+	}
+
+	/**
+	 * Posición del nivel de riesgo de menor a mayor (0 si no se reconoce).
+	 */
+	public static int rango(String nivel) {
+		for (int i = 0; i < NIVELES.length; i++) {
+			if (NIVELES[i].equals(nivel)) return i;
+		}
+		return 0;
+	}
+
+	private static String idPlaga(Plaga plaga) {
+		return plaga != null && plaga.getId() != null && !plaga.getId().isEmpty() ? plaga.getId() : null;
+	}
+
+	private static String clave(String idPlaga, String region) {
+		return (idPlaga != null ? idPlaga : TODAS) + "|" + (region != null ? region : TODAS);
+	}
+}
@@ -0,0 +1,24 @@
+package negocio.alertas;
+
+/**
+ * Regla que el motor evalúa sobre la ventana de una plaga o región cada vez que llega
+ * una muestra nueva.
+ */
+public interface ReglaAlerta {
+
+	/**
+	 * Nombre corto de la regla, usado en la descripción de las alertas.
+	 */
+	String getNombre();
+
+	/**
+	 * Devuelve el nivel de riesgo ("Medio", "Alto", "Crítico") si la regla se cumple
+	 * sobre la ventana, o null si no hay condición de alerta.
+	 */
+	String evaluar(VentanaDeslizante ventana);
+
+	/**
+	 * Texto que explica por qué se disparó la regla sobre esta ventana.
+	 */
+	String describir(VentanaDeslizante ventana);
+}
@@ -0,0 +1,45 @@
+package negocio.alertas;
+
+/**
+ * Alerta cuando la incidencia de la mitad reciente de la ventana crece respecto a la
+ * mitad anterior en al menos el incremento indicado (en puntos porcentuales).
+ * Un crecimiento del doble del incremento se considera crítico.
+ */
+public class ReglaTendencia implements ReglaAlerta {
+	private final double incremento;
+	private final long minimoPlantas;
+
+	/**
+	 * Por defecto: 10 puntos de aumento, con al menos 30 plantas en cada mitad.
+	 */
+	public ReglaTendencia() {
+		this(10, 30);
+	}
+
+	public ReglaTendencia(double incremento, long minimoPlantas) {
+		this.incremento = incremento;
+		this.minimoPlantas = minimoPlantas;
+	}
+
+	@Override
+	public String getNombre() {
+		return "Tendencia";
+	}
+
+	@Override
+	public String evaluar(VentanaDeslizante ventana) {
+		if (ventana.getEvaluadasReciente() < minimoPlantas || ventana.getEvaluadasAnterior() < minimoPlantas) {
+			return null;
+		}
+		double aumento = ventana.getIncidenciaReciente() - ventana.getIncidenciaAnterior();
+		if (aumento >= 2 * incremento) return "Crítico";
+		if (aumento >= incremento) return "Alto";
+		return null;
+	}
+
+	@Override
+	public String describir(VentanaDeslizante ventana) {
+		return String.format("incidencia subió de %.1f%% a %.1f%%",
+				ventana.getIncidenciaAnterior(), ventana.getIncidenciaReciente());
+	}
+}
@@ -0,0 +1,49 @@
+package negocio.alertas;
+
+/**
+ * Alerta cuando la incidencia acumulada en la ventana supera un umbral.
+ * Exige un mínimo de plantas evaluadas para no alertar por muestras pequeñas.
+ */
+public class ReglaUmbral implements ReglaAlerta {
+	private final double umbralMedio;
+	private final double umbralAlto;
+	private final double umbralCritico;
+	private final long minimoPlantas;
+
+	/**
+	 * Umbrales por defecto: 10% medio, 20% alto, 35% crítico, con al menos 50 plantas.
+	 */
+	public ReglaUmbral() {
+		this(10, 20, 35, 50);
+	}
+
+	public ReglaUmbral(double umbralMedio, double umbralAlto, double umbralCritico, long minimoPlantas) {
+		this.umbralMedio = umbralMedio;
+		this.umbralAlto = umbralAlto;
+		this.umbralCritico = umbralCritico;
+		this.minimoPlantas = minimoPlantas;
+	}
+
+	@Override
+	public String getNombre() {
+		return "Umbral";
+	}
+
+	@Override
+	public String evaluar(VentanaDeslizante ventana) {
+		if (ventana.getPlantasEvaluadas() < minimoPlantas) {
+			return null;
+		}
+		double incidencia = ventana.getIncidencia();
+		if (incidencia >= umbralCritico) return "Crítico";
+		if (incidencia >= umbralAlto) return "Alto";
+		if (incidencia >= umbralMedio) return "Medio";
+		return null;
+	}
+
+	@Override
+	public String describir(VentanaDeslizante ventana) {
+		return String.format("incidencia de %.1f%% en %d plantas evaluadas",
+				ventana.getIncidencia(), ventana.getPlantasEvaluadas());
+	}
+}
@@ -0,0 +1,155 @@
+package negocio.alertas;
+
+import model.Alerta;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Suscripción a las alertas nuevas que cumplen un filtro de nivel mínimo y departamento.
+ * Las alertas se acumulan en un búfer acotado y un hilo virtual propio las entrega en
+ * lotes, de modo que un suscriptor lento nunca frena al motor ni a los demás suscriptores.
+ * Mientras espera, una alerta nueva de la misma plaga y región reemplaza a la pendiente
+ * (salvo que esta sea de mayor nivel); si aun así se llena, se descarta la más antigua.
+ * Cada lote informa cuántas alertas se omitieron de esas dos formas desde el anterior.
+ */
+public class SuscripcionAlertas {
+	/** Alertas pendientes por suscriptor antes de empezar a descartar. */
+	public static final int CAPACIDAD_DEFECTO = 64;
+	/** Sin alertas durante este tiempo se entrega un lote vacío, para detectar suscriptores caídos. */
+	public static final long LATIDO_MS = 30_000;
+
+	/**
+	 * Destino de los lotes. Si lanza una excepción la suscripción se cancela.
+	 */
+	@FunctionalInterface
+	public interface Entrega {
+		void entregar(List<Alerta> alertas, int omitidas) throws Exception;
+	}
+
+	private final int nivelMinimo;
+	private final String idDepartamento;
+	private final int capacidad;
+	private final Entrega entrega;
+	private final Map<String, Alerta> pendientes = new LinkedHashMap<>();
+	private int omitidas;
+	private long entregadas;
+	private volatile boolean activa = true;
+	private Runnable alCancelar = () -> { };
+
+	/**
+	 * @param nivelMinimo nivel de riesgo desde el que se notifica, o null para todos
+	 * @param idDepartamento departamento de interés, o null para todo el país
+	 */
+	public SuscripcionAlertas(String nivelMinimo, String idDepartamento, int capacidad, Entrega entrega) {
+		this.nivelMinimo = nivelMinimo != null ? MotorReglasAlertas.rango(nivelMinimo) : 0;
+		this.idDepartamento = idDepartamento != null && !idDepartamento.isEmpty() ? idDepartamento : null;
+		this.capacidad = Math.max(1, capacidad);
+		this.entrega = entrega;
+	}
+
+	void iniciar(Runnable alCancelar) {
+		this.alCancelar = alCancelar;
+		Thread.ofVirtual().name("suscripcion-alertas").start(this::entregarPendientes);
+	}
+
+	/**
+	 * Encola la alerta si cumple el filtro. No bloquea.
+	 *
+	 * @param resolverDepartamento ubica el departamento de la región de la alerta
+	 */
+	void publicar(Alerta alerta, Function<String, String> resolverDepartamento) {
+		if (!activa || MotorReglasAlertas.rango(alerta.getNivelRiesgo()) < nivelMinimo) {
+			return;
+		}
+		if (idDepartamento != null) {
+			String region = alerta.getRegion();
+			String departamento = region == null || region.isEmpty() ? null : resolverDepartamento.apply(region);
+			if (!idDepartamento.equals(departamento)) {
+				return;
+			}
+		}
+		String clave = alerta.getIdPlaga() + "|" + alerta.getRegion();
+		synchronized (this) {
+			Alerta anterior = pendientes.get(clave);
+			if (anterior != null) {
+				omitidas++;
+				if (MotorReglasAlertas.rango(anterior.getNivelRiesgo()) > MotorReglasAlertas.rango(alerta.getNivelRiesgo())) {
+					return;
+				}
+				pendientes.put(clave, alerta);
+			} else {
+				if (pendientes.size() >= capacidad) {
+					Iterator<Alerta> masAntigua = pendientes.values().iterator();
+					masAntigua.next();
+					masAntigua.remove();
+					omitidas++;
+				}
+				pendientes.put(clave, alerta);
+			}
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Detiene la entrega y retira la suscripción del gestor. Las pendientes se descartan.
+	 */
+	public void cancelar() {
+		synchronized (this) {
+			if (!activa) return;
+			activa = false;
+			pendientes.clear();
+			notifyAll();
+		}
+		alCancelar.run();
+	}
+
+	public boolean isActiva() {
+		return activa;
+	}
+
+	public synchronized int getPendientes() {
+		return pendientes.size();
+	}
+
+	public synchronized long getEntregadas() {
+		return entregadas;
+	}
+
+	private void entregarPendientes() {
+		while (true) {
+			List<Alerta> lote;
+			int omitidasLote;
+			synchronized (this) {
+				long limite = System.currentTimeMillis() + LATIDO_MS;
+				long espera;
+				while (activa && pendientes.isEmpty() && (espera = limite - System.currentTimeMillis()) > 0) {
+					try {
+						wait(espera);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+				if (!activa) return;
+				lote = new ArrayList<>(pendientes.values());
+				pendientes.clear();
+				omitidasLote = omitidas;
+				omitidas = 0;
+			}
+			try {
+				entrega.entregar(lote, omitidasLote);
+				synchronized (this) {
+					entregadas += lote.size();
+				}
+			} catch (Exception e) {
+				// El suscriptor ya no puede recibir (por ejemplo, cerró la conexión)
+				cancelar();
+				return;
+			}
+		}
+	}
+}
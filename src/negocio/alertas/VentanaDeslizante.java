@@ -0,0 +1,102 @@
+package negocio.alertas;
+
+import java.util.ArrayDeque;
+
+/**
+ * Ventana de tiempo deslizante con las muestras (plantas evaluadas/afectadas) de una
+ * clave del motor de reglas. Mantiene dos mitades, la reciente y la anterior, con sus
+ * sumas acumuladas, de modo que agregar muestras y consultar la incidencia de cada
+ * mitad cuesta O(1) amortizado: cada muestra entra una vez, pasa a la mitad anterior
+ * una vez y sale una vez.
+ */
+public class VentanaDeslizante {
+	private final long duracionMs;
+	private final ArrayDeque<long[]> reciente = new ArrayDeque<>();
+	private final ArrayDeque<long[]> anterior = new ArrayDeque<>();
+	private long evaluadasReciente, afectadasReciente;
+	private long evaluadasAnterior, afectadasAnterior;
+
+	public VentanaDeslizante(long duracionMs) {
+		if (duracionMs <= 0) {
+			throw new IllegalArgumentException("La duración de la ventana debe ser positiva.");
+		}
+		this.duracionMs = duracionMs;
+	}
+
+	/**
+	 * Agrega una muestra tomada en el instante dado y descarta las que quedaron fuera.
+	 */
+	public void agregar(long instanteMs, long evaluadas, long afectadas) {
+		avanzar(instanteMs);
+		reciente.addLast(new long[] { instanteMs, evaluadas, afectadas });
+		evaluadasReciente += evaluadas;
+		afectadasReciente += afectadas;
+	}
+
+	/**
+	 * Mueve a la mitad anterior las muestras con más de media ventana y elimina
+	 * las que superan la ventana completa.
+	 */
+	public void avanzar(long instanteMs) {
+		long limiteReciente = instanteMs - duracionMs / 2;
+		while (!reciente.isEmpty() && reciente.peekFirst()[0] <= limiteReciente) {
+			long[] m = reciente.pollFirst();
+			evaluadasReciente -= m[1];
+			afectadasReciente -= m[2];
+			anterior.addLast(m);
+			evaluadasAnterior += m[1];
+			afectadasAnterior += m[2];
+		}
+		long limite = instanteMs - duracionMs;
+		while (!anterior.isEmpty() && anterior.peekFirst()[0] <= limite) {
+			long[] m = anterior.pollFirst();
+			evaluadasAnterior -= m[1];
+			afectadasAnterior -= m[2];
+		}
+	}
+
+	public long getPlantasEvaluadas() {
+		return evaluadasReciente + evaluadasAnterior;
+	}
+
+	public long getPlantasAfectadas() {
+		return afectadasReciente + afectadasAnterior;
+	}
+
+	public long getEvaluadasReciente() {
+		return evaluadasReciente;
+	}
+
+	public long getEvaluadasAnterior() {
+		return evaluadasAnterior;
+	}
+
+	public int getMuestras() {
+		return reciente.size() + anterior.size();
+	}
+
+	/**
+	 * Porcentaje de plantas afectadas en toda la ventana.
+	 */
+	public double getIncidencia() {
+		return porcentaje(getPlantasAfectadas(), getPlantasEvaluadas());
+	}
+
+	/**
+	 * Porcentaje de plantas afectadas en la mitad más reciente de la ventana.
+	 */
+	public double getIncidenciaReciente() {
+		return porcentaje(afectadasReciente, evaluadasReciente);
+	}
+
+	/**
+	 * Porcentaje de plantas afectadas en la mitad más antigua de la ventana.
+	 */
+	public double getIncidenciaAnterior() {
+		return porcentaje(afectadasAnterior, evaluadasAnterior);
+	}
+
+	private static double porcentaje(long afectadas, long evaluadas) {
+		return evaluadas == 0 ? 0.0 : afectadas * 100.0 / evaluadas;
+	}
+}
@@ -1,6 +1,7 @@
 package negocio.departamentos;
 
 import dao.DepartamentoDAO;
+import dao.Registro;
 import model.Departamento;
 import java.util.List;
 
@@ -8,7 +9,7 @@ public class GestorDepartamentos {
     private DepartamentoDAO dao;
 
     public GestorDepartamentos() {
-        dao = new DepartamentoDAO();
+        dao = Registro.obtener(DepartamentoDAO.class, DepartamentoDAO::new);
     }
 
     public void registrarDepartamento(Departamento d) {
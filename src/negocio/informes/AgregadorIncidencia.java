@@ -0,0 +1,220 @@
+package negocio.informes;
+
+import dao.ResultadoTecnicoDAO;
+import dao.VeredaDAO;
+import model.Municipio;
+import model.ResultadoTecnico;
+import model.Vereda;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Mantiene precalculados los totales de plantas evaluadas y afectadas en cada nivel
+ * de la jerarquía geográfica (vereda → municipio → departamento).
+ * Se inicializa con una sola consulta agrupada y después se actualiza de forma
+ * incremental con cada resultado técnico registrado, por lo que las consultas
+ * de incidencia regional no requieren recorrer ni unir tablas.
+ */
+public class AgregadorIncidencia {
+	private ResultadoTecnicoDAO resultadoDAO;
+	private VeredaDAO veredaDAO;
+
+	private final Map<String, String> municipioDeVereda = new HashMap<>();
+	private final Map<String, String> departamentoDeMunicipio = new HashMap<>();
+	private final Map<String, long[]> porVereda = new HashMap<>();
+	private final Map<String, long[]> porMunicipio = new HashMap<>();
+	private final Map<String, long[]> porDepartamento = new HashMap<>();
+	private final Map<String, String> veredaDeInspeccion = new ConcurrentHashMap<>();
+	private Function<String, String> resolverVereda;
+
+	public AgregadorIncidencia(ResultadoTecnicoDAO resultadoDAO, VeredaDAO veredaDAO) {
+		this.resultadoDAO = resultadoDAO;
+		this.veredaDAO = veredaDAO;
+	}
+
+	/**
+	 * Carga la geografía y los totales actuales desde la BD, reemplazando lo acumulado.
+	 */
+	public synchronized void cargar() {
+		municipioDeVereda.clear();
+		departamentoDeMunicipio.clear();
+		porVereda.clear();
+		porMunicipio.clear();
+		porDepartamento.clear();
+		for (Vereda v : veredaDAO.listar()) {
+			registrarGeografia(v);
+		}
+		for (Map.Entry<String, long[]> e : resultadoDAO.obtenerTotalesPorVereda().entrySet()) {
+			acumularEnJerarquia(e.getKey(), e.getValue()[0], e.getValue()[1]);
+		}
+	}
+
+	/**
+	 * Permite resolver la vereda de una inspección desde otra fuente (por ejemplo, los
+	 * gestores en memoria) antes de recurrir a la BD. Debe devolver null si no la conoce.
+	 */
+	public void setResolverVereda(Function<String, String> resolverVereda) {
+		this.resolverVereda = resolverVereda;
+	}
+
+	/**
+	 * Suma un resultado técnico recién registrado en su vereda, municipio y departamento.
+	 *
+	 * @return true si se pudo ubicar geográficamente el resultado
+	 */
+	public boolean acumular(ResultadoTecnico resultado) {
+		String idInspeccion = resultado.getInspeccionFitosanitaria() != null
+				? resultado.getInspeccionFitosanitaria().getId() : resultado.getInspeccionId();
+		String idVereda = resolverVeredaInspeccion(idInspeccion);
+		if (idVereda == null) {
+			return false;
+		}
+		acumular(idVereda, resultado.getTotalPlantasEvaluadas(), resultado.getPlantasAfectadas());
+		return true;
+	}
+
+	/**
+	 * Suma plantas evaluadas y afectadas a una vereda y a sus niveles superiores.
+	 */
+	public synchronized void acumular(String idVereda, long evaluadas, long afectadas) {
+		if (!municipioDeVereda.containsKey(idVereda)) {
+			Vereda v = veredaDAO.buscarPorId(idVereda);
+			if (v != null) {
+				registrarGeografia(v);
+			}
+		}
+		acumularEnJerarquia(idVereda, evaluadas, afectadas);
+	}
+
+	/**
+	 * Devuelve la vereda en la que se realizó una inspección, usando una caché local.
+	 */
+	public String resolverVeredaInspeccion(String idInspeccion) {
+		if (idInspeccion == null || idInspeccion.isEmpty()) {
+			return null;
+		}
+		String idVereda = veredaDeInspeccion.get(idInspeccion);
+		if (idVereda == null && resolverVereda != null) {
+			idVereda = resolverVereda.apply(idInspeccion);
+		}
+		if (idVereda == null) {
+			idVereda = resultadoDAO.obtenerVeredaDeInspeccion(idInspeccion);
+		}
+		if (idVereda != null) {
+			veredaDeInspeccion.put(idInspeccion, idVereda);
+		}
+		return idVereda;
+	}
+
+	/**
+	 * Municipio al que pertenece una vereda, o null si no se conoce.
+	 */
+	public synchronized String obtenerMunicipio(String idVereda) {
+		return municipioDeVereda.get(idVereda);
+	}
+
+	/**
+	 * Departamento al que pertenece una vereda, o null si no se conoce.
+	 */
+	public synchronized String obtenerDepartamento(String idVereda) {
+		String idMunicipio = municipioDeVereda.get(idVereda);
+		return idMunicipio != null ? departamentoDeMunicipio.get(idMunicipio) : null;
+	}
+
+	/**
+	 * Departamento al que pertenece un municipio, o null si no se conoce.
+	 */
+	public synchronized String obtenerDepartamentoDeMunicipio(String idMunicipio) {
+		return departamentoDeMunicipio.get(idMunicipio);
+	}
+
+	public synchronized TotalesIncidencia consultarVereda(String idVereda) {
+		return TotalesIncidencia.de(idVereda, porVereda.get(idVereda));
+	}
+
+	public synchronized TotalesIncidencia consultarMunicipio(String idMunicipio) {
+		return TotalesIncidencia.de(idMunicipio, porMunicipio.get(idMunicipio));
+	}
+
+	public synchronized TotalesIncidencia consultarDepartamento(String idDepartamento) {
+		return TotalesIncidencia.de(idDepartamento, porDepartamento.get(idDepartamento));
+	}
+
+	/**
+	 * Copia de los totales de todos los departamentos, para tableros y reportes.
+	 */
+	public synchronized Map<String, TotalesIncidencia> listarPorDepartamento() {
+		Map<String, TotalesIncidencia> copia = new HashMap<>();
+		for (Map.Entry<String, long[]> e : porDepartamento.entrySet()) {
+			copia.put(e.getKey(), TotalesIncidencia.de(e.getKey(), e.getValue()));
+		}
+		return copia;
+	}
+
+	private void registrarGeografia(Vereda v) {
+		Municipio m = v.getMunicipio();
+		if (m == null) {
+			return;
+		}
+		municipioDeVereda.put(v.getId(), m.getId());
+		if (m.getDepartamento() != null) {
+			departamentoDeMunicipio.put(m.getId(), m.getDepartamento().getId());
+		}
+	}
+
+	private void acumularEnJerarquia(String idVereda, long evaluadas, long afectadas) {
+		sumar(porVereda, idVereda, evaluadas, afectadas);
+		String idMunicipio = municipioDeVereda.get(idVereda);
+		if (idMunicipio == null) {
+			return;
+		}
+		sumar(porMunicipio, idMunicipio, evaluadas, afectadas);
+		String idDepartamento = departamentoDeMunicipio.get(idMunicipio);
+		if (idDepartamento != null) {
+			sumar(porDepartamento, idDepartamento, evaluadas, afectadas);
+		}
+	}
+
+	private static void sumar(Map<String, long[]> mapa, String clave, long evaluadas, long afectadas) {
+		long[] t = mapa.computeIfAbsent(clave, k -> new long[2]);
+		t[0] += evaluadas;
+		t[1] += afectadas;
+	}
+
+	/**
+	 * Totales inmutables de una zona en un instante dado.
+	 */
+	public static class TotalesIncidencia {
+		private final String idZona;
+		private final long plantasEvaluadas;
+		private final long plantasAfectadas;
+
+		public TotalesIncidencia(String idZona, long plantasEvaluadas, long plantasAfectadas) {
+			this.idZona = idZona;
+			this.plantasEvaluadas = plantasEvaluadas;
+			this.plantasAfectadas = plantasAfectadas;
+		}
+
+		private static TotalesIncidencia de(String idZona, long[] t) {
+			return t == null ? new TotalesIncidencia(idZona, 0, 0) : new TotalesIncidencia(idZona, t[0], t[1]);
+		}
+
+		public String getIdZona() { return idZona; }
+		public long getPlantasEvaluadas() { return plantasEvaluadas; }
+		public long getPlantasAfectadas() { return plantasAfectadas; }
+
+		/**
+		 * Porcentaje de plantas afectadas sobre las evaluadas (0 si no hay evaluadas).
+		 */
+		public double getIncidencia() {
+			return plantasEvaluadas == 0 ? 0.0 : plantasAfectadas * 100.0 / plantasEvaluadas;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d/%d plantas afectadas (%.2f%%)", idZona, plantasAfectadas, plantasEvaluadas, getIncidencia());
+		}
+	}
+}
@@ -1,5 +1,128 @@
 package negocio.informes;
 
+import dao.InformeFitosanitarioDAO;
+import dao.ResultadoTecnicoDAO;
+import dao.VeredaDAO;
+import dao.Registro;
+import model.InformeFitosanitario;
+import model.ResultadoTecnico;
+import negocio.informes.AgregadorIncidencia.TotalesIncidencia;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Gestor de informes de incidencia. Expone los totales por vereda, municipio y
+ * departamento que mantiene el AgregadorIncidencia. El agregador se carga con
+ * cargarIncidencia antes de recibir resultados; ver ControladorSistema.
+ */
 public class GestorInformes {
+	private AgregadorIncidencia agregador;
+	private InformeFitosanitarioDAO informeDAO;
+	private Function<String, String> resolverVereda;
+	private final List<Consumer<InformeFitosanitario>> oyentes = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Carga los totales desde la BD. Debe llamarse antes de que empiecen a llegar
+	 * resultados: si se carga después de guardar uno, ese resultado quedaría contado en
+	 * la carga y otra vez en acumularResultado.
+	 */
+	public void cargarIncidencia() {
+		getAgregadorIncidencia();
+	}
+
+	/**
+	 * Devuelve el agregador, cargándolo desde la BD la primera vez que se necesita.
+	 */
+	public synchronized AgregadorIncidencia getAgregadorIncidencia() {
+		if (agregador == null) {
+			agregador = new AgregadorIncidencia(Registro.obtener(ResultadoTecnicoDAO.class, ResultadoTecnicoDAO::new),
+					Registro.obtener(VeredaDAO.class, VeredaDAO::new));
+			agregador.setResolverVereda(resolverVereda);
+			agregador.cargar();
+		}
+		return agregador;
+	}
+
+	/**
+	 * Define cómo ubicar la vereda de una inspección antes de consultar la BD.
+	 */
+	public synchronized void setResolverVereda(Function<String, String> resolverVereda) {
+		this.resolverVereda = resolverVereda;
+		if (agregador != null) {
+			agregador.setResolverVereda(resolverVereda);
+		}
+	}
+
+	/**
+	 * Incorpora a los totales regionales un resultado técnico recién guardado en la BD.
+	 * Los que solo están en memoria no deben pasar por aquí: una recarga no los vería.
+	 */
+	public void acumularResultado(ResultadoTecnico resultado) {
+		if (resultado != null) {
+			getAgregadorIncidencia().acumular(resultado);
+		}
+	}
+
+	/**
+	 * Registra una acción que se ejecuta con cada informe nuevo ya guardado (por ejemplo,
+	 * las reglas de alerta).
+	 */
+	public void agregarOyente(Consumer<InformeFitosanitario> oyente) {
+		oyentes.add(oyente);
+	}
+
+	/**
+	 * Guarda un informe fitosanitario y, si se guardó, avisa a los oyentes.
+	 */
+	public boolean registrarInforme(InformeFitosanitario informe) {
+		if (informe == null || informe.getId() == null || informe.getId().isEmpty()) {
+			return false;
+		}
+		if (!getInformeDAO().insertar(informe)) {
+			return false;
+		}
+		for (Consumer<InformeFitosanitario> oyente : oyentes) {
+			try {
+				oyente.accept(informe);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Entrega los informes fitosanitarios de a uno sin cargarlos todos en memoria.
+	 * Devuelve cuántos se recorrieron.
+	 */
+	public int recorrerInformes(Consumer<InformeFitosanitario> consumidor) throws SQLException {
+		return getInformeDAO().recorrer(consumidor);
+	}
+
+	private synchronized InformeFitosanitarioDAO getInformeDAO() {
+		if (informeDAO == null) {
+			informeDAO = Registro.obtener(InformeFitosanitarioDAO.class, InformeFitosanitarioDAO::new);
+		}
+		return informeDAO;
+	}
+
+	public TotalesIncidencia consultarIncidenciaVereda(String idVereda) {
+		return getAgregadorIncidencia().consultarVereda(idVereda);
+	}
+
+	public TotalesIncidencia consultarIncidenciaMunicipio(String idMunicipio) {
+		return getAgregadorIncidencia().consultarMunicipio(idMunicipio);
+	}
+
+	public TotalesIncidencia consultarIncidenciaDepartamento(String idDepartamento) {
+		return getAgregadorIncidencia().consultarDepartamento(idDepartamento);
+	}
 
+	public Map<String, TotalesIncidencia> listarIncidenciaPorDepartamento() {
+		return getAgregadorIncidencia().listarPorDepartamento();
+	}
 }
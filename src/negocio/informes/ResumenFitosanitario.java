@@ -0,0 +1,236 @@
+package negocio.informes;
+
+import dao.AlertaDAO;
+import dao.InspeccionFitosanitariaDAO;
+import dao.PlagaDAO;
+import dao.Registro;
+import model.Alerta;
+import model.InspeccionFitosanitaria;
+import model.Plaga;
+import model.ResultadoTecnico;
+import model.SesionCampo;
+import negocio.alertas.MotorReglasAlertas;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cifras del tablero fitosanitario: alertas por nivel de riesgo, inspecciones por día de los
+ * últimos DIAS días y plagas más detectadas. Se carga con tres consultas agrupadas y después
+ * se actualiza con cada alerta guardada (GestorAlertas.alPublicar) y cada sesión de campo
+ * confirmada (SesionCampoDAO.alConfirmar), de modo que refrescar el tablero no depende de
+ * cuánta historia haya en la BD. Solo se cuenta lo que quedó en la BD, así que recargar da
+ * las mismas cifras; las inspecciones y resultados que solo viven en los gestores en memoria
+ * no aparecen. Lo que llegue mientras se carga puede quedar contado dos veces o ninguna;
+ * recargar lo corrige.
+ */
+public class ResumenFitosanitario {
+	public static final int DIAS = 30;
+	public static final int PLAGAS_PRINCIPALES = 10;
+
+	private AlertaDAO alertaDAO;
+	private InspeccionFitosanitariaDAO inspeccionDAO;
+	private PlagaDAO plagaDAO;
+
+	private final Map<String, Integer> alertasPorNivel = new HashMap<>();
+	private final TreeMap<LocalDate, Integer> inspeccionesPorDia = new TreeMap<>();
+	private final Map<String, Integer> deteccionesPorPlaga = new HashMap<>();
+	private final Map<String, String> nombresPlagas = new HashMap<>();
+	private final List<Runnable> oyentes = new CopyOnWriteArrayList<>();
+	private boolean cargado;
+	private long version;
+	private Instantanea ultima;
+
+	public ResumenFitosanitario() {
+		this(Registro.obtener(AlertaDAO.class, AlertaDAO::new),
+				Registro.obtener(InspeccionFitosanitariaDAO.class, InspeccionFitosanitariaDAO::new),
+				Registro.obtener(PlagaDAO.class, PlagaDAO::new));
+	}
+
+	public ResumenFitosanitario(AlertaDAO alertaDAO, InspeccionFitosanitariaDAO inspeccionDAO, PlagaDAO plagaDAO) {
+		this.alertaDAO = alertaDAO;
+		this.inspeccionDAO = inspeccionDAO;
+		this.plagaDAO = plagaDAO;
+	}
+
+	/**
+	 * Carga los totales actuales desde la BD, reemplazando lo acumulado. Si alguna consulta
+	 * falla se conserva lo anterior y devuelve false.
+	 */
+	public boolean cargar() {
+		Map<String, Integer> niveles = alertaDAO.contarPorNivel();
+		Map<LocalDate, Integer> dias = inspeccionDAO.contarPorDia(LocalDate.now().minusDays(DIAS - 1));
+		Map<String, Integer> detecciones = plagaDAO.contarDeteccionesPorPlaga();
+		if (niveles == null || dias == null || detecciones == null) {
+			return false;
+		}
+		List<Plaga> plagas = plagaDAO.listar();
+		synchronized (this) {
+			alertasPorNivel.clear();
+			alertasPorNivel.putAll(niveles);
+			inspeccionesPorDia.clear();
+			inspeccionesPorDia.putAll(dias);
+			deteccionesPorPlaga.clear();
+			deteccionesPorPlaga.putAll(detecciones);
+			for (Plaga p : plagas) {
+				recordarNombre(p);
+			}
+			cargado = true;
+			version++;
+		}
+		avisar();
+		return true;
+	}
+
+	/**
+	 * Registra una acción que se ejecuta después de cada cambio, en el hilo que lo produjo.
+	 */
+	public void alCambiar(Runnable oyente) {
+		oyentes.add(oyente);
+	}
+
+	public void registrarAlerta(Alerta alerta) {
+		if (alerta == null || alerta.getNivelRiesgo() == null) return;
+		synchronized (this) {
+			if (!cargado) return;
+			alertasPorNivel.merge(alerta.getNivelRiesgo(), 1, Integer::sum);
+			version++;
+		}
+		avisar();
+	}
+
+	/**
+	 * Suma una sesión de campo ya confirmada: sus inspecciones dentro de los últimos DIAS días
+	 * y una detección por cada par resultado-plaga guardado, como cuenta la carga.
+	 */
+	public void registrarSesion(SesionCampo sesion) {
+		if (sesion == null) return;
+		LocalDate desde = LocalDate.now().minusDays(DIAS - 1);
+		synchronized (this) {
+			if (!cargado) return;
+			for (InspeccionFitosanitaria inspeccion : sesion.getInspecciones()) {
+				LocalDate fecha = inspeccion.getFechaInspeccion();
+				if (fecha != null && !fecha.isBefore(desde)) {
+					inspeccionesPorDia.merge(fecha, 1, Integer::sum);
+				}
+			}
+			for (String[] par : sesion.getPlagasResultado()) {
+				deteccionesPorPlaga.merge(par[1], 1, Integer::sum);
+			}
+			for (ResultadoTecnico resultado : sesion.getResultados()) {
+				for (Plaga p : resultado.getPlagas()) {
+					if (p != null) recordarNombre(p);
+				}
+			}
+			version++;
+		}
+		avisar();
+	}
+
+	private void recordarNombre(Plaga p) {
+		if (p.getId() != null && p.getNombreComun() != null && !p.getNombreComun().isEmpty()) {
+			nombresPlagas.put(p.getId(), p.getNombreComun());
+		}
+	}
+
+	private void avisar() {
+		for (Runnable oyente : oyentes) {
+			try {
+				oyente.run();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	public synchronized boolean isCargado() {
+		return cargado;
+	}
+
+	/**
+	 * Cifras actuales. Armarlas recorre solo los niveles, los DIAS días y las plagas del
+	 * catálogo; si nada cambió desde la última vez se devuelve la misma instancia.
+	 */
+	public synchronized Instantanea getInstantanea() {
+		if (ultima != null && ultima.version == version && ultima.hoy.equals(LocalDate.now())) {
+			return ultima;
+		}
+		LocalDate hoy = LocalDate.now();
+		LocalDate desde = hoy.minusDays(DIAS - 1);
+		inspeccionesPorDia.headMap(desde).clear();
+
+		List<String> niveles = new ArrayList<>(alertasPorNivel.keySet());
+		niveles.sort(Comparator.comparingInt(MotorReglasAlertas::rango).thenComparing(Comparator.naturalOrder()));
+		Map<String, Integer> porNivel = new LinkedHashMap<>();
+		for (String nivel : niveles) {
+			porNivel.put(nivel, alertasPorNivel.get(nivel));
+		}
+
+		NavigableMap<LocalDate, Integer> porDia = new TreeMap<>();
+		for (LocalDate d = desde; !d.isAfter(hoy); d = d.plusDays(1)) {
+			porDia.put(d, inspeccionesPorDia.getOrDefault(d, 0));
+		}
+
+		// Las PLAGAS_PRINCIPALES con más detecciones, sin ordenar todo el catálogo
+		PriorityQueue<Map.Entry<String, Integer>> mayores = new PriorityQueue<>(Map.Entry.comparingByValue());
+		for (Map.Entry<String, Integer> e : deteccionesPorPlaga.entrySet()) {
+			mayores.add(e);
+			if (mayores.size() > PLAGAS_PRINCIPALES) mayores.poll();
+		}
+		List<Map.Entry<String, Integer>> plagas = new ArrayList<>();
+		while (!mayores.isEmpty()) {
+			Map.Entry<String, Integer> e = mayores.poll();
+			plagas.add(Map.entry(nombresPlagas.getOrDefault(e.getKey(), e.getKey()), e.getValue()));
+		}
+		Collections.reverse(plagas);
+
+		ultima = new Instantanea(version, hoy, porNivel, porDia, plagas);
+		return ultima;
+	}
+
+	/**
+	 * Cifras del tablero en un momento dado; no se modifican.
+	 */
+	public static final class Instantanea {
+		private final long version;
+		private final LocalDate hoy;
+		private final Map<String, Integer> alertasPorNivel;
+		private final NavigableMap<LocalDate, Integer> inspeccionesPorDia;
+		private final List<Map.Entry<String, Integer>> plagasPrincipales;
+
+		Instantanea(long version, LocalDate hoy, Map<String, Integer> alertasPorNivel,
+				NavigableMap<LocalDate, Integer> inspeccionesPorDia, List<Map.Entry<String, Integer>> plagasPrincipales) {
+			this.version = version;
+			this.hoy = hoy;
+			this.alertasPorNivel = Collections.unmodifiableMap(alertasPorNivel);
+			this.inspeccionesPorDia = Collections.unmodifiableNavigableMap(inspeccionesPorDia);
+			this.plagasPrincipales = Collections.unmodifiableList(plagasPrincipales);
+		}
+
+		public long getVersion() { return version; }
+
+		/** Alertas por nivel, de Bajo a Crítico. */
+		public Map<String, Integer> getAlertasPorNivel() { return alertasPorNivel; }
+
+		/** Inspecciones de cada uno de los últimos DIAS días, incluidos los días sin ninguna. */
+		public NavigableMap<LocalDate, Integer> getInspeccionesPorDia() { return inspeccionesPorDia; }
+
+		/** Nombre y detecciones de las plagas más detectadas, de mayor a menor. */
+		public List<Map.Entry<String, Integer>> getPlagasPrincipales() { return plagasPrincipales; }
+
+		public int getTotalAlertas() {
+			int total = 0;
+			for (int n : alertasPorNivel.values()) total += n;
+			return total;
+		}
+	}
+}
@@ -2,17 +2,25 @@
 package negocio.inspecciones;
 
 import model.InspeccionFitosanitaria;
+import negocio.IndiceTemporal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Gestor de inspecciones en memoria. Es seguro para uso concurrente, ya que el servidor
+ * comparte una sola instancia entre todas las conexiones.
+ */
 public class GestorInspecciones {
 	private List<InspeccionFitosanitaria> inspecciones;
+	private IndiceTemporal<InspeccionFitosanitaria> indiceFechas;
 
 	public GestorInspecciones() {
 		this.inspecciones = new ArrayList<>();
+		this.indiceFechas = new IndiceTemporal<>(InspeccionFitosanitaria::getId, InspeccionFitosanitaria::getFechaInspeccion);
 	}
 
-	public boolean registrarInspeccion(InspeccionFitosanitaria inspeccion) {
+	public synchronized boolean registrarInspeccion(InspeccionFitosanitaria inspeccion) {
 		if (inspeccion == null || inspeccion.getId() == null || inspeccion.getId().isEmpty()) {
 			return false;
 		}
@@ -22,10 +30,11 @@ public class GestorInspecciones {
 			}
 		}
 		inspecciones.add(inspeccion);
+		indiceFechas.agregar(inspeccion);
 		return true;
 	}
 
-	public InspeccionFitosanitaria consultarInspeccion(String id) {
+	public synchronized InspeccionFitosanitaria consultarInspeccion(String id) {
 		for (InspeccionFitosanitaria i : inspecciones) {
 			if (i.getId().equals(id)) {
 				return i;
@@ -34,20 +43,28 @@ public class GestorInspecciones {
 		return null;
 	}
 
-	public boolean actualizarInspeccion(InspeccionFitosanitaria inspeccion) {
+	public synchronized boolean actualizarInspeccion(InspeccionFitosanitaria inspeccion) {
 		if (inspeccion == null || inspeccion.getId() == null || inspeccion.getId().isEmpty()) {
 			return false;
 		}
 		for (int i = 0; i < inspecciones.size(); i++) {
 			if (inspecciones.get(i).getId().equals(inspeccion.getId())) {
 				inspecciones.set(i, inspeccion);
+				indiceFechas.agregar(inspeccion);
 				return true;
 			}
 		}
 		return false;
 	}
 
-	public List<InspeccionFitosanitaria> listarInspecciones() {
+	public synchronized List<InspeccionFitosanitaria> listarInspecciones() {
 		return new ArrayList<>(inspecciones);
 	}
+
+	/**
+	 * Inspecciones realizadas entre las dos fechas (incluidas), en orden cronológico.
+	 */
+	public List<InspeccionFitosanitaria> listarPorRangoFechas(LocalDate desde, LocalDate hasta) {
+		return indiceFechas.buscarEnRango(desde, hasta);
+	}
 }
@@ -1,18 +1,28 @@
-
 package negocio.predios;
 
 import dao.PredioDAO;
+import dao.VeredaDAO;
+import dao.Registro;
 import model.Predio;
+import negocio.IndiceNombres;
+import negocio.predios.ImportadorPredios.ResultadoImportacion;
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * Gestor de lógica de negocio para predios. Usa PredioDAO para persistencia en BD.
+ * Gestor de lógica de negocio para predios. Usa PredioDAO para persistencia en BD
+ * y mantiene un índice espacial en memoria que se sincroniza con cada escritura.
  */
 public class GestorPredios {
 	private PredioDAO predioDAO;
+	private volatile IndiceEspacialPredios indiceEspacial;
+	private volatile IndiceNombres<Predio> indiceTexto;
 
 	public GestorPredios() {
-		this.predioDAO = new PredioDAO();
+		this.predioDAO = Registro.obtener(PredioDAO.class, PredioDAO::new);
 	}
 
 	public boolean registrarPredio(Predio predio) {
@@ -20,8 +30,14 @@ public class GestorPredios {
 			return false;
 		}
 		try {
-			System.out.println("[DEBUG] GestorPredios.registrarPredio id=" + predio.getId());
-			return predioDAO.insertar(predio);
+			boolean exito = predioDAO.insertar(predio);
+			if (exito && indiceEspacial != null) {
+				indiceEspacial.agregar(predio);
+			}
+			if (exito && indiceTexto != null) {
+				indiceTexto.agregar(predio);
+			}
+			return exito;
 		} catch (Exception e) {
 			e.printStackTrace();
 			return false;
@@ -33,17 +49,152 @@ public class GestorPredios {
 		return predioDAO.buscarPorId(id);
 	}
 
+	public Predio consultarPredioPorCodigoIca(String codigoIca) {
+		if (codigoIca == null || codigoIca.trim().isEmpty()) return null;
+		return predioDAO.buscarPorCodigoIca(codigoIca);
+	}
+
 	public boolean actualizarPredio(Predio predio) {
 		if (predio == null || predio.getId() == null || predio.getId().isEmpty()) return false;
 		try {
-			return predioDAO.actualizar(predio);
+			boolean exito = predioDAO.actualizar(predio);
+			if (exito && indiceEspacial != null) {
+				indiceEspacial.agregar(predio);
+			}
+			if (exito && indiceTexto != null) {
+				indiceTexto.agregar(predio);
+			}
+			return exito;
 		} catch (Exception e) {
 			e.printStackTrace();
 			return false;
 		}
 	}
 
+	public boolean eliminarPredio(String id) {
+		if (id == null || id.trim().isEmpty()) return false;
+		boolean exito = predioDAO.eliminar(id);
+		if (exito && indiceEspacial != null) {
+			indiceEspacial.eliminar(id);
+		}
+		if (exito && indiceTexto != null) {
+			indiceTexto.eliminar(id);
+		}
+		return exito;
+	}
+
 	public List<Predio> listarPredios() {
 		return predioDAO.listar();
 	}
+
+	public int contarPredios() {
+		return predioDAO.contar();
+	}
+
+	/**
+	 * Página de predios ordenada por una columna de PredioDAO.COLUMNAS_ORDEN, para
+	 * tablas que cargan solo lo que se está mostrando.
+	 */
+	public List<Predio> listarPaginaPredios(int desde, int cantidad, String columnaOrden, boolean ascendente)
+			throws SQLException {
+		return predioDAO.listarPagina(desde, cantidad, columnaOrden, ascendente);
+	}
+
+	/**
+	 * Entrega los predios de a uno sin cargarlos todos en memoria, para exportaciones
+	 * y respuestas en flujo. Devuelve cuántos se recorrieron.
+	 */
+	public int recorrerPredios(Consumer<Predio> consumidor) throws SQLException {
+		return predioDAO.recorrer(consumidor);
+	}
+
+	/**
+	 * Importa predios en bloque desde un CSV o GeoJSON catastral.
+	 * Si una importación anterior del mismo archivo quedó interrumpida, se reanuda.
+	 */
+	public ResultadoImportacion importarPredios(File archivo) throws IOException {
+		ImportadorPredios importador = new ImportadorPredios(predioDAO, Registro.obtener(VeredaDAO.class, VeredaDAO::new));
+		importador.setOyenteLote(lote -> {
+			if (indiceEspacial != null) {
+				indiceEspacial.agregarTodos(lote);
+			}
+			if (indiceTexto != null) {
+				lote.forEach(indiceTexto::agregar);
+			}
+		});
+		return importador.importar(archivo);
+	}
+
+	/**
+	 * Predios a menos de radioKm kilómetros del punto (por ejemplo, un foco de plaga).
+	 */
+	public List<Predio> buscarPrediosEnRadio(double latitud, double longitud, double radioKm) {
+		return getIndiceEspacial().buscarEnRadio(latitud, longitud, radioKm);
+	}
+
+	/**
+	 * Predios dentro del rectángulo delimitado por las coordenadas dadas.
+	 */
+	public List<Predio> buscarPrediosEnRectangulo(double latMin, double lonMin, double latMax, double lonMax) {
+		return getIndiceEspacial().buscarEnRectangulo(latMin, lonMin, latMax, lonMax);
+	}
+
+	/**
+	 * Los k predios más cercanos al punto, del más cercano al más lejano.
+	 */
+	public List<Predio> buscarPrediosCercanos(double latitud, double longitud, int k) {
+		return getIndiceEspacial().buscarMasCercanos(latitud, longitud, k);
+	}
+
+	/**
+	 * Sugerencias para la búsqueda mientras se escribe, por id, código ICA o dirección.
+	 * Cada palabra escrita debe ser el comienzo de alguna palabra de esos campos.
+	 */
+	public List<Predio> sugerirPredios(String texto, int limite) {
+		return getIndiceTexto().buscar(texto, limite);
+	}
+
+	/**
+	 * Devuelve el índice de texto, construyéndolo desde la BD la primera vez que se usa.
+	 */
+	public IndiceNombres<Predio> getIndiceTexto() {
+		IndiceNombres<Predio> indice = indiceTexto;
+		if (indice == null) {
+			synchronized (this) {
+				indice = indiceTexto;
+				if (indice == null) {
+					indice = new IndiceNombres<>(Predio::getId, GestorPredios::textoBusqueda);
+					indice.reemplazarTodos(predioDAO.listar());
+					indiceTexto = indice;
+				}
+			}
+		}
+		return indice;
+	}
+
+	private static String textoBusqueda(Predio p) {
+		StringBuilder texto = new StringBuilder();
+		for (String campo : new String[] { p.getId(), p.getCodigoIca(), p.getDireccion() }) {
+			if (campo != null) texto.append(campo).append(' ');
+		}
+		return texto.toString();
+	}
+
+	/**
+	 * Devuelve el índice espacial, construyéndolo desde la BD la primera vez que se usa.
+	 */
+	public IndiceEspacialPredios getIndiceEspacial() {
+		IndiceEspacialPredios indice = indiceEspacial;
+		if (indice == null) {
+			synchronized (this) {
+				indice = indiceEspacial;
+				if (indice == null) {
+					indice = new IndiceEspacialPredios();
+					indice.agregarTodos(predioDAO.listar());
+					indiceEspacial = indice;
+				}
+			}
+		}
+		return indice;
+	}
 }
@@ -0,0 +1,570 @@
+package negocio.predios;
+
+import dao.PredioDAO;
+import dao.VeredaDAO;
+import model.Predio;
+import model.Propietario;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Importa predios de forma masiva desde exportaciones catastrales en CSV o GeoJSON.
+ * El archivo se lee registro a registro (memoria constante), las veredas se validan
+ * contra un conjunto precargado y las inserciones se envían en lotes a PredioDAO.
+ * Tras cada lote confirmado se guarda un punto de control en "archivo.progreso",
+ * de modo que una importación interrumpida se reanuda donde quedó. Si la BD rechaza un
+ * lote, se reintenta fila por fila y solo se descartan las filas inválidas.
+ */
+public class ImportadorPredios {
+	public static final int TAMANO_LOTE_DEFECTO = 500;
+	private static final int MAX_ERRORES_REPORTADOS = 100;
+
+	private PredioDAO predioDAO;
+	private VeredaDAO veredaDAO;
+	private int tamanoLote;
+	private Consumer<List<Predio>> oyenteLote;
+
+	public ImportadorPredios(PredioDAO predioDAO, VeredaDAO veredaDAO) {
+		this(predioDAO, veredaDAO, TAMANO_LOTE_DEFECTO);
+	}
+
+	public ImportadorPredios(PredioDAO predioDAO, VeredaDAO veredaDAO, int tamanoLote) {
+		this.predioDAO = predioDAO;
+		this.veredaDAO = veredaDAO;
+		this.tamanoLote = tamanoLote > 0 ? tamanoLote : TAMANO_LOTE_DEFECTO;
+	}
+
+	/**
+	 * Registra una acción que recibe cada lote justo después de confirmarse en la BD.
+	 */
+	public void setOyenteLote(Consumer<List<Predio>> oyenteLote) {
+		this.oyenteLote = oyenteLote;
+	}
+
+	/**
+	 * Importa el archivo indicado. El formato se deduce de la extensión
+	 * (.geojson/.json para GeoJSON, cualquier otra se trata como CSV).
+	 */
+	public ResultadoImportacion importar(File archivo) throws IOException {
+		String nombre = archivo.getName().toLowerCase();
+		boolean geoJson = nombre.endsWith(".geojson") || nombre.endsWith(".json");
+		File progreso = new File(archivo.getPath() + ".progreso");
+		long yaConfirmados = leerProgreso(progreso);
+
+		Set<String> veredas = veredaDAO.listarIds();
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		long inicio = System.nanoTime();
+
+		try (BufferedReader lector = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+			FuenteRegistros fuente = geoJson ? new FuenteGeoJson(lector) : new FuenteCsv(lector);
+			List<Predio> lote = new ArrayList<>(tamanoLote);
+			List<Long> numeros = new ArrayList<>(tamanoLote);
+			long numero = 0;
+			Map<String, String> registro;
+			while ((registro = fuente.siguiente()) != null) {
+				numero++;
+				if (numero <= yaConfirmados) {
+					resultado.omitidos++;
+					continue;
+				}
+				resultado.leidos++;
+				Predio predio = construirPredio(registro, numero, veredas, resultado);
+				if (predio == null) {
+					continue;
+				}
+				lote.add(predio);
+				numeros.add(numero);
+				if (lote.size() >= tamanoLote) {
+					if (!confirmarLote(lote, numeros, numero, progreso, resultado)) {
+						return finalizar(resultado, inicio);
+					}
+				}
+			}
+			if (!confirmarLote(lote, numeros, numero, progreso, resultado)) {
+				return finalizar(resultado, inicio);
+			}
+		}
+		resultado.completado = true;
+		Files.deleteIfExists(progreso.toPath());
+		return finalizar(resultado, inicio);
+	}
+
+	/**
+	 * Inserta el lote y guarda el punto de control. Si el lote falla se inserta fila por
+	 * fila, rechazando las que la BD no acepta (id duplicado, clave foránea...). Solo se
+	 * detiene, para reanudar después, si la BD no responde o no se pudo guardar el progreso.
+	 */
+	private boolean confirmarLote(List<Predio> lote, List<Long> numeros, long ultimoNumero, File progreso,
+			ResultadoImportacion resultado) {
+		if (lote.isEmpty()) {
+			return true;
+		}
+		List<Predio> confirmados;
+		try {
+			predioDAO.insertarLote(lote);
+			confirmados = new ArrayList<>(lote);
+		} catch (SQLException e) {
+			confirmados = insertarFilaPorFila(lote, numeros, resultado);
+			if (confirmados == null) {
+				resultado.agregarError("Lote que termina en el registro " + ultimoNumero + " revertido: " + e.getMessage());
+				return false;
+			}
+		}
+		resultado.insertados += confirmados.size();
+		try {
+			guardarProgreso(progreso, ultimoNumero);
+		} catch (IOException e) {
+			resultado.agregarError("No se pudo guardar el progreso en el registro " + ultimoNumero + ": " + e.getMessage());
+			return false;
+		} finally {
+			if (oyenteLote != null && !confirmados.isEmpty()) {
+				oyenteLote.accept(confirmados);
+			}
+			lote.clear();
+			numeros.clear();
+		}
+		return true;
+	}
+
+	/**
+	 * Devuelve los predios que sí se insertaron. Una fila con error de datos o de integridad
+	 * (SQLState 22 o 23) se rechaza; cualquier otro error indica que la BD no está disponible
+	 * y devuelve null, con lo que la importación se detiene para reanudarse luego.
+	 */
+	private List<Predio> insertarFilaPorFila(List<Predio> lote, List<Long> numeros, ResultadoImportacion resultado) {
+		List<Predio> confirmados = new ArrayList<>();
+		for (int i = 0; i < lote.size(); i++) {
+			Predio predio = lote.get(i);
+			try {
+				predioDAO.insertarLote(List.of(predio));
+				confirmados.add(predio);
+			} catch (SQLException e) {
+				if (!esErrorDeFila(e)) {
+					return null;
+				}
+				resultado.rechazar(numeros.get(i), "rechazado por la BD (" + e.getMessage().trim() + ")");
+			}
+		}
+		return confirmados;
+	}
+
+	private static boolean esErrorDeFila(SQLException e) {
+		String estado = e.getSQLState();
+		return estado != null && (estado.startsWith("23") || estado.startsWith("22"));
+	}
+
+	private Predio construirPredio(Map<String, String> registro, long numero, Set<String> veredas, ResultadoImportacion resultado) {
+		String id = valor(registro, "id");
+		if (id.isEmpty()) {
+			resultado.rechazar(numero, "sin id");
+			return null;
+		}
+		String idVereda = valor(registro, "id_vereda");
+		if (!veredas.contains(idVereda)) {
+			resultado.rechazar(numero, "vereda inexistente '" + idVereda + "'");
+			return null;
+		}
+		try {
+			Predio predio = new Predio();
+			predio.setId(id);
+			predio.setCodigoIca(valor(registro, "codigo_ica"));
+			predio.setDireccion(valor(registro, "direccion"));
+			predio.setArea(numero(registro, "area"));
+			predio.setLatitud(numero(registro, "latitud"));
+			predio.setLongitud(numero(registro, "longitud"));
+			predio.setIdVereda(idVereda);
+			predio.setCodLugarProduccion(valor(registro, "cod_lugar_produccion"));
+			String idPropietario = valor(registro, "id_propietario");
+			if (!idPropietario.isEmpty()) {
+				Propietario propietario = new Propietario();
+				propietario.setId(idPropietario);
+				predio.setPropietario(propietario);
+			}
+			return predio;
+		} catch (NumberFormatException e) {
+			resultado.rechazar(numero, "valor numérico inválido (" + e.getMessage() + ")");
+			return null;
+		}
+	}
+
+	private static String valor(Map<String, String> registro, String campo) {
+		String v = registro.get(campo);
+		return v == null ? "" : v.trim();
+	}
+
+	private static double numero(Map<String, String> registro, String campo) {
+		String v = valor(registro, campo).replace(',', '.');
+		return v.isEmpty() ? 0.0 : Double.parseDouble(v);
+	}
+
+	private long leerProgreso(File progreso) throws IOException {
+		if (!progreso.exists()) {
+			return 0;
+		}
+		String contenido = Files.readString(progreso.toPath(), StandardCharsets.UTF_8).trim();
+		return contenido.isEmpty() ? 0 : Long.parseLong(contenido);
+	}
+
+	private void guardarProgreso(File progreso, long numero) throws IOException {
+		Files.writeString(progreso.toPath(), Long.toString(numero), StandardCharsets.UTF_8);
+	}
+
+	private ResultadoImportacion finalizar(ResultadoImportacion resultado, long inicio) {
+		resultado.duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+		return resultado;
+	}
+
+	/**
+	 * Resumen de una importación: conteos, duración y throughput.
+	 */
+	public static class ResultadoImportacion {
+		private long leidos;
+		private long insertados;
+		private long rechazados;
+		private long omitidos;
+		private long duracionMs;
+		private boolean completado;
+		private List<String> errores = new ArrayList<>();
+
+		private void rechazar(long numero, String motivo) {
+			rechazados++;
+			agregarError("Registro " + numero + ": " + motivo);
+		}
+
+		private void agregarError(String error) {
+			if (errores.size() < MAX_ERRORES_REPORTADOS) {
+				errores.add(error);
+			}
+		}
+
+		/** Registros leídos en esta ejecución (sin contar los omitidos por reanudación). */
+		public long getLeidos() { return leidos; }
+		public long getInsertados() { return insertados; }
+		public long getRechazados() { return rechazados; }
+		/** Registros saltados porque ya se habían confirmado en una ejecución anterior. */
+		public long getOmitidos() { return omitidos; }
+		public long getDuracionMs() { return duracionMs; }
+		/** Indica si se procesó todo el archivo; si es false puede reanudarse. */
+		public boolean isCompletado() { return completado; }
+		public List<String> getErrores() { return errores; }
+
+		public double getFilasPorSegundo() {
+			return duracionMs == 0 ? leidos : leidos * 1000.0 / duracionMs;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Importación %s: %d leídos, %d insertados, %d rechazados, %d omitidos en %d ms (%.0f filas/s)",
+					completado ? "completa" : "interrumpida", leidos, insertados, rechazados, omitidos,
+					duracionMs, getFilasPorSegundo());
+		}
+	}
+
+	/**
+	 * Fuente de registros campo -> valor leídos uno a uno.
+	 */
+	private interface FuenteRegistros {
+		Map<String, String> siguiente() throws IOException;
+	}
+
+	/**
+	 * Lee CSV con encabezado. Acepta ',' o ';' como separador y campos entre comillas.
+	 */
+	private static class FuenteCsv implements FuenteRegistros {
+		private BufferedReader lector;
+		private String[] encabezado;
+		private char separador;
+
+		FuenteCsv(BufferedReader lector) throws IOException {
+			this.lector = lector;
+			String primera = lector.readLine();
+			if (primera == null) {
+				encabezado = new String[0];
+				return;
+			}
+			if (primera.startsWith("\uFEFF")) {
+				primera = primera.substring(1);
+			}
+			separador = primera.indexOf(';') >= 0 && primera.indexOf(',') < 0 ? ';' : ',';
+			List<String> campos = dividir(primera);
+			encabezado = new String[campos.size()];
+			for (int i = 0; i < campos.size(); i++) {
+				encabezado[i] = campos.get(i).trim().toLowerCase();
+			}
+		}
+
+		@Override
+		public Map<String, String> siguiente() throws IOException {
+			String linea;
+			do {
+				linea = lector.readLine();
+				if (linea == null) {
+					return null;
+				}
+			} while (linea.trim().isEmpty());
+			List<String> campos = dividir(linea);
+			Map<String, String> registro = new HashMap<>();
+			for (int i = 0; i < encabezado.length && i < campos.size(); i++) {
+				registro.put(encabezado[i], campos.get(i));
+			}
+			return registro;
+		}
+
+		private List<String> dividir(String linea) {
+			List<String> campos = new ArrayList<>();
+			StringBuilder actual = new StringBuilder();
+			boolean entreComillas = false;
+			for (int i = 0; i < linea.length(); i++) {
+				char c = linea.charAt(i);
+				if (c == '"') {
+					if (entreComillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+						actual.append('"');
+						i++;
+					} else {
+						entreComillas = !entreComillas;
+					}
+				} else if (c == separador && !entreComillas) {
+					campos.add(actual.toString());
+					actual.setLength(0);
+				} else {
+					actual.append(c);
+				}
+			}
+			campos.add(actual.toString());
+			return campos;
+		}
+	}
+
+	/**
+	 * Lee un FeatureCollection GeoJSON feature por feature sin cargar el documento completo.
+	 * Las propiedades del feature usan los mismos nombres de columna que el CSV; la geometría
+	 * puede ser Point o Polygon (en cuyo caso se usa el promedio del anillo exterior).
+	 */
+	private static class FuenteGeoJson implements FuenteRegistros {
+		private PushbackReader lector;
+		private boolean dentroDeFeatures;
+		private boolean terminado;
+
+		FuenteGeoJson(Reader lector) {
+			this.lector = new PushbackReader(lector, 1);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Map<String, String> siguiente() throws IOException {
+			if (terminado) {
+				return null;
+			}
+			if (!dentroDeFeatures && !buscarFeatures()) {
+				terminado = true;
+				return null;
+			}
+			int c = siguienteNoBlanco();
+			if (c == ',') {
+				c = siguienteNoBlanco();
+			}
+			if (c == ']' || c == -1) {
+				terminado = true;
+				return null;
+			}
+			lector.unread(c);
+			Object feature = leerValor();
+			if (!(feature instanceof Map)) {
+				throw new IOException("Se esperaba un objeto Feature");
+			}
+			return aplanar((Map<String, Object>) feature);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Map<String, String> aplanar(Map<String, Object> feature) {
+			Map<String, String> registro = new HashMap<>();
+			Object propiedades = feature.get("properties");
+			if (propiedades instanceof Map) {
+				for (Map.Entry<String, Object> e : ((Map<String, Object>) propiedades).entrySet()) {
+					if (e.getValue() != null) {
+						Object v = e.getValue();
+						registro.put(e.getKey().toLowerCase(), v instanceof Double ? formatear((Double) v) : v.toString());
+					}
+				}
+			}
+			Object geometria = feature.get("geometry");
+			if (geometria instanceof Map) {
+				double[] punto = puntoRepresentativo((Map<String, Object>) geometria);
+				if (punto != null) {
+					registro.put("longitud", formatear(punto[0]));
+					registro.put("latitud", formatear(punto[1]));
+				}
+			}
+			return registro;
+		}
+
+		@SuppressWarnings("unchecked")
+		private double[] puntoRepresentativo(Map<String, Object> geometria) {
+			Object tipo = geometria.get("type");
+			Object coordenadas = geometria.get("coordinates");
+			if (!(coordenadas instanceof List)) {
+				return null;
+			}
+			List<Object> lista = (List<Object>) coordenadas;
+			if ("Point".equals(tipo) && lista.size() >= 2) {
+				return new double[] { (Double) lista.get(0), (Double) lista.get(1) };
+			}
+			if ("Polygon".equals(tipo) && !lista.isEmpty()) {
+				List<Object> anillo = (List<Object>) lista.get(0);
+				double lon = 0, lat = 0;
+				for (Object vertice : anillo) {
+					List<Object> v = (List<Object>) vertice;
+					lon += (Double) v.get(0);
+					lat += (Double) v.get(1);
+				}
+				return anillo.isEmpty() ? null : new double[] { lon / anillo.size(), lat / anillo.size() };
+			}
+			return null;
+		}
+
+		private static String formatear(double d) {
+			return d == Math.rint(d) && Math.abs(d) < 1e15 ? Long.toString((long) d) : Double.toString(d);
+		}
+
+		/**
+		 * Recorre el objeto raíz descartando claves hasta encontrar "features" y su '['.
+		 */
+		private boolean buscarFeatures() throws IOException {
+			if (siguienteNoBlanco() != '{') {
+				throw new IOException("El documento GeoJSON debe iniciar con '{'");
+			}
+			while (true) {
+				int c = siguienteNoBlanco();
+				if (c == ',') {
+					c = siguienteNoBlanco();
+				}
+				if (c == '}' || c == -1) {
+					return false;
+				}
+				if (c != '"') {
+					throw new IOException("Clave inválida en GeoJSON");
+				}
+				String clave = leerCadena();
+				if (siguienteNoBlanco() != ':') {
+					throw new IOException("Se esperaba ':' después de \"" + clave + "\"");
+				}
+				if ("features".equals(clave)) {
+					if (siguienteNoBlanco() != '[') {
+						throw new IOException("\"features\" debe ser un arreglo");
+					}
+					dentroDeFeatures = true;
+					return true;
+				}
+				leerValor();
+			}
+		}
+
+		private Object leerValor() throws IOException {
+			int c = siguienteNoBlanco();
+			switch (c) {
+				case '{': {
+					Map<String, Object> objeto = new LinkedHashMap<>();
+					c = siguienteNoBlanco();
+					while (c != '}') {
+						if (c == ',') {
+							c = siguienteNoBlanco();
+						}
+						String clave = leerCadena();
+						siguienteNoBlanco(); // ':'
+						objeto.put(clave, leerValor());
+						c = siguienteNoBlanco();
+					}
+					return objeto;
+				}
+				case '[': {
+					List<Object> arreglo = new ArrayList<>();
+					c = siguienteNoBlanco();
+					while (c != ']') {
+						if (c != ',') {
+							lector.unread(c);
+						}
+						arreglo.add(leerValor());
+						c = siguienteNoBlanco();
+					}
+					return arreglo;
+				}
+				case '"':
+					return leerCadena();
+				case -1:
+					throw new IOException("Fin inesperado del GeoJSON");
+				default: {
+					StringBuilder literal = new StringBuilder();
+					while (c != -1 && ",}] \t\r\n".indexOf(c) < 0) {
+						literal.append((char) c);
+						c = lector.read();
+					}
+					if (c != -1) {
+						lector.unread(c);
+					}
+					String texto = literal.toString();
+					if (texto.equals("null")) return null;
+					if (texto.equals("true") || texto.equals("false")) return texto;
+					try {
+						return Double.valueOf(texto);
+					} catch (NumberFormatException e) {
+						throw new IOException("Literal inválido en GeoJSON: " + texto);
+					}
+				}
+			}
+		}
+
+		/** Lee una cadena cuya comilla inicial ya fue consumida. */
+		private String leerCadena() throws IOException {
+			StringBuilder sb = new StringBuilder();
+			int c;
+			while ((c = lector.read()) != '"') {
+				if (c == -1) {
+					throw new IOException("Cadena sin cerrar en GeoJSON");
+				}
+				if (c == '\\') {
+					c = lector.read();
+					switch (c) {
+						case 'n': sb.append('\n'); break;
+						case 't': sb.append('\t'); break;
+						case 'r': sb.append('\r'); break;
+						case 'b': sb.append('\b'); break;
+						case 'f': sb.append('\f'); break;
+						case 'u': {
+							char[] hex = new char[4];
+							for (int i = 0; i < 4; i++) {
+								hex[i] = (char) lector.read();
+							}
+							sb.append((char) Integer.parseInt(new String(hex), 16));
+							break;
+						}
+						default: sb.append((char) c);
+					}
+				} else {
+					sb.append((char) c);
+				}
+			}
+			return sb.toString();
+		}
+
+		private int siguienteNoBlanco() throws IOException {
+			int c;
+			do {
+				c = lector.read();
+			} while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+			return c;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package negocio.predios;
+
+import model.Predio;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice espacial en memoria sobre la latitud/longitud de los predios.
+ * Divide el plano en una rejilla regular de celdas (en grados) y guarda en cada celda
+ * los predios que caen en ella, de modo que las consultas por radio, por rectángulo y
+ * de k vecinos más cercanos solo revisan las celdas cercanas en lugar de todos los predios.
+ * Es seguro para uso concurrente: varias consultas pueden ejecutarse a la vez y las
+ * escrituras toman un bloqueo exclusivo.
+ */
+public class IndiceEspacialPredios {
+	/** Tamaño de celda por defecto: 0.05° (unos 5.5 km en el trópico). */
+	public static final double TAMANO_CELDA_DEFECTO = 0.05;
+	private static final double KM_POR_GRADO = 111.32;
+	private static final double RADIO_TIERRA_KM = 6371.0088;
+
+	private final double tamanoCelda;
+	private final Map<Long, List<Predio>> celdas = new HashMap<>();
+	private final Map<String, Predio> porId = new HashMap<>();
+	private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+	private int filaMin = Integer.MAX_VALUE, filaMax = Integer.MIN_VALUE;
+	private int colMin = Integer.MAX_VALUE, colMax = Integer.MIN_VALUE;
+
+	public IndiceEspacialPredios() {
+		this(TAMANO_CELDA_DEFECTO);
+	}
+
+	public IndiceEspacialPredios(double tamanoCelda) {
+		if (tamanoCelda <= 0) {
+			throw new IllegalArgumentException("El tamaño de celda debe ser positivo.");
+		}
+		this.tamanoCelda = tamanoCelda;
+	}
+
+	/**
+	 * Inserta o reemplaza (por id) un conjunto de predios.
+	 */
+	public void agregarTodos(Collection<Predio> predios) {
+		bloqueo.writeLock().lock();
+		try {
+			for (Predio p : predios) {
+				agregarSinBloqueo(p);
+			}
+		} finally {
+			bloqueo.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Inserta un predio o, si ya existe uno con el mismo id, actualiza su posición.
+	 */
+	public void agregar(Predio predio) {
+		bloqueo.writeLock().lock();
+		try {
+			agregarSinBloqueo(predio);
+		} finally {
+			bloqueo.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Retira el predio con el id indicado. Devuelve true si estaba indexado.
+	 */
+	public boolean eliminar(String id) {
+		bloqueo.writeLock().lock();
+		try {
+			return eliminarSinBloqueo(id);
+		} finally {
+			bloqueo.writeLock().unlock();
+		}
+	}
+
+	public int tamano() {
+		bloqueo.readLock().lock();
+		try {
+			return porId.size();
+		} finally {
+			bloqueo.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Predios cuya posición está dentro del rectángulo (bordes incluidos).
+	 */
+	public List<Predio> buscarEnRectangulo(double latMin, double lonMin, double latMax, double lonMax) {
+		List<Predio> resultado = new ArrayList<>();
+		recorrerEnRectangulo(latMin, lonMin, latMax, lonMax, resultado::add);
+		return resultado;
+	}
+
+	/**
+	 * Entrega al consumidor cada predio dentro del rectángulo, sin armar una lista; el
+	 * consumidor se llama con el bloqueo de lectura tomado y no debe modificar el índice.
+	 */
+	public void recorrerEnRectangulo(double latMin, double lonMin, double latMax, double lonMax, Consumer<Predio> consumidor) {
+		bloqueo.readLock().lock();
+		try {
+			int f0 = Math.max(celda(latMin), filaMin), f1 = Math.min(celda(latMax), filaMax);
+			int c0 = Math.max(celda(lonMin), colMin), c1 = Math.min(celda(lonMax), colMax);
+			for (int f = f0; f <= f1; f++) {
+				for (int c = c0; c <= c1; c++) {
+					List<Predio> lista = celdas.get(clave(f, c));
+					if (lista == null) continue;
+					for (Predio p : lista) {
+						if (p.getLatitud() >= latMin && p.getLatitud() <= latMax
+								&& p.getLongitud() >= lonMin && p.getLongitud() <= lonMax) {
+							consumidor.accept(p);
+						}
+					}
+				}
+			}
+		} finally {
+			bloqueo.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Rectángulo que cubre las celdas ocupadas, como { latMin, lonMin, latMax, lonMax },
+	 * o null si el índice está vacío. Puede exceder un poco a los predios extremos.
+	 */
+	public double[] getLimites() {
+		bloqueo.readLock().lock();
+		try {
+			if (porId.isEmpty()) return null;
+			return new double[] { filaMin * tamanoCelda, colMin * tamanoCelda,
+					(filaMax + 1) * tamanoCelda, (colMax + 1) * tamanoCelda };
+		} finally {
+			bloqueo.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Predios a una distancia (gran círculo) menor o igual a radioKm del punto dado.
+	 */
+	public List<Predio> buscarEnRadio(double lat, double lon, double radioKm) {
+		double dLat = radioKm / KM_POR_GRADO;
+		double cosLat = Math.max(Math.cos(Math.toRadians(Math.min(90, Math.abs(lat) + dLat))), 1e-6);
+		double dLon = Math.min(180, radioKm / (KM_POR_GRADO * cosLat));
+		List<Predio> candidatos = buscarEnRectangulo(lat - dLat, lon - dLon, lat + dLat, lon + dLon);
+		List<Predio> resultado = new ArrayList<>();
+		for (Predio p : candidatos) {
+			if (distanciaKm(lat, lon, p.getLatitud(), p.getLongitud()) <= radioKm) {
+				resultado.add(p);
+			}
+		}
+		return resultado;
+	}
+
+	/**
+	 * Los k predios más cercanos al punto, ordenados del más cercano al más lejano.
+	 * Recorre anillos de celdas alrededor del punto y se detiene cuando ningún
+	 * anillo restante puede contener un predio más cercano que el k-ésimo encontrado.
+	 */
+	public List<Predio> buscarMasCercanos(double lat, double lon, int k) {
+		List<Predio> resultado = new ArrayList<>();
+		if (k <= 0) return resultado;
+		// Max-heap por distancia: la cabeza es el peor de los k mejores
+		PriorityQueue<double[]> mejores = new PriorityQueue<>(Comparator.comparingDouble((double[] e) -> e[0]).reversed());
+		List<Predio> vistos = new ArrayList<>();
+		bloqueo.readLock().lock();
+		try {
+			if (porId.isEmpty()) return resultado;
+			int f = celda(lat), c = celda(lon);
+			int anilloMax = Math.max(Math.max(Math.abs(f - filaMin), Math.abs(f - filaMax)),
+					Math.max(Math.abs(c - colMin), Math.abs(c - colMax)));
+			// Cota inferior del ancho de una celda: la longitud se estrecha hacia la latitud más extrema indexada
+			double latExtrema = Math.min(90, Math.max(Math.abs(lat),
+					Math.max(Math.abs(filaMin * tamanoCelda), Math.abs((filaMax + 1) * tamanoCelda))));
+			double kmPorCelda = tamanoCelda * KM_POR_GRADO * Math.max(Math.cos(Math.toRadians(latExtrema)), 1e-6);
+			for (int r = 0; r <= anilloMax; r++) {
+				// Cualquier predio en el anillo r o más allá está al menos a (r - 1) celdas completas
+				if (mejores.size() == k && (r - 1) * kmPorCelda > mejores.peek()[0]) {
+					break;
+				}
+				for (int df = -r; df <= r; df++) {
+					boolean borde = Math.abs(df) == r;
+					for (int dc = -r; dc <= r; dc += borde ? 1 : 2 * r) {
+						List<Predio> lista = celdas.get(clave(f + df, c + dc));
+						if (lista != null) {
+							for (Predio p : lista) {
+								double d = distanciaKm(lat, lon, p.getLatitud(), p.getLongitud());
+								if (mejores.size() < k || d < mejores.peek()[0]) {
+									vistos.add(p);
+									mejores.add(new double[] { d, vistos.size() - 1 });
+									if (mejores.size() > k) mejores.poll();
+								}
+							}
+						}
+						if (r == 0) break;
+					}
+				}
+			}
+		} finally {
+			bloqueo.readLock().unlock();
+		}
+		while (!mejores.isEmpty()) {
+			resultado.add(vistos.get((int) mejores.poll()[1]));
+		}
+		Collections.reverse(resultado);
+		return resultado;
+	}
+
+	/**
+	 * Distancia de gran círculo (haversine) en kilómetros.
+	 */
+	public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+		double dLat = Math.toRadians(lat2 - lat1);
+		double dLon = Math.toRadians(lon2 - lon1);
+		double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+				+ Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+		return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	private void agregarSinBloqueo(Predio predio) {
+		if (predio == null || predio.getId() == null) return;
+		eliminarSinBloqueo(predio.getId());
+		int f = celda(predio.getLatitud()), c = celda(predio.getLongitud());
+		celdas.computeIfAbsent(clave(f, c), x -> new ArrayList<>(4)).add(predio);
+		porId.put(predio.getId(), predio);
+		filaMin = Math.min(filaMin, f);
+		filaMax = Math.max(filaMax, f);
+		colMin = Math.min(colMin, c);
+		colMax = Math.max(colMax, c);
+	}
+
+	private boolean eliminarSinBloqueo(String id) {
+		Predio anterior = porId.remove(id);
+		if (anterior == null) return false;
+		Long clave = clave(celda(anterior.getLatitud()), celda(anterior.getLongitud()));
+		List<Predio> lista = celdas.get(clave);
+		if (lista != null) {
+			lista.remove(anterior);
+			if (lista.isEmpty()) celdas.remove(clave);
+		}
+		return true;
+	}
+
+	private int celda(double grados) {
+		return (int) Math.floor(grados / tamanoCelda);
+	}
+
+	private static long clave(int fila, int columna) {
+		return ((long) fila << 32) | (columna & 0xffffffffL);
+	}
+}
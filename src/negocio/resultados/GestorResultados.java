@@ -2,30 +2,74 @@
 package negocio.resultados;
 
 import model.ResultadoTecnico;
+import negocio.IndiceTemporal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+/**
+ * Gestor de resultados técnicos en memoria. Es seguro para uso concurrente. Lo que se
+ * deriva de los resultados (incidencia, alertas) se suscribe con alGuardar, que solo avisa
+ * los resultados que ya quedaron guardados en la BD.
+ */
 public class GestorResultados {
 	private List<ResultadoTecnico> resultados;
+	private List<Consumer<ResultadoTecnico>> oyentesGuardados;
+	private IndiceTemporal<ResultadoTecnico> indiceFechas;
 
 	public GestorResultados() {
 		this.resultados = new ArrayList<>();
+		this.oyentesGuardados = new CopyOnWriteArrayList<>();
+		this.indiceFechas = new IndiceTemporal<>(ResultadoTecnico::getId, ResultadoTecnico::getFecha);
+	}
+
+	/**
+	 * Registra una acción que se ejecuta con cada resultado ya guardado en la BD (ver
+	 * registrarResultadoGuardado); los que solo se registran en memoria no la disparan.
+	 */
+	public void alGuardar(Consumer<ResultadoTecnico> oyente) {
+		oyentesGuardados.add(oyente);
 	}
 
 	public boolean registrarResultado(ResultadoTecnico resultado) {
 		if (resultado == null || resultado.getId() == null || resultado.getId().isEmpty()) {
 			return false;
 		}
-		for (ResultadoTecnico r : resultados) {
-			if (r.getId().equals(resultado.getId())) {
-				return false;
+		synchronized (this) {
+			for (ResultadoTecnico r : resultados) {
+				if (r.getId().equals(resultado.getId())) {
+					return false;
+				}
 			}
+			resultados.add(resultado);
+			indiceFechas.agregar(resultado);
 		}
-		resultados.add(resultado);
 		return true;
 	}
 
-	public ResultadoTecnico consultarResultado(String id) {
+	/**
+	 * Registra un resultado que ya se confirmó en la BD y avisa a los oyentes de alGuardar,
+	 * aunque el resultado ya estuviera en memoria, porque la fila de la BD sí es nueva. Se
+	 * avisa fuera del bloqueo: los oyentes pueden escribir en la BD.
+	 */
+	public boolean registrarResultadoGuardado(ResultadoTecnico resultado) {
+		if (resultado == null || resultado.getId() == null || resultado.getId().isEmpty()) {
+			return false;
+		}
+		boolean nuevo = registrarResultado(resultado);
+		for (Consumer<ResultadoTecnico> oyente : oyentesGuardados) {
+			try {
+				oyente.accept(resultado);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		return nuevo;
+	}
+
+	public synchronized ResultadoTecnico consultarResultado(String id) {
 		for (ResultadoTecnico r : resultados) {
 			if (r.getId().equals(id)) {
 				return r;
@@ -34,20 +78,28 @@ public class GestorResultados {
 		return null;
 	}
 
-	public boolean actualizarResultado(ResultadoTecnico resultado) {
+	public synchronized boolean actualizarResultado(ResultadoTecnico resultado) {
 		if (resultado == null || resultado.getId() == null || resultado.getId().isEmpty()) {
 			return false;
 		}
 		for (int i = 0; i < resultados.size(); i++) {
 			if (resultados.get(i).getId().equals(resultado.getId())) {
 				resultados.set(i, resultado);
+				indiceFechas.agregar(resultado);
 				return true;
 			}
 		}
 		return false;
 	}
 
-	public List<ResultadoTecnico> listarResultados() {
+	public synchronized List<ResultadoTecnico> listarResultados() {
 		return new ArrayList<>(resultados);
 	}
+
+	/**
+	 * Resultados con fecha entre las dos indicadas (incluidas), en orden cronológico.
+	 */
+	public List<ResultadoTecnico> listarPorRangoFechas(LocalDate desde, LocalDate hasta) {
+		return indiceFechas.buscarEnRango(desde, hasta);
+	}
 }
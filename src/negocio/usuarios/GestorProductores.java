@@ -1,6 +1,7 @@
 package negocio.usuarios;
 
 import dao.ProductorDAO;
+import dao.Registro;
 import model.Productor;
 import model.LugarProduccion;
 import java.util.List;
@@ -17,7 +18,7 @@ public class GestorProductores {
      * Constructor que inicializa el DAO de productores.
      */
     public GestorProductores() {
-        this.productorDAO = new ProductorDAO();
+        this.productorDAO = Registro.obtener(ProductorDAO.class, ProductorDAO::new);
     }
     
     /**
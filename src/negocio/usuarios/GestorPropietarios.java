@@ -1,9 +1,14 @@
 package negocio.usuarios;
 
 import dao.PropietarioDAO;
+import dao.Registro;
 import model.Propietario;
+import negocio.IndiceNombres;
+import java.text.Collator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.Consumer;
 
 /**
  * Gestor de lógica de negocio para la entidad Propietario.
@@ -11,12 +16,13 @@ import java.util.ArrayList;
  */
 public class GestorPropietarios {
     private PropietarioDAO propietarioDAO;
+    private volatile IndiceNombres<Propietario> indiceNombres;
     
     /**
      * Constructor que inicializa el DAO de propietarios.
      */
     public GestorPropietarios() {
-        this.propietarioDAO = new PropietarioDAO();
+        this.propietarioDAO = Registro.obtener(PropietarioDAO.class, PropietarioDAO::new);
     }
     
     /**
@@ -72,7 +78,11 @@ public class GestorPropietarios {
         }
         
         // Si todas las validaciones pasan, proceder con el registro
-        return propietarioDAO.insertar(propietario);
+        boolean exito = propietarioDAO.insertar(propietario);
+        if (exito) {
+            actualizarIndice(indice -> indice.agregar(propietario));
+        }
+        return exito;
     }
     
     /**
@@ -133,7 +143,11 @@ public class GestorPropietarios {
             }
         }
         
-        return propietarioDAO.actualizar(propietario);
+        boolean exito = propietarioDAO.actualizar(propietario);
+        if (exito) {
+            actualizarIndice(indice -> indice.agregar(propietario));
+        }
+        return exito;
     }
     
     /**
@@ -158,7 +172,11 @@ public class GestorPropietarios {
         
         // TODO: Verificar que no tenga predios asociados antes de eliminar
         
-        return propietarioDAO.eliminar(numeroIdentificacion);
+        boolean exito = propietarioDAO.eliminar(numeroIdentificacion);
+        if (exito) {
+            actualizarIndice(indice -> indice.eliminar(numeroIdentificacion));
+        }
+        return exito;
     }
     
     /**
@@ -171,26 +189,78 @@ public class GestorPropietarios {
     }
     
     /**
-     * Busca propietarios por nombre (búsqueda parcial).
+     * Busca propietarios por nombre. Cada palabra de la búsqueda debe ser el comienzo de
+     * alguna palabra del nombre, sin distinguir mayúsculas ni tildes ("jose rod" encuentra
+     * a "José Rodríguez"). Usa el índice de nombres en memoria, sin consultar la BD.
+     * <p>
+     * Antes se buscaba el texto en cualquier posición del nombre: ahora "drig" ya no
+     * encuentra a "Rodríguez", pero las palabras pueden ir en cualquier orden.
      * 
      * @param nombre El nombre o parte del nombre a buscar
-     * @return Lista de propietarios que coinciden con el criterio
+     * @return Lista de propietarios que coinciden con el criterio, ordenada por nombre
      */
     public List<Propietario> buscarPorNombre(String nombre) {
         if (nombre == null || nombre.trim().isEmpty()) {
             return listarPropietarios();
         }
-        // Filtrar localmente por nombre
-        List<Propietario> todos = listarPropietarios();
-        List<Propietario> resultado = new ArrayList<>();
-        String nombreBusqueda = nombre.toLowerCase();
-        
-        for (Propietario p : todos) {
-            if (p.getNombre() != null && p.getNombre().toLowerCase().contains(nombreBusqueda)) {
-                resultado.add(p);
+        List<Propietario> encontrados = getIndiceNombres().buscar(nombre, Integer.MAX_VALUE);
+        encontrados.sort(Comparator.comparing(Propietario::getNombre, Comparator.nullsLast(Collator.getInstance())));
+        return encontrados;
+    }
+    
+    /**
+     * Sugerencias para la búsqueda mientras se escribe: como buscarPorNombre, pero con
+     * un máximo de resultados.
+     */
+    public List<Propietario> sugerirPorNombre(String texto, int limite) {
+        return getIndiceNombres().buscar(texto, limite);
+    }
+    
+    /**
+     * Vuelve a cargar el índice de nombres desde la BD, para incorporar cambios hechos
+     * desde otras instancias de la aplicación.
+     */
+    public void refrescarIndiceNombres() {
+        IndiceNombres<Propietario> indice = getIndiceNombres();
+        synchronized (this) {
+            indice.reemplazarTodos(propietarioDAO.listar());
+        }
+    }
+    
+    /**
+     * Devuelve el índice de nombres, construyéndolo desde la BD la primera vez que se usa.
+     * Después se actualiza con cada registro, actualización y eliminación (ver
+     * actualizarIndice).
+     */
+    public IndiceNombres<Propietario> getIndiceNombres() {
+        IndiceNombres<Propietario> indice = indiceNombres;
+        if (indice == null) {
+            synchronized (this) {
+                indice = indiceNombres;
+                if (indice == null) {
+                    indice = new IndiceNombres<>(GestorPropietarios::clave, Propietario::getNombre);
+                    indice.reemplazarTodos(propietarioDAO.listar());
+                    indiceNombres = indice;
+                }
             }
         }
-        return resultado;
+        return indice;
+    }
+    
+    /**
+     * Aplica un cambio ya guardado en la BD al índice, si existe. Se hace bajo el mismo
+     * bloqueo con que se construye: si otro hilo está leyendo la BD para construirlo, se
+     * espera a que lo publique y el cambio se aplica encima, en lugar de perderse por no
+     * estar en la lista que ese hilo ya leyó.
+     */
+    private synchronized void actualizarIndice(Consumer<IndiceNombres<Propietario>> cambio) {
+        if (indiceNombres != null) {
+            cambio.accept(indiceNombres);
+        }
+    }
+    
+    private static String clave(Propietario p) {
+        return p.getNumeroIdentificacion() != null ? p.getNumeroIdentificacion() : p.getId();
     }
     
     /**
@@ -5,12 +5,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import dao.PropietarioDAO;
+import dao.Registro;
 
 public class GestorUsuarios {
     private PropietarioDAO propietarioDAO;
 
     public GestorUsuarios() {
-        this.propietarioDAO = new PropietarioDAO();
+        this.propietarioDAO = Registro.obtener(PropietarioDAO.class, PropietarioDAO::new);
     }
 
     public boolean registrarPropietario(Propietario propietario) {
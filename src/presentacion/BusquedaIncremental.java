@@ -0,0 +1,163 @@
+package presentacion;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Sugerencias mientras se escribe en un campo de texto. Espera ESPERA_MS sin teclear antes
+ * de buscar, busca en un hilo de fondo y descarta los resultados de búsquedas viejas, así
+ * escribir rápido no lanza una consulta por tecla ni muestra sugerencias de un texto
+ * anterior. Las flechas recorren la lista, Enter o clic eligen y Escape la cierra.
+ */
+public class BusquedaIncremental<T> {
+    public static final int ESPERA_MS = 150;
+    public static final int MAX_SUGERENCIAS = 10;
+    private static final int MIN_CARACTERES = 2;
+
+    private final JTextField campo;
+    private final Function<String, List<T>> buscar;
+    private final Consumer<T> alElegir;
+    private final DefaultListModel<T> sugerencias = new DefaultListModel<>();
+    private final JList<T> lista = new JList<>(sugerencias);
+    private final JPopupMenu ventana = new JPopupMenu();
+    private final Timer espera;
+    private SwingWorker<List<T>, Void> busqueda;
+    private boolean ignorarCambios;
+
+    /**
+     * @param buscar recibe el texto y devuelve hasta MAX_SUGERENCIAS elementos; se ejecuta fuera del EDT
+     * @param describir texto que se muestra por cada sugerencia
+     * @param alElegir se llama en el EDT con el elemento elegido
+     */
+    public BusquedaIncremental(JTextField campo, Function<String, List<T>> buscar, Function<T, String> describir,
+            Consumer<T> alElegir) {
+        this.campo = campo;
+        this.buscar = buscar;
+        this.alElegir = alElegir;
+
+        lista.setFocusable(false);
+        lista.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        lista.setCellRenderer((l, valor, indice, seleccionado, foco) -> {
+            JLabel etiqueta = new JLabel(describir.apply(valor));
+            etiqueta.setOpaque(true);
+            etiqueta.setBackground(seleccionado ? l.getSelectionBackground() : l.getBackground());
+            etiqueta.setForeground(seleccionado ? l.getSelectionForeground() : l.getForeground());
+            return etiqueta;
+        });
+        lista.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                elegir();
+            }
+        });
+        ventana.setFocusable(false);
+        ventana.add(new JScrollPane(lista));
+
+        espera = new Timer(ESPERA_MS, e -> buscarAhora());
+        espera.setRepeats(false);
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { textoCambiado(); }
+            @Override public void removeUpdate(DocumentEvent e) { textoCambiado(); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
+        enlazarTecla("DOWN", "sugerencia-siguiente", () -> mover(1));
+        enlazarTecla("UP", "sugerencia-anterior", () -> mover(-1));
+        enlazarTecla("ENTER", "sugerencia-elegir", () -> {
+            if (ventana.isVisible()) elegir();
+            else campo.postActionEvent();
+        });
+        enlazarTecla("ESCAPE", "sugerencia-cerrar", this::cerrar);
+    }
+
+    private void textoCambiado() {
+        if (ignorarCambios) return;
+        espera.restart();
+    }
+
+    private void buscarAhora() {
+        if (busqueda != null) {
+            busqueda.cancel(true);
+        }
+        String texto = campo.getText().trim();
+        if (texto.length() < MIN_CARACTERES) {
+            cerrar();
+            return;
+        }
+        SwingWorker<List<T>, Void> nueva = new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                return buscar.apply(texto);
+            }
+
+            @Override
+            protected void done() {
+                // Solo se muestra si sigue siendo la búsqueda vigente y el texto no cambió
+                if (isCancelled() || busqueda != this || !texto.equals(campo.getText().trim())) return;
+                try {
+                    mostrar(get());
+                } catch (Exception e) {
+                    cerrar();
+                }
+            }
+        };
+        busqueda = nueva;
+        nueva.execute();
+    }
+
+    private void mostrar(List<T> encontradas) {
+        sugerencias.clear();
+        for (int i = 0; i < encontradas.size() && i < MAX_SUGERENCIAS; i++) {
+            sugerencias.addElement(encontradas.get(i));
+        }
+        if (sugerencias.isEmpty() || !campo.isShowing()) {
+            cerrar();
+            return;
+        }
+        lista.setVisibleRowCount(Math.min(sugerencias.size(), MAX_SUGERENCIAS));
+        lista.setSelectedIndex(0);
+        ventana.setPopupSize(Math.max(campo.getWidth(), 250), ventana.getPreferredSize().height);
+        ventana.show(campo, 0, campo.getHeight());
+        campo.requestFocusInWindow();
+    }
+
+    private void mover(int delta) {
+        if (!ventana.isVisible()) return;
+        int indice = Math.max(0, Math.min(sugerencias.size() - 1, lista.getSelectedIndex() + delta));
+        lista.setSelectedIndex(indice);
+        lista.ensureIndexIsVisible(indice);
+    }
+
+    private void elegir() {
+        T elegido = ventana.isVisible() ? lista.getSelectedValue() : null;
+        cerrar();
+        if (elegido == null) return;
+        ignorarCambios = true;
+        try {
+            alElegir.accept(elegido);
+        } finally {
+            ignorarCambios = false;
+        }
+    }
+
+    private void cerrar() {
+        espera.stop();
+        ventana.setVisible(false);
+    }
+
+    private void enlazarTecla(String tecla, String nombre, Runnable accion) {
+        campo.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(tecla), nombre);
+        campo.getActionMap().put(nombre, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package presentacion;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.DefaultTableModel;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Llena una tabla desde un hilo de fondo. Las filas se convierten fuera del EDT y se
+ * agregan al modelo por lotes (un solo evento de inserción por lote), así la ventana sigue
+ * respondiendo mientras dura la consulta y el usuario ve las primeras filas de inmediato.
+ */
+public class CargadorTabla<T> extends SwingWorker<Integer, Object[]> {
+
+    /**
+     * Origen de las filas. Entrega los elementos de a uno; puede lanzar cualquier excepción.
+     */
+    @FunctionalInterface
+    public interface Fuente<T> {
+        void recorrer(Consumer<T> destino) throws Exception;
+    }
+
+    private final DefaultTableModel modelo;
+    private final Fuente<T> fuente;
+    private final Function<T, Object[]> convertir;
+    private final Consumer<Integer> alAvanzar;
+    private int cargadas;
+
+    /**
+     * @param alAvanzar recibe en el EDT el total de filas agregadas tras cada lote
+     */
+    public CargadorTabla(DefaultTableModel modelo, Fuente<T> fuente, Function<T, Object[]> convertir,
+            Consumer<Integer> alAvanzar) {
+        this.modelo = modelo;
+        this.fuente = fuente;
+        this.convertir = convertir;
+        this.alAvanzar = alAvanzar;
+    }
+
+    @Override
+    protected Integer doInBackground() throws Exception {
+        int[] total = new int[1];
+        fuente.recorrer(elemento -> {
+            // Cortar el recorrido también libera el cursor de la BD
+            if (isCancelled()) throw new CancellationException();
+            publish(convertir.apply(elemento));
+            total[0]++;
+        });
+        return total[0];
+    }
+
+    @Override
+    protected void process(List<Object[]> filas) {
+        // Lotes publicados antes de cancelar no deben mezclarse con una carga nueva
+        if (isCancelled() || filas.isEmpty()) return;
+        int primera = modelo.getRowCount();
+        @SuppressWarnings("unchecked")
+        Vector<Vector<Object>> datos = (Vector<Vector<Object>>) (Vector<?>) modelo.getDataVector();
+        for (Object[] fila : filas) {
+            Vector<Object> renglon = new Vector<>(fila.length);
+            for (Object valor : fila) renglon.add(valor);
+            datos.add(renglon);
+        }
+        modelo.fireTableRowsInserted(primera, modelo.getRowCount() - 1);
+        cargadas += filas.size();
+        alAvanzar.accept(cargadas);
+    }
+
+    public int getCargadas() {
+        return cargadas;
+    }
+}
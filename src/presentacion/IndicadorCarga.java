@@ -0,0 +1,71 @@
+package presentacion;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Barra de progreso con botón Cancelar para las cargas de tabla en segundo plano.
+ * Solo hay una carga por indicador: iniciar otra cancela la anterior.
+ */
+public class IndicadorCarga extends JPanel {
+    private final JProgressBar barra = new JProgressBar();
+    private final JButton btnCancelar = new JButton("Cancelar");
+    private CargadorTabla<?> actual;
+
+    public IndicadorCarga() {
+        super(new BorderLayout(5, 5));
+        barra.setStringPainted(true);
+        barra.setString("");
+        add(barra, BorderLayout.CENTER);
+        add(btnCancelar, BorderLayout.EAST);
+        btnCancelar.setEnabled(false);
+        btnCancelar.addActionListener(e -> cancelar());
+    }
+
+    /**
+     * Vacía la tabla y la vuelve a llenar desde la fuente en un hilo de fondo.
+     * Debe llamarse desde el EDT.
+     */
+    public <T> void cargar(DefaultTableModel modelo, CargadorTabla.Fuente<T> fuente, Function<T, Object[]> convertir) {
+        cancelar();
+        modelo.setRowCount(0);
+        barra.setIndeterminate(true);
+        barra.setString("Cargando...");
+        btnCancelar.setEnabled(true);
+        CargadorTabla<T> cargador = new CargadorTabla<>(modelo, fuente, convertir,
+                cargadas -> barra.setString("Cargando... " + cargadas + " filas"));
+        cargador.addPropertyChangeListener(e -> {
+            if ("state".equals(e.getPropertyName()) && e.getNewValue() == SwingWorker.StateValue.DONE) {
+                terminar(cargador);
+            }
+        });
+        actual = cargador;
+        cargador.execute();
+    }
+
+    public void cancelar() {
+        if (actual != null && !actual.isDone()) {
+            actual.cancel(false);
+        }
+    }
+
+    private void terminar(CargadorTabla<?> cargador) {
+        if (cargador != actual) return;
+        barra.setIndeterminate(false);
+        btnCancelar.setEnabled(false);
+        try {
+            barra.setString(cargador.get() + " filas");
+        } catch (CancellationException e) {
+            barra.setString("Cancelado (" + cargador.getCargadas() + " filas)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            barra.setString("Error");
+            JOptionPane.showMessageDialog(this, "Error al cargar: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -6,7 +6,16 @@ import logica.ControladorSistema;
 
 public class LoginFrame extends JFrame {
 
+    private final ControladorSistema controlador;
+
     public LoginFrame() {
+        this(ControladorSistema.getCompartido());
+    }
+
+    public LoginFrame(ControladorSistema controlador) {
+        this.controlador = controlador;
+        // Mientras el usuario inicia sesión se trae la división territorial para los combos
+        controlador.getCatalogoGeografico().precargar();
         setTitle("Inicio de Sesión");
         setSize(400, 300);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -39,7 +48,7 @@ public class LoginFrame extends JFrame {
         this.dispose();
 
     // Abrir PanelPropietario en una ventana aparte y centrada
-    PanelPropietario panelPropietario = new PanelPropietario(new ControladorSistema());
+        PanelPropietario panelPropietario = new PanelPropietario(controlador);
         JFrame ventanaPropietario = new JFrame("Panel del Propietario");
         ventanaPropietario.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         ventanaPropietario.getContentPane().add(panelPropietario);
@@ -50,7 +59,9 @@ public class LoginFrame extends JFrame {
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            new LoginFrame().setVisible(true);
+            LoginFrame login = new LoginFrame();
+            login.setVisible(true);
+            VentanaPrincipal.informarArranque(login, VentanaPrincipal.inicioProceso());
         });
     }
 }
@@ -0,0 +1,244 @@
+package presentacion;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Modelo de tabla que no carga todas las filas: pide a la fuente solo las páginas que
+ * la tabla está mostrando, en un hilo de fondo, y guarda en memoria las últimas
+ * PAGINAS_EN_MEMORIA. Mientras una página llega, sus celdas muestran "…".
+ * El orden lo resuelve la fuente (la BD), así que ordenar no requiere tener todo cargado.
+ * Al desplazarse rápido se atiende primero la página pedida más recientemente.
+ * Una página que no se pudo cargar no se guarda: sigue mostrando "…", se vuelve a pedir
+ * la próxima vez que la tabla la muestre y el error se informa con setAvisoError.
+ */
+public class ModeloTablaPaginado<T> extends AbstractTableModel {
+    public static final int TAMANO_PAGINA = 200;
+    public static final int PAGINAS_EN_MEMORIA = 10;
+    private static final String CARGANDO = "…";
+
+    /**
+     * Origen paginado de las filas.
+     */
+    public interface FuentePaginada<T> {
+        int contar();
+
+        /**
+         * @param columnaOrden nombre de la columna de orden, o null para el orden natural
+         */
+        List<T> pagina(int desde, int cantidad, String columnaOrden, boolean ascendente) throws Exception;
+    }
+
+    private final String[] columnas;
+    private final String[] columnasOrden;
+    private final FuentePaginada<T> fuente;
+    private final Function<T, Object[]> convertir;
+    private final ExecutorService cargas = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "carga-paginas");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Todo el estado siguiente se toca solo desde el EDT
+    private final Map<Integer, Object[][]> paginas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> mayor) {
+            return size() > PAGINAS_EN_MEMORIA;
+        }
+    };
+    private final Deque<Integer> porCargar = new ArrayDeque<>();
+    private final Set<Integer> pedidas = new HashSet<>();
+    private boolean cargando;
+    private int filas;
+    private int generacion;
+    private int columnaOrdenada = -1;
+    private boolean ascendente = true;
+    private Consumer<String> avisoError = mensaje -> { };
+    private boolean conError;
+
+    /**
+     * @param columnasOrden nombre de la columna de la fuente para cada columna de la tabla,
+     *                      o null en las que no se pueden ordenar
+     */
+    public ModeloTablaPaginado(String[] columnas, String[] columnasOrden, FuentePaginada<T> fuente,
+            Function<T, Object[]> convertir) {
+        this.columnas = columnas;
+        this.columnasOrden = columnasOrden;
+        this.fuente = fuente;
+        this.convertir = convertir;
+    }
+
+    /**
+     * Recibe, en el EDT, un mensaje cuando una página no se pudo cargar y null cuando
+     * después de eso una página vuelve a cargarse.
+     */
+    public void setAvisoError(Consumer<String> avisoError) {
+        this.avisoError = avisoError;
+    }
+
+    /**
+     * Conecta el clic en el encabezado de la tabla con el orden de la fuente.
+     * El primer clic en una columna ordena ascendente; el siguiente, descendente.
+     */
+    public void instalarEn(JTable tabla) {
+        tabla.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columna = tabla.convertColumnIndexToModel(tabla.columnAtPoint(e.getPoint()));
+                if (columna < 0) return;
+                ordenarPor(columna, columna != columnaOrdenada || !ascendente);
+                for (int i = 0; i < tabla.getColumnCount(); i++) {
+                    tabla.getColumnModel().getColumn(i).setHeaderValue(getColumnName(tabla.convertColumnIndexToModel(i)));
+                }
+                tabla.getTableHeader().repaint();
+            }
+        });
+    }
+
+    /**
+     * Vuelve a contar las filas y descarta las páginas en memoria. Debe llamarse desde el EDT.
+     */
+    public void recargar() {
+        int version = reiniciar();
+        cargas.execute(() -> {
+            int total = fuente.contar();
+            SwingUtilities.invokeLater(() -> {
+                if (version != generacion) return;
+                filas = total;
+                fireTableDataChanged();
+            });
+        });
+    }
+
+    public void ordenarPor(int columna, boolean ascendente) {
+        if (columnasOrden == null || columna >= columnasOrden.length || columnasOrden[columna] == null) {
+            return;
+        }
+        this.columnaOrdenada = columna;
+        this.ascendente = ascendente;
+        reiniciar();
+        fireTableDataChanged();
+    }
+
+    public int getColumnaOrdenada() {
+        return columnaOrdenada;
+    }
+
+    public boolean isAscendente() {
+        return ascendente;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        if (columna != columnaOrdenada) return columnas[columna];
+        return columnas[columna] + (ascendente ? " ▲" : " ▼");
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        int numero = fila / TAMANO_PAGINA;
+        Object[][] pagina = paginas.get(numero);
+        if (pagina == null) {
+            pedir(numero);
+            return CARGANDO;
+        }
+        int indice = fila % TAMANO_PAGINA;
+        return indice < pagina.length ? pagina[indice][columna] : null;
+    }
+
+    private int reiniciar() {
+        generacion++;
+        paginas.clear();
+        porCargar.clear();
+        pedidas.clear();
+        return generacion;
+    }
+
+    private void pedir(int numero) {
+        if (!pedidas.add(numero)) return;
+        porCargar.push(numero);
+        if (!cargando) {
+            cargarSiguiente();
+        }
+    }
+
+    /**
+     * Carga una página a la vez, la más reciente primero. Las pedidas que ya no caben en
+     * memoria (la tabla se desplazó lejos) se descartan sin consultar.
+     */
+    private void cargarSiguiente() {
+        while (porCargar.size() > PAGINAS_EN_MEMORIA) {
+            pedidas.remove(porCargar.removeLast());
+        }
+        Integer numero = porCargar.poll();
+        if (numero == null) {
+            cargando = false;
+            return;
+        }
+        cargando = true;
+        int version = generacion;
+        String orden = columnaOrdenada >= 0 ? columnasOrden[columnaOrdenada] : null;
+        boolean asc = ascendente;
+        cargas.execute(() -> {
+            Object[][] pagina = null;
+            Exception falla = null;
+            try {
+                List<T> elementos = fuente.pagina(numero * TAMANO_PAGINA, TAMANO_PAGINA, orden, asc);
+                pagina = new Object[elementos.size()][];
+                for (int i = 0; i < pagina.length; i++) {
+                    pagina[i] = convertir.apply(elementos.get(i));
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                falla = e;
+            }
+            Object[][] cargada = pagina;
+            Exception error = falla;
+            SwingUtilities.invokeLater(() -> {
+                if (version == generacion) {
+                    // Sin guardarla: al quitarla de pedidas se vuelve a pedir cuando se muestre
+                    pedidas.remove(numero);
+                    if (cargada != null) {
+                        paginas.put(numero, cargada);
+                        int primera = numero * TAMANO_PAGINA;
+                        int ultima = Math.min(filas, primera + TAMANO_PAGINA) - 1;
+                        if (ultima >= primera) fireTableRowsUpdated(primera, ultima);
+                        if (conError) {
+                            conError = false;
+                            avisoError.accept(null);
+                        }
+                    } else {
+                        conError = true;
+                        avisoError.accept("No se pudieron cargar las filas " + (numero * TAMANO_PAGINA + 1)
+                                + " a " + ((numero + 1) * TAMANO_PAGINA) + ": " + error.getMessage());
+                    }
+                }
+                cargarSiguiente();
+            });
+        });
+    }
+}
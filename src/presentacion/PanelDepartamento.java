@@ -4,6 +4,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
+import dao.ConexionBD;
 import logica.ControladorSistema;
 
 public class PanelDepartamento extends JPanel {
@@ -12,9 +13,6 @@ public class PanelDepartamento extends JPanel {
     private JButton btnGuardar, btnActualizar, btnBuscar, btnEliminar;
     private ControladorSistema controlador;
 
-    private final String URL = "jdbc:oracle:thin:@192.168.2.100:1521:XE";
-    private final String USUARIO = "ica2";
-    private final String CLAVE = "ica2";
 
     public PanelDepartamento(ControladorSistema controlador) {
         this.controlador = controlador;
@@ -42,18 +40,19 @@ public class PanelDepartamento extends JPanel {
     }
 
     private Connection conectar() throws SQLException {
-        try { Class.forName("oracle.jdbc.driver.OracleDriver"); }
-        catch (ClassNotFoundException e) { JOptionPane.showMessageDialog(this, "Driver Oracle no encontrado."); }
-        return DriverManager.getConnection(URL, USUARIO, CLAVE);
+        // Conexión del pool configurado en ConexionBD; al cerrarla vuelve al pool, así que
+        // sentencias y resultados se cierran antes para no dejar cursores abiertos en ella
+        return ConexionBD.getDataSource().getConnection();
     }
 
     private boolean existeDepartamento(String nombre) throws SQLException {
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?)");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?)")) {
             ps.setString(1, nombre);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            return rs.getInt(1) > 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
         }
     }
 
@@ -67,14 +66,18 @@ public class PanelDepartamento extends JPanel {
                 return;
             }
 
-            PreparedStatement psMax = conn.prepareStatement("SELECT NVL(MAX(id),0)+1 FROM DEPARTAMENTO");
-            ResultSet rs = psMax.executeQuery(); rs.next();
-            int id = rs.getInt(1);
+            int id;
+            try (PreparedStatement psMax = conn.prepareStatement("SELECT NVL(MAX(id),0)+1 FROM DEPARTAMENTO");
+                 ResultSet rs = psMax.executeQuery()) {
+                rs.next();
+                id = rs.getInt(1);
+            }
 
-            PreparedStatement ps = conn.prepareStatement("INSERT INTO DEPARTAMENTO VALUES(?,?)");
-            ps.setInt(1, id);
-            ps.setString(2, nombre);
-            ps.executeUpdate();
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO DEPARTAMENTO VALUES(?,?)")) {
+                ps.setInt(1, id);
+                ps.setString(2, nombre);
+                ps.executeUpdate();
+            }
             JOptionPane.showMessageDialog(this, "Departamento guardado correctamente.");
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -85,8 +88,8 @@ public class PanelDepartamento extends JPanel {
         String nombre = txtNombre.getText().trim();
         if (nombre.isEmpty()) { JOptionPane.showMessageDialog(this, "Ingrese el nombre."); return; }
 
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("UPDATE DEPARTAMENTO SET nombre=? WHERE LOWER(nombre)=LOWER(?)");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("UPDATE DEPARTAMENTO SET nombre=? WHERE LOWER(nombre)=LOWER(?)")) {
             ps.setString(1, nombre);
             ps.setString(2, nombre);
             int filas = ps.executeUpdate();
@@ -100,15 +103,16 @@ public class PanelDepartamento extends JPanel {
         String nombre = txtNombre.getText().trim();
         if (nombre.isEmpty()) { JOptionPane.showMessageDialog(this, "Ingrese el nombre."); return; }
 
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("SELECT * FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?)");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("SELECT * FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?)")) {
             ps.setString(1, nombre);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                txtNombre.setText(rs.getString("nombre"));
-                JOptionPane.showMessageDialog(this, "Departamento encontrado.");
-            } else {
-                JOptionPane.showMessageDialog(this, "No encontrado.");
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    txtNombre.setText(rs.getString("nombre"));
+                    JOptionPane.showMessageDialog(this, "Departamento encontrado.");
+                } else {
+                    JOptionPane.showMessageDialog(this, "No encontrado.");
+                }
             }
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -121,18 +125,22 @@ public class PanelDepartamento extends JPanel {
 
         try (Connection conn = conectar()) {
             // Verificar dependencias
-            PreparedStatement psDep = conn.prepareStatement("SELECT COUNT(*) FROM MUNICIPIO WHERE id_departamento IN (SELECT id FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?))");
-            psDep.setString(1, nombre);
-            ResultSet rsDep = psDep.executeQuery(); rsDep.next();
-            if (rsDep.getInt(1) > 0) {
-                JOptionPane.showMessageDialog(this, "No se puede eliminar: existen municipios asociados.");
-                return;
+            try (PreparedStatement psDep = conn.prepareStatement("SELECT COUNT(*) FROM MUNICIPIO WHERE id_departamento IN (SELECT id FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?))")) {
+                psDep.setString(1, nombre);
+                try (ResultSet rsDep = psDep.executeQuery()) {
+                    rsDep.next();
+                    if (rsDep.getInt(1) > 0) {
+                        JOptionPane.showMessageDialog(this, "No se puede eliminar: existen municipios asociados.");
+                        return;
+                    }
+                }
             }
 
-            PreparedStatement ps = conn.prepareStatement("DELETE FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?)");
-            ps.setString(1, nombre);
-            int filas = ps.executeUpdate();
-            JOptionPane.showMessageDialog(this, filas > 0 ? "Departamento eliminado." : "No encontrado.");
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM DEPARTAMENTO WHERE LOWER(nombre)=LOWER(?)")) {
+                ps.setString(1, nombre);
+                int filas = ps.executeUpdate();
+                JOptionPane.showMessageDialog(this, filas > 0 ? "Departamento eliminado." : "No encontrado.");
+            }
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
         }
@@ -6,7 +6,6 @@ import java.awt.*;
 import javax.swing.table.DefaultTableModel;
 import logica.ControladorSistema;
 import model.InspeccionFitosanitaria;
-import java.util.List;
 
 public class PanelInspeccion extends JPanel {
     private ControladorSistema controlador;
@@ -15,6 +14,7 @@ public class PanelInspeccion extends JPanel {
     private JButton btnRegistrar, btnConsultar, btnActualizar, btnLimpiar, btnListar;
     private JTable tablaInspecciones;
     private DefaultTableModel modeloTabla;
+    private IndicadorCarga indicadorCarga;
 
     public PanelInspeccion(ControladorSistema controlador) {
         this.controlador = controlador;
@@ -66,6 +66,9 @@ public class PanelInspeccion extends JPanel {
         JScrollPane scrollTabla = new JScrollPane(tablaInspecciones);
         add(scrollTabla, BorderLayout.CENTER);
 
+        indicadorCarga = new IndicadorCarga();
+        add(indicadorCarga, BorderLayout.SOUTH);
+
         btnRegistrar.addActionListener(e -> registrarInspeccion());
         btnConsultar.addActionListener(e -> consultarInspeccion());
         btnActualizar.addActionListener(e -> actualizarInspeccion());
@@ -81,7 +84,7 @@ public class PanelInspeccion extends JPanel {
             }
             InspeccionFitosanitaria i = new InspeccionFitosanitaria();
             i.setId(txtId.getText().trim());
-            i.setFecha(txtFecha.getText().trim());
+            i.setFecha(Utilidades.parsearFecha(txtFecha.getText()));
             i.setPredioId(txtPredio.getText().trim());
             i.setTecnico(txtTecnico.getText().trim());
             i.setObservaciones(txtObservaciones.getText().trim());
@@ -108,7 +111,7 @@ public class PanelInspeccion extends JPanel {
             }
             InspeccionFitosanitaria i = controlador.getGestorInspecciones().consultarInspeccion(id);
             if (i != null) {
-                txtFecha.setText(i.getFecha());
+                txtFecha.setText(Utilidades.formatearFecha(i.getFecha()));
                 txtPredio.setText(i.getPredioId());
                 txtTecnico.setText(i.getTecnico());
                 txtObservaciones.setText(i.getObservaciones());
@@ -130,7 +133,7 @@ public class PanelInspeccion extends JPanel {
             }
             InspeccionFitosanitaria i = new InspeccionFitosanitaria();
             i.setId(txtId.getText().trim());
-            i.setFecha(txtFecha.getText().trim());
+            i.setFecha(Utilidades.parsearFecha(txtFecha.getText()));
             i.setPredioId(txtPredio.getText().trim());
             i.setTecnico(txtTecnico.getText().trim());
             i.setObservaciones(txtObservaciones.getText().trim());
@@ -158,10 +161,7 @@ public class PanelInspeccion extends JPanel {
     }
 
     private void listarInspecciones() {
-        modeloTabla.setRowCount(0);
-        List<InspeccionFitosanitaria> lista = controlador.getGestorInspecciones().listarInspecciones();
-        for (InspeccionFitosanitaria i : lista) {
-            modeloTabla.addRow(new Object[]{i.getId(), i.getFecha(), i.getPredioId(), i.getTecnico(), i.getObservaciones()});
-        }
+        indicadorCarga.cargar(modeloTabla, destino -> controlador.getGestorInspecciones().listarInspecciones().forEach(destino),
+                (InspeccionFitosanitaria i) -> new Object[]{i.getId(), i.getFecha(), i.getPredioId(), i.getTecnico(), i.getObservaciones()});
     }
 }
@@ -0,0 +1,544 @@
+package presentacion;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import logica.ControladorSistema;
+import model.Alerta;
+import model.Predio;
+import negocio.alertas.MotorReglasAlertas;
+import negocio.predios.IndiceEspacialPredios;
+
+/**
+ * Mapa de predios coloreados por la alerta activa de mayor nivel en su vereda o su municipio.
+ *
+ * El mapa se dibuja por teselas de TAMANO_TESELA píxeles que se pintan en segundo plano y se
+ * guardan en memoria (las últimas TESELAS_EN_MEMORIA), así desplazarse solo pinta las teselas
+ * que entran en pantalla. Cada tesela consulta en el índice espacial únicamente los predios de
+ * su área. Con poco zoom los predios se agrupan en celdas de CELDA_GRUPO píxeles: un círculo
+ * por celda, más grande cuantos más predios tenga y del color del nivel más alto. Cuando llega
+ * una alerta solo se vuelven a pintar las teselas con predios de esa región.
+ *
+ * Arrastrar desplaza el mapa y la rueda cambia el zoom.
+ */
+public class PanelMapa extends JPanel {
+    public static final int TAMANO_TESELA = 256;
+    public static final int TESELAS_EN_MEMORIA = 160;
+    public static final int ZOOM_MIN = 3;
+    public static final int ZOOM_MAX = 18;
+    /** Desde este zoom se dibuja cada predio por separado. */
+    public static final int ZOOM_DETALLE = 11;
+    private static final int CELDA_GRUPO = 16;
+    private static final int RADIO_PUNTO = 3;
+    private static final Color FONDO = new Color(236, 240, 232);
+    static final Color[] COLORES = { new Color(90, 110, 140), new Color(60, 170, 75),
+            new Color(235, 200, 40), new Color(240, 130, 30), new Color(210, 40, 40) };
+    static final String[] NIVELES = { "Sin alerta", "Bajo", "Medio", "Alto", "Crítico" };
+    private static final String SIN_MUNICIPIO = "";
+    /** Círculos ya dibujados por nivel y radio; copiar una imagen es mucho más barato que dibujarlos. */
+    private static final BufferedImage[][] CIRCULOS = new BufferedImage[COLORES.length][CELDA_GRUPO / 2];
+
+    static {
+        for (int nivel = 0; nivel < COLORES.length; nivel++) {
+            for (int radio = 1; radio < CELDA_GRUPO / 2; radio++) {
+                BufferedImage imagen = new BufferedImage(CELDA_GRUPO, CELDA_GRUPO, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = imagen.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                double c = CELDA_GRUPO / 2.0;
+                Ellipse2D circulo = new Ellipse2D.Double(c - radio, c - radio, 2 * radio, 2 * radio);
+                g.setColor(COLORES[nivel]);
+                g.fill(circulo);
+                g.setColor(COLORES[nivel].darker());
+                g.draw(circulo);
+                g.dispose();
+                CIRCULOS[nivel][radio] = imagen;
+            }
+        }
+    }
+
+    private ControladorSistema controlador;
+    private final Lienzo lienzo = new Lienzo();
+    private final JLabel lblEstado = new JLabel("Cargando predios…");
+    private final ExecutorService pintores = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "mapa-teselas");
+        t.setDaemon(true);
+        return t;
+    });
+    // Nivel 0 = sin alerta; 1..4 = Bajo..Crítico. nivelPorRegion junta lo leído de la BD y lo
+    // recibido en vivo; nivelEnVivo guarda solo lo segundo, para no perderlo al recargar
+    private final Map<String, Integer> nivelPorRegion = new ConcurrentHashMap<>();
+    private final Map<String, Integer> nivelEnVivo = new ConcurrentHashMap<>();
+    private final Map<String, String> municipioPorVereda = new ConcurrentHashMap<>();
+    private volatile Function<String, String> municipioDeVereda = v -> null;
+    private volatile IndiceEspacialPredios indice;
+    private volatile Set<Long> visibles = Set.of();
+
+    // Todo el estado siguiente se toca solo desde el EDT
+    private final Map<Long, Tesela> teselas = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Tesela> mayor) {
+            return size() > TESELAS_EN_MEMORIA;
+        }
+    };
+    private final Set<Long> pendientes = new HashSet<>();
+    private final Set<Long> ensuciadasEnCurso = new HashSet<>();
+    private int generacion;
+    private int zoom = 6;
+    private double centroX, centroY;
+    private Point arrastre;
+
+    /**
+     * Imagen ya pintada de una tesela, con las regiones (veredas y municipios) de sus predios
+     * para saber si una alerta la afecta.
+     */
+    private static final class Tesela {
+        final BufferedImage imagen;
+        final Set<String> regiones;
+        final int[] cuentas;
+        final byte[] niveles;
+        boolean sucia;
+
+        Tesela(BufferedImage imagen, Set<String> regiones, int[] cuentas, byte[] niveles) {
+            this.imagen = imagen;
+            this.regiones = regiones;
+            this.cuentas = cuentas;
+            this.niveles = niveles;
+        }
+    }
+
+    public PanelMapa(ControladorSistema controlador) {
+        this.controlador = controlador;
+        construir();
+        new SwingWorker<IndiceEspacialPredios, Void>() {
+            @Override
+            protected IndiceEspacialPredios doInBackground() {
+                municipioDeVereda = controlador.getGestorInformes().getAgregadorIncidencia()::obtenerMunicipio;
+                cargarNiveles();
+                return controlador.getGestorPredios().getIndiceEspacial();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    mostrar(get());
+                } catch (Exception e) {
+                    lblEstado.setText("No se pudieron cargar los predios: " + e.getMessage());
+                }
+            }
+        }.execute();
+        // Las alertas nuevas llegan en el hilo de la suscripción
+        controlador.getGestorAlertas().suscribir(null, null, (alertas, omitidas) -> {
+            for (Alerta alerta : alertas) {
+                actualizarNivel(alerta.getRegion(), nivel(alerta));
+            }
+        });
+    }
+
+    /**
+     * Mapa sobre un índice ya cargado, sin suscribirse a alertas; los niveles se informan con
+     * actualizarNivel.
+     */
+    public PanelMapa(IndiceEspacialPredios indice, Function<String, String> municipioDeVereda) {
+        construir();
+        this.municipioDeVereda = municipioDeVereda;
+        mostrar(indice);
+    }
+
+    private void construir() {
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createTitledBorder("Mapa de Predios"));
+        JButton btnAcercar = new JButton("+");
+        JButton btnAlejar = new JButton("-");
+        JButton btnRecargar = new JButton("Recargar");
+        JPanel barra = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        barra.add(btnAcercar);
+        barra.add(btnAlejar);
+        barra.add(btnRecargar);
+        barra.add(lblEstado);
+        add(barra, BorderLayout.NORTH);
+        add(lienzo, BorderLayout.CENTER);
+
+        btnAcercar.addActionListener(e -> cambiarZoom(zoom + 1, lienzo.getWidth() / 2, lienzo.getHeight() / 2));
+        btnAlejar.addActionListener(e -> cambiarZoom(zoom - 1, lienzo.getWidth() / 2, lienzo.getHeight() / 2));
+        btnRecargar.addActionListener(e -> recargar());
+    }
+
+    /**
+     * Sube el nivel de una región (municipio o vereda) y repinta las teselas que la contienen.
+     * Se puede llamar desde cualquier hilo.
+     */
+    public void actualizarNivel(String region, int nivel) {
+        if (region == null || region.isEmpty()) return;
+        nivelEnVivo.merge(region, nivel, Math::max);
+        Integer anterior = nivelPorRegion.get(region);
+        if (anterior != null && anterior >= nivel) return;
+        nivelPorRegion.merge(region, nivel, Math::max);
+        SwingUtilities.invokeLater(() -> marcarSucias(region));
+    }
+
+    private static int nivel(Alerta alerta) {
+        return MotorReglasAlertas.rango(alerta.getNivelRiesgo()) + 1;
+    }
+
+    /**
+     * Lee de la BD los niveles de las alertas activas (por la vereda de su informe) y les suma
+     * los recibidos en vivo, que pueden no estar todavía en la consulta o no tener informe.
+     */
+    private void cargarNiveles() {
+        if (controlador == null) return;
+        Map<String, Integer> leidos = new HashMap<>();
+        for (Alerta alerta : controlador.getGestorAlertas().listarAlertasActivas()) {
+            if (alerta.getRegion() != null && !alerta.getRegion().isEmpty()) {
+                leidos.merge(alerta.getRegion(), nivel(alerta), Math::max);
+            }
+        }
+        nivelPorRegion.putAll(leidos);
+        nivelPorRegion.keySet().retainAll(leidos.keySet());
+        // Después de reemplazar, por si llegó alguna alerta mientras tanto
+        nivelEnVivo.forEach((region, nivel) -> nivelPorRegion.merge(region, nivel, Math::max));
+    }
+
+    private void mostrar(IndiceEspacialPredios indice) {
+        this.indice = indice;
+        double[] limites = indice.getLimites();
+        int ancho = lienzo.getWidth() > 0 ? lienzo.getWidth() : 860;
+        int alto = lienzo.getHeight() > 0 ? lienzo.getHeight() : 480;
+        if (limites != null) {
+            zoom = ZOOM_MIN;
+            while (zoom < ZOOM_MAX && (limites[3] - limites[1]) * pixelesPorGrado(zoom + 1) <= ancho
+                    && (limites[2] - limites[0]) * pixelesPorGrado(zoom + 1) <= alto) {
+                zoom++;
+            }
+            centroX = (((limites[1] + limites[3]) / 2) + 180) * pixelesPorGrado(zoom);
+            centroY = (90 - ((limites[0] + limites[2]) / 2)) * pixelesPorGrado(zoom);
+        }
+        invalidarTodo();
+    }
+
+    private void recargar() {
+        lblEstado.setText("Recargando niveles…");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                cargarNiveles();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                invalidarTodo();
+            }
+        }.execute();
+    }
+
+    private void invalidarTodo() {
+        generacion++;
+        teselas.clear();
+        pendientes.clear();
+        ensuciadasEnCurso.clear();
+        actualizarEstado();
+        lienzo.repaint();
+    }
+
+    private void actualizarEstado() {
+        IndiceEspacialPredios ind = indice;
+        if (ind == null) return;
+        lblEstado.setText(ind.tamano() + " predios · zoom " + zoom + (zoom < ZOOM_DETALLE ? " (agrupados)" : ""));
+    }
+
+    /**
+     * Marca para repintar las teselas con predios de la región: las visibles se vuelven a
+     * pintar (mostrando la anterior mientras tanto) y las demás se descartan.
+     */
+    private void marcarSucias(String region) {
+        ensuciadasEnCurso.addAll(pendientes);
+        List<Long> descartar = new ArrayList<>();
+        for (Map.Entry<Long, Tesela> e : teselas.entrySet()) {
+            if (!e.getValue().regiones.contains(region)) continue;
+            if (visibles.contains(e.getKey())) {
+                e.getValue().sucia = true;
+            } else {
+                descartar.add(e.getKey());
+            }
+        }
+        for (Long clave : descartar) {
+            teselas.remove(clave);
+        }
+        // El repintado solo abarca las teselas sucias y estas se piden de nuevo al pintarse
+        for (Long clave : visibles) {
+            Tesela t = teselas.get(clave);
+            if (t != null && t.sucia) {
+                lienzo.repaint(rectanguloTesela(clave));
+            }
+        }
+    }
+
+    private void cambiarZoom(int nuevo, int x, int y) {
+        nuevo = Math.max(ZOOM_MIN, Math.min(ZOOM_MAX, nuevo));
+        if (nuevo == zoom || indice == null) return;
+        double factor = Math.pow(2, nuevo - zoom);
+        double mundoX = centroX - lienzo.getWidth() / 2.0 + x;
+        double mundoY = centroY - lienzo.getHeight() / 2.0 + y;
+        centroX = mundoX * factor - (x - lienzo.getWidth() / 2.0);
+        centroY = mundoY * factor - (y - lienzo.getHeight() / 2.0);
+        zoom = nuevo;
+        actualizarEstado();
+        lienzo.repaint();
+    }
+
+    static double pixelesPorGrado(int zoom) {
+        return TAMANO_TESELA * Math.pow(2, zoom) / 360.0;
+    }
+
+    private static long clave(int zoom, int tx, int ty) {
+        return ((long) zoom << 56) | ((long) tx << 28) | ty;
+    }
+
+    private Rectangle rectanguloTesela(long clave) {
+        int tx = (int) ((clave >>> 28) & 0xfffffff);
+        int ty = (int) (clave & 0xfffffff);
+        double x0 = centroX - lienzo.getWidth() / 2.0;
+        double y0 = centroY - lienzo.getHeight() / 2.0;
+        return new Rectangle((int) Math.floor(tx * (double) TAMANO_TESELA - x0),
+                (int) Math.floor(ty * (double) TAMANO_TESELA - y0), TAMANO_TESELA + 1, TAMANO_TESELA + 1);
+    }
+
+    /**
+     * Pide pintar una tesela en segundo plano. Si para cuando le toca ya no está en pantalla,
+     * se omite.
+     */
+    private void solicitar(long clave, int z, int tx, int ty) {
+        if (!pendientes.add(clave)) return;
+        int version = generacion;
+        IndiceEspacialPredios ind = indice;
+        pintores.execute(() -> {
+            Tesela nueva = visibles.contains(clave) ? pintar(ind, z, tx, ty) : null;
+            SwingUtilities.invokeLater(() -> {
+                if (version != generacion) return;
+                pendientes.remove(clave);
+                if (nueva == null) return;
+                // Si llegó una alerta mientras se pintaba, se vuelve a pintar
+                nueva.sucia = ensuciadasEnCurso.remove(clave);
+                teselas.put(clave, nueva);
+                if (z == zoom) {
+                    lienzo.repaint(rectanguloTesela(clave));
+                }
+            });
+        });
+    }
+
+    /**
+     * Pinta una tesela. Se ejecuta fuera del EDT: solo lee el índice y los niveles.
+     */
+    Tesela pintar(IndiceEspacialPredios ind, int z, int tx, int ty) {
+        double ppg = pixelesPorGrado(z);
+        double lonMin = tx * TAMANO_TESELA / ppg - 180;
+        double lonMax = (tx + 1) * TAMANO_TESELA / ppg - 180;
+        double latMax = 90 - ty * TAMANO_TESELA / ppg;
+        double latMin = 90 - (ty + 1) * TAMANO_TESELA / ppg;
+        BufferedImage imagen = new BufferedImage(TAMANO_TESELA, TAMANO_TESELA, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = imagen.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Set<String> regiones = new HashSet<>();
+        Map<String, Integer> vistas = new HashMap<>();
+        int[] cuentas = null;
+        byte[] niveles = null;
+        if (z < ZOOM_DETALLE) {
+            // Un círculo por celda de CELDA_GRUPO píxeles; como las celdas no cruzan el borde
+            // de la tesela, cada predio se cuenta en una sola
+            int n = TAMANO_TESELA / CELDA_GRUPO;
+            int[] cuenta = new int[n * n];
+            byte[] nivel = new byte[n * n];
+            ind.recorrerEnRectangulo(latMin, lonMin, latMax, lonMax, p -> {
+                int px = (int) ((p.getLongitud() - lonMin) * ppg);
+                int py = (int) ((latMax - p.getLatitud()) * ppg);
+                if (px < 0 || px >= TAMANO_TESELA || py < 0 || py >= TAMANO_TESELA) return;
+                int i = (py / CELDA_GRUPO) * n + px / CELDA_GRUPO;
+                cuenta[i]++;
+                nivel[i] = (byte) Math.max(nivel[i], nivelDe(p, regiones, vistas));
+            });
+            for (int i = 0; i < cuenta.length; i++) {
+                if (cuenta[i] == 0) continue;
+                // El radio crece con el logaritmo de la cantidad: 1 → 3 px, 16 o más → 7 px
+                int radio = Math.min(CELDA_GRUPO / 2 - 1, 3 + 31 - Integer.numberOfLeadingZeros(cuenta[i]));
+                g.drawImage(CIRCULOS[nivel[i]][radio], (i % n) * CELDA_GRUPO, (i / n) * CELDA_GRUPO, null);
+            }
+            cuentas = cuenta;
+            niveles = nivel;
+        } else {
+            // Los puntos cerca del borde se buscan con margen para dibujar la parte que cae aquí;
+            // los de mayor nivel se dibujan encima
+            double margen = (RADIO_PUNTO + 1) / ppg;
+            List<List<double[]>> porNivel = new ArrayList<>();
+            for (int i = 0; i < COLORES.length; i++) porNivel.add(new ArrayList<>());
+            ind.recorrerEnRectangulo(latMin - margen, lonMin - margen, latMax + margen, lonMax + margen, p ->
+                    porNivel.get(nivelDe(p, regiones, vistas)).add(new double[] {
+                            (p.getLongitud() - lonMin) * ppg, (latMax - p.getLatitud()) * ppg }));
+            for (int i = 0; i < porNivel.size(); i++) {
+                g.setColor(COLORES[i]);
+                for (double[] punto : porNivel.get(i)) {
+                    g.fillOval((int) Math.round(punto[0]) - RADIO_PUNTO, (int) Math.round(punto[1]) - RADIO_PUNTO,
+                            2 * RADIO_PUNTO + 1, 2 * RADIO_PUNTO + 1);
+                }
+            }
+        }
+        g.dispose();
+        return new Tesela(imagen, regiones, cuentas, niveles);
+    }
+
+    /**
+     * Nivel del predio: el mayor entre el de su vereda y el de su municipio. La primera vez
+     * que ve una vereda anota ambas regiones en la tesela y guarda su nivel en vistas.
+     */
+    private int nivelDe(Predio p, Set<String> regiones, Map<String, Integer> vistas) {
+        String vereda = p.getIdVereda();
+        if (vereda == null || vereda.isEmpty()) return 0;
+        Integer visto = vistas.get(vereda);
+        if (visto != null) return visto;
+        regiones.add(vereda);
+        String municipio = municipioPorVereda.computeIfAbsent(vereda, v -> {
+            String m = municipioDeVereda.apply(v);
+            return m != null ? m : SIN_MUNICIPIO;
+        });
+        int nivel = nivelPorRegion.getOrDefault(vereda, 0);
+        if (!municipio.isEmpty()) {
+            regiones.add(municipio);
+            nivel = Math.max(nivel, nivelPorRegion.getOrDefault(municipio, 0));
+        }
+        nivel = Math.min(nivel, COLORES.length - 1);
+        vistas.put(vereda, nivel);
+        return nivel;
+    }
+
+    /**
+     * Superficie de dibujo: compone las teselas visibles y la leyenda.
+     */
+    private class Lienzo extends JComponent {
+        Lienzo() {
+            setToolTipText("");
+            MouseAdapter raton = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    arrastre = e.getPoint();
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (arrastre == null) return;
+                    centroX -= e.getX() - arrastre.x;
+                    centroY -= e.getY() - arrastre.y;
+                    arrastre = e.getPoint();
+                    repaint();
+                }
+
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    arrastre = null;
+                }
+
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    cambiarZoom(zoom - e.getWheelRotation(), e.getX(), e.getY());
+                }
+            };
+            addMouseListener(raton);
+            addMouseMotionListener(raton);
+            addMouseWheelListener(raton);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g0) {
+            Graphics2D g = (Graphics2D) g0;
+            g.setColor(FONDO);
+            g.fillRect(0, 0, getWidth(), getHeight());
+            if (indice == null) {
+                visibles = Set.of();
+                return;
+            }
+            Rectangle recorte = g.getClipBounds() != null ? g.getClipBounds() : new Rectangle(getSize());
+            double x0 = centroX - getWidth() / 2.0;
+            double y0 = centroY - getHeight() / 2.0;
+            int teselasX = 1 << zoom;
+            int teselasY = teselasX / 2;
+            int tx0 = Math.max(0, (int) Math.floor(x0 / TAMANO_TESELA));
+            int ty0 = Math.max(0, (int) Math.floor(y0 / TAMANO_TESELA));
+            int tx1 = Math.min(teselasX - 1, (int) Math.floor((x0 + getWidth()) / TAMANO_TESELA));
+            int ty1 = Math.min(teselasY - 1, (int) Math.floor((y0 + getHeight()) / TAMANO_TESELA));
+            Set<Long> enPantalla = new HashSet<>();
+            for (int ty = ty0; ty <= ty1; ty++) {
+                for (int tx = tx0; tx <= tx1; tx++) {
+                    long clave = clave(zoom, tx, ty);
+                    enPantalla.add(clave);
+                    int sx = (int) Math.floor(tx * (double) TAMANO_TESELA - x0);
+                    int sy = (int) Math.floor(ty * (double) TAMANO_TESELA - y0);
+                    if (!recorte.intersects(sx, sy, TAMANO_TESELA, TAMANO_TESELA)) continue;
+                    Tesela t = teselas.get(clave);
+                    if (t != null) {
+                        g.drawImage(t.imagen, sx, sy, null);
+                    }
+                    if (t == null || t.sucia) {
+                        solicitar(clave, zoom, tx, ty);
+                    }
+                }
+            }
+            visibles = enPantalla;
+            dibujarLeyenda(g);
+        }
+
+        private void dibujarLeyenda(Graphics2D g) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int y = getHeight() - 12 - 16 * COLORES.length;
+            g.setColor(new Color(255, 255, 255, 200));
+            g.fillRect(8, y - 6, 104, 16 * COLORES.length + 8);
+            for (int i = 0; i < COLORES.length; i++) {
+                g.setColor(COLORES[i]);
+                g.fillOval(14, y + 16 * i, 10, 10);
+                g.setColor(Color.DARK_GRAY);
+                g.drawString(NIVELES[i], 30, y + 16 * i + 10);
+            }
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            IndiceEspacialPredios ind = indice;
+            if (ind == null) return null;
+            double ppg = pixelesPorGrado(zoom);
+            double mundoX = centroX - getWidth() / 2.0 + e.getX();
+            double mundoY = centroY - getHeight() / 2.0 + e.getY();
+            if (zoom < ZOOM_DETALLE) {
+                int tx = (int) Math.floor(mundoX / TAMANO_TESELA);
+                int ty = (int) Math.floor(mundoY / TAMANO_TESELA);
+                Tesela t = teselas.get(clave(zoom, tx, ty));
+                if (t == null || t.cuentas == null) return null;
+                int n = TAMANO_TESELA / CELDA_GRUPO;
+                int i = ((int) (mundoY - ty * TAMANO_TESELA) / CELDA_GRUPO) * n + (int) (mundoX - tx * TAMANO_TESELA) / CELDA_GRUPO;
+                if (i < 0 || i >= t.cuentas.length || t.cuentas[i] == 0) return null;
+                return t.cuentas[i] + " predios · nivel máximo: " + NIVELES[t.niveles[i]];
+            }
+            double lon = mundoX / ppg - 180;
+            double lat = 90 - mundoY / ppg;
+            List<Predio> cercanos = ind.buscarMasCercanos(lat, lon, 1);
+            if (cercanos.isEmpty()) return null;
+            Predio p = cercanos.get(0);
+            double dx = ((p.getLongitud() + 180) * ppg - mundoX);
+            double dy = ((90 - p.getLatitud()) * ppg - mundoY);
+            if (dx * dx + dy * dy > (RADIO_PUNTO + 3) * (RADIO_PUNTO + 3)) return null;
+            return p.getId() + " · " + p.getCodigoIca() + " · " + NIVELES[nivelDe(p, new HashSet<>(), new HashMap<>())];
+        }
+    }
+}
@@ -4,7 +4,12 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
+import dao.ConexionBD;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
 import logica.ControladorSistema;
+import model.Departamento;
+import negocio.CatalogoGeografico;
 
 public class PanelMunicipio extends JPanel {
 
@@ -12,10 +17,9 @@ public class PanelMunicipio extends JPanel {
     private JComboBox<String> cbDepartamento;
     private JButton btnGuardar, btnActualizar, btnBuscar, btnEliminar;
     private ControladorSistema controlador;
+    private CatalogoGeografico catalogo;
+    private boolean avisoSinDepartamentos;
 
-    private final String URL = "jdbc:oracle:thin:@192.168.2.100:1521:XE";
-    private final String USUARIO = "ica2";
-    private final String CLAVE = "ica2";
 
     public PanelMunicipio(ControladorSistema controlador) {
         this.controlador = controlador;
@@ -40,6 +44,21 @@ public class PanelMunicipio extends JPanel {
         add(btnBuscar);
         add(btnEliminar);
 
+        // Los departamentos salen del catálogo en memoria; al mostrarse el panel se revalida
+        // en segundo plano y, si cambió algo, el combo se vuelve a llenar
+        catalogo = controlador.getCatalogoGeografico();
+        // Solo se escucha al catálogo mientras el panel está a la vista, para que el catálogo
+        // no lo retenga después de cerrarlo; al volver se llena con lo que haya cambiado
+        Runnable oyenteCatalogo = () -> SwingUtilities.invokeLater(this::cargarDepartamentos);
+        addAncestorListener(new AncestorListener() {
+            @Override public void ancestorAdded(AncestorEvent e) {
+                catalogo.alCambiar(oyenteCatalogo);
+                cargarDepartamentos();
+                catalogo.precargar();
+            }
+            @Override public void ancestorRemoved(AncestorEvent e) { catalogo.quitarOyente(oyenteCatalogo); }
+            @Override public void ancestorMoved(AncestorEvent e) { }
+        });
         cargarDepartamentos();
 
         btnGuardar.addActionListener(e -> guardar());
@@ -49,39 +68,37 @@ public class PanelMunicipio extends JPanel {
     }
 
     private Connection conectar() throws SQLException {
-        try { Class.forName("oracle.jdbc.driver.OracleDriver"); }
-        catch (ClassNotFoundException e) { JOptionPane.showMessageDialog(this, "Driver Oracle no encontrado."); }
-        return DriverManager.getConnection(URL, USUARIO, CLAVE);
+        // Conexión del pool configurado en ConexionBD; al cerrarla vuelve al pool, así que
+        // sentencias y resultados se cierran antes para no dejar cursores abiertos en ella
+        return ConexionBD.getDataSource().getConnection();
     }
 
     private void cargarDepartamentos() {
+        Object seleccionado = cbDepartamento.getSelectedItem();
         cbDepartamento.removeAllItems();
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("SELECT id, nombre FROM DEPARTAMENTO ORDER BY nombre");
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String id = rs.getString("id");
-                String nombre = rs.getString("nombre");
-                if (id != null && nombre != null) {
-                    cbDepartamento.addItem(id + " - " + nombre);
-                }
+        for (Departamento d : catalogo.getDepartamentos()) {
+            if (d.getId() != null && d.getNombre() != null) {
+                cbDepartamento.addItem(d.getId() + " - " + d.getNombre());
             }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error cargando departamentos: " + ex.getMessage());
         }
-        // Si no hay departamentos, mostrar mensaje
-        if (cbDepartamento.getItemCount() == 0) {
+        if (seleccionado != null) {
+            cbDepartamento.setSelectedItem(seleccionado);
+        }
+        // Si no hay departamentos, mostrar mensaje (una vez, y solo cuando el catálogo ya cargó)
+        if (catalogo.isCargado() && cbDepartamento.getItemCount() == 0 && !avisoSinDepartamentos) {
+            avisoSinDepartamentos = true;
             JOptionPane.showMessageDialog(this, "No hay departamentos registrados. Por favor, registre primero un departamento.");
         }
     }
 
     private boolean existeMunicipio(String nombre) throws SQLException {
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM MUNICIPIO WHERE LOWER(nombre)=LOWER(?)");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM MUNICIPIO WHERE LOWER(nombre)=LOWER(?)")) {
             ps.setString(1, nombre);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            return rs.getInt(1) > 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
         }
     }
 
@@ -104,15 +121,20 @@ public class PanelMunicipio extends JPanel {
             }
 
             // Generar nuevo id como string (convertir a número si el id se guarda como varchar)
-            PreparedStatement psMax = conn.prepareStatement("SELECT NVL(MAX(TO_NUMBER(id)),0)+1 FROM MUNICIPIO");
-            ResultSet rs = psMax.executeQuery(); rs.next();
-            String id = rs.getString(1);
+            String id;
+            try (PreparedStatement psMax = conn.prepareStatement("SELECT NVL(MAX(TO_NUMBER(id)),0)+1 FROM MUNICIPIO");
+                 ResultSet rs = psMax.executeQuery()) {
+                rs.next();
+                id = rs.getString(1);
+            }
 
-            PreparedStatement ps = conn.prepareStatement("INSERT INTO MUNICIPIO VALUES(?,?,?)");
-            ps.setString(1, id);
-            ps.setString(2, nombre);
-            ps.setString(3, idDepartamento);
-            ps.executeUpdate();
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO MUNICIPIO VALUES(?,?,?)")) {
+                ps.setString(1, id);
+                ps.setString(2, nombre);
+                ps.setString(3, idDepartamento);
+                ps.executeUpdate();
+            }
+            catalogo.invalidar();
             JOptionPane.showMessageDialog(this, "Municipio guardado correctamente.");
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -124,18 +146,23 @@ public class PanelMunicipio extends JPanel {
         if (nombre.isEmpty()) { JOptionPane.showMessageDialog(this, "Ingrese el nombre."); return; }
 
         try (Connection conn = conectar()) {
-            PreparedStatement psDep = conn.prepareStatement("SELECT COUNT(*) FROM VEREDA WHERE id_municipio IN (SELECT id FROM MUNICIPIO WHERE LOWER(nombre)=LOWER(?))");
-            psDep.setString(1, nombre);
-            ResultSet rsDep = psDep.executeQuery(); rsDep.next();
-            if (rsDep.getInt(1) > 0) {
-                JOptionPane.showMessageDialog(this, "No se puede eliminar: existen veredas asociadas.");
-                return;
+            try (PreparedStatement psDep = conn.prepareStatement("SELECT COUNT(*) FROM VEREDA WHERE id_municipio IN (SELECT id FROM MUNICIPIO WHERE LOWER(nombre)=LOWER(?))")) {
+                psDep.setString(1, nombre);
+                try (ResultSet rsDep = psDep.executeQuery()) {
+                    rsDep.next();
+                    if (rsDep.getInt(1) > 0) {
+                        JOptionPane.showMessageDialog(this, "No se puede eliminar: existen veredas asociadas.");
+                        return;
+                    }
+                }
             }
 
-            PreparedStatement ps = conn.prepareStatement("DELETE FROM MUNICIPIO WHERE LOWER(nombre)=LOWER(?)");
-            ps.setString(1, nombre);
-            int filas = ps.executeUpdate();
-            JOptionPane.showMessageDialog(this, filas > 0 ? "Municipio eliminado." : "No encontrado.");
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM MUNICIPIO WHERE LOWER(nombre)=LOWER(?)")) {
+                ps.setString(1, nombre);
+                int filas = ps.executeUpdate();
+                if (filas > 0) catalogo.invalidar();
+                JOptionPane.showMessageDialog(this, filas > 0 ? "Municipio eliminado." : "No encontrado.");
+            }
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
         }
@@ -152,11 +179,12 @@ public class PanelMunicipio extends JPanel {
         
         String idDepartamento = cbDepartamento.getSelectedItem().toString().split(" - ")[0];
 
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("UPDATE MUNICIPIO SET id_departamento=? WHERE nombre=?");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("UPDATE MUNICIPIO SET id_departamento=? WHERE nombre=?")) {
             ps.setString(1, idDepartamento);
             ps.setString(2, nombre);
             int filas = ps.executeUpdate();
+            if (filas > 0) catalogo.invalidar();
             JOptionPane.showMessageDialog(this, filas > 0 ? "Municipio actualizado." : "No encontrado.");
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -167,17 +195,18 @@ public class PanelMunicipio extends JPanel {
         String nombre = txtNombre.getText();
         if (nombre.isEmpty()) { JOptionPane.showMessageDialog(this, "Ingrese el nombre."); return; }
 
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("SELECT * FROM MUNICIPIO WHERE nombre=?");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("SELECT * FROM MUNICIPIO WHERE nombre=?")) {
             ps.setString(1, nombre);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                String idDep = rs.getString("id_departamento");
-                txtNombre.setText(rs.getString("nombre"));
-                seleccionarDepartamento(idDep);
-                JOptionPane.showMessageDialog(this, "Municipio encontrado.");
-            } else {
-                JOptionPane.showMessageDialog(this, "No encontrado.");
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    String idDep = rs.getString("id_departamento");
+                    txtNombre.setText(rs.getString("nombre"));
+                    seleccionarDepartamento(idDep);
+                    JOptionPane.showMessageDialog(this, "Municipio encontrado.");
+                } else {
+                    JOptionPane.showMessageDialog(this, "No encontrado.");
+                }
             }
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
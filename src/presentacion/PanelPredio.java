@@ -3,11 +3,9 @@ package presentacion;
 
 import javax.swing.*;
 import java.awt.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.event.*;
 import logica.ControladorSistema;
 import model.Predio;
-import java.util.List;
 
 public class PanelPredio extends JPanel {
     private ControladorSistema controlador;
@@ -16,7 +14,7 @@ public class PanelPredio extends JPanel {
     private JTextField txtIdPropietario, txtIdVereda, txtCodLugarProduccion;
     private JButton btnRegistrar, btnConsultar, btnActualizar, btnLimpiar, btnListar;
     private JTable tablaPredios;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaPaginado<Predio> modeloTabla;
 
     public PanelPredio(ControladorSistema controlador) {
         this.controlador = controlador;
@@ -80,10 +78,37 @@ public class PanelPredio extends JPanel {
         add(panelFormulario, BorderLayout.NORTH);
 
         // Tabla para mostrar los predios
-    modeloTabla = new DefaultTableModel(new Object[]{"ID", "Código ICA", "Dirección", "Área", "Latitud", "Longitud", "ID_Propietario", "ID_Vereda", "Cod_Lugar_Produccion"}, 0);
+        // Solo se cargan las páginas visibles: la tabla admite cientos de miles de predios
+        modeloTabla = new ModeloTablaPaginado<>(
+                new String[]{"ID", "Código ICA", "Dirección", "Área", "Latitud", "Longitud", "ID_Propietario", "ID_Vereda", "Cod_Lugar_Produccion"},
+                new String[]{"id", "codigo_ica", "direccion", "area", "latitud", "longitud", "id_propietario", "id_vereda", "cod_lugar_produccion"},
+                new ModeloTablaPaginado.FuentePaginada<Predio>() {
+                    @Override
+                    public int contar() {
+                        return controlador.getGestorPredios().contarPredios();
+                    }
+
+                    @Override
+                    public java.util.List<Predio> pagina(int desde, int cantidad, String columnaOrden, boolean ascendente)
+                            throws java.sql.SQLException {
+                        return controlador.getGestorPredios().listarPaginaPredios(desde, cantidad, columnaOrden, ascendente);
+                    }
+                },
+                p -> new Object[]{p.getId(), p.getCodigoIca(), p.getDireccion(), p.getArea(), p.getLatitud(), p.getLongitud(), p.getPropietario()!=null? p.getPropietario().getId():"", p.getIdVereda(), p.getCodLugarProduccion()});
         tablaPredios = new JTable(modeloTabla);
+        modeloTabla.instalarEn(tablaPredios);
         JScrollPane scrollTabla = new JScrollPane(tablaPredios);
         add(scrollTabla, BorderLayout.CENTER);
+        JLabel lblErrorTabla = new JLabel(" ");
+        lblErrorTabla.setForeground(java.awt.Color.RED);
+        modeloTabla.setAvisoError(mensaje -> lblErrorTabla.setText(mensaje != null ? mensaje : " "));
+        add(lblErrorTabla, BorderLayout.SOUTH);
+
+        // Sugerencias por id, código ICA o dirección mientras se escribe el id
+        new BusquedaIncremental<Predio>(txtId,
+                texto -> controlador.getGestorPredios().sugerirPredios(texto, BusquedaIncremental.MAX_SUGERENCIAS),
+                p -> p.getId() + " - " + p.getCodigoIca() + (p.getDireccion() != null ? " - " + p.getDireccion() : ""),
+                this::mostrarPredio);
 
         // Listeners
         btnRegistrar.addActionListener(e -> registrarPredio());
@@ -137,14 +162,7 @@ public class PanelPredio extends JPanel {
             }
             Predio p = controlador.getGestorPredios().consultarPredio(id);
             if (p != null) {
-                txtCodigoIca.setText(p.getCodigoIca());
-                txtDireccion.setText(p.getDireccion());
-                txtArea.setText(String.valueOf(p.getArea()));
-                txtLatitud.setText(String.valueOf(p.getLatitud()));
-                txtLongitud.setText(String.valueOf(p.getLongitud()));
-                txtIdPropietario.setText(p.getPropietario() != null ? p.getPropietario().getId() : "");
-                txtIdVereda.setText(p.getIdVereda());
-                txtCodLugarProduccion.setText(p.getCodLugarProduccion());
+                mostrarPredio(p);
                 JOptionPane.showMessageDialog(this, "Predio encontrado", "Éxito", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this, "No se encontró el predio", "No encontrado", JOptionPane.WARNING_MESSAGE);
@@ -155,6 +173,18 @@ public class PanelPredio extends JPanel {
         }
     }
 
+    private void mostrarPredio(Predio p) {
+        txtId.setText(p.getId());
+        txtCodigoIca.setText(p.getCodigoIca());
+        txtDireccion.setText(p.getDireccion());
+        txtArea.setText(String.valueOf(p.getArea()));
+        txtLatitud.setText(String.valueOf(p.getLatitud()));
+        txtLongitud.setText(String.valueOf(p.getLongitud()));
+        txtIdPropietario.setText(p.getPropietario() != null ? p.getPropietario().getId() : "");
+        txtIdVereda.setText(p.getIdVereda());
+        txtCodLugarProduccion.setText(p.getCodLugarProduccion());
+    }
+
     private void actualizarPredio() {
         try {
             if (txtId.getText().trim().isEmpty()) {
@@ -203,10 +233,6 @@ public class PanelPredio extends JPanel {
     }
 
     private void listarPredios() {
-        modeloTabla.setRowCount(0);
-        List<Predio> lista = controlador.getGestorPredios().listarPredios();
-        for (Predio p : lista) {
-            modeloTabla.addRow(new Object[]{p.getId(), p.getCodigoIca(), p.getDireccion(), p.getArea(), p.getLatitud(), p.getLongitud(), p.getPropietario()!=null? p.getPropietario().getId():"", p.getIdVereda(), p.getCodLugarProduccion()});
-        }
+        modeloTabla.recargar();
     }
 }
@@ -103,6 +103,12 @@ public class PanelPropietario extends JPanel {
             if (!esAsistente) txtNumeroTarjeta.setText("");
         });
 
+        // Sugerencias de propietarios ya registrados mientras se escribe el nombre
+        new BusquedaIncremental<Propietario>(txtNombre,
+                texto -> controlador.getGestorPropietarios().sugerirPorNombre(texto, BusquedaIncremental.MAX_SUGERENCIAS),
+                p -> p.getNombre() + (p.getNumeroIdentificacion() != null ? "  (" + p.getNumeroIdentificacion() + ")" : ""),
+                this::mostrarPropietario);
+
         btnGuardar.addActionListener(e -> guardarRegistro());
         btnActualizar.addActionListener(e -> actualizarRegistro());
         btnBuscar.addActionListener(e -> buscarRegistro());
@@ -119,6 +125,13 @@ public class PanelPropietario extends JPanel {
     public void setNumeroTarjeta(String tarjeta) { if (txtNumeroTarjeta != null) txtNumeroTarjeta.setText(tarjeta); }
     public void setRol(String rol) { if (cbRol != null) cbRol.setSelectedItem(rol); }
 
+    private void mostrarPropietario(Propietario p) {
+        txtNombre.setText(p.getNombre());
+        txtDireccion.setText(p.getDireccion() != null ? p.getDireccion() : "");
+        txtCorreo.setText(p.getCorreoElectronico() != null ? p.getCorreoElectronico() : "");
+        if (p.getRol() != null) cbRol.setSelectedItem(p.getRol());
+    }
+
     public void setOnSaveListener(Consumer<Propietario> listener) { this.onSaveListener = listener; }
 
     // -------------------- CRUD (simplificado) --------------------
@@ -154,18 +167,18 @@ public class PanelPropietario extends JPanel {
 
             // Intento simple de insertar (si falla por esquema, se atrapará la excepción)
             String sql = "INSERT INTO " + tabla + " (id, nombre, rol, direccion, correo_electronico) VALUES ((SELECT NVL(MAX(id),0)+1 FROM " + tabla + "), ?, ?, ?, ?)";
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setString(1, nombre);
-            ps.setString(2, rol);
-            ps.setString(3, direccion);
-            ps.setString(4, correo);
-            ps.executeUpdate();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, nombre);
+                ps.setString(2, rol);
+                ps.setString(3, direccion);
+                ps.setString(4, correo);
+                ps.executeUpdate();
+            }
 
             // Si es asistente técnico, intentar actualizar su número de tarjeta si la columna existe
             if ("Asistente Tecnico".equals(rol) && !numeroTarjeta.isEmpty()) {
-                try {
-                    String sql2 = "UPDATE " + tabla + " SET numero_tarjeta_profesional = ? WHERE nombre = ?";
-                    PreparedStatement ps2 = conn.prepareStatement(sql2);
+                String sql2 = "UPDATE " + tabla + " SET numero_tarjeta_profesional = ? WHERE nombre = ?";
+                try (PreparedStatement ps2 = conn.prepareStatement(sql2)) {
                     ps2.setString(1, numeroTarjeta);
                     ps2.setString(2, nombre);
                     ps2.executeUpdate();
@@ -6,7 +6,6 @@ import java.awt.*;
 import javax.swing.table.DefaultTableModel;
 import logica.ControladorSistema;
 import model.ResultadoTecnico;
-import java.util.List;
 
 public class PanelRegistroResultado extends JPanel {
     private ControladorSistema controlador;
@@ -15,6 +14,7 @@ public class PanelRegistroResultado extends JPanel {
     private JButton btnRegistrar, btnConsultar, btnActualizar, btnLimpiar, btnListar;
     private JTable tablaResultados;
     private DefaultTableModel modeloTabla;
+    private IndicadorCarga indicadorCarga;
 
     public PanelRegistroResultado(ControladorSistema controlador) {
         this.controlador = controlador;
@@ -62,6 +62,9 @@ public class PanelRegistroResultado extends JPanel {
         JScrollPane scrollTabla = new JScrollPane(tablaResultados);
         add(scrollTabla, BorderLayout.CENTER);
 
+        indicadorCarga = new IndicadorCarga();
+        add(indicadorCarga, BorderLayout.SOUTH);
+
         btnRegistrar.addActionListener(e -> registrarResultado());
         btnConsultar.addActionListener(e -> consultarResultado());
         btnActualizar.addActionListener(e -> actualizarResultado());
@@ -79,7 +82,7 @@ public class PanelRegistroResultado extends JPanel {
             r.setId(txtId.getText().trim());
             r.setInspeccionId(txtInspeccionId.getText().trim());
             r.setDescripcion(txtDescripcion.getText().trim());
-            r.setFecha(txtFecha.getText().trim());
+            r.setFecha(Utilidades.parsearFecha(txtFecha.getText()));
 
             boolean exito = controlador.getGestorResultados().registrarResultado(r);
             if (exito) {
@@ -105,7 +108,7 @@ public class PanelRegistroResultado extends JPanel {
             if (r != null) {
                 txtInspeccionId.setText(r.getInspeccionId());
                 txtDescripcion.setText(r.getDescripcion());
-                txtFecha.setText(r.getFecha());
+                txtFecha.setText(Utilidades.formatearFecha(r.getFecha()));
                 JOptionPane.showMessageDialog(this, "Resultado encontrado", "Éxito", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this, "No se encontró el resultado", "No encontrado", JOptionPane.WARNING_MESSAGE);
@@ -126,7 +129,7 @@ public class PanelRegistroResultado extends JPanel {
             r.setId(txtId.getText().trim());
             r.setInspeccionId(txtInspeccionId.getText().trim());
             r.setDescripcion(txtDescripcion.getText().trim());
-            r.setFecha(txtFecha.getText().trim());
+            r.setFecha(Utilidades.parsearFecha(txtFecha.getText()));
 
             boolean exito = controlador.getGestorResultados().actualizarResultado(r);
             if (exito) {
@@ -150,10 +153,7 @@ public class PanelRegistroResultado extends JPanel {
     }
 
     private void listarResultados() {
-        modeloTabla.setRowCount(0);
-        List<ResultadoTecnico> lista = controlador.getGestorResultados().listarResultados();
-        for (ResultadoTecnico r : lista) {
-            modeloTabla.addRow(new Object[]{r.getId(), r.getInspeccionId(), r.getDescripcion(), r.getFecha()});
-        }
+        indicadorCarga.cargar(modeloTabla, destino -> controlador.getGestorResultados().listarResultados().forEach(destino),
+                (ResultadoTecnico r) -> new Object[]{r.getId(), r.getInspeccionId(), r.getDescripcion(), r.getFecha()});
     }
 }
@@ -0,0 +1,217 @@
+package presentacion;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import logica.ControladorSistema;
+import negocio.informes.ResumenFitosanitario;
+
+/**
+ * Tablero fitosanitario: alertas por nivel de riesgo, inspecciones por día y plagas más
+ * detectadas. Se dibuja con las cifras de ResumenFitosanitario, que se actualizan solas con
+ * cada alerta guardada y cada sesión de campo confirmada; varios cambios seguidos producen un
+ * solo refresco. Recargar vuelve a leer los totales de la BD.
+ */
+public class PanelTablero extends JPanel {
+    private static final String[] NIVELES = { "Bajo", "Medio", "Alto", "Crítico" };
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private ControladorSistema controlador;
+    private ResumenFitosanitario resumen;
+    private final AtomicBoolean refrescoPendiente = new AtomicBoolean();
+    private long versionMostrada = -1;
+
+    private final JLabel[] lblNiveles = new JLabel[NIVELES.length];
+    private JLabel lblTotal;
+    private JLabel lblEstado;
+    private JButton btnRecargar;
+    private GraficoDias graficoDias;
+    private DefaultTableModel modeloPlagas;
+
+    public PanelTablero(ControladorSistema controlador) {
+        this.controlador = controlador;
+        inicializarComponentes();
+        new SwingWorker<ResumenFitosanitario, Void>() {
+            @Override
+            protected ResumenFitosanitario doInBackground() {
+                return controlador.getResumenFitosanitario();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    resumen = get();
+                    resumen.alCambiar(PanelTablero.this::programarRefresco);
+                    refrescar();
+                } catch (Exception e) {
+                    lblEstado.setText("No se pudo cargar el resumen: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void inicializarComponentes() {
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel panelNiveles = new JPanel(new GridLayout(1, NIVELES.length + 1, 10, 10));
+        panelNiveles.setBorder(BorderFactory.createTitledBorder("Alertas por nivel de riesgo"));
+        for (int i = 0; i < NIVELES.length; i++) {
+            lblNiveles[i] = crearCifra(NIVELES[i], PanelMapa.COLORES[i + 1], panelNiveles);
+        }
+        lblTotal = crearCifra("Total", Color.DARK_GRAY, panelNiveles);
+        add(panelNiveles, BorderLayout.NORTH);
+
+        graficoDias = new GraficoDias();
+        graficoDias.setBorder(BorderFactory.createTitledBorder(
+                "Inspecciones por día (últimos " + ResumenFitosanitario.DIAS + " días)"));
+        add(graficoDias, BorderLayout.CENTER);
+
+        modeloPlagas = new DefaultTableModel(new String[] { "Plaga", "Detecciones" }, 0) {
+            @Override
+            public boolean isCellEditable(int fila, int columna) {
+                return false;
+            }
+        };
+        JTable tablaPlagas = new JTable(modeloPlagas);
+        JScrollPane scroll = new JScrollPane(tablaPlagas);
+        scroll.setBorder(BorderFactory.createTitledBorder("Plagas más detectadas"));
+        scroll.setPreferredSize(new Dimension(280, 0));
+        add(scroll, BorderLayout.EAST);
+
+        JPanel panelEstado = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        btnRecargar = new JButton("Recargar");
+        lblEstado = new JLabel("Cargando…");
+        panelEstado.add(btnRecargar);
+        panelEstado.add(lblEstado);
+        add(panelEstado, BorderLayout.SOUTH);
+
+        btnRecargar.addActionListener(e -> recargar());
+    }
+
+    private static JLabel crearCifra(String titulo, Color color, JPanel contenedor) {
+        JLabel lblCifra = new JLabel("–", SwingConstants.CENTER);
+        lblCifra.setFont(lblCifra.getFont().deriveFont(Font.BOLD, 28f));
+        lblCifra.setForeground(color);
+        JPanel tarjeta = new JPanel(new BorderLayout());
+        tarjeta.setBorder(BorderFactory.createMatteBorder(0, 0, 4, 0, color));
+        tarjeta.add(new JLabel(titulo, SwingConstants.CENTER), BorderLayout.NORTH);
+        tarjeta.add(lblCifra, BorderLayout.CENTER);
+        contenedor.add(tarjeta);
+        return lblCifra;
+    }
+
+    /**
+     * Se llama en el hilo que produjo el cambio; encola un solo refresco en el EDT aunque
+     * lleguen muchos cambios seguidos.
+     */
+    private void programarRefresco() {
+        if (refrescoPendiente.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                refrescoPendiente.set(false);
+                refrescar();
+            });
+        }
+    }
+
+    private void refrescar() {
+        if (resumen == null) return;
+        ResumenFitosanitario.Instantanea cifras = resumen.getInstantanea();
+        if (!resumen.isCargado()) {
+            lblEstado.setText("Sin datos: no se pudo consultar la base de datos");
+            return;
+        }
+        if (cifras.getVersion() != versionMostrada) {
+            versionMostrada = cifras.getVersion();
+            Map<String, Integer> porNivel = cifras.getAlertasPorNivel();
+            for (int i = 0; i < NIVELES.length; i++) {
+                lblNiveles[i].setText(String.valueOf(porNivel.getOrDefault(NIVELES[i], 0)));
+            }
+            lblTotal.setText(String.valueOf(cifras.getTotalAlertas()));
+
+            List<Map.Entry<String, Integer>> plagas = cifras.getPlagasPrincipales();
+            modeloPlagas.setRowCount(plagas.size());
+            for (int i = 0; i < plagas.size(); i++) {
+                modeloPlagas.setValueAt(plagas.get(i).getKey(), i, 0);
+                modeloPlagas.setValueAt(plagas.get(i).getValue(), i, 1);
+            }
+        }
+        graficoDias.mostrar(cifras.getInspeccionesPorDia());
+        lblEstado.setText("Actualizado a las " + LocalTime.now().format(HORA));
+    }
+
+    private void recargar() {
+        if (resumen == null) return;
+        btnRecargar.setEnabled(false);
+        lblEstado.setText("Recargando…");
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return resumen.cargar();
+            }
+
+            @Override
+            protected void done() {
+                btnRecargar.setEnabled(true);
+                try {
+                    if (!get()) {
+                        JOptionPane.showMessageDialog(PanelTablero.this, "No se pudieron recargar los totales.");
+                    }
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(PanelTablero.this, "No se pudieron recargar los totales: " + e.getMessage());
+                }
+                refrescar();
+            }
+        }.execute();
+    }
+
+    /**
+     * Barras con la cantidad de inspecciones de cada día.
+     */
+    private static class GraficoDias extends JComponent {
+        private static final DateTimeFormatter DIA = DateTimeFormatter.ofPattern("dd/MM");
+        private List<Map.Entry<LocalDate, Integer>> dias = new ArrayList<>();
+
+        void mostrar(Map<LocalDate, Integer> porDia) {
+            dias = new ArrayList<>(porDia.entrySet());
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g0) {
+            Graphics2D g = (Graphics2D) g0;
+            Insets bordes = getInsets();
+            int x0 = bordes.left + 30, y0 = bordes.top + 10;
+            int ancho = getWidth() - x0 - bordes.right - 10;
+            int alto = getHeight() - y0 - bordes.bottom - 22;
+            if (dias.isEmpty() || ancho <= 0 || alto <= 0) return;
+
+            int maximo = 1;
+            for (Map.Entry<LocalDate, Integer> d : dias) maximo = Math.max(maximo, d.getValue());
+            g.setColor(Color.GRAY);
+            g.drawLine(x0, y0 + alto, x0 + ancho, y0 + alto);
+            g.drawString(String.valueOf(maximo), bordes.left + 4, y0 + 10);
+            g.drawString("0", bordes.left + 4, y0 + alto);
+
+            double paso = ancho / (double) dias.size();
+            int cadaCuantos = Math.max(1, (int) Math.ceil(40 / paso));
+            for (int i = 0; i < dias.size(); i++) {
+                int valor = dias.get(i).getValue();
+                int x = x0 + (int) (i * paso);
+                int h = (int) Math.round(alto * valor / (double) maximo);
+                g.setColor(new Color(60, 120, 180));
+                g.fillRect(x + 1, y0 + alto - h, Math.max(1, (int) paso - 2), h);
+                if (i % cadaCuantos == 0) {
+                    g.setColor(Color.DARK_GRAY);
+                    g.drawString(dias.get(i).getKey().format(DIA), x, y0 + alto + 16);
+                }
+            }
+        }
+    }
+}
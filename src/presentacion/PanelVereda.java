@@ -4,28 +4,40 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
+import dao.ConexionBD;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
 import logica.ControladorSistema;
+import model.Departamento;
+import model.Municipio;
+import negocio.CatalogoGeografico;
 
 public class PanelVereda extends JPanel {
 
     private JTextField txtNombre;
+    private JComboBox<String> cbDepartamento;
     private JComboBox<String> cbMunicipio;
     private JButton btnGuardar, btnActualizar, btnBuscar, btnEliminar;
     private ControladorSistema controlador;
+    private CatalogoGeografico catalogo;
+    private boolean avisoSinMunicipios;
+
+    private static final String TODOS = "Todos";
 
-    private final String URL = "jdbc:oracle:thin:@192.168.2.100:1521:XE";
-    private final String USUARIO = "ica2";
-    private final String CLAVE = "ica2";
 
     public PanelVereda(ControladorSistema controlador) {
         this.controlador = controlador;
-        setLayout(new GridLayout(4, 2, 10, 10));
+        setLayout(new GridLayout(5, 2, 10, 10));
         setBorder(BorderFactory.createTitledBorder("Gestión de Veredas"));
 
         add(new JLabel("Nombre de la Vereda:"));
         txtNombre = new JTextField();
         add(txtNombre);
 
+        add(new JLabel("Departamento:"));
+        cbDepartamento = new JComboBox<>();
+        add(cbDepartamento);
+
         add(new JLabel("Municipio:"));
         cbMunicipio = new JComboBox<>();
         add(cbMunicipio);
@@ -40,7 +52,23 @@ public class PanelVereda extends JPanel {
         add(btnBuscar);
         add(btnEliminar);
 
-        cargarMunicipios();
+        // Departamentos y municipios salen del catálogo en memoria, así elegir un departamento
+        // filtra los municipios al instante; al mostrarse el panel se revalida en segundo plano
+        catalogo = controlador.getCatalogoGeografico();
+        // Solo se escucha al catálogo mientras el panel está a la vista, para que el catálogo
+        // no lo retenga después de cerrarlo; al volver se llena con lo que haya cambiado
+        Runnable oyenteCatalogo = () -> SwingUtilities.invokeLater(this::cargarDepartamentos);
+        addAncestorListener(new AncestorListener() {
+            @Override public void ancestorAdded(AncestorEvent e) {
+                catalogo.alCambiar(oyenteCatalogo);
+                cargarDepartamentos();
+                catalogo.precargar();
+            }
+            @Override public void ancestorRemoved(AncestorEvent e) { catalogo.quitarOyente(oyenteCatalogo); }
+            @Override public void ancestorMoved(AncestorEvent e) { }
+        });
+        cbDepartamento.addActionListener(e -> cargarMunicipios());
+        cargarDepartamentos();
 
         btnGuardar.addActionListener(e -> guardar());
         btnActualizar.addActionListener(e -> actualizar());
@@ -49,37 +77,50 @@ public class PanelVereda extends JPanel {
     }
 
     private Connection conectar() throws SQLException {
-        try { Class.forName("oracle.jdbc.driver.OracleDriver"); }
-        catch (ClassNotFoundException e) { JOptionPane.showMessageDialog(this, "Driver Oracle no encontrado."); }
-        return DriverManager.getConnection(URL, USUARIO, CLAVE);
+        // Conexión del pool configurado en ConexionBD; al cerrarla vuelve al pool, así que
+        // sentencias y resultados se cierran antes para no dejar cursores abiertos en ella
+        return ConexionBD.getDataSource().getConnection();
+    }
+
+    private void cargarDepartamentos() {
+        Object seleccionado = cbDepartamento.getSelectedItem();
+        cbDepartamento.removeAllItems();
+        cbDepartamento.addItem(TODOS);
+        for (Departamento d : catalogo.getDepartamentos()) {
+            if (d.getId() != null && d.getNombre() != null) {
+                cbDepartamento.addItem(d.getId() + " - " + d.getNombre());
+            }
+        }
+        if (seleccionado != null) {
+            cbDepartamento.setSelectedItem(seleccionado);
+        }
+        cargarMunicipios();
     }
 
     private void cargarMunicipios() {
+        Object departamento = cbDepartamento.getSelectedItem();
+        if (departamento == null) return;
+        Object seleccionado = cbMunicipio.getSelectedItem();
         cbMunicipio.removeAllItems();
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement(
-                "SELECT m.id, m.nombre, d.nombre as departamento " +
-                "FROM MUNICIPIO m " +
-                "LEFT JOIN DEPARTAMENTO d ON m.id_departamento = d.id " +
-                "ORDER BY m.nombre");
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String id = rs.getString("id");
-                String nombre = rs.getString("nombre");
-                String departamento = rs.getString("departamento");
-                if (id != null && nombre != null) {
-                    String displayText = id + " - " + nombre;
-                    if (departamento != null) {
-                        displayText += " (" + departamento + ")";
-                    }
-                    cbMunicipio.addItem(displayText);
+        boolean todos = TODOS.equals(departamento);
+        java.util.List<Municipio> municipios = todos ? catalogo.getMunicipios()
+                : catalogo.getMunicipios(departamento.toString().split(" - ")[0]);
+        for (Municipio m : municipios) {
+            if (m.getId() != null && m.getNombre() != null) {
+                String displayText = m.getId() + " - " + m.getNombre();
+                Departamento d = m.getDepartamento() != null ? catalogo.getDepartamento(m.getDepartamento().getId()) : null;
+                if (d != null && d.getNombre() != null) {
+                    displayText += " (" + d.getNombre() + ")";
                 }
+                cbMunicipio.addItem(displayText);
             }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error cargando municipios: " + ex.getMessage());
         }
-        // Mostrar mensaje si no hay municipios
-        if (cbMunicipio.getItemCount() == 0) {
+        if (seleccionado != null) {
+            cbMunicipio.setSelectedItem(seleccionado);
+        }
+        // Mostrar mensaje si no hay municipios (una vez, y solo cuando el catálogo ya cargó)
+        if (todos && catalogo.isCargado() && cbMunicipio.getItemCount() == 0 && !avisoSinMunicipios) {
+            avisoSinMunicipios = true;
             JOptionPane.showMessageDialog(this, "No hay municipios registrados. Por favor, registre primero un municipio.");
         }
     }
@@ -92,15 +133,20 @@ public class PanelVereda extends JPanel {
         String idMunicipio = cbMunicipio.getSelectedItem().toString().split(" - ")[0];
 
         try (Connection conn = conectar()) {
-            PreparedStatement psMax = conn.prepareStatement("SELECT NVL(MAX(TO_NUMBER(id)),0)+1 FROM VEREDA");
-            ResultSet rs = psMax.executeQuery(); rs.next();
-            String id = rs.getString(1);
+            String id;
+            try (PreparedStatement psMax = conn.prepareStatement("SELECT NVL(MAX(TO_NUMBER(id)),0)+1 FROM VEREDA");
+                 ResultSet rs = psMax.executeQuery()) {
+                rs.next();
+                id = rs.getString(1);
+            }
 
-            PreparedStatement ps = conn.prepareStatement("INSERT INTO VEREDA VALUES(?,?,?)");
-            ps.setString(1, id);
-            ps.setString(2, nombre);
-            ps.setString(3, idMunicipio);
-            ps.executeUpdate();
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO VEREDA VALUES(?,?,?)")) {
+                ps.setString(1, id);
+                ps.setString(2, nombre);
+                ps.setString(3, idMunicipio);
+                ps.executeUpdate();
+            }
+            catalogo.invalidar();
             JOptionPane.showMessageDialog(this, "Vereda guardada.");
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -113,11 +159,12 @@ public class PanelVereda extends JPanel {
 
         String idMunicipio = cbMunicipio.getSelectedItem().toString().split(" - ")[0];
 
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("UPDATE VEREDA SET id_municipio=? WHERE nombre=?");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("UPDATE VEREDA SET id_municipio=? WHERE nombre=?")) {
             ps.setString(1, idMunicipio);
             ps.setString(2, nombre);
             int filas = ps.executeUpdate();
+            if (filas > 0) catalogo.invalidar();
             JOptionPane.showMessageDialog(this, filas > 0 ? "Vereda actualizada." : "No encontrada.");
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -128,16 +175,17 @@ public class PanelVereda extends JPanel {
         String nombre = txtNombre.getText();
         if (nombre.isEmpty()) { JOptionPane.showMessageDialog(this, "Ingrese el nombre."); return; }
 
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("SELECT * FROM VEREDA WHERE nombre=?");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("SELECT * FROM VEREDA WHERE nombre=?")) {
             ps.setString(1, nombre);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                txtNombre.setText(rs.getString("nombre"));
-                seleccionarMunicipio(rs.getString("id_municipio"));
-                JOptionPane.showMessageDialog(this, "Vereda encontrada.");
-            } else {
-                JOptionPane.showMessageDialog(this, "No encontrada.");
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    txtNombre.setText(rs.getString("nombre"));
+                    seleccionarMunicipio(rs.getString("id_municipio"));
+                    JOptionPane.showMessageDialog(this, "Vereda encontrada.");
+                } else {
+                    JOptionPane.showMessageDialog(this, "No encontrada.");
+                }
             }
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -148,10 +196,11 @@ public class PanelVereda extends JPanel {
         String nombre = txtNombre.getText();
         if (nombre.isEmpty()) { JOptionPane.showMessageDialog(this, "Ingrese el nombre."); return; }
 
-        try (Connection conn = conectar()) {
-            PreparedStatement ps = conn.prepareStatement("DELETE FROM VEREDA WHERE nombre=?");
+        try (Connection conn = conectar();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM VEREDA WHERE nombre=?")) {
             ps.setString(1, nombre);
             int filas = ps.executeUpdate();
+            if (filas > 0) catalogo.invalidar();
             JOptionPane.showMessageDialog(this, filas > 0 ? "Eliminada correctamente." : "No encontrada.");
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
@@ -159,6 +208,11 @@ public class PanelVereda extends JPanel {
     }
 
     private void seleccionarMunicipio(String idMun) {
+        if (idMun == null) return;
+        // El municipio puede estar fuera del departamento filtrado
+        if (!TODOS.equals(cbDepartamento.getSelectedItem())) {
+            cbDepartamento.setSelectedItem(TODOS);
+        }
         for (int i = 0; i < cbMunicipio.getItemCount(); i++) {
             if (cbMunicipio.getItemAt(i).startsWith(idMun + " -")) {
                 cbMunicipio.setSelectedIndex(i);
@@ -1,5 +1,34 @@
 package presentacion;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Utilidades comunes a los paneles de la interfaz.
+ */
 public class Utilidades {
 
+    /**
+     * Convierte el texto de un campo de fecha (AAAA-MM-DD) en LocalDate.
+     * Devuelve null si el texto está vacío.
+     *
+     * @throws IllegalArgumentException si el texto no es una fecha válida
+     */
+    public static LocalDate parsearFecha(String texto) {
+        if (texto == null || texto.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(texto.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida, use el formato AAAA-MM-DD: " + texto.trim());
+        }
+    }
+
+    /**
+     * Muestra una fecha en formato AAAA-MM-DD, o cadena vacía si es null.
+     */
+    public static String formatearFecha(LocalDate fecha) {
+        return fecha != null ? fecha.toString() : "";
+    }
 }
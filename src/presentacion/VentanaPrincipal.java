@@ -1,49 +1,110 @@
 package presentacion;
 
 import javax.swing.*;
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
 import logica.*;
 
+/**
+ * Ventana principal con una pestaña por módulo. Cada panel se construye la primera vez que
+ * se abre su pestaña, de modo que la ventana aparece sin esperar a los paneles que cargan
+ * datos de la BD al crearse.
+ */
 public class VentanaPrincipal extends JFrame {
+    /** Con -Dpresentacion.medirArranque=true se imprime cuánto tarda cada ventana en poder usarse. */
+    static final boolean MEDIR_ARRANQUE = Boolean.getBoolean("presentacion.medirArranque");
 
     private JTabbedPane pestañas;
-    private PanelPropietario panelPropietario;
-    private PanelPredio panelPredio;
-    private PanelInspeccion panelInspeccion;
-    private PanelRegistroResultado panelRegistro;
-    private PanelDepartamento panelDepartamento;
-    private PanelMunicipio panelMunicipio;
-    private PanelVereda panelVereda;
     private ControladorSistema controlador;
 
     public VentanaPrincipal() {
+        this(ControladorSistema.getCompartido());
+    }
+
+    public VentanaPrincipal(ControladorSistema controlador) {
         super("Sistema de Inspecciones Fitosanitarias");
+        long inicio = System.currentTimeMillis();
 
-        controlador = new ControladorSistema();
+        this.controlador = controlador;
 
         pestañas = new JTabbedPane();
 
-        panelPropietario = new PanelPropietario(controlador);
-        panelPredio = new PanelPredio(controlador);
-        panelInspeccion = new PanelInspeccion(controlador);
-        panelRegistro = new PanelRegistroResultado(controlador);
-        panelDepartamento = new PanelDepartamento(controlador);
-        panelMunicipio = new PanelMunicipio(controlador);
-        panelVereda = new PanelVereda(controlador);
-
         // 🔹 Agregar todas las pestañas
-        pestañas.addTab("Usuario", panelPropietario);
-        pestañas.addTab("Departamentos", panelDepartamento);
-        pestañas.addTab("Municipios", panelMunicipio);
-        pestañas.addTab("Veredas", panelVereda);
-        pestañas.addTab("Predios", panelPredio);
-        pestañas.addTab("Inspecciones", panelInspeccion);
-        pestañas.addTab("Registros", panelRegistro);
+        agregarPestaña("Usuario", () -> new PanelPropietario(controlador));
+        agregarPestaña("Departamentos", () -> new PanelDepartamento(controlador));
+        agregarPestaña("Municipios", () -> new PanelMunicipio(controlador));
+        agregarPestaña("Veredas", () -> new PanelVereda(controlador));
+        agregarPestaña("Predios", () -> new PanelPredio(controlador));
+        agregarPestaña("Inspecciones", () -> new PanelInspeccion(controlador));
+        agregarPestaña("Registros", () -> new PanelRegistroResultado(controlador));
+        agregarPestaña("Mapa", () -> new PanelMapa(controlador));
+        agregarPestaña("Tablero", () -> new PanelTablero(controlador));
+        pestañas.addChangeListener(e -> construirPestaña(pestañas.getSelectedIndex()));
+        construirPestaña(0);
 
         add(pestañas);
         setSize(900, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setVisible(true);
+        informarArranque(this, inicio);
+    }
+
+    public ControladorSistema getControlador() {
+        return controlador;
+    }
+
+    private void agregarPestaña(String titulo, Supplier<JComponent> crear) {
+        PestanaPerezosa pestaña = new PestanaPerezosa(crear);
+        pestañas.addTab(titulo, pestaña);
+    }
+
+    private void construirPestaña(int indice) {
+        if (indice < 0) return;
+        Component c = pestañas.getComponentAt(indice);
+        if (c instanceof PestanaPerezosa) {
+            ((PestanaPerezosa) c).construir();
+        }
+    }
+
+    /**
+     * Si MEDIR_ARRANQUE, imprime cuánto tardó la ventana en poder usarse desde inicio (en ms
+     * de reloj). Se mide cuando el EDT termina los eventos pendientes, es decir, con la
+     * ventana ya pintada.
+     */
+    static void informarArranque(JFrame ventana, long inicio) {
+        if (!MEDIR_ARRANQUE) return;
+        SwingUtilities.invokeLater(() -> System.out.println(ventana.getTitle() + " lista en "
+                + (System.currentTimeMillis() - inicio) + " ms"));
+    }
+
+    /**
+     * Inicio de la JVM, para medir la primera ventana del proceso.
+     */
+    static long inicioProceso() {
+        return ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Contenedor vacío que crea su panel al abrirse la pestaña por primera vez.
+     */
+    private static class PestanaPerezosa extends JPanel {
+        private Supplier<JComponent> crear;
+
+        PestanaPerezosa(Supplier<JComponent> crear) {
+            super(new BorderLayout());
+            this.crear = crear;
+        }
+
+        void construir() {
+            if (crear == null) return;
+            JComponent panel = crear.get();
+            crear = null;
+            add(panel, BorderLayout.CENTER);
+            revalidate();
+        }
     }
 
     public static void main(String[] args) {
@@ -51,6 +112,7 @@ public class VentanaPrincipal extends JFrame {
         SwingUtilities.invokeLater(() -> {
             LoginFrame login = new LoginFrame();
             login.setVisible(true);
+            informarArranque(login, inicioProceso());
         });
     }
 }
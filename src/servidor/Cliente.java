@@ -1,17 +1,26 @@
 package servidor;
 
-import java.io.*;
-import java.net.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Cliente de prueba: abre una sola conexión y envía muchas solicitudes en paralelo
+ * sobre ella, como haría una tableta al sincronizar.
+ */
 public class Cliente {
     public static void main(String[] args) {
-        try (Socket socket = new Socket("localhost", 5000);
-             ObjectOutputStream salida = new ObjectOutputStream(socket.getOutputStream());
-             ObjectInputStream entrada = new ObjectInputStream(socket.getInputStream())) {
-
-            salida.writeObject("Registrar nueva inspección fitosanitaria");
-            System.out.println("Respuesta del servidor: " + entrada.readObject());
-
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        try (ClienteMultiplexado cliente = new ClienteMultiplexado("localhost", Servidor.PUERTO)) {
+            long inicio = System.nanoTime();
+            List<CompletableFuture<String>> respuestas = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                respuestas.add(cliente.eco("Registrar nueva inspección fitosanitaria #" + i));
+            }
+            CompletableFuture.allOf(respuestas.toArray(new CompletableFuture<?>[0])).join();
+            System.out.println("Respuesta del servidor: " + respuestas.get(0).join());
+            System.out.printf("%d solicitudes en %.1f ms por una sola conexión%n",
+                    cantidad, (System.nanoTime() - inicio) / 1e6);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -0,0 +1,316 @@
+package servidor;
+
+import model.Alerta;
+import model.InformeFitosanitario;
+import model.InspeccionFitosanitaria;
+import model.Predio;
+import model.ResultadoSesion;
+import model.ResultadoTecnico;
+import model.SesionCampo;
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cliente que mantiene una sola conexión abierta con el servidor y permite tener muchas
+ * solicitudes en vuelo a la vez. Cada solicitud lleva un id de correlación; un hilo lector
+ * completa el CompletableFuture correspondiente cuando llega su respuesta, en cualquier orden.
+ * Es seguro para uso desde varios hilos.
+ */
+public class ClienteMultiplexado implements Closeable {
+    private final Socket socket;
+    private final DataInputStream entrada;
+    private final OutputStream salida;
+    private final AtomicInteger siguienteId = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<Mensaje>> pendientes = new ConcurrentHashMap<>();
+    private final Map<Integer, FlujoRespuesta<?>> flujos = new ConcurrentHashMap<>();
+    private final Map<Integer, BiConsumer<List<Alerta>, Integer>> suscripciones = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> solicitudDeSuscripcion = new ConcurrentHashMap<>();
+    private final Thread lector;
+    private volatile IOException falla;
+
+    public ClienteMultiplexado(String host, int puerto) throws IOException {
+        this.socket = new Socket(host, puerto);
+        this.socket.setTcpNoDelay(true);
+        this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.salida = new BufferedOutputStream(socket.getOutputStream());
+        this.lector = Thread.ofVirtual().name("cliente-lector").start(this::leerRespuestas);
+    }
+
+    /**
+     * Envía una solicitud sin esperar la respuesta. El futuro se completa con la trama
+     * de respuesta o falla con ErrorServidor si el servidor respondió RESPUESTA_ERROR.
+     */
+    public CompletableFuture<Mensaje> enviar(short tipo, Consumer<ByteBuffer> escritor) {
+        return enviar(siguienteId.incrementAndGet(), tipo, escritor);
+    }
+
+    private CompletableFuture<Mensaje> enviar(int id, short tipo, Consumer<ByteBuffer> escritor) {
+        CompletableFuture<Mensaje> futuro = new CompletableFuture<>();
+        pendientes.put(id, futuro);
+        try {
+            if (falla != null) throw falla;
+            ByteBuffer trama = Protocolo.codificar(tipo, id, escritor);
+            synchronized (salida) {
+                Protocolo.escribir(salida, trama);
+                salida.flush();
+            }
+        } catch (IOException e) {
+            pendientes.remove(id);
+            futuro.completeExceptionally(e);
+        }
+        return futuro;
+    }
+
+    /**
+     * Envía una solicitud y decodifica el cuerpo de la respuesta con el lector dado.
+     */
+    public <T> CompletableFuture<T> enviar(short tipo, Consumer<ByteBuffer> escritor, Function<ByteBuffer, T> lectorRespuesta) {
+        return enviar(tipo, escritor).thenApply(m -> lectorRespuesta.apply(m.getCuerpo()));
+    }
+
+    public CompletableFuture<String> eco(String texto) {
+        return enviar(Protocolo.ECO, b -> CodecModelo.escribirTexto(b, texto), CodecModelo::leerTexto);
+    }
+
+    public CompletableFuture<Boolean> registrarInspeccion(InspeccionFitosanitaria inspeccion) {
+        return enviar(Protocolo.REGISTRAR_INSPECCION, b -> CodecModelo.escribirInspeccion(b, inspeccion),
+                CodecModelo::leerBooleano);
+    }
+
+    public CompletableFuture<InspeccionFitosanitaria> consultarInspeccion(String id) {
+        return enviar(Protocolo.CONSULTAR_INSPECCION, b -> CodecModelo.escribirTexto(b, id),
+                b -> CodecModelo.leerOpcional(b, CodecModelo::leerInspeccion));
+    }
+
+    public CompletableFuture<List<InspeccionFitosanitaria>> listarInspecciones() {
+        return enviar(Protocolo.LISTAR_INSPECCIONES, null, b -> CodecModelo.leerLista(b, CodecModelo::leerInspeccion));
+    }
+
+    /**
+     * Sube una jornada de campo completa en una sola solicitud.
+     */
+    public CompletableFuture<ResultadoSesion> enviarSesionCampo(SesionCampo sesion) {
+        return enviar(Protocolo.ENVIAR_SESION_CAMPO, b -> CodecModelo.escribirSesion(b, sesion),
+                CodecModelo::leerResultadoSesion);
+    }
+
+    public CompletableFuture<Boolean> registrarResultado(ResultadoTecnico resultado) {
+        return enviar(Protocolo.REGISTRAR_RESULTADO, b -> CodecModelo.escribirResultado(b, resultado),
+                CodecModelo::leerBooleano);
+    }
+
+    public CompletableFuture<Predio> consultarPredio(String id) {
+        return enviar(Protocolo.CONSULTAR_PREDIO, b -> CodecModelo.escribirTexto(b, id),
+                b -> CodecModelo.leerOpcional(b, CodecModelo::leerPredio));
+    }
+
+    public CompletableFuture<List<Alerta>> listarAlertasActivas() {
+        return enviar(Protocolo.LISTAR_ALERTAS_ACTIVAS, null, b -> CodecModelo.leerLista(b, CodecModelo::leerAlerta));
+    }
+
+    /**
+     * Se suscribe a las alertas nuevas de nivel igual o superior a nivelMinimo (null para
+     * todos) en el departamento indicado (null para todo el país). El oyente recibe cada lote
+     * y cuántas alertas se omitieron antes de él porque el cliente no alcanzaba a leerlas;
+     * se ejecuta en el hilo lector, así que debe retornar rápido. El futuro se completa con
+     * el id para cancelarSuscripcion.
+     */
+    public CompletableFuture<Long> suscribirAlertas(String nivelMinimo, String idDepartamento,
+            BiConsumer<List<Alerta>, Integer> oyente) {
+        int id = siguienteId.incrementAndGet();
+        // El oyente se registra antes de enviar: el primer lote puede llegar antes que la respuesta
+        suscripciones.put(id, oyente);
+        return enviar(id, Protocolo.SUSCRIBIR_ALERTAS, b -> {
+            CodecModelo.escribirOpcional(b, nivelMinimo, CodecModelo::escribirTexto);
+            CodecModelo.escribirOpcional(b, idDepartamento, CodecModelo::escribirTexto);
+        }).handle((m, error) -> {
+            if (error != null) {
+                suscripciones.remove(id);
+                throw error instanceof RuntimeException r ? r : new CompletionException(error);
+            }
+            long idSuscripcion = m.getCuerpo().getLong();
+            solicitudDeSuscripcion.put(idSuscripcion, id);
+            return idSuscripcion;
+        });
+    }
+
+    public CompletableFuture<Boolean> cancelarSuscripcion(long idSuscripcion) {
+        Integer id = solicitudDeSuscripcion.remove(idSuscripcion);
+        if (id != null) {
+            suscripciones.remove(id);
+        }
+        return enviar(Protocolo.CANCELAR_SUSCRIPCION, b -> b.putLong(idSuscripcion), CodecModelo::leerBooleano);
+    }
+
+    /**
+     * Envía una solicitud cuya respuesta llega en fragmentos. Las filas se leen del flujo
+     * devuelto a medida que llegan; cerrarlo antes del final descarta el resto y envía
+     * CANCELAR_FLUJO para que el servidor deje de recorrer y de enviar filas. Mientras
+     * el flujo tenga su cola llena el hilo lector espera, lo que también retrasa las
+     * respuestas de otras solicitudes de esta conexión.
+     */
+    public <T> FlujoRespuesta<T> abrirFlujo(short tipo, Consumer<ByteBuffer> escritor, Function<ByteBuffer, T> lectorFila)
+            throws IOException {
+        int id = siguienteId.incrementAndGet();
+        FlujoRespuesta<T> flujo = new FlujoRespuesta<>(lectorFila, () -> flujos.remove(id),
+                () -> enviar(Protocolo.CANCELAR_FLUJO, b -> b.putInt(id)));
+        flujos.put(id, flujo);
+        try {
+            if (falla != null) throw falla;
+            ByteBuffer trama = Protocolo.codificar(tipo, id, escritor);
+            synchronized (salida) {
+                Protocolo.escribir(salida, trama);
+                salida.flush();
+            }
+        } catch (IOException e) {
+            flujos.remove(id);
+            throw e;
+        }
+        return flujo;
+    }
+
+    public FlujoRespuesta<Predio> listarPrediosFlujo(boolean comprimir) throws IOException {
+        return abrirFlujo(Protocolo.LISTAR_PREDIOS_FLUJO, b -> CodecModelo.escribirBooleano(b, comprimir),
+                CodecModelo::leerPredio);
+    }
+
+    public FlujoRespuesta<InformeFitosanitario> listarInformesFlujo(boolean comprimir) throws IOException {
+        return abrirFlujo(Protocolo.LISTAR_INFORMES_FLUJO, b -> CodecModelo.escribirBooleano(b, comprimir),
+                CodecModelo::leerInforme);
+    }
+
+    /**
+     * Métricas del servidor: control de admisión y latencias por comando.
+     */
+    public CompletableFuture<List<String>> metricas() {
+        return enviar(Protocolo.METRICAS, null, b -> CodecModelo.leerLista(b, CodecModelo::leerTexto));
+    }
+
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    private void leerRespuestas() {
+        try {
+            Mensaje respuesta;
+            while ((respuesta = Protocolo.leer(entrada)) != null) {
+                if (respuesta.getTipo() == Protocolo.RESPUESTA_ALERTAS) {
+                    entregarAlertas(respuesta);
+                    continue;
+                }
+                FlujoRespuesta<?> flujo = flujos.get(respuesta.getIdSolicitud());
+                if (flujo != null) {
+                    entregarAFlujo(flujo, respuesta);
+                    continue;
+                }
+                CompletableFuture<Mensaje> futuro = pendientes.remove(respuesta.getIdSolicitud());
+                if (futuro == null) {
+                    continue;
+                }
+                if (respuesta.getTipo() == Protocolo.RESPUESTA_OCUPADO) {
+                    futuro.completeExceptionally(new ServidorOcupado(respuesta.getCuerpo().getInt()));
+                } else if (respuesta.getTipo() == Protocolo.RESPUESTA_ERROR) {
+                    futuro.completeExceptionally(new ErrorServidor(CodecModelo.leerTexto(respuesta.getCuerpo())));
+                } else {
+                    futuro.complete(respuesta);
+                }
+            }
+            fallarPendientes(new EOFException("El servidor cerró la conexión"));
+        } catch (IOException e) {
+            fallarPendientes(e);
+        }
+    }
+
+    private void entregarAlertas(Mensaje lote) {
+        BiConsumer<List<Alerta>, Integer> oyente = suscripciones.get(lote.getIdSolicitud());
+        if (oyente == null) {
+            return;
+        }
+        ByteBuffer cuerpo = lote.getCuerpo();
+        int omitidas = CodecModelo.leerVarint(cuerpo);
+        List<Alerta> alertas = CodecModelo.leerLista(cuerpo, CodecModelo::leerAlerta);
+        if (alertas.isEmpty() && omitidas == 0) {
+            return; // Latido del servidor
+        }
+        try {
+            oyente.accept(alertas, omitidas);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void entregarAFlujo(FlujoRespuesta<?> flujo, Mensaje respuesta) {
+        switch (respuesta.getTipo()) {
+            case Protocolo.RESPUESTA_FRAGMENTO:
+            case Protocolo.RESPUESTA_FIN:
+                flujo.recibir(respuesta);
+                break;
+            case Protocolo.RESPUESTA_OCUPADO:
+                flujo.fallar(new ServidorOcupado(respuesta.getCuerpo().getInt()));
+                break;
+            case Protocolo.RESPUESTA_ERROR:
+                flujo.fallar(new ErrorServidor(CodecModelo.leerTexto(respuesta.getCuerpo())));
+                break;
+            default:
+                flujo.fallar(new ErrorServidor("Respuesta inesperada en un flujo: " + respuesta.getTipo()));
+        }
+    }
+
+    private void fallarPendientes(IOException causa) {
+        falla = causa;
+        for (FlujoRespuesta<?> flujo : flujos.values()) {
+            flujo.fallar(causa);
+        }
+        for (Integer id : pendientes.keySet()) {
+            CompletableFuture<Mensaje> futuro = pendientes.remove(id);
+            if (futuro != null) futuro.completeExceptionally(causa);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        // El lector puede estar esperando lugar en la cola de un flujo que nadie lee
+        lector.interrupt();
+        try {
+            lector.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * El servidor rechazó la solicitud por sobrecarga; puede reintentarse pasado el tiempo indicado.
+     */
+    public static class ServidorOcupado extends RuntimeException {
+        private final int reintentarEnMs;
+
+        public ServidorOcupado(int reintentarEnMs) {
+            super("Servidor ocupado, reintente en " + reintentarEnMs + " ms");
+            this.reintentarEnMs = reintentarEnMs;
+        }
+
+        public int getReintentarEnMs() {
+            return reintentarEnMs;
+        }
+    }
+
+    /**
+     * Error reportado por el servidor para una solicitud concreta.
+     */
+    public static class ErrorServidor extends RuntimeException {
+        public ErrorServidor(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
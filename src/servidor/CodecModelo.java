@@ -0,0 +1,336 @@
+package servidor;
+
+import model.Alerta;
+import model.Cultivo;
+import model.InformeFitosanitario;
+import model.InspeccionFitosanitaria;
+import model.Int;
+import model.Plaga;
+import model.Predio;
+import model.Propietario;
+import model.ResultadoSesion;
+import model.ResultadoTecnico;
+import model.SesionCampo;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Codificadores binarios de los objetos del modelo que viajan entre Cliente y Servidor.
+ * Los campos se escriben en orden fijo: textos como longitud variable + UTF-8 (-1 para null),
+ * fechas como día epoch y enteros pequeños como varint. Cualquier cambio en el orden de
+ * los campos requiere subir Protocolo.VERSION.
+ */
+public final class CodecModelo {
+    private static final int FECHA_NULA = Integer.MIN_VALUE;
+    private static final long INSTANTE_NULO = Long.MIN_VALUE;
+
+    private CodecModelo() {
+    }
+
+    // ---- Predio ----
+
+    public static void escribirPredio(ByteBuffer b, Predio p) {
+        escribirTexto(b, p.getId());
+        escribirTexto(b, p.getCodigoIca());
+        escribirTexto(b, p.getDireccion());
+        b.putDouble(p.getArea());
+        b.putDouble(p.getLatitud());
+        b.putDouble(p.getLongitud());
+        escribirTexto(b, p.getIdVereda());
+        escribirTexto(b, p.getCodLugarProduccion());
+        escribirTexto(b, p.getPropietario() != null ? p.getPropietario().getId() : null);
+    }
+
+    public static Predio leerPredio(ByteBuffer b) {
+        Predio p = new Predio();
+        p.setId(leerTexto(b));
+        p.setCodigoIca(leerTexto(b));
+        p.setDireccion(leerTexto(b));
+        p.setArea(b.getDouble());
+        p.setLatitud(b.getDouble());
+        p.setLongitud(b.getDouble());
+        p.setIdVereda(leerTexto(b));
+        p.setCodLugarProduccion(leerTexto(b));
+        String idPropietario = leerTexto(b);
+        if (idPropietario != null) {
+            Propietario propietario = new Propietario();
+            propietario.setId(idPropietario);
+            p.setPropietario(propietario);
+        }
+        return p;
+    }
+
+    // ---- InspeccionFitosanitaria ----
+
+    public static void escribirInspeccion(ByteBuffer b, InspeccionFitosanitaria i) {
+        escribirTexto(b, i.getId());
+        escribirTexto(b, i.getCodigoIca());
+        escribirFecha(b, i.getFechaInspeccion());
+        escribirTexto(b, i.getPredioId());
+        escribirTexto(b, i.getTecnico());
+        escribirTexto(b, i.getObservaciones());
+    }
+
+    public static InspeccionFitosanitaria leerInspeccion(ByteBuffer b) {
+        InspeccionFitosanitaria i = new InspeccionFitosanitaria();
+        i.setId(leerTexto(b));
+        i.setCodigoIca(leerTexto(b));
+        i.setFechaInspeccion(leerFecha(b));
+        i.setPredioId(leerTexto(b));
+        i.setTecnico(leerTexto(b));
+        i.setObservaciones(leerTexto(b));
+        return i;
+    }
+
+    // ---- ResultadoTecnico ----
+
+    public static void escribirResultado(ByteBuffer b, ResultadoTecnico r) {
+        escribirTexto(b, r.getId());
+        escribirTexto(b, r.getInspeccionId());
+        escribirTexto(b, r.getDescripcion());
+        escribirFecha(b, r.getFecha());
+        escribirVarint(b, r.getTotalPlantasEvaluadas());
+        escribirVarint(b, r.getPlantasAfectadas());
+        escribirTexto(b, r.getObservaciones());
+        escribirTexto(b, r.getPlaga() != null ? r.getPlaga().getId() : null);
+        escribirTexto(b, r.getCultivo() != null ? r.getCultivo().getId() : null);
+    }
+
+    public static ResultadoTecnico leerResultado(ByteBuffer b) {
+        ResultadoTecnico r = new ResultadoTecnico();
+        r.setId(leerTexto(b));
+        r.setInspeccionId(leerTexto(b));
+        r.setDescripcion(leerTexto(b));
+        r.setFecha(leerFecha(b));
+        r.setTotalPlantasEvaluadas(leerVarint(b));
+        r.setPlantasAfectadas(new Int(leerVarint(b)));
+        r.setObservaciones(leerTexto(b));
+        String idPlaga = leerTexto(b);
+        if (idPlaga != null) {
+            Plaga plaga = new Plaga();
+            plaga.setId(idPlaga);
+            r.agregarPlaga(plaga);
+        }
+        String idCultivo = leerTexto(b);
+        if (idCultivo != null) {
+            Cultivo cultivo = new Cultivo();
+            cultivo.setId(idCultivo);
+            r.agregarCultivo(cultivo);
+        }
+        return r;
+    }
+
+    // ---- Alerta ----
+
+    public static void escribirAlerta(ByteBuffer b, Alerta a) {
+        escribirTexto(b, a.getId());
+        escribirTexto(b, a.getNivelRiesgo());
+        escribirTexto(b, a.getInformeFitosanitario() != null ? a.getInformeFitosanitario().getId() : null);
+        escribirTexto(b, a.getIdPlaga());
+        escribirTexto(b, a.getRegion());
+        escribirTexto(b, a.getDescripcion());
+        b.putLong(a.getFechaGeneracion() != null
+                ? a.getFechaGeneracion().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : INSTANTE_NULO);
+    }
+
+    public static Alerta leerAlerta(ByteBuffer b) {
+        Alerta a = new Alerta();
+        a.setId(leerTexto(b));
+        a.setNivelRiesgo(leerTexto(b));
+        String idInforme = leerTexto(b);
+        if (idInforme != null) {
+            InformeFitosanitario informe = new InformeFitosanitario();
+            informe.setId(idInforme);
+            a.agregarInformeFitosanitario(informe);
+        }
+        a.setIdPlaga(leerTexto(b));
+        a.setRegion(leerTexto(b));
+        a.setDescripcion(leerTexto(b));
+        long instante = b.getLong();
+        if (instante != INSTANTE_NULO) {
+            a.setFechaGeneracion(LocalDateTime.ofInstant(Instant.ofEpochMilli(instante), ZoneId.systemDefault()));
+        }
+        return a;
+    }
+
+    // ---- InformeFitosanitario ----
+
+    public static void escribirInforme(ByteBuffer b, InformeFitosanitario i) {
+        escribirTexto(b, i.getId());
+        escribirTexto(b, i.getCodigoIca());
+        escribirVarint(b, i.getTotalPlantasEvaluadas());
+        b.putDouble(i.getNivelIncidencia());
+        escribirTexto(b, i.getObservaciones());
+        escribirFecha(b, i.getFechaInforme());
+    }
+
+    public static InformeFitosanitario leerInforme(ByteBuffer b) {
+        InformeFitosanitario i = new InformeFitosanitario();
+        i.setId(leerTexto(b));
+        i.setCodigoIca(leerTexto(b));
+        i.setToltalPlantasEvaluadas(leerVarint(b));
+        i.setNivelIncidencia(b.getDouble());
+        i.setObservaciones(leerTexto(b));
+        i.setFechaInforme(leerFecha(b));
+        return i;
+    }
+
+    // ---- SesionCampo ----
+
+    public static void escribirSesion(ByteBuffer b, SesionCampo s) {
+        escribirLista(b, s.getInspecciones(), CodecModelo::escribirInspeccion);
+        escribirLista(b, s.getLotesInspeccion(), CodecModelo::escribirPar);
+        escribirLista(b, s.getResultados(), CodecModelo::escribirResultado);
+        escribirLista(b, s.getPlagasResultado(), CodecModelo::escribirPar);
+        escribirLista(b, s.getCultivosResultado(), CodecModelo::escribirPar);
+    }
+
+    public static SesionCampo leerSesion(ByteBuffer b) {
+        SesionCampo s = new SesionCampo();
+        s.getInspecciones().addAll(leerLista(b, CodecModelo::leerInspeccion));
+        s.getLotesInspeccion().addAll(leerLista(b, CodecModelo::leerPar));
+        s.getResultados().addAll(leerLista(b, CodecModelo::leerResultado));
+        s.getPlagasResultado().addAll(leerLista(b, CodecModelo::leerPar));
+        s.getCultivosResultado().addAll(leerLista(b, CodecModelo::leerPar));
+        return s;
+    }
+
+    public static void escribirResultadoSesion(ByteBuffer b, ResultadoSesion r) {
+        escribirBooleano(b, r.isConfirmada());
+        escribirTexto(b, r.getMensaje());
+        escribirVarint(b, r.getEstados().length);
+        b.put(r.getEstados());
+    }
+
+    public static ResultadoSesion leerResultadoSesion(ByteBuffer b) {
+        boolean confirmada = leerBooleano(b);
+        String mensaje = leerTexto(b);
+        byte[] estados = new byte[leerVarint(b)];
+        b.get(estados);
+        return new ResultadoSesion(confirmada, mensaje, estados);
+    }
+
+    private static void escribirPar(ByteBuffer b, String[] par) {
+        escribirTexto(b, par[0]);
+        escribirTexto(b, par[1]);
+    }
+
+    private static String[] leerPar(ByteBuffer b) {
+        return new String[] { leerTexto(b), leerTexto(b) };
+    }
+
+    // ---- Listas y tipos básicos ----
+
+    public static <T> void escribirLista(ByteBuffer b, List<T> lista, BiConsumer<ByteBuffer, T> escritor) {
+        escribirVarint(b, lista.size());
+        for (T elemento : lista) {
+            escritor.accept(b, elemento);
+        }
+    }
+
+    public static <T> List<T> leerLista(ByteBuffer b, Function<ByteBuffer, T> lector) {
+        int n = leerVarint(b);
+        if (n < 0 || n > b.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        List<T> lista = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            lista.add(lector.apply(b));
+        }
+        return lista;
+    }
+
+    /**
+     * Escribe un byte de presencia seguido del objeto, para respuestas que pueden ser null.
+     */
+    public static <T> void escribirOpcional(ByteBuffer b, T valor, BiConsumer<ByteBuffer, T> escritor) {
+        b.put((byte) (valor != null ? 1 : 0));
+        if (valor != null) {
+            escritor.accept(b, valor);
+        }
+    }
+
+    public static <T> T leerOpcional(ByteBuffer b, Function<ByteBuffer, T> lector) {
+        return b.get() != 0 ? lector.apply(b) : null;
+    }
+
+    public static void escribirBooleano(ByteBuffer b, boolean valor) {
+        b.put((byte) (valor ? 1 : 0));
+    }
+
+    public static boolean leerBooleano(ByteBuffer b) {
+        return b.get() != 0;
+    }
+
+    public static void escribirTexto(ByteBuffer b, String texto) {
+        if (texto == null) {
+            escribirVarint(b, 0);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        // 0 indica null; las cadenas se guardan con longitud + 1
+        escribirVarint(b, bytes.length + 1);
+        b.put(bytes);
+    }
+
+    public static String leerTexto(ByteBuffer b) {
+        int n = leerVarint(b) - 1;
+        if (n < 0) {
+            return null;
+        }
+        if (n > b.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String texto;
+        if (b.hasArray()) {
+            texto = new String(b.array(), b.arrayOffset() + b.position(), n, StandardCharsets.UTF_8);
+            b.position(b.position() + n);
+        } else {
+            byte[] bytes = new byte[n];
+            b.get(bytes);
+            texto = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return texto;
+    }
+
+    public static void escribirFecha(ByteBuffer b, LocalDate fecha) {
+        b.putInt(fecha != null ? (int) fecha.toEpochDay() : FECHA_NULA);
+    }
+
+    public static LocalDate leerFecha(ByteBuffer b) {
+        int dia = b.getInt();
+        return dia == FECHA_NULA ? null : LocalDate.ofEpochDay(dia);
+    }
+
+    /**
+     * Entero no negativo en 1 a 5 bytes (7 bits por byte).
+     */
+    public static void escribirVarint(ByteBuffer b, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            b.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        b.put((byte) valor);
+    }
+
+    public static int leerVarint(ByteBuffer b) {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            byte actual = b.get();
+            valor |= (actual & 0x7F) << desplazamiento;
+            if ((actual & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint demasiado largo.");
+    }
+}
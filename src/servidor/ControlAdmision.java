@@ -0,0 +1,214 @@
+package servidor;
+
+import dao.ConfiguracionBD;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Control de admisión del servidor. Cada clase de solicitud (lecturas, escrituras,
+ * reportes) tiene su propia compuerta con:
+ *  - un límite de concurrencia que se adapta a la latencia observada (aumento aditivo
+ *    mientras la latencia está bajo el objetivo, reducción multiplicativa cuando lo supera);
+ *  - una cola de espera acotada;
+ *  - rechazo inmediato con un "reintente en N ms" cuando la cola está llena o la espera
+ *    supera el máximo, en lugar de dejar que la solicitud expire en el cliente.
+ */
+public class ControlAdmision {
+
+    public enum ClaseSolicitud { LECTURA, ESCRITURA, REPORTE }
+
+    private final Map<ClaseSolicitud, Compuerta> compuertas = new LinkedHashMap<>();
+
+    /**
+     * Límites calculados para el tamaño del pool de conexiones configurado (bd.pool).
+     */
+    public ControlAdmision() {
+        this(ConfiguracionBD.cargar().getTamanoPool());
+    }
+
+    /**
+     * Límites proporcionales al número de conexiones del pool; con las 8 por defecto quedan
+     * lecturas 8 (2-64), escrituras 4 (1-16) y reportes 2 (1-4). Las lecturas pueden pasar
+     * del tamaño del pool porque solo ocupan una conexión mientras corre cada sentencia;
+     * escrituras y reportes empiezan por debajo porque la retienen más tiempo
+     * (transacciones, consultas largas) y dejan conexiones libres para las lecturas.
+     */
+    public ControlAdmision(int conexiones) {
+        int n = Math.max(1, conexiones);
+        compuertas.put(ClaseSolicitud.LECTURA, new Compuerta("lecturas", n, Math.min(2, n), n * 8, 256, 50, 2000));
+        compuertas.put(ClaseSolicitud.ESCRITURA, new Compuerta("escrituras", Math.max(1, n / 2), 1, n * 2, 128, 200, 5000));
+        compuertas.put(ClaseSolicitud.REPORTE, new Compuerta("reportes", Math.max(1, n / 4), 1, Math.max(1, n / 2), 16, 2000, 10000));
+    }
+
+    public Compuerta getCompuerta(ClaseSolicitud clase) {
+        return compuertas.get(clase);
+    }
+
+    /**
+     * Ejecuta la tarea si la compuerta de su clase la admite. Si no, devuelve la respuesta
+     * de ocupado que arma el rechazo con el tiempo sugerido de reintento.
+     */
+    public <T> T ejecutar(ClaseSolicitud clase, Supplier<T> tarea, IntFunction<T> rechazo) {
+        return ejecutar(clase, tarea, rechazo, () -> 0);
+    }
+
+    /**
+     * Como ejecutar, pero descuenta de la latencia que adapta el límite el tiempo que indique
+     * excluido al terminar (por ejemplo, lo que la tarea estuvo bloqueada esperando al
+     * cliente). Así un cliente lento no reduce el límite de los demás.
+     */
+    public <T> T ejecutar(ClaseSolicitud clase, Supplier<T> tarea, IntFunction<T> rechazo, LongSupplier excluido) {
+        Compuerta compuerta = compuertas.get(clase);
+        long reintento = compuerta.entrar();
+        if (reintento > 0) {
+            return rechazo.apply((int) reintento);
+        }
+        long inicio = System.nanoTime();
+        try {
+            return tarea.get();
+        } finally {
+            compuerta.salir(Math.max(0, System.nanoTime() - inicio - excluido.getAsLong()));
+        }
+    }
+
+    /**
+     * Métricas de todas las compuertas: profundidad de cola, en ejecución, límite actual,
+     * admitidas, rechazadas y latencia media.
+     */
+    public Map<String, Number> getMetricas() {
+        Map<String, Number> metricas = new LinkedHashMap<>();
+        for (Compuerta c : compuertas.values()) {
+            c.agregarMetricas(metricas);
+        }
+        return metricas;
+    }
+
+    /**
+     * Compuerta de una clase de solicitudes.
+     */
+    public static class Compuerta {
+        private final String nombre;
+        private final int limiteMinimo;
+        private final int limiteMaximo;
+        private final int capacidadCola;
+        private final long objetivoNanos;
+        private final long esperaMaximaNanos;
+
+        private final ReentrantLock bloqueo = new ReentrantLock(true);
+        private final Condition turno = bloqueo.newCondition();
+        private double limite;
+        private int enEjecucion;
+        private int enCola;
+        private long ultimaReduccion;
+        /** Latencia media móvil exponencial, en nanosegundos. */
+        private double latenciaMedia;
+
+        private final AtomicLong admitidas = new AtomicLong();
+        private final AtomicLong rechazadasCola = new AtomicLong();
+        private final AtomicLong rechazadasEspera = new AtomicLong();
+
+        public Compuerta(String nombre, int limiteInicial, int limiteMinimo, int limiteMaximo,
+                int capacidadCola, long objetivoMs, long esperaMaximaMs) {
+            this.nombre = nombre;
+            this.limite = limiteInicial;
+            this.limiteMinimo = limiteMinimo;
+            this.limiteMaximo = limiteMaximo;
+            this.capacidadCola = capacidadCola;
+            this.objetivoNanos = TimeUnit.MILLISECONDS.toNanos(objetivoMs);
+            this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+            this.latenciaMedia = objetivoNanos / 2.0;
+        }
+
+        /**
+         * Espera un turno. Devuelve 0 si fue admitida, o los milisegundos sugeridos
+         * para reintentar si fue rechazada.
+         */
+        long entrar() {
+            bloqueo.lock();
+            try {
+                if (enEjecucion < (int) limite && enCola == 0) {
+                    enEjecucion++;
+                    admitidas.incrementAndGet();
+                    return 0;
+                }
+                if (enCola >= capacidadCola) {
+                    rechazadasCola.incrementAndGet();
+                    return reintentarEn();
+                }
+                enCola++;
+                try {
+                    long restante = esperaMaximaNanos;
+                    while (enEjecucion >= (int) limite) {
+                        if (restante <= 0) {
+                            rechazadasEspera.incrementAndGet();
+                            return reintentarEn();
+                        }
+                        restante = turno.awaitNanos(restante);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rechazadasEspera.incrementAndGet();
+                    return reintentarEn();
+                } finally {
+                    enCola--;
+                }
+                enEjecucion++;
+                admitidas.incrementAndGet();
+                return 0;
+            } finally {
+                bloqueo.unlock();
+            }
+        }
+
+        void salir(long latenciaNanos) {
+            bloqueo.lock();
+            try {
+                enEjecucion--;
+                latenciaMedia = latenciaMedia * 0.9 + latenciaNanos * 0.1;
+                long ahora = System.nanoTime();
+                if (latenciaNanos > objetivoNanos) {
+                    // Una reducción como máximo por cada intervalo de objetivo, para no desplomar el límite
+                    if (ahora - ultimaReduccion > objetivoNanos) {
+                        limite = Math.max(limiteMinimo, limite * 0.8);
+                        ultimaReduccion = ahora;
+                    }
+                } else if (enEjecucion + 1 >= (int) limite || enCola > 0) {
+                    limite = Math.min(limiteMaximo, limite + 1.0 / limite);
+                }
+                turno.signal();
+            } finally {
+                bloqueo.unlock();
+            }
+        }
+
+        /**
+         * Tiempo estimado para que se vacíe la cola actual, entre 50 ms y 10 s.
+         */
+        private long reintentarEn() {
+            double estimado = (enCola + 1) * latenciaMedia / Math.max(1, (int) limite);
+            return Math.max(50, Math.min(10_000, TimeUnit.NANOSECONDS.toMillis((long) estimado)));
+        }
+
+        void agregarMetricas(Map<String, Number> metricas) {
+            bloqueo.lock();
+            try {
+                metricas.put(nombre + ".cola", enCola);
+                metricas.put(nombre + ".enEjecucion", enEjecucion);
+                metricas.put(nombre + ".limite", (int) limite);
+                metricas.put(nombre + ".latenciaMediaMs", Math.round(latenciaMedia / 1e4) / 100.0);
+            } finally {
+                bloqueo.unlock();
+            }
+            metricas.put(nombre + ".admitidas", admitidas.get());
+            metricas.put(nombre + ".rechazadasColaLlena", rechazadasCola.get());
+            metricas.put(nombre + ".rechazadasEspera", rechazadasEspera.get());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package servidor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Atiende una trama ya decodificada y produce sus tramas de respuesta.
+ * Es independiente del transporte, para que lo usen tanto las sesiones bloqueantes
+ * como el frente NIO. Toda solicitud pasa por el ControlAdmision de su clase; si no es
+ * admitida se responde de inmediato RESPUESTA_OCUPADO con el tiempo de reintento.
+ * Las admitidas se ejecutan con el EnrutadorComandos. El tiempo que un comando pasa
+ * bloqueado entregando tramas a un cliente lento no cuenta en la latencia de la admisión.
+ */
+public class Despachador {
+    private final ControlAdmision admision;
+    private final EnrutadorComandos enrutador;
+
+    public Despachador() {
+        this(new ControlAdmision(), new EnrutadorComandos());
+    }
+
+    public Despachador(ControlAdmision admision, EnrutadorComandos enrutador) {
+        this.admision = admision;
+        this.enrutador = enrutador;
+    }
+
+    public ControlAdmision getControlAdmision() {
+        return admision;
+    }
+
+    public EnrutadorComandos getEnrutador() {
+        return enrutador;
+    }
+
+    /**
+     * Atiende la solicitud y entrega sus tramas de respuesta a la salida: una sola para
+     * los comandos normales, o varios fragmentos y un fin para los comandos en flujo.
+     * La salida puede bloquear para frenar a un comando en flujo si el cliente lee lento.
+     * conexion identifica la conexión de origen; ver EnrutadorComandos.ejecutar.
+     */
+    public void atender(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida) {
+        int id = solicitud.getIdSolicitud();
+        if (solicitud.getVersion() != Protocolo.VERSION) {
+            salida.accept(Protocolo.error(id, "Versión de protocolo no soportada: " + solicitud.getVersion()));
+            return;
+        }
+        // Las métricas no pasan por la admisión, para poder observar el servidor saturado
+        if (solicitud.getTipo() == Protocolo.METRICAS) {
+            salida.accept(metricas(id));
+            return;
+        }
+        if (!enrutador.conoce(solicitud.getTipo())) {
+            salida.accept(Protocolo.error(id, "Tipo de mensaje no soportado: " + solicitud.getTipo()));
+            return;
+        }
+        // Cortar un flujo libera su cupo de reportes: no espera ni se rechaza en la admisión
+        if (solicitud.getTipo() == Protocolo.CANCELAR_FLUJO) {
+            enrutador.ejecutar(solicitud, conexion, salida);
+            return;
+        }
+        SalidaMedida medida = new SalidaMedida(salida);
+        ByteBuffer rechazo = admision.ejecutar(Protocolo.clasificar(solicitud.getTipo()), () -> {
+            enrutador.ejecutar(solicitud, conexion, medida);
+            return null;
+        }, reintento -> Protocolo.ocupado(id, reintento), medida::getEsperaNanos);
+        if (rechazo != null) {
+            salida.accept(rechazo);
+        }
+    }
+
+    /**
+     * Salida que acumula el tiempo bloqueado en entregar tramas (contrapresión del socket).
+     */
+    private static final class SalidaMedida implements Consumer<ByteBuffer> {
+        private final Consumer<ByteBuffer> salida;
+        private final LongAdder esperaNanos = new LongAdder();
+
+        SalidaMedida(Consumer<ByteBuffer> salida) {
+            this.salida = salida;
+        }
+
+        @Override
+        public void accept(ByteBuffer trama) {
+            long inicio = System.nanoTime();
+            try {
+                salida.accept(trama);
+            } finally {
+                esperaNanos.add(System.nanoTime() - inicio);
+            }
+        }
+
+        long getEsperaNanos() {
+            return esperaNanos.sum();
+        }
+    }
+
+    /**
+     * Respuesta de METRICAS: lista de textos "nombre=valor" de la admisión y de los comandos.
+     */
+    private ByteBuffer metricas(int id) {
+        Map<String, Number> todas = new LinkedHashMap<>(admision.getMetricas());
+        todas.putAll(enrutador.getMetricas());
+        List<String> lineas = new ArrayList<>();
+        for (Map.Entry<String, Number> e : todas.entrySet()) {
+            lineas.add(e.getKey() + "=" + e.getValue());
+        }
+        return Protocolo.codificar(Protocolo.RESPUESTA_OK, id,
+                b -> CodecModelo.escribirLista(b, lineas, CodecModelo::escribirTexto));
+    }
+}
@@ -0,0 +1,147 @@
+package servidor;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+
+/**
+ * Arma la respuesta en flujo de una lista grande: acumula filas codificadas en un búfer
+ * de tamaño fijo y, cuando se llena o alcanza FILAS_POR_FRAGMENTO, lo envía como una trama
+ * RESPUESTA_FRAGMENTO (opcionalmente comprimida con Deflate). Al terminar envía
+ * RESPUESTA_FIN con el total. La memoria usada no depende del tamaño del resultado.
+ *
+ * Cuerpo de cada fragmento: banderas (byte) | filas (varint) | [tamaño original (varint)] | datos
+ *
+ * Si el cliente cancela el flujo, la siguiente fila lanza FlujoCancelado, que corta al
+ * productor y con él el recorrido del cursor de la BD.
+ */
+class EmisorFragmentos<T> implements Consumer<T> {
+    static final int FILAS_POR_FRAGMENTO = 500;
+    static final int BYTES_POR_FRAGMENTO = 32 * 1024;
+    static final byte COMPRIMIDO = 1;
+
+    private final int idSolicitud;
+    private final BiConsumer<ByteBuffer, T> escritor;
+    private final Consumer<ByteBuffer> salida;
+    private final Deflater compresor;
+    private ByteBuffer filas = ByteBuffer.allocate(BYTES_POR_FRAGMENTO * 2);
+    private byte[] comprimidos;
+    private int filasEnFragmento;
+    private long total;
+    private volatile boolean cancelado;
+
+    EmisorFragmentos(int idSolicitud, BiConsumer<ByteBuffer, T> escritor, boolean comprimir, Consumer<ByteBuffer> salida) {
+        this.idSolicitud = idSolicitud;
+        this.escritor = escritor;
+        this.salida = salida;
+        this.compresor = comprimir ? new Deflater(Deflater.BEST_SPEED) : null;
+    }
+
+    @Override
+    public void accept(T fila) {
+        if (cancelado) {
+            throw new FlujoCancelado();
+        }
+        while (true) {
+            int inicio = filas.position();
+            try {
+                escritor.accept(filas, fila);
+                break;
+            } catch (BufferOverflowException e) {
+                filas.position(inicio);
+                if (filasEnFragmento > 0) {
+                    enviarFragmento();
+                } else {
+                    // Una sola fila no cabe: se agranda el búfer
+                    filas = ByteBuffer.allocate(filas.capacity() * 2);
+                }
+            }
+        }
+        filasEnFragmento++;
+        total++;
+        if (filasEnFragmento >= FILAS_POR_FRAGMENTO || filas.position() >= BYTES_POR_FRAGMENTO) {
+            enviarFragmento();
+        }
+    }
+
+    /**
+     * Envía lo que quede pendiente y la trama de fin.
+     */
+    void terminar() {
+        if (filasEnFragmento > 0) {
+            enviarFragmento();
+        }
+        if (compresor != null) {
+            compresor.end();
+        }
+        salida.accept(Protocolo.codificar(Protocolo.RESPUESTA_FIN, idSolicitud, b -> b.putLong(total)));
+    }
+
+    /**
+     * Pide cortar el flujo; puede llamarse desde otro hilo.
+     */
+    void cancelar() {
+        cancelado = true;
+    }
+
+    /**
+     * Libera el compresor si el flujo se interrumpe por un error.
+     */
+    void abortar() {
+        if (compresor != null) {
+            compresor.end();
+        }
+    }
+
+    private void enviarFragmento() {
+        int tamano = filas.position();
+        int cantidad = filasEnFragmento;
+        ByteBuffer trama;
+        if (compresor != null) {
+            int comprimido = comprimir(filas.array(), tamano);
+            trama = Protocolo.codificar(Protocolo.RESPUESTA_FRAGMENTO, idSolicitud, b -> {
+                b.put(COMPRIMIDO);
+                CodecModelo.escribirVarint(b, cantidad);
+                CodecModelo.escribirVarint(b, tamano);
+                b.put(comprimidos, 0, comprimido);
+            });
+        } else {
+            trama = Protocolo.codificar(Protocolo.RESPUESTA_FRAGMENTO, idSolicitud, b -> {
+                b.put((byte) 0);
+                CodecModelo.escribirVarint(b, cantidad);
+                b.put(filas.array(), 0, tamano);
+            });
+        }
+        filas.clear();
+        filasEnFragmento = 0;
+        salida.accept(trama);
+    }
+
+    private int comprimir(byte[] datos, int tamano) {
+        if (comprimidos == null || comprimidos.length < tamano + 64) {
+            comprimidos = new byte[tamano + tamano / 8 + 64];
+        }
+        compresor.reset();
+        compresor.setInput(datos, 0, tamano);
+        compresor.finish();
+        int escritos = 0;
+        while (!compresor.finished()) {
+            if (escritos == comprimidos.length) {
+                comprimidos = java.util.Arrays.copyOf(comprimidos, comprimidos.length * 2);
+            }
+            escritos += compresor.deflate(comprimidos, escritos, comprimidos.length - escritos);
+        }
+        return escritos;
+    }
+
+    /**
+     * Lanzada al productor cuando el cliente canceló el flujo.
+     */
+    static final class FlujoCancelado extends RuntimeException {
+        FlujoCancelado() {
+            super("Flujo cancelado por el cliente", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package servidor;
+
+import logica.ControladorSistema;
+import negocio.alertas.SuscripcionAlertas;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Enruta cada tipo de solicitud a su operación en ControladorSistema y los gestores.
+ * Todas las conexiones comparten un único ControladorSistema (y por lo tanto los mismos
+ * gestores y DAOs), creado la primera vez que llega un comando que lo necesita.
+ * Por cada comando se registra un histograma de latencias, el total atendido y los errores.
+ * Las suscripciones se guardan por conexión: solo la conexión que creó una puede cancelarla,
+ * y al cerrarse la conexión (liberarConexion) se cancelan todas las suyas. Lo mismo con los
+ * flujos en curso, que la conexión puede cortar con CANCELAR_FLUJO.
+ */
+public class EnrutadorComandos {
+
+    private final Supplier<ControladorSistema> controlador;
+    private final Map<Short, Comando<?>> comandos = new LinkedHashMap<>();
+    private final Map<Object, Map<Long, SuscripcionAlertas>> suscripciones = new ConcurrentHashMap<>();
+    private final Map<Object, Map<Integer, EmisorFragmentos<?>>> flujos = new ConcurrentHashMap<>();
+    private final AtomicLong siguienteSuscripcion = new AtomicLong();
+    private final long inicio = System.nanoTime();
+
+    public EnrutadorComandos() {
+        this(EnrutadorComandos::getControladorCompartido);
+    }
+
+    public EnrutadorComandos(Supplier<ControladorSistema> controlador) {
+        this.controlador = controlador;
+        registrarComandos();
+    }
+
+    /**
+     * Controlador único del proceso servidor, creado en el primer uso.
+     */
+    public static ControladorSistema getControladorCompartido() {
+        return ControladorSistema.getCompartido();
+    }
+
+    private void registrarComandos() {
+        registrar(Protocolo.ECO, "eco",
+                b -> "Servidor recibió: " + CodecModelo.leerTexto(b), CodecModelo::escribirTexto);
+        registrar(Protocolo.REGISTRAR_INSPECCION, "registrarInspeccion",
+                b -> controlador.get().getGestorInspecciones().registrarInspeccion(CodecModelo.leerInspeccion(b)),
+                CodecModelo::escribirBooleano);
+        registrar(Protocolo.CONSULTAR_INSPECCION, "consultarInspeccion",
+                b -> controlador.get().getGestorInspecciones().consultarInspeccion(CodecModelo.leerTexto(b)),
+                (b, i) -> CodecModelo.escribirOpcional(b, i, CodecModelo::escribirInspeccion));
+        registrar(Protocolo.LISTAR_INSPECCIONES, "listarInspecciones",
+                b -> controlador.get().getGestorInspecciones().listarInspecciones(),
+                (b, lista) -> CodecModelo.escribirLista(b, lista, CodecModelo::escribirInspeccion));
+        registrar(Protocolo.ENVIAR_SESION_CAMPO, "enviarSesionCampo",
+                b -> controlador.get().aplicarSesionCampo(CodecModelo.leerSesion(b)),
+                CodecModelo::escribirResultadoSesion);
+        registrar(Protocolo.REGISTRAR_RESULTADO, "registrarResultado",
+                b -> controlador.get().getGestorResultados().registrarResultado(CodecModelo.leerResultado(b)),
+                CodecModelo::escribirBooleano);
+        registrar(Protocolo.CONSULTAR_PREDIO, "consultarPredio",
+                b -> controlador.get().getGestorPredios().consultarPredio(CodecModelo.leerTexto(b)),
+                (b, p) -> CodecModelo.escribirOpcional(b, p, CodecModelo::escribirPredio));
+        registrar(Protocolo.LISTAR_ALERTAS_ACTIVAS, "listarAlertasActivas",
+                b -> controlador.get().getGestorAlertas().listarAlertasActivas(),
+                (b, lista) -> CodecModelo.escribirLista(b, lista, CodecModelo::escribirAlerta));
+        registrarConSalida(Protocolo.SUSCRIBIR_ALERTAS, "suscribirAlertas",
+                this::suscribirAlertas, (b, id) -> b.putLong(id));
+        registrarConSalida(Protocolo.CANCELAR_SUSCRIPCION, "cancelarSuscripcion",
+                (solicitud, conexion, salida) -> cancelarSuscripcion(conexion, solicitud.getCuerpo().getLong()),
+                CodecModelo::escribirBooleano);
+        registrarFlujo(Protocolo.LISTAR_PREDIOS_FLUJO, "listarPrediosFlujo",
+                (b, destino) -> controlador.get().getGestorPredios().recorrerPredios(destino),
+                CodecModelo::escribirPredio);
+        registrarFlujo(Protocolo.LISTAR_INFORMES_FLUJO, "listarInformesFlujo",
+                (b, destino) -> controlador.get().getGestorInformes().recorrerInformes(destino),
+                CodecModelo::escribirInforme);
+        registrarConSalida(Protocolo.CANCELAR_FLUJO, "cancelarFlujo",
+                (solicitud, conexion, salida) -> cancelarFlujo(conexion, solicitud.getCuerpo().getInt()),
+                CodecModelo::escribirBooleano);
+    }
+
+    /**
+     * Asocia un tipo de solicitud a una operación. La operación lee su cuerpo y devuelve
+     * un resultado; el escritor lo codifica en la respuesta. La operación se ejecuta una
+     * sola vez aunque la codificación deba reintentarse con un búfer más grande.
+     */
+    public <T> void registrar(short tipo, String nombre, Function<ByteBuffer, T> operacion, BiConsumer<ByteBuffer, T> escritor) {
+        comandos.put(tipo, new Comando<>(nombre, operacion, escritor));
+    }
+
+    /**
+     * Asocia un tipo de solicitud a una operación que además recibe la conexión y su salida,
+     * para seguir enviándole tramas después de responder (por ejemplo, suscripciones).
+     */
+    public <T> void registrarConSalida(short tipo, String nombre, OperacionConSalida<T> operacion, BiConsumer<ByteBuffer, T> escritor) {
+        comandos.put(tipo, new ComandoConSalida<>(nombre, operacion, escritor));
+    }
+
+    /**
+     * Asocia un tipo de solicitud a una operación que entrega sus filas de a una, sin
+     * armar la lista completa. Las filas viajan en fragmentos de EmisorFragmentos; el
+     * primer byte del cuerpo de la solicitud indica si se comprimen.
+     */
+    public <T> void registrarFlujo(short tipo, String nombre, Productor<T> productor, BiConsumer<ByteBuffer, T> escritor) {
+        comandos.put(tipo, new ComandoFlujo<>(nombre, productor, escritor));
+    }
+
+    public boolean conoce(short tipo) {
+        return comandos.containsKey(tipo);
+    }
+
+    /**
+     * Ejecuta la solicitud. conexion identifica la conexión que la envió (cualquier objeto
+     * único por conexión) y es dueña de las suscripciones que se creen.
+     */
+    public void ejecutar(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida) {
+        Comando<?> comando = comandos.get(solicitud.getTipo());
+        if (comando == null) {
+            salida.accept(Protocolo.error(solicitud.getIdSolicitud(), "Tipo de mensaje no soportado: " + solicitud.getTipo()));
+            return;
+        }
+        long t0 = System.nanoTime();
+        try {
+            comando.ejecutar(solicitud, conexion, salida);
+        } finally {
+            comando.latencias.registrarNanos(System.nanoTime() - t0);
+        }
+    }
+
+    /**
+     * Suscribe la conexión a las alertas nuevas. Cada lote sale como RESPUESTA_ALERTAS con
+     * el id de la solicitud de alta; si la conexión ya no acepta tramas, se da de baja sola.
+     */
+    private long suscribirAlertas(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida) {
+        ByteBuffer cuerpo = solicitud.getCuerpo();
+        String nivelMinimo = CodecModelo.leerOpcional(cuerpo, CodecModelo::leerTexto);
+        String idDepartamento = CodecModelo.leerOpcional(cuerpo, CodecModelo::leerTexto);
+        int idSolicitud = solicitud.getIdSolicitud();
+        long id = siguienteSuscripcion.incrementAndGet();
+        SuscripcionAlertas suscripcion = controlador.get().getGestorAlertas().suscribir(nivelMinimo, idDepartamento,
+                (alertas, omitidas) -> salida.accept(Protocolo.codificar(Protocolo.RESPUESTA_ALERTAS, idSolicitud, b -> {
+                    CodecModelo.escribirVarint(b, omitidas);
+                    CodecModelo.escribirLista(b, alertas, CodecModelo::escribirAlerta);
+                })));
+        suscripciones.computeIfAbsent(conexion, k -> new ConcurrentHashMap<>()).put(id, suscripcion);
+        return id;
+    }
+
+    /**
+     * Cancela una suscripción de la conexión; los ids de otras conexiones se ignoran.
+     */
+    private boolean cancelarSuscripcion(Object conexion, long id) {
+        Map<Long, SuscripcionAlertas> propias = suscripciones.get(conexion);
+        SuscripcionAlertas suscripcion = propias != null ? propias.remove(id) : null;
+        if (suscripcion == null) {
+            return false;
+        }
+        suscripcion.cancelar();
+        return true;
+    }
+
+    /**
+     * Corta un flujo en curso de la conexión; los ids de otras conexiones se ignoran.
+     * Si el flujo aún no empezaba o ya terminó no hay nada que cortar.
+     */
+    private boolean cancelarFlujo(Object conexion, int idSolicitud) {
+        Map<Integer, EmisorFragmentos<?>> propios = flujos.get(conexion);
+        EmisorFragmentos<?> emisor = propios != null ? propios.get(idSolicitud) : null;
+        if (emisor == null) {
+            return false;
+        }
+        emisor.cancelar();
+        return true;
+    }
+
+    private void agregarFlujo(Object conexion, int idSolicitud, EmisorFragmentos<?> emisor) {
+        flujos.compute(conexion, (k, propios) -> {
+            if (propios == null) propios = new ConcurrentHashMap<>();
+            propios.put(idSolicitud, emisor);
+            return propios;
+        });
+    }
+
+    private void quitarFlujo(Object conexion, int idSolicitud, EmisorFragmentos<?> emisor) {
+        flujos.computeIfPresent(conexion, (k, propios) -> {
+            propios.remove(idSolicitud, emisor);
+            return propios.isEmpty() ? null : propios;
+        });
+    }
+
+    /**
+     * Cancela las suscripciones y corta los flujos de una conexión que se cerró.
+     */
+    public void liberarConexion(Object conexion) {
+        Map<Long, SuscripcionAlertas> propias = suscripciones.remove(conexion);
+        if (propias != null) {
+            propias.values().forEach(SuscripcionAlertas::cancelar);
+        }
+        Map<Integer, EmisorFragmentos<?>> propios = flujos.remove(conexion);
+        if (propios != null) {
+            propios.values().forEach(EmisorFragmentos::cancelar);
+        }
+    }
+
+    /**
+     * Atendidas, errores, solicitudes por segundo y percentiles de latencia de cada comando.
+     */
+    public Map<String, Number> getMetricas() {
+        Map<String, Number> metricas = new LinkedHashMap<>();
+        double segundos = Math.max(1e-9, (System.nanoTime() - inicio) / 1e9);
+        int activas = 0;
+        for (Map<Long, SuscripcionAlertas> propias : suscripciones.values()) {
+            propias.values().removeIf(s -> !s.isActiva());
+            activas += propias.size();
+        }
+        suscripciones.values().removeIf(Map::isEmpty);
+        metricas.put("suscripciones.activas", activas);
+        for (Comando<?> c : comandos.values()) {
+            HistogramaLatencia h = c.latencias;
+            if (h.getCuenta() == 0 && c.errores.get() == 0) continue;
+            String prefijo = "comando." + c.nombre;
+            metricas.put(prefijo + ".atendidas", h.getCuenta());
+            metricas.put(prefijo + ".errores", c.errores.get());
+            metricas.put(prefijo + ".porSegundo", Math.round(h.getCuenta() / segundos * 100) / 100.0);
+            metricas.put(prefijo + ".p50Us", h.percentilMicros(50));
+            metricas.put(prefijo + ".p99Us", h.percentilMicros(99));
+            metricas.put(prefijo + ".maxUs", h.getMaximoMicros());
+        }
+        return metricas;
+    }
+
+    public HistogramaLatencia getLatencias(short tipo) {
+        Comando<?> c = comandos.get(tipo);
+        return c != null ? c.latencias : null;
+    }
+
+    /**
+     * Operación de un comando en flujo: lee su solicitud y entrega cada fila al destino.
+     */
+    @FunctionalInterface
+    public interface Productor<T> {
+        void producir(ByteBuffer solicitud, Consumer<T> destino) throws Exception;
+    }
+
+    private static class Comando<T> {
+        final String nombre;
+        final Function<ByteBuffer, T> operacion;
+        final BiConsumer<ByteBuffer, T> escritor;
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+        final AtomicLong errores = new AtomicLong();
+
+        Comando(String nombre, Function<ByteBuffer, T> operacion, BiConsumer<ByteBuffer, T> escritor) {
+            this.nombre = nombre;
+            this.operacion = operacion;
+            this.escritor = escritor;
+        }
+
+        void ejecutar(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida) {
+            ByteBuffer respuesta;
+            try {
+                T resultado = aplicar(solicitud, conexion, salida);
+                respuesta = Protocolo.codificar(Protocolo.RESPUESTA_OK, solicitud.getIdSolicitud(),
+                        b -> escritor.accept(b, resultado));
+            } catch (RuntimeException e) {
+                errores.incrementAndGet();
+                e.printStackTrace();
+                respuesta = Protocolo.error(solicitud.getIdSolicitud(), nombre + ": " + e);
+            }
+            salida.accept(respuesta);
+        }
+
+        T aplicar(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida) {
+            return operacion.apply(solicitud.getCuerpo());
+        }
+    }
+
+    /**
+     * Operación de un comando que necesita la conexión y su salida.
+     */
+    @FunctionalInterface
+    public interface OperacionConSalida<T> {
+        T aplicar(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida);
+    }
+
+    private static class ComandoConSalida<T> extends Comando<T> {
+        final OperacionConSalida<T> operacionConSalida;
+
+        ComandoConSalida(String nombre, OperacionConSalida<T> operacion, BiConsumer<ByteBuffer, T> escritor) {
+            super(nombre, null, escritor);
+            this.operacionConSalida = operacion;
+        }
+
+        @Override
+        T aplicar(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida) {
+            return operacionConSalida.aplicar(solicitud, conexion, salida);
+        }
+    }
+
+    private class ComandoFlujo<T> extends Comando<T> {
+        final Productor<T> productor;
+
+        ComandoFlujo(String nombre, Productor<T> productor, BiConsumer<ByteBuffer, T> escritor) {
+            super(nombre, null, escritor);
+            this.productor = productor;
+        }
+
+        @Override
+        void ejecutar(Mensaje solicitud, Object conexion, Consumer<ByteBuffer> salida) {
+            ByteBuffer cuerpo = solicitud.getCuerpo();
+            boolean comprimir = cuerpo.hasRemaining() && CodecModelo.leerBooleano(cuerpo);
+            int id = solicitud.getIdSolicitud();
+            EmisorFragmentos<T> emisor = new EmisorFragmentos<>(id, escritor, comprimir, salida);
+            agregarFlujo(conexion, id, emisor);
+            try {
+                productor.producir(cuerpo, emisor);
+            } catch (EmisorFragmentos.FlujoCancelado e) {
+                emisor.abortar();
+                salida.accept(Protocolo.error(id, nombre + ": cancelado"));
+                return;
+            } catch (Exception e) {
+                // Los fragmentos ya enviados se descartan en el cliente al recibir el error
+                errores.incrementAndGet();
+                e.printStackTrace();
+                emisor.abortar();
+                salida.accept(Protocolo.error(id, nombre + ": " + e));
+                return;
+            } finally {
+                quitarFlujo(conexion, id, emisor);
+            }
+            emisor.terminar();
+        }
+    }
+}
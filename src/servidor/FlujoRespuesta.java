@@ -0,0 +1,162 @@
+package servidor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lado cliente de una respuesta en flujo: recorre las filas a medida que llegan los
+ * fragmentos. Como mucho se guardan FRAGMENTOS_EN_COLA fragmentos sin leer; si el
+ * consumidor va más lento, el lector de la conexión espera y TCP frena al servidor.
+ * Los errores no esperan: vacían la cola y quedan como siguiente elemento. Cerrar el flujo
+ * antes de terminar descarta los fragmentos restantes y le pide al servidor que lo corte.
+ */
+public class FlujoRespuesta<T> implements Iterator<T>, Closeable {
+    static final int FRAGMENTOS_EN_COLA = 16;
+
+    private final Function<ByteBuffer, T> lector;
+    private final BlockingQueue<Object> cola = new ArrayBlockingQueue<>(FRAGMENTOS_EN_COLA);
+    private final Runnable alCerrar;
+    private final Runnable alCancelar;
+    private Inflater descompresor;
+    private ByteBuffer actual;
+    private int filasRestantes;
+    private boolean terminado;
+    private volatile boolean cerrado;
+    private long total = -1;
+
+    FlujoRespuesta(Function<ByteBuffer, T> lector, Runnable alCerrar, Runnable alCancelar) {
+        this.lector = lector;
+        this.alCerrar = alCerrar;
+        this.alCancelar = alCancelar;
+    }
+
+    /**
+     * Lo llama el hilo lector de la conexión con cada trama del flujo. Espera si la cola
+     * está llena.
+     */
+    void recibir(Mensaje trama) {
+        if (cerrado) return;
+        try {
+            cola.put(trama);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lo llama el hilo lector con la excepción que interrumpió el flujo. No espera aunque
+     * nadie esté leyendo: si lo hiciera, una conexión caída dejaría al lector bloqueado y
+     * sin fallar las demás solicitudes. Las filas sin leer se descartan.
+     */
+    void fallar(Exception causa) {
+        if (cerrado) return;
+        // Solo el hilo lector agrega a la cola, así que tras vaciarla siempre hay lugar
+        cola.clear();
+        cola.offer(causa);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (filasRestantes == 0 && !terminado) {
+            siguienteFragmento();
+        }
+        return filasRestantes > 0;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        filasRestantes--;
+        return lector.apply(actual);
+    }
+
+    /**
+     * Total de filas que informó el servidor, o -1 si el flujo aún no termina.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (cerrado) return;
+        cerrado = true;
+        cola.clear();
+        if (descompresor != null) descompresor.end();
+        alCerrar.run();
+        if (!terminado) {
+            alCancelar.run();
+        }
+    }
+
+    private void siguienteFragmento() {
+        Object elemento;
+        try {
+            elemento = cola.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lectura del flujo interrumpida", e);
+        }
+        if (elemento instanceof RuntimeException e) {
+            terminar();
+            throw e;
+        }
+        if (elemento instanceof IOException e) {
+            terminar();
+            throw new UncheckedIOException(e);
+        }
+        Mensaje m = (Mensaje) elemento;
+        ByteBuffer cuerpo = m.getCuerpo();
+        if (m.getTipo() == Protocolo.RESPUESTA_FIN) {
+            total = cuerpo.getLong();
+            terminar();
+            return;
+        }
+        byte banderas = cuerpo.get();
+        filasRestantes = CodecModelo.leerVarint(cuerpo);
+        if ((banderas & EmisorFragmentos.COMPRIMIDO) != 0) {
+            int tamano = CodecModelo.leerVarint(cuerpo);
+            actual = ByteBuffer.wrap(descomprimir(cuerpo, tamano));
+        } else {
+            actual = cuerpo;
+        }
+    }
+
+    private byte[] descomprimir(ByteBuffer cuerpo, int tamano) {
+        if (descompresor == null) descompresor = new Inflater();
+        descompresor.reset();
+        descompresor.setInput(cuerpo);
+        byte[] datos = new byte[tamano];
+        try {
+            int leidos = 0;
+            while (leidos < tamano && !descompresor.finished()) {
+                int n = descompresor.inflate(datos, leidos, tamano - leidos);
+                if (n == 0 && (descompresor.needsInput() || descompresor.needsDictionary())) break;
+                leidos += n;
+            }
+            if (leidos != tamano) {
+                throw new IllegalStateException("Fragmento comprimido incompleto");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Fragmento comprimido inválido", e);
+        }
+        return datos;
+    }
+
+    private void terminar() {
+        terminado = true;
+        filasRestantes = 0;
+        close();
+    }
+}
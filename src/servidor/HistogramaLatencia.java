@@ -0,0 +1,107 @@
+package servidor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias log-lineal, sin bloqueos, en microsegundos. Cada potencia de
+ * dos se divide en 16 sub-cubetas, así que cualquier percentil tiene un error relativo
+ * menor al 6.25% en todo el rango (1 µs a unas 19 horas) con memoria fija de 4 KB.
+ */
+public class HistogramaLatencia {
+    private static final int SUB_CUBETAS = 16;
+    private static final int BITS_SUB = 4;
+    private static final int EXPONENTES = 33;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(EXPONENTES * SUB_CUBETAS);
+    private final AtomicLong cuenta = new AtomicLong();
+    private final AtomicLong sumaMicros = new AtomicLong();
+    private final AtomicLong maximoMicros = new AtomicLong();
+
+    public void registrarNanos(long nanos) {
+        registrarMicros(Math.max(0, nanos / 1000));
+    }
+
+    public void registrarMicros(long micros) {
+        cubetas.incrementAndGet(indice(micros));
+        cuenta.incrementAndGet();
+        sumaMicros.addAndGet(micros);
+        maximoMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Suma los registros de otro histograma a este.
+     */
+    public void agregar(HistogramaLatencia otro) {
+        for (int i = 0; i < cubetas.length(); i++) {
+            long n = otro.cubetas.get(i);
+            if (n != 0) cubetas.addAndGet(i, n);
+        }
+        cuenta.addAndGet(otro.cuenta.get());
+        sumaMicros.addAndGet(otro.sumaMicros.get());
+        maximoMicros.accumulateAndGet(otro.maximoMicros.get(), Math::max);
+    }
+
+    public long getCuenta() {
+        return cuenta.get();
+    }
+
+    public long getMaximoMicros() {
+        return maximoMicros.get();
+    }
+
+    public double getMediaMicros() {
+        long n = cuenta.get();
+        return n == 0 ? 0 : sumaMicros.get() / (double) n;
+    }
+
+    /**
+     * Valor (en µs) bajo el cual queda el porcentaje indicado de los registros (0-100).
+     * Devuelve el límite superior de la cubeta, acotado por el máximo observado.
+     */
+    public long percentilMicros(double porcentaje) {
+        long total = cuenta.get();
+        if (total == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(total * porcentaje / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length(); i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximoMicros.get());
+            }
+        }
+        return maximoMicros.get();
+    }
+
+    /**
+     * Bloque 0: valores exactos 0-15. Bloque k >= 1: valores con el bit más alto en la
+     * posición k + 3, repartidos en 16 sub-cubetas iguales.
+     */
+    private static int indice(long micros) {
+        if (micros < SUB_CUBETAS) {
+            return (int) micros;
+        }
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(micros) - BITS_SUB;
+        if (desplazamiento + 1 >= EXPONENTES) {
+            return EXPONENTES * SUB_CUBETAS - 1;
+        }
+        int sub = (int) (micros >>> desplazamiento) - SUB_CUBETAS;
+        return (desplazamiento + 1) * SUB_CUBETAS + sub;
+    }
+
+    private static long limiteSuperior(int indice) {
+        int bloque = indice / SUB_CUBETAS;
+        int sub = indice % SUB_CUBETAS;
+        if (bloque == 0) {
+            return sub;
+        }
+        return ((long) (sub + SUB_CUBETAS + 1) << (bloque - 1)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d media=%.1fµs p50=%dµs p90=%dµs p99=%dµs p99.9=%dµs máx=%dµs",
+                getCuenta(), getMediaMicros(), percentilMicros(50), percentilMicros(90),
+                percentilMicros(99), percentilMicros(99.9), getMaximoMicros());
+    }
+}
@@ -0,0 +1,45 @@
+package servidor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Trama recibida: tipo de mensaje, versión del protocolo, id de solicitud y cuerpo.
+ * El cuerpo es una vista (slice) sobre el búfer de lectura, sin copiar bytes.
+ */
+public class Mensaje {
+    private final byte version;
+    private final short tipo;
+    private final int idSolicitud;
+    private final ByteBuffer cuerpo;
+
+    public Mensaje(byte version, short tipo, int idSolicitud, ByteBuffer cuerpo) {
+        this.version = version;
+        this.tipo = tipo;
+        this.idSolicitud = idSolicitud;
+        this.cuerpo = cuerpo;
+    }
+
+    public byte getVersion() {
+        return version;
+    }
+
+    public short getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Id que el cliente asignó a la solicitud; la respuesta lleva el mismo id.
+     */
+    public int getIdSolicitud() {
+        return idSolicitud;
+    }
+
+    public ByteBuffer getCuerpo() {
+        return cuerpo;
+    }
+
+    @Override
+    public String toString() {
+        return "Mensaje[tipo=" + tipo + ", id=" + idSolicitud + ", v" + version + ", " + cuerpo.remaining() + " bytes]";
+    }
+}
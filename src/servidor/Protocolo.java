@@ -0,0 +1,240 @@
+package servidor;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Formato de trama binario entre Cliente y Servidor. Cada trama es:
+ *
+ *   longitud (int, bytes que siguen) | versión (byte) | tipo (short) | id de solicitud (int) | cuerpo
+ *
+ * El cuerpo se codifica con CodecModelo directamente sobre ByteBuffer, sin
+ * serialización de Java ni flujos intermedios. El id de solicitud permite tener muchas
+ * solicitudes en vuelo por conexión: el servidor responde con el mismo id, en cualquier orden.
+ */
+public final class Protocolo {
+    public static final byte VERSION = 3;
+    /** Bytes de la cabecera después del campo longitud: versión + tipo + id de solicitud. */
+    public static final int CABECERA = 7;
+    public static final int MAX_TRAMA = 16 * 1024 * 1024;
+
+    // Solicitudes
+    public static final short ECO = 1;
+    public static final short REGISTRAR_INSPECCION = 10;
+    public static final short CONSULTAR_INSPECCION = 11;
+    public static final short LISTAR_INSPECCIONES = 12;
+    /** Sesión de campo completa (SesionCampo) aplicada en una transacción. */
+    public static final short ENVIAR_SESION_CAMPO = 13;
+    public static final short REGISTRAR_RESULTADO = 20;
+    public static final short CONSULTAR_PREDIO = 30;
+    /** Todos los predios, en flujo. Cuerpo: comprimir (booleano). */
+    public static final short LISTAR_PREDIOS_FLUJO = 31;
+    public static final short LISTAR_ALERTAS_ACTIVAS = 40;
+    /**
+     * Alta de una suscripción a alertas nuevas. Cuerpo: nivel mínimo (texto opcional) y
+     * departamento (texto opcional). Responde el id de la suscripción (long) y luego envía
+     * RESPUESTA_ALERTAS con el id de esta solicitud hasta que se cancela.
+     */
+    public static final short SUSCRIBIR_ALERTAS = 41;
+    /** Baja de una suscripción. Cuerpo: id de la suscripción (long). */
+    public static final short CANCELAR_SUSCRIPCION = 42;
+    /** Todos los informes fitosanitarios, en flujo. Cuerpo: comprimir (booleano). */
+    public static final short LISTAR_INFORMES_FLUJO = 50;
+    /**
+     * Corta un flujo en curso de la misma conexión. Cuerpo: id de la solicitud del flujo (int).
+     * Responde si el flujo seguía en curso (booleano); el flujo termina con RESPUESTA_ERROR.
+     */
+    public static final short CANCELAR_FLUJO = 51;
+    public static final short METRICAS = 90;
+
+    // Respuestas
+    public static final short RESPUESTA_OK = 100;
+    public static final short RESPUESTA_ERROR = 101;
+    /** Rechazo por sobrecarga. Cuerpo: milisegundos sugeridos antes de reintentar (int). */
+    public static final short RESPUESTA_OCUPADO = 102;
+    /** Parte de una respuesta en flujo; ver EmisorFragmentos para el formato del cuerpo. */
+    public static final short RESPUESTA_FRAGMENTO = 103;
+    /** Cierre de una respuesta en flujo. Cuerpo: total de filas enviadas (long). */
+    public static final short RESPUESTA_FIN = 104;
+    /** Lote de alertas de una suscripción. Cuerpo: omitidas (varint) | lista de alertas. */
+    public static final short RESPUESTA_ALERTAS = 105;
+
+    private Protocolo() {
+    }
+
+    /**
+     * Arma una trama lista para enviar. El escritor vuelca el cuerpo en el búfer; si no cabe,
+     * se reintenta con el doble de capacidad.
+     */
+    public static ByteBuffer codificar(short tipo, int idSolicitud, Consumer<ByteBuffer> escritor) {
+        int capacidad = 256;
+        while (true) {
+            ByteBuffer buf = ByteBuffer.allocate(capacidad);
+            try {
+                buf.position(4);
+                buf.put(VERSION);
+                buf.putShort(tipo);
+                buf.putInt(idSolicitud);
+                if (escritor != null) {
+                    escritor.accept(buf);
+                }
+                buf.putInt(0, buf.position() - 4);
+                return buf.flip();
+            } catch (BufferOverflowException e) {
+                if (capacidad >= MAX_TRAMA) {
+                    throw new IllegalArgumentException("El mensaje supera el tamaño máximo de trama.");
+                }
+                capacidad *= 2;
+            }
+        }
+    }
+
+    /**
+     * Respuesta de error con un texto explicativo.
+     */
+    public static ByteBuffer error(int idSolicitud, String mensaje) {
+        return codificar(RESPUESTA_ERROR, idSolicitud, b -> CodecModelo.escribirTexto(b, mensaje));
+    }
+
+    public static ByteBuffer ocupado(int idSolicitud, int reintentarEnMs) {
+        return codificar(RESPUESTA_OCUPADO, idSolicitud, b -> b.putInt(reintentarEnMs));
+    }
+
+    /**
+     * Clase de admisión de cada tipo de solicitud.
+     */
+    public static ControlAdmision.ClaseSolicitud clasificar(short tipo) {
+        switch (tipo) {
+            case REGISTRAR_INSPECCION:
+            case ENVIAR_SESION_CAMPO:
+            case REGISTRAR_RESULTADO:
+                return ControlAdmision.ClaseSolicitud.ESCRITURA;
+            case LISTAR_INSPECCIONES:
+            case LISTAR_ALERTAS_ACTIVAS:
+            case LISTAR_PREDIOS_FLUJO:
+            case LISTAR_INFORMES_FLUJO:
+                return ControlAdmision.ClaseSolicitud.REPORTE;
+            default:
+                return ControlAdmision.ClaseSolicitud.LECTURA;
+        }
+    }
+
+    /**
+     * Extrae una trama completa del búfer acumulado (en modo lectura), o devuelve null si
+     * aún faltan bytes. El cuerpo devuelto comparte memoria con el búfer.
+     */
+    public static Mensaje extraer(ByteBuffer acumulado) throws IOException {
+        if (acumulado.remaining() < 4) {
+            return null;
+        }
+        int inicio = acumulado.position();
+        int longitud = acumulado.getInt(inicio);
+        if (longitud < CABECERA || longitud > MAX_TRAMA) {
+            throw new IOException("Longitud de trama inválida: " + longitud);
+        }
+        if (acumulado.remaining() < 4 + longitud) {
+            return null;
+        }
+        byte version = acumulado.get(inicio + 4);
+        short tipo = acumulado.getShort(inicio + 5);
+        int idSolicitud = acumulado.getInt(inicio + 7);
+        ByteBuffer cuerpo = acumulado.slice(inicio + 4 + CABECERA, longitud - CABECERA);
+        acumulado.position(inicio + 4 + longitud);
+        return new Mensaje(version, tipo, idSolicitud, cuerpo);
+    }
+
+    /**
+     * Lee una trama de un flujo bloqueante. Devuelve null si el otro extremo cerró la conexión.
+     */
+    public static Mensaje leer(InputStream entrada) throws IOException {
+        DataInputStream datos = entrada instanceof DataInputStream d ? d : new DataInputStream(entrada);
+        int longitud;
+        try {
+            longitud = datos.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (longitud < CABECERA || longitud > MAX_TRAMA) {
+            throw new IOException("Longitud de trama inválida: " + longitud);
+        }
+        byte[] trama = new byte[4 + longitud];
+        ByteBuffer.wrap(trama).putInt(longitud);
+        datos.readFully(trama, 4, longitud);
+        return extraer(ByteBuffer.wrap(trama));
+    }
+
+    /**
+     * Lector de tramas de un flujo bloqueante con tiempo de espera. Si la lectura vence a
+     * mitad de una trama, lo leído se conserva y la siguiente llamada sigue donde quedó, en
+     * lugar de empezar a leer una longitud en medio de la trama.
+     */
+    static final class LectorTramas {
+        private final InputStream entrada;
+        private final byte[] prefijo = new byte[4];
+        /** Trama en lectura (con su longitud al inicio), o null mientras se lee la longitud. */
+        private byte[] trama;
+        private int leidos;
+
+        LectorTramas(InputStream entrada) {
+            this.entrada = entrada;
+        }
+
+        /**
+         * Lee la siguiente trama. Devuelve null si el otro extremo cerró la conexión entre
+         * tramas; si la cierra a mitad de una, lanza EOFException.
+         */
+        Mensaje leer() throws IOException {
+            while (trama == null) {
+                int n = entrada.read(prefijo, leidos, 4 - leidos);
+                if (n < 0) {
+                    if (leidos == 0) return null;
+                    throw new EOFException("Conexión cerrada a mitad de una trama");
+                }
+                leidos += n;
+                if (leidos == 4) {
+                    int longitud = ByteBuffer.wrap(prefijo).getInt();
+                    if (longitud < CABECERA || longitud > MAX_TRAMA) {
+                        throw new IOException("Longitud de trama inválida: " + longitud);
+                    }
+                    trama = new byte[4 + longitud];
+                    System.arraycopy(prefijo, 0, trama, 0, 4);
+                }
+            }
+            while (leidos < trama.length) {
+                int n = entrada.read(trama, leidos, trama.length - leidos);
+                if (n < 0) throw new EOFException("Conexión cerrada a mitad de una trama");
+                leidos += n;
+            }
+            ByteBuffer completa = ByteBuffer.wrap(trama);
+            trama = null;
+            leidos = 0;
+            return extraer(completa);
+        }
+
+        /**
+         * Si ya se leyó parte de una trama que aún no termina.
+         */
+        boolean enTrama() {
+            return leidos > 0;
+        }
+    }
+
+    /**
+     * Escribe una trama codificada en un flujo bloqueante (sin hacer flush).
+     */
+    public static void escribir(OutputStream salida, ByteBuffer trama) throws IOException {
+        if (trama.hasArray()) {
+            salida.write(trama.array(), trama.arrayOffset() + trama.position(), trama.remaining());
+        } else {
+            byte[] copia = new byte[trama.remaining()];
+            trama.duplicate().get(copia);
+            salida.write(copia);
+        }
+    }
+}
@@ -2,14 +2,94 @@ package servidor;
 
 import java.io.*;
 import java.net.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class Servidor {
-    public static void main(String[] args) {
-        try (ServerSocket serverSocket = new ServerSocket(5000)) {
-            System.out.println("Servidor en ejecución. Esperando clientes...");
+/**
+ * Servidor de inspecciones. Cada conexión es una sesión persistente que atiende muchas
+ * solicitudes. En modo bloqueante cada sesión corre en su propio hilo virtual; en modo
+ * NIO (ServidorNio) un grupo pequeño de Selectors atiende todas las conexiones.
+ *
+ * Propiedades del sistema:
+ *  servidor.modo            "bloqueante" (por defecto) o "nio"
+ *  servidor.puerto          puerto de escucha (5000)
+ *  servidor.maxConexiones   sesiones simultáneas permitidas (10000)
+ *  servidor.inactividadMs   cierre de sesiones inactivas, 0 = nunca (300000)
+ *  servidor.buclesNio       bucles de eventos del modo NIO (mín(4, núcleos))
+ *  servidor.maxEnVuelo      solicitudes atendidas a la vez por conexión (64)
+ */
+public class Servidor implements Closeable {
+    public static final int PUERTO = Integer.getInteger("servidor.puerto", 5000);
+    public static final int MAX_CONEXIONES = Integer.getInteger("servidor.maxConexiones", 10000);
+    public static final int INACTIVIDAD_MS = Integer.getInteger("servidor.inactividadMs", 300000);
+    public static final int BUCLES_NIO = Integer.getInteger("servidor.buclesNio",
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+    public static final int MAX_EN_VUELO = Integer.getInteger("servidor.maxEnVuelo", 64);
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService hilos;
+    private final Semaphore cupos;
+
+    public Servidor(int puerto, int maxConexiones) throws IOException {
+        this.serverSocket = new ServerSocket(puerto, 1024);
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        this.cupos = new Semaphore(maxConexiones);
+    }
+
+    public int getPuerto() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Acepta conexiones hasta que se cierre el servidor.
+     */
+    public void atender() {
+        try {
             while (true) {
-                Socket socket = serverSocket.accept();
-                new Thread(new ManejadorCliente(socket)).start();
+                cupos.acquire();
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    cupos.release();
+                    throw e;
+                }
+                hilos.execute(() -> {
+                    try {
+                        new ManejadorCliente(socket).run();
+                    } finally {
+                        cupos.release();
+                    }
+                });
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    public static void main(String[] args) {
+        String modo = System.getProperty("servidor.modo", "bloqueante");
+        try {
+            if ("nio".equalsIgnoreCase(modo)) {
+                ServidorNio servidor = new ServidorNio(PUERTO, BUCLES_NIO, Executors.newVirtualThreadPerTaskExecutor(),
+                        new Despachador(), MAX_CONEXIONES);
+                System.out.println("Servidor NIO en ejecución en el puerto " + PUERTO + ". Esperando clientes...");
+                servidor.atender();
+            } else {
+                Servidor servidor = new Servidor(PUERTO, MAX_CONEXIONES);
+                System.out.println("Servidor en ejecución en el puerto " + PUERTO + ". Esperando clientes...");
+                servidor.atender();
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -17,7 +97,13 @@ public class Servidor {
     }
 }
 
+/**
+ * Atiende una sesión: lee tramas y responde hasta que el cliente cierra la conexión.
+ * Cada solicitud se atiende en su propio hilo virtual (hasta Servidor.MAX_EN_VUELO por
+ * sesión) y su respuesta se escribe en cuanto está lista, con el id de la solicitud.
+ */
 class ManejadorCliente implements Runnable {
+    private static final Despachador DESPACHADOR = new Despachador();
     private Socket socket;
     
     public ManejadorCliente(Socket socket) {
@@ -26,17 +112,57 @@ class ManejadorCliente implements Runnable {
 
     @Override
     public void run() {
-        try (ObjectInputStream entrada = new ObjectInputStream(socket.getInputStream());
-             ObjectOutputStream salida = new ObjectOutputStream(socket.getOutputStream())) {
-
-            Object solicitud = entrada.readObject();
-            System.out.println("Solicitud recibida: " + solicitud);
-
-            // Aquí podrías instanciar los gestores de negocio
-            salida.writeObject("Servidor recibió: " + solicitud);
+        try (Socket s = socket; ExecutorService solicitudes = Executors.newVirtualThreadPerTaskExecutor()) {
+            s.setTcpNoDelay(true);
+            s.setSoTimeout(Servidor.INACTIVIDAD_MS);
+            Protocolo.LectorTramas entrada = new Protocolo.LectorTramas(new BufferedInputStream(s.getInputStream()));
+            OutputStream salida = new BufferedOutputStream(s.getOutputStream());
+            Semaphore enVuelo = new Semaphore(Servidor.MAX_EN_VUELO);
+            // Las tramas que el servidor envía por su cuenta (suscripciones) cuentan como actividad
+            AtomicLong ultimaEscritura = new AtomicLong();
 
+            while (true) {
+                Mensaje solicitud;
+                try {
+                    solicitud = entrada.leer();
+                } catch (SocketTimeoutException e) {
+                    // A mitad de una trama el cliente dejó de enviar todo el plazo: se cierra
+                    if (entrada.enTrama()) break;
+                    if (enVuelo.availablePermits() < Servidor.MAX_EN_VUELO
+                            || System.currentTimeMillis() - ultimaEscritura.get() < Servidor.INACTIVIDAD_MS) continue;
+                    break;
+                }
+                if (solicitud == null) {
+                    break;
+                }
+                // Si hay demasiadas en vuelo se deja de leer y TCP frena al cliente
+                enVuelo.acquire();
+                solicitudes.execute(() -> {
+                    try {
+                        // Un flujo escribe trama por trama: si el cliente lee lento, el
+                        // write bloquea este hilo y el comando deja de avanzar en la BD
+                        DESPACHADOR.atender(solicitud, this, trama -> {
+                            try {
+                                synchronized (salida) {
+                                    Protocolo.escribir(salida, trama);
+                                    salida.flush();
+                                }
+                                ultimaEscritura.set(System.currentTimeMillis());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    } catch (UncheckedIOException e) {
+                        // El cliente cerró la conexión; el bucle de lectura terminará
+                    } finally {
+                        enVuelo.release();
+                    }
+                });
+            }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            DESPACHADOR.getEnrutador().liberarConexion(this);
         }
     }
 }
@@ -0,0 +1,358 @@
+package servidor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Frente de red no bloqueante para el servidor de inspecciones. Un grupo pequeño de
+ * bucles de eventos (uno por Selector) atiende la aceptación, lectura y escritura de todas
+ * las conexiones; las tramas completas se entregan a los trabajadores, que ejecutan el
+ * Despachador y devuelven la respuesta al bucle dueño de la conexión.
+ *
+ * Cada bucle tiene un único búfer directo de lectura que reutilizan todas sus conexiones.
+ * Una conexión inactiva solo guarda los bytes de una trama a medias, por lo que miles de
+ * conexiones ocupan muy poca memoria. Una conexión con Servidor.MAX_EN_VUELO solicitudes en
+ * vuelo y más esperando deja de leerse hasta que termine alguna, igual que en el servidor
+ * bloqueante: TCP frena al cliente en lugar de acumular sus tramas en memoria.
+ */
+public class ServidorNio implements Closeable {
+    /** Tamaño del búfer directo de lectura de cada bucle. Tramas mayores se leen aparte. */
+    private static final int TAMANO_LECTURA = 64 * 1024;
+    /** Tramas pendientes de escribir por conexión antes de frenar a los trabajadores. */
+    private static final int CREDITOS_ESCRITURA = 16;
+
+    private final ServerSocketChannel canalServidor;
+    private final BucleEventos[] bucles;
+    private final ExecutorService trabajadores;
+    private final Despachador despachador;
+    private final int maxConexiones;
+    private final AtomicInteger conexiones = new AtomicInteger();
+    private int siguienteBucle;
+    private volatile boolean activo = true;
+
+    public ServidorNio(int puerto, int cantidadBucles, ExecutorService trabajadores, Despachador despachador,
+            int maxConexiones) throws IOException {
+        this.trabajadores = trabajadores;
+        this.despachador = despachador;
+        this.maxConexiones = maxConexiones;
+        this.canalServidor = ServerSocketChannel.open();
+        this.canalServidor.bind(new InetSocketAddress(puerto), 1024);
+        this.canalServidor.configureBlocking(false);
+        this.bucles = new BucleEventos[Math.max(1, cantidadBucles)];
+        for (int i = 0; i < bucles.length; i++) {
+            bucles[i] = new BucleEventos(i);
+        }
+        canalServidor.register(bucles[0].selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPuerto() {
+        return canalServidor.socket().getLocalPort();
+    }
+
+    public int getConexiones() {
+        return conexiones.get();
+    }
+
+    /**
+     * Arranca los bucles secundarios y ejecuta el primero (el que acepta) en el hilo actual.
+     */
+    public void atender() {
+        for (int i = 1; i < bucles.length; i++) {
+            Thread hilo = new Thread(bucles[i], "nio-bucle-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+        bucles[0].run();
+    }
+
+    @Override
+    public void close() throws IOException {
+        activo = false;
+        canalServidor.close();
+        for (BucleEventos bucle : bucles) {
+            bucle.selector.wakeup();
+        }
+    }
+
+    /**
+     * Estado de una conexión. Solo lo toca el hilo de su bucle.
+     */
+    private static class Conexion {
+        final SocketChannel canal;
+        SelectionKey clave;
+        /** Bytes de una trama incompleta, en modo lectura, o null. */
+        ByteBuffer resto;
+        /** Trama que no cabe en el búfer compartido, en modo escritura, o null. */
+        ByteBuffer grande;
+        final ArrayDeque<Mensaje> solicitudes = new ArrayDeque<>(2);
+        final ArrayDeque<ByteBuffer> porEscribir = new ArrayDeque<>(2);
+        int enVuelo;
+        /** Tramas que los trabajadores pueden dejar en porEscribir antes de esperar. */
+        final Semaphore creditos = new Semaphore(CREDITOS_ESCRITURA);
+        long ultimaActividad = System.currentTimeMillis();
+
+        Conexion(SocketChannel canal) {
+            this.canal = canal;
+        }
+    }
+
+    private class BucleEventos implements Runnable {
+        final int numero;
+        final Selector selector;
+        final ByteBuffer lectura = ByteBuffer.allocateDirect(TAMANO_LECTURA);
+        final ConcurrentLinkedQueue<Runnable> tareas = new ConcurrentLinkedQueue<>();
+
+        BucleEventos(int numero) throws IOException {
+            this.numero = numero;
+            this.selector = Selector.open();
+        }
+
+        void encolar(Runnable tarea) {
+            tareas.add(tarea);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long ultimaRevision = System.currentTimeMillis();
+            try {
+                while (activo) {
+                    selector.select(1000);
+                    Runnable tarea;
+                    while ((tarea = tareas.poll()) != null) {
+                        tarea.run();
+                    }
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey clave = it.next();
+                        it.remove();
+                        procesar(clave);
+                    }
+                    long ahora = System.currentTimeMillis();
+                    if (Servidor.INACTIVIDAD_MS > 0 && ahora - ultimaRevision >= 1000) {
+                        cerrarInactivas(ahora);
+                        ultimaRevision = ahora;
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (activo) e.printStackTrace();
+            } finally {
+                for (SelectionKey clave : selector.keys()) {
+                    if (clave.attachment() instanceof Conexion c) cerrar(c);
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void procesar(SelectionKey clave) {
+            if (!clave.isValid()) return;
+            if (clave.isAcceptable()) {
+                aceptar();
+                return;
+            }
+            Conexion c = (Conexion) clave.attachment();
+            try {
+                if (clave.isReadable()) leer(c);
+                if (clave.isValid() && clave.isWritable()) vaciar(c);
+            } catch (IOException e) {
+                cerrar(c);
+            }
+        }
+
+        private void aceptar() {
+            try {
+                SocketChannel canal;
+                while ((canal = canalServidor.accept()) != null) {
+                    if (conexiones.incrementAndGet() > maxConexiones) {
+                        conexiones.decrementAndGet();
+                        canal.close();
+                        continue;
+                    }
+                    canal.configureBlocking(false);
+                    canal.socket().setTcpNoDelay(true);
+                    BucleEventos destino = bucles[siguienteBucle++ % bucles.length];
+                    SocketChannel aceptado = canal;
+                    destino.encolar(() -> destino.registrar(aceptado));
+                }
+            } catch (IOException e) {
+                if (activo) e.printStackTrace();
+            }
+        }
+
+        void registrar(SocketChannel canal) {
+            Conexion c = new Conexion(canal);
+            try {
+                c.clave = canal.register(selector, SelectionKey.OP_READ, c);
+            } catch (IOException e) {
+                cerrar(c);
+            }
+        }
+
+        private void leer(Conexion c) throws IOException {
+            c.ultimaActividad = System.currentTimeMillis();
+            if (c.grande != null) {
+                if (c.canal.read(c.grande) < 0) throw new IOException("Conexión cerrada");
+                if (!c.grande.hasRemaining()) {
+                    c.grande.flip();
+                    c.solicitudes.add(Protocolo.extraer(c.grande));
+                    c.grande = null;
+                    despacharSiguiente(c);
+                    actualizarInteres(c);
+                }
+                return;
+            }
+            ByteBuffer buf = lectura;
+            buf.clear();
+            if (c.resto != null) {
+                buf.put(c.resto);
+                c.resto = null;
+            }
+            int leidos = c.canal.read(buf);
+            buf.flip();
+            Mensaje m;
+            while ((m = Protocolo.extraer(buf)) != null) {
+                // El búfer se reutiliza en la siguiente lectura: el cuerpo se copia para el trabajador
+                ByteBuffer cuerpo = ByteBuffer.allocate(m.getCuerpo().remaining()).put(m.getCuerpo()).flip();
+                c.solicitudes.add(new Mensaje(m.getVersion(), m.getTipo(), m.getIdSolicitud(), cuerpo));
+            }
+            if (buf.hasRemaining()) {
+                int longitud = buf.remaining() >= 4 ? buf.getInt(buf.position()) : 0;
+                if (longitud + 4 > buf.capacity()) {
+                    c.grande = ByteBuffer.allocate(longitud + 4).put(buf);
+                } else {
+                    c.resto = ByteBuffer.allocate(buf.remaining()).put(buf).flip();
+                }
+            }
+            if (leidos < 0) throw new IOException("Conexión cerrada");
+            despacharSiguiente(c);
+            actualizarInteres(c);
+        }
+
+        /**
+         * Envía a los trabajadores las solicitudes pendientes de la conexión, hasta
+         * Servidor.MAX_EN_VUELO a la vez. Las respuestas salen en el orden en que terminan;
+         * el cliente las empareja por id de solicitud.
+         */
+        private void despacharSiguiente(Conexion c) {
+            while (c.enVuelo < Servidor.MAX_EN_VUELO && !c.solicitudes.isEmpty()) {
+                Mensaje solicitud = c.solicitudes.poll();
+                c.enVuelo++;
+                trabajadores.execute(() -> {
+                    try {
+                        despachador.atender(solicitud, c, trama -> {
+                            esperarCredito(c);
+                            encolar(() -> responder(c, trama));
+                        });
+                    } catch (UncheckedIOException e) {
+                        // La conexión se cerró a mitad de un flujo
+                    }
+                    encolar(() -> terminarSolicitud(c));
+                });
+            }
+        }
+
+        /**
+         * Un comando en flujo produce más rápido de lo que el cliente lee: cada trama toma un
+         * crédito que se devuelve cuando termina de escribirse en el socket, y sin créditos el
+         * trabajador espera en lugar de acumular tramas en memoria.
+         */
+        private void esperarCredito(Conexion c) {
+            if (!c.canal.isOpen()) throw new UncheckedIOException(new IOException("Conexión cerrada"));
+            try {
+                while (!c.creditos.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    if (!c.canal.isOpen()) throw new UncheckedIOException(new IOException("Conexión cerrada"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Escritura interrumpida"));
+            }
+        }
+
+        private void responder(Conexion c, ByteBuffer respuesta) {
+            if (!c.canal.isOpen()) return;
+            // Las tramas enviadas por iniciativa del servidor (suscripciones) también mantienen viva la conexión
+            c.ultimaActividad = System.currentTimeMillis();
+            c.porEscribir.add(respuesta);
+            try {
+                vaciar(c);
+            } catch (IOException e) {
+                cerrar(c);
+            }
+        }
+
+        private void terminarSolicitud(Conexion c) {
+            c.enVuelo--;
+            if (c.canal.isOpen()) {
+                despacharSiguiente(c);
+                actualizarInteres(c);
+            }
+        }
+
+        /**
+         * Lee solo si no quedan solicitudes esperando cupo de vuelo, y espera poder escribir
+         * mientras haya tramas pendientes.
+         */
+        private void actualizarInteres(Conexion c) {
+            if (!c.clave.isValid()) return;
+            int interes = c.solicitudes.isEmpty() ? SelectionKey.OP_READ : 0;
+            if (!c.porEscribir.isEmpty()) interes |= SelectionKey.OP_WRITE;
+            c.clave.interestOps(interes);
+        }
+
+        private void vaciar(Conexion c) throws IOException {
+            while (!c.porEscribir.isEmpty()) {
+                ByteBuffer b = c.porEscribir.peek();
+                c.canal.write(b);
+                if (b.hasRemaining()) {
+                    break;
+                }
+                c.porEscribir.poll();
+                c.creditos.release();
+            }
+            actualizarInteres(c);
+        }
+
+        private void cerrarInactivas(long ahora) {
+            for (SelectionKey clave : selector.keys()) {
+                if (clave.attachment() instanceof Conexion c && c.enVuelo == 0
+                        && ahora - c.ultimaActividad > Servidor.INACTIVIDAD_MS) {
+                    cerrar(c);
+                }
+            }
+        }
+
+        private void cerrar(Conexion c) {
+            if (!c.canal.isOpen()) return;
+            if (c.clave != null) c.clave.cancel();
+            c.creditos.release(c.porEscribir.size());
+            c.porEscribir.clear();
+            try {
+                c.canal.close();
+            } catch (IOException e) {
+                // La conexión ya no se usa
+            }
+            conexiones.decrementAndGet();
+            despachador.getEnrutador().liberarConexion(c);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import dao.AlertaDAO;
+import dao.InspeccionFitosanitariaDAO;
+import dao.ProductorDAO;
+import dao.Registro;
+import model.InspeccionFitosanitaria;
+import model.Productor;
+import negocio.inspecciones.GestorInspecciones;
+import negocio.usuarios.GestorProductores;
+import negocio.usuarios.GestorPropietarios;
+import presentacion.CredentialStore;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Micro-benchmarks de las capas DAO y de negocio: armado de objetos desde un ResultSet
+ * (construirInspeccion, construirAlerta), búsquedas de los gestores, expresiones de
+ * validación y CredentialStore. Cada operación se calienta y luego se mide en varias
+ * rondas; los resultados se guardan en JSON junto con el commit, para comparar una
+ * corrida con otra y ver regresiones.
+ *
+ * No requiere base de datos: las filas salen de un ResultSet en memoria y el ProductorDAO
+ * se reemplaza en el Registro por uno que lista productores sintéticos.
+ *
+ * Uso: java BenchmarkCapas [salida.json] [anterior.json]
+ * Con anterior.json imprime además la variación de cada operación respecto de esa corrida.
+ */
+public class BenchmarkCapas {
+
+    private static final long CALENTAMIENTO_NS = 500_000_000L;
+    private static final int RONDAS = 5;
+    private static final long RONDA_NS = 200_000_000L;
+    /**
+     * Variación de la media a partir de la cual una operación se marca como más lenta, si
+     * además su mejor ronda fue más lenta que la peor de la corrida anterior.
+     */
+    private static final double UMBRAL_REGRESION = 0.10;
+    private static final int INSPECCIONES = 10_000;
+    private static final int PRODUCTORES = 5_000;
+
+    private static volatile Object sumidero;
+
+    private interface Operacion {
+        Object ejecutar() throws Exception;
+    }
+
+    private static final class Resultado {
+        final String nombre;
+        final double nsPorOp, minimo, maximo;
+        final long operaciones;
+
+        Resultado(String nombre, double nsPorOp, double minimo, double maximo, long operaciones) {
+            this.nombre = nombre;
+            this.nsPorOp = nsPorOp;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.operaciones = operaciones;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String salida = args.length > 0 ? args[0] : "benchmark-capas.json";
+        String anterior = args.length > 1 ? args[1] : null;
+        System.out.println("=== BENCHMARK CAPAS DAO Y NEGOCIO ===\n");
+        List<Resultado> resultados = new ArrayList<>();
+        Random rnd = new Random(42);
+
+        // Armado de objetos desde una fila
+        Method construirInspeccion = privado(InspeccionFitosanitariaDAO.class, "construirInspeccion", ResultSet.class);
+        Method construirAlerta = privado(AlertaDAO.class, "construirAlerta", ResultSet.class);
+        InspeccionFitosanitariaDAO inspeccionDAO = new InspeccionFitosanitariaDAO();
+        AlertaDAO alertaDAO = new AlertaDAO();
+        Map<String, Object> filaInspeccion = new HashMap<>();
+        filaInspeccion.put("id", "INS-1");
+        filaInspeccion.put("codigo_ica", "ICA-000123");
+        filaInspeccion.put("fecha_inspeccion", java.sql.Date.valueOf(LocalDate.of(2024, 5, 17)));
+        filaInspeccion.put("id_asistente_tecnico", "AT-9");
+        filaInspeccion.put("nombre_asistente", "Ana Gómez");
+        ResultSet rsInspeccion = filaEnMemoria(filaInspeccion);
+        Map<String, Object> filaAlerta = new HashMap<>();
+        filaAlerta.put("id", "AL-1");
+        filaAlerta.put("nivel_riesgo", "Alto");
+        filaAlerta.put("id_informe", "INF-4");
+        filaAlerta.put("codigo_ica", "ICA-000123");
+        filaAlerta.put("nivel_incidencia", 0.37);
+        filaAlerta.put("fecha_informe", java.sql.Date.valueOf(LocalDate.of(2024, 5, 20)));
+        ResultSet rsAlerta = filaEnMemoria(filaAlerta);
+        resultados.add(medir("InspeccionFitosanitariaDAO.construirInspeccion", () -> invocar(construirInspeccion, inspeccionDAO, rsInspeccion)));
+        resultados.add(medir("AlertaDAO.construirAlerta", () -> invocar(construirAlerta, alertaDAO, rsAlerta)));
+
+        // Búsquedas de los gestores
+        GestorInspecciones gestorInspecciones = new GestorInspecciones();
+        for (int i = 0; i < INSPECCIONES; i++) {
+            InspeccionFitosanitaria inspeccion = new InspeccionFitosanitaria();
+            inspeccion.setId("INS-" + i);
+            inspeccion.setFechaInspeccion(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            gestorInspecciones.registrarInspeccion(inspeccion);
+        }
+        String[] idsInspeccion = new String[1024];
+        for (int i = 0; i < idsInspeccion.length; i++) idsInspeccion[i] = "INS-" + rnd.nextInt(INSPECCIONES);
+        int[] turno = { 0 };
+        resultados.add(medir("GestorInspecciones.consultarInspeccion (" + INSPECCIONES + ")",
+                () -> gestorInspecciones.consultarInspeccion(idsInspeccion[turno[0]++ & 1023])));
+
+        List<Productor> productores = new ArrayList<>();
+        String[] nombres = { "María", "José", "Luis", "Carmen", "Pedro", "Lucía", "Andrés", "Rosa" };
+        String[] apellidos = { "Pérez", "Gómez", "Rodríguez", "López", "Martínez", "Díaz", "Torres", "Ramírez" };
+        for (int i = 0; i < PRODUCTORES; i++) {
+            Productor p = new Productor();
+            p.setId("PR-" + i);
+            p.setNombre(nombres[rnd.nextInt(nombres.length)] + " " + apellidos[rnd.nextInt(apellidos.length)] + " " + i);
+            productores.add(p);
+        }
+        // El gestor toma su DAO del Registro: se registra antes uno que lista en memoria
+        Registro.obtener(ProductorDAO.class, () -> new ProductorDAO() {
+            @Override
+            public List<Productor> listar() {
+                return new ArrayList<>(productores);
+            }
+        });
+        GestorProductores gestorProductores = new GestorProductores();
+        resultados.add(medir("GestorProductores.buscarPorNombre (" + PRODUCTORES + ")",
+                () -> gestorProductores.buscarPorNombre(apellidos[turno[0]++ & 7])));
+
+        // Expresiones de validación
+        Method emailProductor = privado(GestorProductores.class, "validarFormatoEmail", String.class);
+        Method telefonoProductor = privado(GestorProductores.class, "validarFormatoTelefono", String.class);
+        Method emailPropietario = privado(GestorPropietarios.class, "validarFormatoEmail", String.class);
+        GestorPropietarios gestorPropietarios = new GestorPropietarios();
+        String[] correos = { "ana.gomez@ica.gov.co", "sin-arroba.com", "luis_perez+finca@correo.com.co", "x@y" };
+        String[] telefonos = { "(601) 555-1234", "3001234567", "12ab", "601 555 12 34 56 78" };
+        resultados.add(medir("GestorProductores.validarFormatoEmail",
+                () -> invocar(emailProductor, gestorProductores, correos[turno[0]++ & 3])));
+        resultados.add(medir("GestorProductores.validarFormatoTelefono",
+                () -> invocar(telefonoProductor, gestorProductores, telefonos[turno[0]++ & 3])));
+        resultados.add(medir("GestorPropietarios.validarFormatoEmail",
+                () -> invocar(emailPropietario, gestorPropietarios, correos[turno[0]++ & 3])));
+        // Referencia: la misma expresión compilada una sola vez
+        Pattern email = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+        resultados.add(medir("Pattern precompilado (email, referencia)",
+                () -> email.matcher(correos[turno[0]++ & 3]).matches()));
+
+        // CredentialStore: lee credentials.properties del directorio actual
+        CredentialStore credenciales = new CredentialStore();
+        resultados.add(medir("CredentialStore.validate", () -> credenciales.validate("admin", "clave")));
+        resultados.add(medir("CredentialStore.getRole", () -> credenciales.getRole("admin")));
+        resultados.add(medir("CredentialStore.existsUser", () -> credenciales.existsUser("admin")));
+        // saveCredential reescribe el archivo; solo se mide si no hay uno real que pisar
+        File archivo = new File("credentials.properties");
+        if (!archivo.exists()) {
+            try {
+                resultados.add(medir("CredentialStore.saveCredential",
+                        () -> { credenciales.saveCredential("bench" + (turno[0]++ & 63), "clave", "ADMIN"); return null; }));
+            } finally {
+                archivo.delete();
+            }
+        } else {
+            System.out.println("(saveCredential omitido: ya existe credentials.properties)");
+        }
+
+        String json = aJson(resultados);
+        Files.write(Path.of(salida), json.getBytes(StandardCharsets.UTF_8));
+        System.out.println("\nResultados guardados en " + salida);
+        if (anterior != null) {
+            comparar(resultados, Path.of(anterior));
+        }
+        System.out.println("\n=== BENCHMARK COMPLETADO ===");
+    }
+
+    private static Method privado(Class<?> clase, String nombre, Class<?>... parametros) throws NoSuchMethodException {
+        Method m = clase.getDeclaredMethod(nombre, parametros);
+        m.setAccessible(true);
+        return m;
+    }
+
+    private static Object invocar(Method m, Object destino, Object argumento) throws Exception {
+        try {
+            return m.invoke(destino, argumento);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    /**
+     * ResultSet de una sola fila con los valores indicados, para armar objetos sin BD.
+     */
+    private static ResultSet filaEnMemoria(Map<String, Object> columnas) {
+        Object[] ultimo = { null };
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (propio, metodo, args) -> {
+                    String nombre = metodo.getName();
+                    if (nombre.equals("wasNull")) return ultimo[0] == null;
+                    if (nombre.equals("next")) return true;
+                    if (nombre.equals("close")) return null;
+                    if (!nombre.startsWith("get") || args == null || !(args[0] instanceof String)) {
+                        throw new UnsupportedOperationException(nombre);
+                    }
+                    Object valor = columnas.get((String) args[0]);
+                    ultimo[0] = valor;
+                    switch (nombre) {
+                        case "getString": return valor != null ? valor.toString() : null;
+                        case "getDouble": return valor != null ? ((Number) valor).doubleValue() : 0.0;
+                        case "getInt": return valor != null ? ((Number) valor).intValue() : 0;
+                        case "getLong": return valor != null ? ((Number) valor).longValue() : 0L;
+                        default: return valor;
+                    }
+                });
+    }
+
+    /**
+     * Calienta la operación y la mide en RONDAS rondas de RONDA_NS; devuelve la media de
+     * nanosegundos por operación y la mejor y peor ronda.
+     */
+    private static Resultado medir(String nombre, Operacion op) throws Exception {
+        correrDurante(op, CALENTAMIENTO_NS);
+        double suma = 0, minimo = Double.MAX_VALUE, maximo = 0;
+        long total = 0;
+        for (int r = 0; r < RONDAS; r++) {
+            long inicio = System.nanoTime();
+            long n = correrDurante(op, RONDA_NS);
+            double nsPorOp = (System.nanoTime() - inicio) / (double) n;
+            suma += nsPorOp;
+            minimo = Math.min(minimo, nsPorOp);
+            maximo = Math.max(maximo, nsPorOp);
+            total += n;
+        }
+        Resultado resultado = new Resultado(nombre, suma / RONDAS, minimo, maximo, total);
+        System.out.printf("%-52s %12.1f ns/op  (mín %.1f, máx %.1f)%n", nombre, resultado.nsPorOp, minimo, maximo);
+        return resultado;
+    }
+
+    private static long correrDurante(Operacion op, long duracionNs) throws Exception {
+        long fin = System.nanoTime() + duracionNs;
+        long n = 0;
+        do {
+            for (int i = 0; i < 64; i++) {
+                sumidero = op.ejecutar();
+            }
+            n += 64;
+        } while (System.nanoTime() < fin);
+        return n;
+    }
+
+    private static String aJson(List<Resultado> resultados) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"commit\": \"").append(escapar(commitActual())).append("\",\n");
+        sb.append("  \"fecha\": \"").append(Instant.now()).append("\",\n");
+        sb.append("  \"java\": \"").append(escapar(System.getProperty("java.version"))).append("\",\n");
+        sb.append("  \"resultados\": [\n");
+        for (int i = 0; i < resultados.size(); i++) {
+            Resultado r = resultados.get(i);
+            // Un resultado por línea, para que comparar pueda leerlos sin un parser de JSON
+            sb.append(String.format(java.util.Locale.ROOT,
+                    "    {\"nombre\": \"%s\", \"nsPorOp\": %.2f, \"minimo\": %.2f, \"maximo\": %.2f, \"operaciones\": %d}",
+                    escapar(r.nombre), r.nsPorOp, r.minimo, r.maximo, r.operaciones));
+            sb.append(i < resultados.size() - 1 ? ",\n" : "\n");
+        }
+        sb.append("  ]\n}\n");
+        return sb.toString();
+    }
+
+    private static String escapar(String texto) {
+        return texto.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String commitActual() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(git.getInputStream()))) {
+                String linea = in.readLine();
+                return git.waitFor() == 0 && linea != null ? linea.trim() : "desconocido";
+            }
+        } catch (Exception e) {
+            return "desconocido";
+        }
+    }
+
+    private static void comparar(List<Resultado> actuales, Path anterior) throws Exception {
+        Pattern linea = Pattern.compile("\"nombre\": \"((?:[^\"\\\\]|\\\\.)*)\", \"nsPorOp\": ([0-9.]+), "
+                + "\"minimo\": ([0-9.]+), \"maximo\": ([0-9.]+)");
+        Map<String, double[]> previos = new HashMap<>();
+        for (String l : Files.readAllLines(anterior, StandardCharsets.UTF_8)) {
+            Matcher m = linea.matcher(l);
+            if (m.find()) {
+                previos.put(m.group(1).replace("\\\"", "\"").replace("\\\\", "\\"), new double[] {
+                        Double.parseDouble(m.group(2)), Double.parseDouble(m.group(4)) });
+            }
+        }
+        System.out.println("\nComparación con " + anterior + ":");
+        int regresiones = 0;
+        for (Resultado r : actuales) {
+            double[] previo = previos.get(r.nombre);
+            if (previo == null) {
+                System.out.printf("%-52s %12s%n", r.nombre, "(nuevo)");
+                continue;
+            }
+            double variacion = (r.nsPorOp - previo[0]) / previo[0];
+            boolean regresion = variacion > UMBRAL_REGRESION && r.minimo > previo[1];
+            if (regresion) regresiones++;
+            System.out.printf("%-52s %+11.1f%%  %s%n", r.nombre, variacion * 100, regresion ? "❌ más lento" : "✅");
+        }
+        System.out.println(regresiones == 0 ? "\nSin regresiones ✅" : "\nOperaciones más lentas: " + regresiones + " ❌");
+    }
+}
@@ -0,0 +1,108 @@
+import model.Predio;
+import negocio.predios.IndiceEspacialPredios;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark del índice espacial de predios con 1.000.000 de predios sintéticos
+ * distribuidos sobre el territorio colombiano. Compara cada tipo de consulta contra
+ * un recorrido completo de la lista (lo que hoy implica PredioDAO.listar()).
+ * No requiere conexión a base de datos. Ejecutar con -Xmx2g o más.
+ */
+public class BenchmarkIndiceEspacial {
+
+    private static final int TOTAL_PREDIOS = 1_000_000;
+    private static final int CONSULTAS = 2_000;
+    private static final double LAT_MIN = -4.2, LAT_MAX = 12.5;
+    private static final double LON_MIN = -79.0, LON_MAX = -66.8;
+
+    public static void main(String[] args) {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : TOTAL_PREDIOS;
+        System.out.println("=== BENCHMARK ÍNDICE ESPACIAL (" + total + " predios) ===\n");
+
+        Random rnd = new Random(42);
+        List<Predio> predios = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            Predio p = new Predio();
+            p.setId("P" + i);
+            p.setLatitud(LAT_MIN + rnd.nextDouble() * (LAT_MAX - LAT_MIN));
+            p.setLongitud(LON_MIN + rnd.nextDouble() * (LON_MAX - LON_MIN));
+            predios.add(p);
+        }
+
+        long t0 = System.nanoTime();
+        IndiceEspacialPredios indice = new IndiceEspacialPredios();
+        indice.agregarTodos(predios);
+        System.out.printf("Construcción del índice: %.1f ms%n%n", (System.nanoTime() - t0) / 1e6);
+
+        double[][] puntos = new double[CONSULTAS][2];
+        for (int i = 0; i < CONSULTAS; i++) {
+            puntos[i][0] = LAT_MIN + rnd.nextDouble() * (LAT_MAX - LAT_MIN);
+            puntos[i][1] = LON_MIN + rnd.nextDouble() * (LON_MAX - LON_MIN);
+        }
+
+        // Calentamiento del JIT
+        for (int i = 0; i < CONSULTAS; i++) {
+            indice.buscarEnRadio(puntos[i][0], puntos[i][1], 5);
+            indice.buscarMasCercanos(puntos[i][0], puntos[i][1], 10);
+        }
+
+        long encontrados = 0;
+        t0 = System.nanoTime();
+        for (double[] p : puntos) {
+            encontrados += indice.buscarEnRadio(p[0], p[1], 5).size();
+        }
+        reportar("Radio 5 km (índice)", t0, CONSULTAS, encontrados);
+
+        encontrados = 0;
+        t0 = System.nanoTime();
+        for (double[] p : puntos) {
+            encontrados += indice.buscarEnRectangulo(p[0] - 0.1, p[1] - 0.1, p[0] + 0.1, p[1] + 0.1).size();
+        }
+        reportar("Rectángulo 0.2° (índice)", t0, CONSULTAS, encontrados);
+
+        encontrados = 0;
+        t0 = System.nanoTime();
+        for (double[] p : puntos) {
+            encontrados += indice.buscarMasCercanos(p[0], p[1], 10).size();
+        }
+        reportar("10 más cercanos (índice)", t0, CONSULTAS, encontrados);
+
+        // Línea base: recorrido completo, con menos consultas porque cada una recorre todo
+        int consultasBase = 20;
+        encontrados = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < consultasBase; i++) {
+            for (Predio p : predios) {
+                if (IndiceEspacialPredios.distanciaKm(puntos[i][0], puntos[i][1], p.getLatitud(), p.getLongitud()) <= 5) {
+                    encontrados++;
+                }
+            }
+        }
+        reportar("Radio 5 km (recorrido completo)", t0, consultasBase, encontrados);
+
+        // Verificación de los k vecinos contra el recorrido completo
+        boolean correcto = true;
+        for (int i = 0; i < 5; i++) {
+            List<Predio> cercanos = indice.buscarMasCercanos(puntos[i][0], puntos[i][1], 10);
+            double peor = IndiceEspacialPredios.distanciaKm(puntos[i][0], puntos[i][1],
+                    cercanos.get(9).getLatitud(), cercanos.get(9).getLongitud());
+            int masCercanos = 0;
+            for (Predio p : predios) {
+                if (IndiceEspacialPredios.distanciaKm(puntos[i][0], puntos[i][1], p.getLatitud(), p.getLongitud()) < peor) {
+                    masCercanos++;
+                }
+            }
+            correcto &= masCercanos <= 9;
+        }
+        System.out.println("\nVerificación de k vecinos: " + (correcto ? "✅ ÉXITO" : "❌ ERROR"));
+        System.out.println("\n=== BENCHMARK COMPLETADO ===");
+    }
+
+    private static void reportar(String nombre, long inicio, int consultas, long encontrados) {
+        double totalMs = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("%-34s %9.3f ms/consulta  (%d resultados en promedio)%n",
+                nombre, totalMs / consultas, encontrados / consultas);
+    }
+}
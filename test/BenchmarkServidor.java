@@ -0,0 +1,128 @@
+import servidor.CodecModelo;
+import servidor.Despachador;
+import servidor.Protocolo;
+import servidor.Servidor;
+import servidor.ServidorNio;
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Compara el modo bloqueante (hilo virtual por sesión) con el modo NIO del servidor:
+ * memoria de heap por conexión abierta y latencia p50/p99 de solicitudes ECO mientras
+ * esas conexiones siguen abiertas. No requiere base de datos.
+ *
+ * Uso: java BenchmarkServidor [conexiones] [clientesActivos] [solicitudesPorCliente]
+ * Ejecutar con -Xmx1g o más y, para muchas conexiones, con ulimit -n alto.
+ */
+public class BenchmarkServidor {
+
+    public static void main(String[] args) throws Exception {
+        int conexiones = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int activos = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int solicitudes = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        System.out.println("=== BENCHMARK SERVIDOR (" + conexiones + " conexiones, "
+                + activos + " clientes activos) ===\n");
+        for (String modo : new String[] { "bloqueante", "nio", "bloqueante", "nio" }) {
+            medir(modo, conexiones, activos, solicitudes);
+        }
+        System.out.println("\n(Las dos primeras corridas sirven de calentamiento.)");
+        System.out.println("=== BENCHMARK COMPLETADO ===");
+    }
+
+    private static void medir(String modo, int conexiones, int activos, int solicitudes) throws Exception {
+        Closeable servidor;
+        int puerto;
+        Thread hilo;
+        if (modo.equals("nio")) {
+            ServidorNio nio = new ServidorNio(0, Servidor.BUCLES_NIO, Executors.newVirtualThreadPerTaskExecutor(),
+                    new Despachador(), Integer.MAX_VALUE);
+            servidor = nio;
+            puerto = nio.getPuerto();
+            hilo = new Thread(nio::atender);
+        } else {
+            Servidor bloqueante = new Servidor(0, Integer.MAX_VALUE);
+            servidor = bloqueante;
+            puerto = bloqueante.getPuerto();
+            hilo = new Thread(bloqueante::atender);
+        }
+        hilo.setDaemon(true);
+        hilo.start();
+
+        long heapAntes = heapUsado();
+        List<SocketChannel> abiertas = new ArrayList<>(conexiones);
+        for (int i = 0; i < conexiones; i++) {
+            SocketChannel canal = conectar(puerto);
+            eco(canal, "hola");
+            abiertas.add(canal);
+        }
+        long heapDespues = heapUsado();
+        double bytesPorConexion = Math.max(1, (heapDespues - heapAntes) / (double) conexiones);
+
+        long[] latencias = new long[activos * solicitudes];
+        ExecutorService clientes = Executors.newFixedThreadPool(activos);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int c = 0; c < activos; c++) {
+            int desde = c * solicitudes;
+            tareas.add(clientes.submit(() -> {
+                try (SocketChannel canal = conectar(puerto)) {
+                    for (int i = 0; i < solicitudes; i++) {
+                        long t0 = System.nanoTime();
+                        eco(canal, "solicitud " + i);
+                        latencias[desde + i] = System.nanoTime() - t0;
+                    }
+                }
+                return null;
+            }));
+        }
+        long t0 = System.nanoTime();
+        for (Future<?> f : tareas) f.get();
+        double segundos = (System.nanoTime() - t0) / 1e9;
+        clientes.shutdown();
+
+        Arrays.sort(latencias);
+        System.out.printf("%-10s heap/conexión: %6.1f KB (≈ %,d conexiones/GB)  p50: %6.1f µs  p99: %7.1f µs  %,.0f sol/s%n",
+                modo, bytesPorConexion / 1024, (long) (1024.0 * 1024 * 1024 / bytesPorConexion),
+                latencias[latencias.length / 2] / 1e3, latencias[(int) (latencias.length * 0.99)] / 1e3,
+                latencias.length / segundos);
+
+        for (SocketChannel canal : abiertas) canal.close();
+        servidor.close();
+        Thread.sleep(500);
+    }
+
+    private static SocketChannel conectar(int puerto) throws Exception {
+        SocketChannel canal = SocketChannel.open(new InetSocketAddress("localhost", puerto));
+        canal.socket().setTcpNoDelay(true);
+        return canal;
+    }
+
+    private static void eco(SocketChannel canal, String texto) throws Exception {
+        ByteBuffer trama = Protocolo.codificar(Protocolo.ECO, 1, b -> CodecModelo.escribirTexto(b, texto));
+        while (trama.hasRemaining()) canal.write(trama);
+        ByteBuffer cabecera = ByteBuffer.allocate(4);
+        while (cabecera.hasRemaining()) {
+            if (canal.read(cabecera) < 0) throw new IllegalStateException("Conexión cerrada");
+        }
+        ByteBuffer resto = ByteBuffer.allocate(cabecera.getInt(0));
+        while (resto.hasRemaining()) {
+            if (canal.read(resto) < 0) throw new IllegalStateException("Conexión cerrada");
+        }
+    }
+
+    private static long heapUsado() throws InterruptedException {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,243 @@
+import model.InspeccionFitosanitaria;
+import servidor.ClienteMultiplexado;
+import servidor.ClienteMultiplexado.ServidorOcupado;
+import servidor.Despachador;
+import servidor.HistogramaLatencia;
+import servidor.Servidor;
+import servidor.ServidorNio;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de lazo abierto para dimensionar el servidor. N clientes virtuales,
+ * cada uno con su propia conexión multiplexada, envían solicitudes a una tasa fija según un
+ * calendario, sin esperar las respuestas anteriores. La latencia se mide desde el instante
+ * en que la solicitud debía salir según el calendario y no desde que salió, de modo que si
+ * el servidor (o el propio generador) se atrasa, la espera también cuenta (sin omisión
+ * coordinada).
+ *
+ * Uso: java GeneradorCarga [clave=valor ...]
+ *   host=embebido      servidor NIO en el mismo proceso, o el nombre del equipo a probar
+ *   puerto=5000        puerto del servidor remoto
+ *   clientes=16        conexiones (clientes virtuales)
+ *   tasa=2000          solicitudes por segundo en total
+ *   duracion=30        segundos medidos
+ *   calentamiento=5    segundos iniciales que no se miden
+ *   mezcla=registrar:20,predio:60,alertas:20   pesos de cada operación
+ *
+ * Registrar inspección usa el gestor en memoria; consultar predio y listar alertas van a la
+ * BD configurada en ConexionBD, y si no está disponible se reportan como errores.
+ */
+public class GeneradorCarga {
+    private static final String[] OPERACIONES = { "registrar", "predio", "alertas" };
+
+    private final Map<String, HistogramaLatencia> latencias = new LinkedHashMap<>();
+    private final HistogramaLatencia total = new HistogramaLatencia();
+    private final Map<String, AtomicLong> errores = new HashMap<>();
+    private final AtomicLong ocupados = new AtomicLong();
+    private final AtomicLong enviadas = new AtomicLong();
+    private final AtomicLong retrasoMaximoNanos = new AtomicLong();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final int[] pesos;
+
+    private GeneradorCarga(int[] pesos) {
+        this.pesos = pesos;
+        for (String operacion : OPERACIONES) {
+            latencias.put(operacion, new HistogramaLatencia());
+            errores.put(operacion, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual > 0) opciones.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        String host = opciones.getOrDefault("host", "embebido");
+        int puerto = Integer.parseInt(opciones.getOrDefault("puerto", String.valueOf(Servidor.PUERTO)));
+        int clientes = Integer.parseInt(opciones.getOrDefault("clientes", "16"));
+        double tasa = Double.parseDouble(opciones.getOrDefault("tasa", "2000"));
+        int duracion = Integer.parseInt(opciones.getOrDefault("duracion", "30"));
+        int calentamiento = Integer.parseInt(opciones.getOrDefault("calentamiento", "5"));
+        int[] pesos = leerMezcla(opciones.getOrDefault("mezcla", "registrar:20,predio:60,alertas:20"));
+
+        ServidorNio embebido = null;
+        if (host.equals("embebido")) {
+            embebido = new ServidorNio(0, Servidor.BUCLES_NIO, Executors.newVirtualThreadPerTaskExecutor(),
+                    new Despachador(), Integer.MAX_VALUE);
+            Thread hilo = new Thread(embebido::atender, "servidor-embebido");
+            hilo.setDaemon(true);
+            hilo.start();
+            host = "localhost";
+            puerto = embebido.getPuerto();
+        }
+
+        System.out.println("=== GENERADOR DE CARGA ===");
+        System.out.printf("%s:%d  clientes=%d  tasa=%.0f/s  duración=%ds (+%ds de calentamiento)  mezcla=%s%n%n",
+                host, puerto, clientes, tasa, duracion, calentamiento, opciones.getOrDefault("mezcla", "registrar:20,predio:60,alertas:20"));
+
+        GeneradorCarga generador = new GeneradorCarga(pesos);
+        List<ClienteMultiplexado> conexiones = new ArrayList<>();
+        for (int i = 0; i < clientes; i++) {
+            conexiones.add(new ClienteMultiplexado(host, puerto));
+        }
+        long inicio = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long inicioMedicion = inicio + TimeUnit.SECONDS.toNanos(calentamiento);
+        long fin = inicioMedicion + TimeUnit.SECONDS.toNanos(duracion);
+        long periodo = (long) (1e9 * clientes / tasa);
+
+        List<CompletableFuture<?>> pendientes = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                ClienteMultiplexado cliente = conexiones.get(i);
+                // Los clientes se desfasan para no enviar todos en el mismo instante
+                long desfase = periodo * i / clientes;
+                pendientes.add(CompletableFuture.runAsync(
+                        () -> generador.ejecutar(cliente, inicio + desfase, periodo, inicioMedicion, fin), hilos));
+            }
+            CompletableFuture.allOf(pendientes.toArray(new CompletableFuture<?>[0])).join();
+        }
+        // Margen para las respuestas que aún están en vuelo
+        long limite = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < limite && conexiones.stream().anyMatch(c -> c.getPendientes() > 0)) {
+            Thread.sleep(50);
+        }
+        long sinRespuesta = conexiones.stream().mapToLong(ClienteMultiplexado::getPendientes).sum();
+
+        generador.reportar(tasa, duracion, sinRespuesta);
+        try {
+            System.out.println("\nMétricas del servidor:");
+            for (String linea : conexiones.get(0).metricas().get(5, TimeUnit.SECONDS)) {
+                if (linea.startsWith("comando.") || linea.contains("rechazadas") || linea.contains("limite")) {
+                    System.out.println("  " + linea);
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("  (no disponibles: " + e + ")");
+        }
+        for (ClienteMultiplexado c : conexiones) {
+            c.close();
+        }
+        if (embebido != null) {
+            embebido.close();
+        }
+        System.out.println("\n=== CARGA COMPLETADA ===");
+    }
+
+    /**
+     * Lazo de un cliente virtual: la solicitud k sale en primera + k * periodo, ocurra lo
+     * que ocurra con las anteriores.
+     */
+    private void ejecutar(ClienteMultiplexado cliente, long primera, long periodo, long inicioMedicion, long fin) {
+        for (long k = 0; ; k++) {
+            long programada = primera + k * periodo;
+            if (programada >= fin) return;
+            long espera;
+            while ((espera = programada - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            retrasoMaximoNanos.accumulateAndGet(System.nanoTime() - programada, Math::max);
+            String operacion = elegirOperacion();
+            boolean medir = programada >= inicioMedicion;
+            CompletableFuture<?> respuesta;
+            try {
+                respuesta = enviar(cliente, operacion);
+            } catch (RuntimeException e) {
+                if (medir) errores.get(operacion).incrementAndGet();
+                continue;
+            }
+            if (medir) enviadas.incrementAndGet();
+            respuesta.whenComplete((r, error) -> {
+                if (!medir) return;
+                long nanos = System.nanoTime() - programada;
+                if (error instanceof ServidorOcupado) {
+                    ocupados.incrementAndGet();
+                } else if (error != null) {
+                    errores.get(operacion).incrementAndGet();
+                } else {
+                    latencias.get(operacion).registrarNanos(nanos);
+                    total.registrarNanos(nanos);
+                }
+            });
+        }
+    }
+
+    private CompletableFuture<?> enviar(ClienteMultiplexado cliente, String operacion) {
+        switch (operacion) {
+            case "registrar":
+                long n = secuencia.incrementAndGet();
+                InspeccionFitosanitaria inspeccion = new InspeccionFitosanitaria();
+                inspeccion.setId("CARGA-" + n);
+                inspeccion.setCodigoIca("ICA-" + (n % 1000));
+                inspeccion.setFechaInspeccion(LocalDate.now());
+                inspeccion.setPredioId("P" + (n % 10_000));
+                inspeccion.setTecnico("generador");
+                inspeccion.setObservaciones("Inspección sintética del generador de carga");
+                return cliente.registrarInspeccion(inspeccion);
+            case "predio":
+                return cliente.consultarPredio("P" + ThreadLocalRandom.current().nextInt(10_000));
+            default:
+                return cliente.listarAlertasActivas();
+        }
+    }
+
+    private String elegirOperacion() {
+        int suma = 0;
+        for (int p : pesos) suma += p;
+        int r = ThreadLocalRandom.current().nextInt(suma);
+        for (int i = 0; i < pesos.length; i++) {
+            r -= pesos[i];
+            if (r < 0) return OPERACIONES[i];
+        }
+        return OPERACIONES[0];
+    }
+
+    private void reportar(double tasa, int duracion, long sinRespuesta) {
+        System.out.printf("Enviadas: %d (%.0f/s de %.0f/s programadas)  ocupado: %d  sin respuesta: %d  retraso máximo del generador: %.1f ms%n%n",
+                enviadas.get(), enviadas.get() / (double) duracion, tasa, ocupados.get(), sinRespuesta,
+                retrasoMaximoNanos.get() / 1e6);
+        System.out.printf("%-10s %9s %8s %9s %9s %9s %9s %9s %8s%n",
+                "operación", "atendidas", "por seg", "p50 µs", "p90 µs", "p99 µs", "p99.9 µs", "máx µs", "errores");
+        for (Map.Entry<String, HistogramaLatencia> e : latencias.entrySet()) {
+            fila(e.getKey(), e.getValue(), errores.get(e.getKey()).get(), duracion);
+        }
+        long todosErrores = errores.values().stream().mapToLong(AtomicLong::get).sum();
+        fila("total", total, todosErrores, duracion);
+    }
+
+    private static void fila(String nombre, HistogramaLatencia h, long errores, int duracion) {
+        System.out.printf("%-10s %9d %8.0f %9d %9d %9d %9d %9d %8d%n", nombre, h.getCuenta(),
+                h.getCuenta() / (double) duracion, h.percentilMicros(50), h.percentilMicros(90),
+                h.percentilMicros(99), h.percentilMicros(99.9), h.getMaximoMicros(), errores);
+    }
+
+    private static int[] leerMezcla(String mezcla) {
+        int[] pesos = new int[OPERACIONES.length];
+        for (String parte : mezcla.split(",")) {
+            String[] clavePeso = parte.split(":");
+            for (int i = 0; i < OPERACIONES.length; i++) {
+                if (OPERACIONES[i].equals(clavePeso[0].trim())) {
+                    pesos[i] = Integer.parseInt(clavePeso[1].trim());
+                }
+            }
+        }
+        int suma = 0;
+        for (int p : pesos) suma += p;
+        if (suma <= 0) {
+            throw new IllegalArgumentException("La mezcla debe tener al menos una operación con peso positivo: " + mezcla);
+        }
+        return pesos;
+    }
+}
@@ -0,0 +1,224 @@
+package dao;
+
+import model.Predio;
+import model.SesionCampo;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Verifica que una transacción fallida nunca deje la conexión del pool fijada a un hilo,
+ * aunque el rollback falle siempre o el error sea una RuntimeException. Usa un driver falso,
+ * así que no necesita BD. Está en el paquete dao para llegar a ConexionCompartida.
+ */
+public class PruebaTransaccionesPool {
+    private static final String URL = "jdbc:prueba-rollback";
+    private static volatile boolean rollbackFalla = true;
+    private static int fallos;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== PRUEBAS DE TRANSACCIONES SOBRE EL POOL ===\n");
+        PoolConexiones pool = new PoolConexiones(DriverFalso.class.getName(), URL, "u", "c", 4);
+        Connection conexion = ConexionCompartida.crear(pool);
+
+        testRollbackFallido(pool, conexion);
+        testExcepcionEnLotePredios(pool, conexion);
+        testExcepcionEnSesionCampo(pool, conexion);
+        testFallosRepetidosNoAgotanPool(pool, conexion);
+
+        System.out.println("\n=== PRUEBAS COMPLETADAS: " + (fallos == 0 ? "todas correctas" : fallos + " fallidas") + " ===");
+        if (fallos > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void testRollbackFallido(PoolConexiones pool, Connection conexion) throws SQLException {
+        System.out.println("TEST 1: rollback que siempre falla");
+        conexion.setAutoCommit(false);
+        conexion.prepareStatement("INSERT").close();
+        try {
+            conexion.rollback();
+            verificar(false, "el rollback debía fallar");
+        } catch (SQLException e) {
+            verificar(true, "el rollback falló: " + e.getMessage());
+        }
+        verificarLiberada(pool, conexion);
+    }
+
+    private static void testExcepcionEnLotePredios(PoolConexiones pool, Connection conexion) {
+        System.out.println("TEST 2: RuntimeException en PredioDAO.insertarLote");
+        PredioDAO dao = new PredioDAO();
+        dao.conexion = conexion;
+        try {
+            dao.insertarLote(Arrays.asList(new Predio(), null));
+            verificar(false, "insertarLote debía fallar con un predio nulo");
+        } catch (NullPointerException e) {
+            verificar(true, "se propagó la NullPointerException");
+        } catch (SQLException e) {
+            verificar(false, "se esperaba una RuntimeException, no " + e);
+        }
+        verificarLiberada(pool, conexion);
+    }
+
+    private static void testExcepcionEnSesionCampo(PoolConexiones pool, Connection conexion) {
+        System.out.println("TEST 3: RuntimeException en SesionCampoDAO.aplicar");
+        SesionCampoDAO dao = nuevaSesionCampoDAO(conexion);
+        SesionCampo sesion = new SesionCampo();
+        sesion.agregarInspeccion(null);
+        try {
+            dao.aplicar(sesion);
+            verificar(false, "aplicar debía fallar con una inspección nula");
+        } catch (NullPointerException e) {
+            verificar(true, "se propagó la NullPointerException");
+        }
+        verificarLiberada(pool, conexion);
+    }
+
+    private static void testFallosRepetidosNoAgotanPool(PoolConexiones pool, Connection conexion) throws Exception {
+        int intentos = pool.getTamanoMaximo() * 3;
+        System.out.println("TEST 4: " + intentos + " sesiones fallidas en hilos virtuales de corta vida");
+        SesionCampoDAO dao = nuevaSesionCampoDAO(conexion);
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < intentos; i++) {
+            hilos.add(Thread.ofVirtual().start(() -> {
+                SesionCampo sesion = new SesionCampo();
+                sesion.agregarInspeccion(null);
+                try {
+                    dao.aplicar(sesion);
+                } catch (NullPointerException e) {
+                    // esperado
+                }
+            }));
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        verificar(pool.getEnUso() == 0, "conexiones en uso tras los fallos: " + pool.getEnUso());
+        rollbackFalla = false;
+        try (PreparedStatement ps = conexion.prepareStatement("SELECT")) {
+            verificar(true, "el pool sigue entregando conexiones");
+        } catch (SQLException e) {
+            verificar(false, "el pool quedó agotado: " + e.getMessage());
+        }
+    }
+
+    private static SesionCampoDAO nuevaSesionCampoDAO(Connection conexion) {
+        InspeccionFitosanitariaDAO inspeccionDAO = new InspeccionFitosanitariaDAO();
+        ResultadoTecnicoDAO resultadoDAO = new ResultadoTecnicoDAO();
+        inspeccionDAO.conexion = conexion;
+        resultadoDAO.conexion = conexion;
+        SesionCampoDAO dao = new SesionCampoDAO(inspeccionDAO, resultadoDAO);
+        dao.conexion = conexion;
+        return dao;
+    }
+
+    private static void verificarLiberada(PoolConexiones pool, Connection conexion) {
+        try {
+            verificar(conexion.getAutoCommit(), "la conexión ya no está en transacción");
+        } catch (SQLException e) {
+            verificar(false, e.getMessage());
+        }
+        verificar(pool.getEnUso() == 0, "conexiones en uso: " + pool.getEnUso());
+        System.out.println();
+    }
+
+    private static void verificar(boolean condicion, String mensaje) {
+        if (condicion) {
+            System.out.println("✅ ÉXITO: " + mensaje);
+        } else {
+            fallos++;
+            System.out.println("❌ ERROR: " + mensaje);
+        }
+    }
+
+    /**
+     * Driver cuyas conexiones aceptan todo pero fallan en rollback mientras rollbackFalla.
+     */
+    public static class DriverFalso implements Driver {
+        static {
+            try {
+                DriverManager.registerDriver(new DriverFalso());
+            } catch (SQLException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) return null;
+            boolean[] autoCommit = { true };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                    (proxy, metodo, args) -> {
+                        switch (metodo.getName()) {
+                            case "getAutoCommit":
+                                return autoCommit[0];
+                            case "setAutoCommit":
+                                autoCommit[0] = (Boolean) args[0];
+                                return null;
+                            case "rollback":
+                                if (rollbackFalla) throw new SQLException("conexión perdida");
+                                return null;
+                            case "isValid":
+                                return true;
+                            case "prepareStatement":
+                                return sentencia();
+                            default:
+                                return valorVacio(metodo.getReturnType());
+                        }
+                    });
+        }
+
+        private static PreparedStatement sentencia() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    (proxy, metodo, args) -> metodo.getName().equals("executeBatch") ? new int[0]
+                            : valorVacio(metodo.getReturnType()));
+        }
+
+        private static Object valorVacio(Class<?> tipo) {
+            if (tipo == boolean.class) return false;
+            if (tipo == int.class) return 0;
+            if (tipo == long.class) return 0L;
+            return null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}